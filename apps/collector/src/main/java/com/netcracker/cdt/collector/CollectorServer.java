@@ -1,7 +1,9 @@
 package com.netcracker.cdt.collector;
 
+import com.netcracker.cdt.collector.common.CollectorConfig;
 import com.netcracker.cdt.collector.tcp.CollectorConnectionAcceptor;
 import com.netcracker.cdt.collector.tcp.CollectorOrchestratorThread;
+import com.netcracker.cdt.collector.tcp.CollectorSelectorServer;
 import com.netcracker.common.ProtocolConst;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.arc.profile.IfBuildProfile;
@@ -22,11 +24,19 @@ public class CollectorServer {
     CollectorOrchestratorThread orchestrator;
     @Inject
     CollectorConnectionAcceptor acceptor;
+    @Inject
+    CollectorSelectorServer selectorServer;
+    @Inject
+    CollectorConfig config;
 
     @PostConstruct
     public void init() throws IOException, InterruptedException {
         Log.infof("Starting CollectorServer threads");
-        acceptor.start();
+        if (config.isNioTransport()) {
+            selectorServer.start();
+        } else {
+            acceptor.start();
+        }
         orchestrator.start();
     }
 }
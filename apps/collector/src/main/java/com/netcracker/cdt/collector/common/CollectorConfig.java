@@ -1,10 +1,13 @@
 package com.netcracker.cdt.collector.common;
 
 import com.netcracker.common.models.StreamType;
+import com.netcracker.common.models.pod.streams.StreamCodec;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.util.Set;
+
 @LookupIfProperty(name = "service.type", stringValue = "collector")
 @ApplicationScoped
 public class CollectorConfig {
@@ -21,12 +24,24 @@ public class CollectorConfig {
     @ConfigProperty(name = "pod.collector.stream.rotation.period", defaultValue = "300000") // STREAM_ROTATION_PERIOD
     long streamRotationPeriod; // Default is 5m. Specified in milliseconds for those streams that require rotation
 
+    @ConfigProperty(name = "pod.collector.stream.codec", defaultValue = "none") // STREAM_CODEC
+    String streamCodec; // none, lz4, zstd or brotli. For streams read by UI
+
+    @ConfigProperty(name = "pod.collector.stream.codec.archive", defaultValue = "none") // STREAM_ARCHIVE_CODEC
+    String archiveCodec; // For streams which are only downloaded as dumps
+
+    @ConfigProperty(name = "pod.collector.stream.codec.archive.streams", defaultValue = "td,top,gc") // STREAM_ARCHIVE_STREAMS
+    Set<String> archiveStreams;
+
     @ConfigProperty(name = "pod.collector.num.heavy.clients", defaultValue="100") // NUM_HEAVY_CLIENTS
     int numHeavyClients;
 
     @ConfigProperty(name = "pod.collector.num.idle.clients", defaultValue="1000") // NUM_IDLE_CLIENTS
     int numIdleClients;
 
+    @ConfigProperty(name = "pod.collector.transport.nio", defaultValue = "false") // COLLECTOR_NIO_TRANSPORT
+    boolean nioTransport; // serve agents from a single selector thread instead of a thread per connection
+
     @ConfigProperty(name = "pod.collector.stat.persist")
     String podStatCron;
 
@@ -44,6 +59,10 @@ public int maxOpenStreams() {
         return (numHeavyClients + numIdleClients) * StreamType.withRotation().size();
     }
 
+    public boolean isNioTransport() {
+        return nioTransport;
+    }
+
     public String getPodStatCron() {
         return podStatCron;
     }
@@ -72,6 +91,14 @@ public long getLogMaxSize(Long logMaxSize) {
         return logMaxSize == null ? getLogMaxSize() : logMaxSize;
     }
 
+    public StreamCodec getCodec(StreamType streamType) {
+        return switch (streamType) {
+            // calls and meta streams are parsed as they come, heap dumps are zipped by the agent
+            case CALLS, PARAMS, DICTIONARY, SUSPEND, HEAP -> StreamCodec.NONE;
+            default -> StreamCodec.byName(archiveStreams.contains(streamType.getName()) ? archiveCodec : streamCodec);
+        };
+    }
+
     public long getRotationPeriod(StreamType streamType) {
         if (!streamType.isRotationRequired()) {
             return 0;
@@ -17,5 +17,7 @@ public interface MetricsConst {
     String NETWORK_TIME = PREFIX + "network.time";
     String STORAGE_TIME = PREFIX + "storage.time";
     String OWN_TIME = PREFIX + "own.time";
+    String OPEN_STREAMS = PREFIX + "streams.open";
+    String OPEN_STREAMS_RETAINED_BYTES = PREFIX + "streams.retained.bytes";
 
 }
@@ -0,0 +1,43 @@
+package com.netcracker.cdt.collector.common.transport;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads bytes that have already been received from a non-blocking channel.
+ * Never blocks: returns -1 when the buffer is drained, the caller is responsible for
+ * reading only complete commands.
+ */
+public class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
@@ -0,0 +1,79 @@
+package com.netcracker.cdt.collector.common.transport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Buffered output to a non-blocking channel, the same way {@code BufferedOutputStream} buffers a socket stream.
+ * <p>
+ * Responses to the agent are tiny, so the socket send buffer is full only when the agent stops reading.
+ * In that case the writer waits for the channel to become writable (see {@link WriteReadiness}),
+ * up to {@code timeoutMillis} the same way a blocking socket would.
+ */
+public class ChannelOutputStream extends OutputStream {
+    /**
+     * Parks the writer until the channel may accept more bytes, or the timeout passes
+     */
+    @FunctionalInterface
+    public interface WriteReadiness {
+        void await(long timeoutMillis) throws IOException;
+    }
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final long timeoutMillis;
+    private final WriteReadiness readiness;
+
+    public ChannelOutputStream(WritableByteChannel channel, int size, long timeoutMillis, WriteReadiness readiness) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(size);
+        this.timeoutMillis = timeoutMillis;
+        this.readiness = readiness;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        try {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0) {
+                    long left = deadline - System.currentTimeMillis();
+                    if (left <= 0) {
+                        throw new ProfilerProtocolTimeoutException("Timeout while waiting for the agent to read a response");
+                    }
+                    readiness.await(left);
+                }
+            }
+        } finally {
+            buffer.compact();
+        }
+    }
+}
@@ -66,4 +66,9 @@ List<DictionaryModel> toModels(List<String> dictionary) {
     public Operation save(PersistenceService service, DictionaryModel toSave) {
         return service.meta.save(toSave);
     }
+
+    @Override
+    protected void saveAll(PersistenceService service, List<DictionaryModel> toSave) {
+        service.meta.saveDictionary(toSave);
+    }
 }
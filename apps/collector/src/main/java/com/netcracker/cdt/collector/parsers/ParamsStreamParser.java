@@ -48,6 +48,9 @@ ParamsModel toParamsModel(ParameterInfoDto dto) {
     public Operation save(PersistenceService service, ParamsModel toSave) {
         return service.meta.save(toSave);
     }
-}
-
 
+    @Override
+    protected void saveAll(PersistenceService service, List<ParamsModel> toSave) {
+        service.meta.saveParams(toSave);
+    }
+}
@@ -74,7 +74,7 @@ public final void saveData(PersistenceService service) {
             return;
         }
         Log.tracef("[%s] Found %d entities for pod=%s", streamType, list.size(), pod.podId());
-        service.batch.saveInBatches(list, toSave -> save(service, toSave));
+        saveAll(service, list);
         Log.tracef("[%s] Finish saving %d entities for pod=%s", streamType, list.size(), pod.podId());
     }
 
@@ -82,4 +82,9 @@ public final void saveData(PersistenceService service) {
 
     protected abstract Operation save(PersistenceService service, T toSave);
 
+    // override when the persistence is able to save the whole list at once
+    protected void saveAll(PersistenceService service, List<T> toSave) {
+        service.batch.saveInBatches(toSave, item -> save(service, item));
+    }
+
 }
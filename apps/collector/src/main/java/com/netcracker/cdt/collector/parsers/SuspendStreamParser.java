@@ -40,4 +40,8 @@ public Operation save(PersistenceService service, SuspendHickup toSave) {
         return service.meta.save(toSave);
     }
 
+    @Override
+    protected void saveAll(PersistenceService service, List<SuspendHickup> toSave) {
+        service.meta.saveSuspends(toSave);
+    }
 }
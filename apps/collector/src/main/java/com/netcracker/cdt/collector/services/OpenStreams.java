@@ -0,0 +1,206 @@
+package com.netcracker.cdt.collector.services;
+
+import com.netcracker.cdt.collector.services.handlers.ChunkBufferPool;
+import com.netcracker.cdt.collector.services.handlers.StreamHandler;
+import com.netcracker.common.models.StreamType;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Handlers of the streams currently open by agents.
+ * <p>
+ * Lookups by stream handle don't lock, they are done for every data packet.
+ * Streams are also indexed by pod and stream type, so a reconnected pod or a rotated stream
+ * finds its previous handlers without scanning streams of the other pods.
+ * <p>
+ * When more than {@code maxSize} streams are open, the least recently used ones are removed.
+ * Removed handlers are returned to the caller, which is responsible for closing them.
+ * Lookups only mark a stream as used, and eviction gives the marked streams a second chance
+ * (moves them to the tail of the queue once), an approximation of LRU.
+ * <p>
+ * Numbers of streams and their retained heap are counted per stream type as streams are added and removed.
+ */
+final class OpenStreams {
+    private final int maxSize;
+    private final ChunkBufferPool buffers;
+    private final Map<UUID, Entry> byHandle = new ConcurrentHashMap<>();
+    // guarded by this
+    private final Map<String, EnumMap<StreamType, Set<UUID>>> byPod = new HashMap<>();
+    // guarded by this, in the order streams were opened or given a second chance
+    private final Set<UUID> opened = new LinkedHashSet<>();
+    // by StreamType#ordinal, updated under this
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(StreamType.values().length);
+    private final AtomicLongArray handlerBytes = new AtomicLongArray(StreamType.values().length);
+
+    private static final class Entry {
+        final StreamHandler handler;
+        final long retainedBytes; // without chunk buffers, which are counted by the pool
+        volatile boolean used;
+
+        Entry(StreamHandler handler) {
+            this.handler = handler;
+            this.retainedBytes = handler.retainedBytes(); // a new handler has no data, so no buffer
+        }
+    }
+
+    OpenStreams(int maxSize, ChunkBufferPool buffers) {
+        this.maxSize = maxSize;
+        this.buffers = buffers;
+    }
+
+    StreamHandler get(UUID streamHandle) {
+        var entry = byHandle.get(streamHandle);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.used) { // mostly read, not to write the same line for every packet
+            entry.used = true;
+        }
+        return entry.handler;
+    }
+
+    /**
+     * @return handlers removed to keep the registry within its size limit
+     */
+    synchronized Map<UUID, StreamHandler> put(UUID streamHandle, StreamHandler handler) {
+        var entry = new Entry(handler);
+        var previous = byHandle.put(streamHandle, entry);
+        if (previous != null) {
+            unindex(streamHandle, previous);
+        }
+        byPod.computeIfAbsent(podId(handler), k -> new EnumMap<>(StreamType.class))
+                .computeIfAbsent(handler.registry().stream(), k -> new LinkedHashSet<>())
+                .add(streamHandle);
+        count(entry, 1);
+        opened.remove(streamHandle);
+        opened.add(streamHandle);
+
+        Map<UUID, StreamHandler> evicted = new LinkedHashMap<>();
+        // the first pass moves used streams to the tail, the second one evicts them if there are no others
+        for (int pass = 0; pass < 2 && byHandle.size() > maxSize; pass++) {
+            List<UUID> used = new ArrayList<>();
+            for (var it = opened.iterator(); byHandle.size() > maxSize && it.hasNext(); ) {
+                var oldest = it.next();
+                if (oldest.equals(streamHandle)) {
+                    continue;
+                }
+                it.remove();
+                var old = byHandle.get(oldest);
+                if (pass == 0 && old.used) {
+                    old.used = false;
+                    used.add(oldest);
+                    continue;
+                }
+                byHandle.remove(oldest);
+                unindex(oldest, old);
+                evicted.put(oldest, old.handler);
+            }
+            opened.addAll(used);
+        }
+        return evicted;
+    }
+
+    synchronized StreamHandler remove(UUID streamHandle) {
+        var entry = byHandle.remove(streamHandle);
+        if (entry == null) {
+            return null;
+        }
+        opened.remove(streamHandle);
+        unindex(streamHandle, entry);
+        return entry.handler;
+    }
+
+    /**
+     * @return removed handlers of the pod streams of the given type
+     */
+    synchronized Map<UUID, StreamHandler> removeStreams(String podId, StreamType stream) {
+        var streams = byPod.get(podId);
+        if (streams == null) {
+            return Map.of();
+        }
+        var handles = streams.remove(stream);
+        if (streams.isEmpty()) {
+            byPod.remove(podId);
+        }
+        return removeAll(handles);
+    }
+
+    /**
+     * @return removed handlers of all the pod streams
+     */
+    synchronized Map<UUID, StreamHandler> removePod(String podId) {
+        var streams = byPod.remove(podId);
+        if (streams == null) {
+            return Map.of();
+        }
+        Map<UUID, StreamHandler> removed = new LinkedHashMap<>();
+        for (var handles : streams.values()) {
+            removed.putAll(removeAll(handles));
+        }
+        return removed;
+    }
+
+    int size() {
+        return byHandle.size();
+    }
+
+    int size(StreamType stream) {
+        return counts.get(stream.ordinal());
+    }
+
+    /**
+     * @return estimated heap retained by the open streams of the given type
+     */
+    long retainedBytes(StreamType stream) {
+        return handlerBytes.get(stream.ordinal()) + buffers.takenBytes(stream);
+    }
+
+    private Map<UUID, StreamHandler> removeAll(Collection<UUID> handles) {
+        if (handles == null) {
+            return Map.of();
+        }
+        Map<UUID, StreamHandler> removed = new LinkedHashMap<>();
+        for (var handle : handles) {
+            var entry = byHandle.remove(handle);
+            opened.remove(handle);
+            if (entry != null) {
+                count(entry, -1);
+                removed.put(handle, entry.handler);
+            }
+        }
+        return removed;
+    }
+
+    private void count(Entry entry, int delta) {
+        int i = entry.handler.registry().stream().ordinal();
+        counts.addAndGet(i, delta);
+        handlerBytes.addAndGet(i, delta * entry.retainedBytes);
+    }
+
+    private void unindex(UUID streamHandle, Entry entry) {
+        count(entry, -1);
+        var handler = entry.handler;
+        var podId = podId(handler);
+        var streams = byPod.get(podId);
+        if (streams == null) {
+            return;
+        }
+        var handles = streams.get(handler.registry().stream());
+        if (handles != null) {
+            handles.remove(streamHandle);
+            if (handles.isEmpty()) {
+                streams.remove(handler.registry().stream());
+            }
+        }
+        if (streams.isEmpty()) {
+            byPod.remove(podId);
+        }
+    }
+
+    private static String podId(StreamHandler handler) {
+        return handler.registry().podRestart().podId();
+    }
+}
@@ -16,12 +16,13 @@
 import io.quarkus.logging.Log;
 import io.quarkus.scheduler.Scheduled;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 
 import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
 
@@ -29,6 +30,8 @@
 @ApplicationScoped
 //@Lock // fails with GZip synchronized ?
 public class PodDumper {
+    static final long INIT_TIMEOUT_SECONDS = 30;
+
     @Inject
     Time time;
 
@@ -40,16 +43,27 @@ public class PodDumper {
 
     protected static Cache<String, PodStatus> activePodsCache;
 
-    protected static Map<PodIdRestart, PodDataAccumulated> accumulatedMap;
+    // pods which received data since the last persistStat, updated by every packet
+    protected static Map<PodIdRestart, PodStatus> changedPods;
 
     protected static Instant prevPersistTime = Instant.EPOCH;
 
+    // pods are initialized in the background to not delay the handshake of the agent
+    private ExecutorService initWorkers;
+    private final Set<CompletableFuture<Void>> pendingInits = ConcurrentHashMap.newKeySet();
+
     @PostConstruct
     public void init() {
         activePodsCache = CacheBuilder.newBuilder().
                 expireAfterAccess(config.getLogRetentionPeriod(), TimeUnit.MILLISECONDS).
                 maximumSize(config.getMaxConnections() * 2L).build();
-        accumulatedMap = new HashMap<>();
+        changedPods = new ConcurrentHashMap<>();
+        initWorkers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("pod-init-", 0).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        initWorkers.shutdownNow();
     }
 
 
@@ -61,6 +75,8 @@ public void schedulePersistStat() {
 
     @CacheInvalidate(cacheName = "podsCache")
     public void persistStat() {
+        awaitPendingInits();
+
         var pods = new ArrayList<Operation>(); // should separate batches for different tables
         var podRestarts = new ArrayList<Operation>();
         for (var podStatus: activePodsCache.asMap().values()) {
@@ -76,35 +92,68 @@ public void persistStat() {
             persistence.batch.execute(podRestarts);
         }
 
-        var stats = new ArrayList<Operation>();
-        for (var e: accumulatedMap.entrySet()) {
-            stats.add(persistence.pods.insertPodStatistics(e.getKey(), e.getValue()));
+        prevPersistTime = time.now();
+
+        // a pod is unmarked before its snapshot is taken, so the data received meanwhile marks it again
+        var stats = new HashMap<PodIdRestart, PodDataAccumulated>();
+        for (var podRestart: changedPods.keySet()) {
+            var pod = changedPods.remove(podRestart);
+            if (pod != null) {
+                stats.put(podRestart, pod.dataAccumulated());
+            }
         }
         if (!stats.isEmpty()) {
-            Log.debugf("prepare to execute %d operations: persist %d stat for %d active pods [cron: %s]",
-                    stats.size(), accumulatedMap.size(), activePodsCache.size(), config.getPodStatCron());
-            persistence.batch.execute(stats);
+            Log.debugf("prepare to persist stat for %d pods of %d active pods [cron: %s]",
+                    stats.size(), activePodsCache.size(), config.getPodStatCron());
+            persistence.batch.execute(persistence.pods.insertPodStatistics(stats));
         }
+    }
 
-        prevPersistTime = time.now();
-        accumulatedMap.clear(); // TODO check thread-safe? @Lock?
+    private void awaitPendingInits() {
+        if (pendingInits.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(pendingInits.toArray(CompletableFuture[]::new))
+                    .get(INIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            Log.warnf("%d pods are still being initialized, their activity is persisted later", pendingInits.size());
+        } catch (ExecutionException e) {
+            // logged by the init task
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
      * load old data, create new records on pods' connect
+     * <p>
+     * The pod starts collecting statistics at once, the old data is loaded in the background
+     * and is added to the statistics when it is ready.
      */
-    @DB
     public void initPod(PodStatus pod) {
-        pod = persistence.pods.initializePod(pod);
         activePodsCache.put(pod.getPodId(), pod);
-        persistStat();
+        var init = new CompletableFuture<Void>();
+        pendingInits.add(init);
+        initWorkers.execute(() -> {
+            try {
+                persistence.pods.initializePod(pod);
+                changedPods.putIfAbsent(pod.restartId(), pod);
+                init.complete(null);
+            } catch (Throwable e) {
+                Log.errorf(e, "Failed to initialize pod %s", pod.screenName());
+                init.completeExceptionally(e);
+            } finally {
+                pendingInits.remove(init);
+            }
+        });
     }
 
     public void received(StreamRegistry registry, int contentLength) {
         var pod = activePodsCache.getIfPresent(registry.podRestart().podId());
         if (pod != null) {
             pod.received(registry, contentLength);
-            accumulatedMap.put(registry.podRestart(), pod.dataAccumulated());
+            changedPods.putIfAbsent(registry.podRestart(), pod);
         }
     }
 
@@ -112,7 +161,7 @@ public void persisted(StreamRegistry registry, int length) {
         var pod = activePodsCache.getIfPresent(registry.podRestart().podId());
         if (pod != null) {
             pod.persisted(registry, length);
-            accumulatedMap.put(registry.podRestart(), pod.dataAccumulated());
+            changedPods.putIfAbsent(registry.podRestart(), pod);
         }
     }
 }
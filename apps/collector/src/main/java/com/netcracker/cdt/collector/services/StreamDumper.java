@@ -1,7 +1,5 @@
 package com.netcracker.cdt.collector.services;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.netcracker.cdt.collector.common.StreamNotInitializedException;
 import com.netcracker.cdt.collector.common.models.StreamInfoRequest;
 import com.netcracker.cdt.collector.parsers.SuspendStreamParser;
@@ -9,6 +7,8 @@
 import com.netcracker.cdt.collector.common.models.StreamRotatedInfo;
 import com.netcracker.cdt.collector.parsers.DictionaryStreamParser;
 import com.netcracker.cdt.collector.parsers.ParamsStreamParser;
+import com.netcracker.cdt.collector.services.handlers.ChunkBufferPool;
+import com.netcracker.cdt.collector.services.handlers.CollectorCallsExtractor;
 import com.netcracker.cdt.collector.services.handlers.CompressorHandler;
 import com.netcracker.cdt.collector.services.handlers.ParsedStreamHandler;
 import com.netcracker.cdt.collector.services.handlers.StreamHandler;
@@ -19,17 +19,24 @@
 import com.netcracker.common.models.pod.streams.StreamRegistry;
 import com.netcracker.common.utils.DB;
 import com.netcracker.persistence.PersistenceService;
-import io.quarkus.arc.Lock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.logging.Log;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.apache.commons.lang.StringUtils;
 
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.netcracker.cdt.collector.common.MetricsConst.OPEN_STREAMS;
+import static com.netcracker.cdt.collector.common.MetricsConst.OPEN_STREAMS_RETAINED_BYTES;
 
 @LookupIfProperty(name = "service.type", stringValue = "collector")
 @ApplicationScoped
@@ -44,13 +51,43 @@ public class StreamDumper {
 
     @Inject
     PodDumper podDumper;
+    @Inject
+    MeterRegistry registry;
 
-    private static Cache<UUID, StreamHandler> openStreams; // TODO: check: each open stream retains 300 KB of heap
+    private OpenStreams openStreams;
+    // chunk buffers are held by streams only while they have unsaved data
+    private ChunkBufferPool chunkBuffers;
+    // closes streams evicted by other connections, so a handshake doesn't wait for them
+    private ExecutorService closeWorkers;
 
     @PostConstruct
     public void init() {
-        openStreams = CacheBuilder.newBuilder().
-                maximumSize(config.getMaxOpenStreams()).build();
+        chunkBuffers = new ChunkBufferPool(config.getCompressorBufferSize(), config.getMaxOpenStreams());
+        openStreams = new OpenStreams(config.getMaxOpenStreams(), chunkBuffers);
+        closeWorkers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stream-close-", 0).factory());
+
+        for (var stream : StreamType.values()) {
+            Gauge.builder(OPEN_STREAMS, openStreams, s -> s.size(stream))
+                    .description("Number of streams open by agents")
+                    .tag("stream", stream.getName())
+                    .register(registry);
+            Gauge.builder(OPEN_STREAMS_RETAINED_BYTES, openStreams, s -> s.retainedBytes(stream))
+                    .description("Estimated heap retained by the open streams")
+                    .tag("stream", stream.getName())
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        closeWorkers.shutdown();
+        try {
+            closeWorkers.awaitTermination(CollectorCallsExtractor.DRAIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        CollectorCallsExtractor.awaitAllDrained(); // closed streams persist their calls in the background
     }
 
     public long getRotationPeriod(StreamType stream) {
@@ -73,7 +110,7 @@ public StreamHandler getStreamHandler(UUID streamHandle) {
         if (openStreams == null) {
             throw new StreamNotInitializedException(streamHandle);
         }
-        StreamHandler handler = openStreams.getIfPresent(streamHandle);
+        StreamHandler handler = openStreams.get(streamHandle);
         if (handler == null) {
             throw new StreamNotInitializedException(streamHandle);
         }
@@ -90,7 +127,7 @@ public StreamRotatedInfo streamOpened(StreamInfoRequest streamRequest) {
                 streamRequest.requestedRollingSequenceId() :
                 calculateRollingSequenceId(streamRequest);
 
-        var registry = StreamRegistry.create(streamRequest, seqId);
+        var registry = StreamRegistry.create(streamRequest, seqId, config.getCodec(streamRequest.stream()));
         storeHandle(uuid, registry, streamRequest.resetRequired());
 
         persistence.batch.execute(
@@ -103,58 +140,25 @@ public StreamRotatedInfo streamOpened(StreamInfoRequest streamRequest) {
     @DB
     Collection<UUID> cleanupPreviousStreams(String podId, StreamType stream) {
         Log.tracef("[%s] Check for old streams of %s from openStreams", podId, stream);
-        // Protect against ConcurrentModificationException
-        List<UUID> toRemove = new ArrayList<>();
-        for (Map.Entry<UUID, StreamHandler> entry : openStreams.asMap().entrySet()) {
-            StreamHandler handler = entry.getValue();
-            var sr = handler.registry();
-            if (!(StringUtils.equals(sr.podRestart().podId(), podId) && sr.stream().equals(stream))) {
-                continue;
-            }
-            if (Log.isTraceEnabled()) {
-                Log.tracef("[%s] Cleaning up openStreams map %s|%d with uuid=%s",
-                        sr.podRestart().podId(),
-                        sr.stream().getName(), sr.rollingSequenceId(),
-                        entry.getKey().toString());
-            }
-            toRemove.add(entry.getKey());
-            closeStreamHandler(handler);
-        }
-        if (!toRemove.isEmpty()) {
-            Log.debugf("[%s] Removing %d old streams of %s from openStreams", podId, toRemove.size(), stream);
-            removeHandles(toRemove);
+        var removed = openStreams.removeStreams(podId, stream);
+        if (!removed.isEmpty()) {
+            Log.debugf("[%s] Removing %d old streams of %s from openStreams", podId, removed.size(), stream);
+            closeStreamHandlers(removed);
         }
-        return toRemove;
+        return removed.keySet();
     }
 
     @DB
     public Collection<UUID> cleanupPodStreams(String podId) { // pod restart/reconnect
         Log.tracef("Check for streams of %s from openStreams map", podId);
-        // Protect against ConcurrentModificationException
-        List<UUID> toRemove = new ArrayList<>();
-        for (Map.Entry<UUID, StreamHandler> entry : openStreams.asMap().entrySet()) {
-            StreamHandler handler = entry.getValue();
-            var sr = handler.registry();
-            if (!StringUtils.equals(sr.podRestart().podId(), podId)) {
-                continue;
-            }
-            if (Log.isTraceEnabled()) {
-                Log.tracef("Cleaning up openStreams map %s:%s|%d with uuid=%s",
-                        sr.podRestart().podId(), sr.stream().getName(), sr.rollingSequenceId(),
-                        entry.getKey().toString());
-            }
-            toRemove.add(entry.getKey());
-            closeStreamHandler(handler);
+        var removed = openStreams.removePod(podId);
+        if (!removed.isEmpty()) {
+            Log.debugf("Removing %d old streams of %s from openStreams map", removed.size(), podId);
+            closeStreamHandlers(removed);
         }
-        if (!toRemove.isEmpty()) {
-            Log.debugf("Removing %d old streams of %s from openStreams map", toRemove.size(), podId);
-            removeHandles(toRemove);
-        }
-        return toRemove;
-
+        return removed.keySet();
     }
 
-    @Lock // cache modification
     void storeHandle(UUID streamHandle, StreamRegistry sr, boolean resetRequired) {
         var handler = switch (sr.stream()) {
             case SUSPEND ->
@@ -164,21 +168,18 @@ void storeHandle(UUID streamHandle, StreamRegistry sr, boolean resetRequired) {
             case DICTIONARY ->
                     new ParsedStreamHandler<>(persistence, DictionaryStreamParser.create(sr.podRestart(), -1), this, sr, resetRequired);
             case HEAP ->
-                    new UncompressedHandler(persistence, this, sr, streamHandle, config.getCompressorBufferSize());
-            default -> new CompressorHandler(persistence, this, sr, streamHandle, config.getCompressorBufferSize());
+                    new UncompressedHandler(persistence, this, sr, streamHandle, chunkBuffers);
+            default -> new CompressorHandler(persistence, this, sr, streamHandle, chunkBuffers);
         };
 //        StreamHandler<?> bean = context.getBean(StreamHandler.class, this, sr, resetRequired);
-        openStreams.put(streamHandle, handler);
+        var evicted = openStreams.put(streamHandle, handler);
         if (Log.isDebugEnabled()) {
             Log.debugf("[%s] storeHandle %s - %s", sr.podRestart().oldPodName(), streamHandle, sr.stream());
         }
-    }
-
-    @Lock // cache modification
-    public void removeHandles(Collection<UUID> toRemove) {
-        for (UUID uuid : toRemove) {
-            openStreams.invalidate(uuid);
-            Log.tracef("UUID %s removed during rotation", uuid.toString());
+        if (!evicted.isEmpty()) {
+            Log.warnf("Too many open streams, closing %d oldest ones", evicted.size());
+            // their connections may be writing at the moment, the handlers are closed once the current data is received
+            closeWorkers.execute(() -> closeStreamHandlers(evicted));
         }
     }
 
@@ -197,13 +198,13 @@ public int calculateRollingSequenceId(StreamInfoRequest req) {
     public void flushStreams(Set<UUID> streamIDs) {
         for (Iterator<UUID> it = streamIDs.iterator(); it.hasNext(); ) {
             UUID uuid = it.next();
-            StreamHandler handler = openStreams.getIfPresent(uuid);
+            StreamHandler handler = openStreams.get(uuid);
             if (handler == null) {
                 Log.debugf("Not flushing stream {} as it probably has been cleaned up", uuid);
                 it.remove();
                 continue;
             }
-            if (handler.flushCompressorIfNeeded()) {
+            if (handler.flushIfNeeded()) {
                 Log.tracef("Flushing stream {}. Removing it from flush candidates", uuid);
                 it.remove();
             }
@@ -213,7 +214,7 @@ public void flushStreams(Set<UUID> streamIDs) {
     @DB
     public void closeAndForget(UUID streamHandle) {
         // When dump is imported, map of active stream handlers may get overwhelmed
-        StreamHandler handler = openStreams.getIfPresent(streamHandle);
+        StreamHandler handler = openStreams.remove(streamHandle);
         if (handler == null) {
             return;
         }
@@ -225,13 +226,23 @@ public void closeAndForget(UUID streamHandle) {
         persistence.batch.execute(
                 persistence.streams.upsertStreamRegistry(sr.close(time.now())) // mark as finished, update size
         );
-        openStreams.invalidate(streamHandle);
+    }
+
+    private void closeStreamHandlers(Map<UUID, StreamHandler> handlers) {
+        for (var entry : handlers.entrySet()) {
+            if (Log.isTraceEnabled()) {
+                var sr = entry.getValue().registry();
+                Log.tracef("[%s] Closing %s|%d with uuid=%s",
+                        sr.podRestart().podId(), sr.stream().getName(), sr.rollingSequenceId(), entry.getKey());
+            }
+            closeStreamHandler(entry.getValue());
+        }
     }
 
     @DB
     protected void closeStreamHandler(StreamHandler handler) {
         try {
-            handler.close();
+            handler.closeOnce();
         } catch (IOException e) {
             //do not fail stream rotation because of this
             var sr = handler.registry();
@@ -255,13 +266,18 @@ public void receiveData(UUID streamID, byte[] data, int offset, int length) {
         if (Log.isTraceEnabled()) {
             Log.tracef("received %d bytes of data for stream %s", length, sr.stream());
         }
-        handler.receive(data, offset, length);
+        if (!handler.receiveIfOpen(data, offset, length)) {
+            throw new StreamNotInitializedException(streamID); // evicted meanwhile, the agent rotates the stream
+        }
         podDumper.received(sr, length);
     }
 
     /**
      * Dictionary and params streams are saved with infinite TTL
      * other streams - with limited to lifetime
+     * <p>
+     * The chunk wraps {@code data} without copying: the array is a pooled buffer of the stream
+     * and is reused as soon as this method returns.
      *
      * @param registry some registry
      * @param data     some data
@@ -281,7 +297,7 @@ public void saveStreamChunk(UUID streamHandle, StreamRegistry registry, long sta
 
         podDumper.persisted(registry, length);
 
-        StreamChunk chunk = new StreamChunk(registry, startPos, length, chunkBuf);
+        StreamChunk chunk = new StreamChunk(registry, startPos, length, registry.codec(), chunkBuf);
 //        var accLength = registry.dataSize().val(false); // gzipped
 //        StreamChunk chunk = new StreamChunk(registry, offset, accLength, chunkBuf);
 //        StreamChunk chunk = new StreamChunk(registry, offset, length, chunkBuf);
@@ -0,0 +1,82 @@
+package com.netcracker.cdt.collector.services.handlers;
+
+import com.netcracker.common.models.StreamType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers for stream chunks shared by all open streams.
+ * <p>
+ * A stream takes a buffer when agent data arrives and gives it back as soon as the chunk is persisted,
+ * so idle streams retain no buffers and busy ones keep reusing the same arrays.
+ * At most {@code maxPooled} free buffers are kept, the rest are left to GC.
+ * Buffers taken by the streams are counted per stream type.
+ */
+public final class ChunkBufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<byte[]> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final LongAdder allocated = new LongAdder();
+    private final Map<StreamType, LongAdder> taken = new EnumMap<>(StreamType.class);
+
+    public ChunkBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+        for (var stream : StreamType.values()) {
+            taken.put(stream, new LongAdder());
+        }
+    }
+
+    public byte[] acquire(StreamType stream) {
+        taken.get(stream).increment();
+        var buf = free.poll();
+        if (buf != null) {
+            pooled.decrementAndGet();
+            return buf;
+        }
+        allocated.increment();
+        return new byte[bufferSize];
+    }
+
+    public void release(StreamType stream, byte[] buf) {
+        if (buf.length != bufferSize) {
+            return;
+        }
+        taken.get(stream).decrement();
+        if (pooled.incrementAndGet() <= maxPooled) {
+            free.offer(buf);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return number of free buffers in the pool
+     */
+    public int pooled() {
+        return pooled.get();
+    }
+
+    /**
+     * @return heap retained by the buffers which streams of the given type have taken
+     */
+    public long takenBytes(StreamType stream) {
+        return taken.get(stream).sum() * bufferSize;
+    }
+
+    /**
+     * @return number of buffers allocated since the start
+     */
+    public long allocated() {
+        return allocated.sum();
+    }
+}
@@ -2,6 +2,7 @@
 
 import com.netcracker.common.models.CallsModel;
 import com.netcracker.common.models.pod.streams.StreamRegistry;
+import com.netcracker.persistence.CallsPersistence;
 import com.netcracker.persistence.PersistenceService;
 import com.netcracker.profiler.model.Call;
 import com.netcracker.profiler.sax.call.CallDataReaderFactory;
@@ -9,56 +10,133 @@
 import com.netcracker.profiler.timeout.ReadInterruptedException;
 import io.quarkus.logging.Log;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static com.netcracker.common.Consts.CALL_HEADER_MAGIC;
 
 // This is the same as com.netcracker.cdt.ui.services.calls.search.CallsExtractor, but it is used in the collector
+//
+// Parsed calls are persisted in batches by a single writer thread. When the database can't keep up,
+// the queue of calls fills up, the parser stops reading the pipe, and finally the agent socket is not read either.
+// Closing doesn't wait for the writer: the calls received so far are persisted in the background,
+// only the shutdown waits for them (see #awaitAllDrained).
 public class CollectorCallsExtractor {
+    static final int PIPE_SIZE = 64 * 1024;
+    static final int BATCH_SIZE = 500;
+    static final long BATCH_MAX_AGE_MILLIS = 1000;
+    static final int QUEUE_CAPACITY = 4 * BATCH_SIZE;
+    public static final long DRAIN_TIMEOUT_MILLIS = 30_000;
 
-    private final PersistenceService persistence;
+    // closed extractors which still persist their calls
+    private static final Set<CollectorCallsExtractor> DRAINING = ConcurrentHashMap.newKeySet();
+
+    private final CallsPersistence calls;
     private final StreamRegistry streamRegistry;
 
     private final PipedInputStream pipedInputStream;
     private PipedOutputStream pipedOutputStream;
 
-    private volatile boolean isRunning = true;
+    private final BlockingQueue<CallsModel> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final CountDownLatch drained = new CountDownLatch(1);
+
+    private volatile boolean isClosed = false;
+    private volatile boolean isParsed = false;
     private volatile boolean isFinished = false;
 
     public CollectorCallsExtractor(PersistenceService persistence, StreamRegistry streamRegistry) {
-        this.persistence = persistence;
+        this(persistence.calls, streamRegistry);
+    }
+
+    CollectorCallsExtractor(CallsPersistence calls, StreamRegistry streamRegistry) {
+        this.calls = calls;
         this.streamRegistry = streamRegistry;
-        this.pipedInputStream = new PipedInputStream();
+        this.pipedInputStream = new PipedInputStream(PIPE_SIZE);
         try {
             this.pipedOutputStream =  new PipedOutputStream(pipedInputStream);
         } catch (IOException e) {
             Log.errorf("exception while creating CallsExtractor: %s", e.getMessage());
         }
+    }
+
+    /**
+     * Starts the parser and the writer threads, once the extractor is created
+     */
+    public void start() {
         Thread.startVirtualThread(this::findCallsInStream);
+        Thread.startVirtualThread(this::persistCalls);
     }
 
     /**
      * Adds bytes to the stream to write them to the database
      *
      * @param bytes - Non-zipped (gzipped) bytes of data that came from the agent
+     * @param off - The offset of data in the byte array
      * @param len - The actual amount of data in the byte array
      */
-    public void add(byte[] bytes, int len) {
+    public void add(byte[] bytes, int off, int len) {
         try {
-            pipedOutputStream.write(bytes, 0, len);
+            pipedOutputStream.write(bytes, off, len);
         } catch (IOException e) {
             Log.errorf("exception while add bytes: %s", e.getMessage());
         }
     }
 
-    // TODO: This may lead to the fact that the data will not have time to be written to the database.
+    /**
+     * Ends the stream, the calls received so far are written to the database in the background
+     */
     public void close() throws IOException {
-        isRunning = false;
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        DRAINING.add(this);
+        if (isFinished) { // the writer has already stopped
+            DRAINING.remove(this);
+        }
         pipedOutputStream.close();
     }
 
+    /**
+     * @return false if the calls are not written in time
+     */
+    boolean awaitDrained(long timeoutMillis) throws InterruptedException {
+        return drained.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for the calls of the closed streams to be written, up to {@link #DRAIN_TIMEOUT_MILLIS} in total.
+     * Used on shutdown, streams are closed without waiting.
+     */
+    public static void awaitAllDrained() {
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MILLIS;
+        try {
+            for (var extractor : List.copyOf(DRAINING)) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0 || !extractor.awaitDrained(left)) {
+                    Log.warnf("calls of %d streams are not persisted in %d ms", DRAINING.size(), DRAIN_TIMEOUT_MILLIS);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
     public boolean isFinished() {
         return isFinished;
     }
@@ -79,7 +157,7 @@ private void findCallsInStream() {
                 return;
             }
 
-            while (isRunning) {
+            while (true) {
 
                 if (Thread.interrupted()) {
                     throw new ReadInterruptedException();
@@ -93,16 +171,68 @@ private void findCallsInStream() {
                 callDataReader.readParams(call, calls);
                 readCalls++;
 
-                // TODO: replace with batching of calls
-                Thread.startVirtualThread(() -> persistence.calls.insert(CallsModel.of(call, streamRegistry.podRestart())));
+                queue.put(CallsModel.of(call, streamRegistry.podRestart())); // blocks while the database is behind
             }
+        } catch (EOFException e) {
+            // it's ok to get EOF when the stream is closed
+            Log.debugf("end of calls stream: %s (read %d calls)", streamRegistry.podRestart().oldPodName(), readCalls);
         } catch (IOException e) {
-            // it's ok to get EOF when reading current stream
             // TODO: change log message (add details: pod sequenceId how much calls and bytes)
             Log.warnf("exception while reading current stream: %s (read %d calls)", streamRegistry.podRestart().oldPodName(), readCalls);
+        } catch (InterruptedException e) {
+            Log.warnf("interrupted while reading current stream: %s (read %d calls)", streamRegistry.podRestart().oldPodName(), readCalls);
+        } finally {
+            isParsed = true;
         }
+    }
 
-        isFinished = true;
+    /**
+     * Writes calls in batches of {@link #BATCH_SIZE}, but holds no call longer than {@link #BATCH_MAX_AGE_MILLIS}
+     */
+    private void persistCalls() {
+        List<CallsModel> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                var first = queue.poll(BATCH_MAX_AGE_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (isParsed && queue.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + BATCH_MAX_AGE_MILLIS;
+                while (batch.size() < BATCH_SIZE) {
+                    queue.drainTo(batch, BATCH_SIZE - batch.size());
+                    long left = deadline - System.currentTimeMillis();
+                    if (batch.size() >= BATCH_SIZE || left <= 0 || isParsed) {
+                        break;
+                    }
+                    var next = queue.poll(left, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            }
+        } catch (InterruptedException e) {
+            Log.warnf("interrupted while persisting calls of %s, %d calls are lost",
+                    streamRegistry.podRestart().oldPodName(), batch.size() + queue.size());
+        } finally {
+            isFinished = true;
+            drained.countDown();
+            DRAINING.remove(this);
+        }
+    }
+
+    private void flush(List<CallsModel> batch) {
+        try {
+            calls.insert(batch);
+        } catch (Exception e) {
+            Log.errorf(e, "failed to persist %d calls of %s", batch.size(), streamRegistry.podRestart().oldPodName());
+        }
+        batch.clear();
     }
 
     private CallsFileHeader readStartTime(DataInputStreamEx calls) throws IOException {
@@ -8,7 +8,6 @@
 import com.netcracker.common.models.pod.streams.StreamRegistry;
 import com.netcracker.persistence.PersistenceService;
 
-import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.UUID;
@@ -16,6 +15,7 @@
 import static com.netcracker.common.ProtocolConst.MAX_FLUSH_INTERVAL_MILLIS;
 
 public final class CompressorHandler<T extends Sizeable> extends StreamHandler {
+    final PooledBufferedOutputStream buffered;
     final OutputStream compressor;
     final UUID streamHandle;
     long lastOffset = 0L;
@@ -26,7 +26,7 @@ public CompressorHandler(PersistenceService persistence,
                              StreamDumper streamDumper,
                              StreamRegistry streamRegistry,
                              UUID streamHandle,
-                             int compressorBufferSize) {
+                             ChunkBufferPool buffers) {
         super(persistence, streamDumper, streamRegistry);
         this.streamHandle = streamHandle;
 
@@ -35,9 +35,12 @@ public CompressorHandler(PersistenceService persistence,
 //            this.compressor = new GZIPOutputStream(new BufferedOutputStream(this, compressorBufferSize), true);
 //            LZ4Factory.fastestJavaInstance().fastCompressor().
 //            this.compressor = new LZ4BlockOutputStream(this, compressorBufferSize);
-            this.compressor = new BufferedOutputStream(this, compressorBufferSize);
+            // calls are parsed on the fly, they are stored raw (see CollectorConfig#getCodec)
+            this.buffered = new PooledBufferedOutputStream(this, buffers, streamRegistry.stream());
+            this.compressor = streamRegistry.codec().compress(buffered);
             if (persistence.getType().equals(PersistenceType.CLOUD) && streamRegistry.stream().equals(StreamType.CALLS)) {
                 this.collectorCallsExtractor = new CollectorCallsExtractor(persistence, streamRegistry);
+                this.collectorCallsExtractor.start();
             }
 //        } catch (IOException e) {
         } catch (Exception e) {
@@ -67,7 +70,7 @@ public void write(byte[] b, int off, int len) throws IOException {
 //                this.collectorCallsExtractor = new CollectorCallsExtractor(persistence, streamRegistry);
 //            }
 
-            collectorCallsExtractor.add(b, len);
+            collectorCallsExtractor.add(b, off, len);
         } else {
             streamFacade.saveStreamChunk(streamHandle, streamRegistry, lastOffset, b, off, len);
         }
@@ -88,10 +91,21 @@ public boolean flushCompressorIfNeeded() {
         }
     }
 
+    public long retainedBytes() {
+        long bytes = buffered.retainedBytes() + streamRegistry.codec().encoderHeapBytes();
+        if (collectorCallsExtractor != null) {
+            bytes += CollectorCallsExtractor.PIPE_SIZE;
+        }
+        return bytes;
+    }
+
     public void close() throws IOException {
         if (compressor != null) {
 //            compressor.flush();
             compressor.close();
         }
+        if (collectorCallsExtractor != null) {
+            collectorCallsExtractor.close(); // persists the calls received before the stream is closed
+        }
     }
 }
@@ -8,7 +8,12 @@
 
 import java.io.IOException;
 
+import static com.netcracker.common.ProtocolConst.MAX_PHRASE_SIZE;
+
 public final class ParsedStreamHandler<T extends Sizeable> extends StreamHandler {
+    // backing array of ParsedInputStream
+    static final int PARSER_BUFFER_SIZE = MAX_PHRASE_SIZE + 1;
+
     final StreamParser<T> streamParser;
     boolean resetRequired;
 
@@ -36,6 +41,10 @@ public boolean flushCompressorIfNeeded() {
         return false;
     }
 
+    public long retainedBytes() {
+        return PARSER_BUFFER_SIZE;
+    }
+
     @Override
     public void close() throws IOException {
 
@@ -0,0 +1,117 @@
+package com.netcracker.cdt.collector.services.handlers;
+
+import com.netcracker.common.models.StreamType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link java.io.BufferedOutputStream} with the buffer taken from {@link ChunkBufferPool}.
+ * <p>
+ * The buffer is held only while it has unflushed data. Writes of a whole buffer or more
+ * go to the underlying stream directly, without copying.
+ * The underlying stream must not retain the array after its {@code write} returns.
+ * Closing only flushes the data, the underlying stream (a stream handler) is closed by its owner.
+ * <p>
+ * The buffer is taken over under a lock, so a stream closed from another thread while its owner writes
+ * returns the buffer to the pool exactly once. Writes after close fail.
+ */
+final class PooledBufferedOutputStream extends OutputStream {
+    private final OutputStream out;
+    private final ChunkBufferPool pool;
+    private final StreamType stream;
+    private final ReentrantLock lock = new ReentrantLock(); // not synchronized: writers may be virtual threads
+    private volatile byte[] buf; // read without the lock by retainedBytes
+    private int count;
+    private boolean closed;
+
+    PooledBufferedOutputStream(OutputStream out, ChunkBufferPool pool, StreamType stream) {
+        this.out = out;
+        this.pool = pool;
+        this.stream = stream;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (len >= pool.bufferSize()) {
+                flushBuffer();
+                out.write(b, off, len);
+                return;
+            }
+            if (buf != null && len > buf.length - count) {
+                flushBuffer();
+            }
+            if (buf == null) {
+                buf = pool.acquire(stream);
+            }
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        lock.lock();
+        try {
+            flushBuffer();
+            out.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushBuffer();
+            out.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean holdsBuffer() {
+        return buf != null;
+    }
+
+    int retainedBytes() {
+        var b = buf;
+        return b == null ? 0 : b.length;
+    }
+
+    // callers hold the lock
+    private void flushBuffer() throws IOException {
+        if (buf == null) {
+            return;
+        }
+        var b = buf;
+        int len = count;
+        buf = null;
+        count = 0;
+        try {
+            if (len > 0) {
+                out.write(b, 0, len);
+            }
+        } finally {
+            pool.release(stream, b);
+        }
+    }
+}
@@ -6,12 +6,16 @@
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.locks.ReentrantLock;
 
 public abstract sealed class StreamHandler extends OutputStream
         permits ParsedStreamHandler, CompressorHandler, UncompressedHandler {
     protected final PersistenceService persistence;
     protected final StreamDumper streamFacade;
     protected final StreamRegistry streamRegistry;
+    // data comes from the owning connection, while the handler may be closed by another one (eviction, reconnect)
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean closed;
 
     public StreamHandler(PersistenceService persistence,
                          StreamDumper streamDumper,
@@ -28,8 +32,59 @@ public StreamRegistry registry() {
         return streamRegistry;
     }
 
+    /**
+     * Passes data of the agent to {@link #receive}, unless the handler is closed
+     *
+     * @return false if the handler has been closed
+     */
+    public final boolean receiveIfOpen(byte[] b, int off, int len) {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            receive(b, off, len);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@link #flushCompressorIfNeeded} of an open handler
+     */
+    public final boolean flushIfNeeded() {
+        lock.lock();
+        try {
+            return !closed && flushCompressorIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the handler once, after the data being received by its connection
+     */
+    public final void closeOnce() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public abstract boolean flushCompressorIfNeeded();
 
+    /**
+     * @return estimated heap retained by the handler while the stream is open
+     */
+    public abstract long retainedBytes();
+
     public abstract void receive(byte[] b, int off, int len);
 
     public abstract void write(byte[] b, int off, int len) throws IOException ; // as OutputStream
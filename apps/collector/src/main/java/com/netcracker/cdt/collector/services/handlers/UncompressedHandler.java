@@ -6,16 +6,14 @@
 import com.netcracker.common.models.pod.streams.StreamRegistry;
 import com.netcracker.persistence.PersistenceService;
 
-import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.UUID;
 
 import static com.netcracker.common.ProtocolConst.MAX_FLUSH_INTERVAL_MILLIS;
 
 // for uncompressed streams -- like heap dump, which already compressed at the agent
 public final class UncompressedHandler<T extends Sizeable> extends StreamHandler {
-    final OutputStream out;
+    final PooledBufferedOutputStream out;
     final UUID streamHandle;
     long lastOffset = 0L;
     long lastFlushed = -1;
@@ -24,12 +22,12 @@ public UncompressedHandler(PersistenceService persistence,
                                StreamDumper streamDumper,
                                StreamRegistry streamRegistry,
                                UUID streamHandle,
-                               int compressorBufferSize) {
+                               ChunkBufferPool buffers) {
         super(persistence, streamDumper, streamRegistry);
         this.streamHandle = streamHandle;
 
         try {
-            this.out = new BufferedOutputStream(this, compressorBufferSize);
+            this.out = new PooledBufferedOutputStream(this, buffers, streamRegistry.stream());
         } catch (Exception e) {
             throw new ProfilerProtocolException(e);
         }
@@ -66,6 +64,10 @@ public boolean flushCompressorIfNeeded() {
         }
     }
 
+    public long retainedBytes() {
+        return out.retainedBytes();
+    }
+
     public void close() throws IOException {
         if (out != null) {
             out.close();
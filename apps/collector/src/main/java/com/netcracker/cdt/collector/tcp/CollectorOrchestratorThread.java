@@ -1,6 +1,7 @@
 package com.netcracker.cdt.collector.tcp;
 
 import com.netcracker.cdt.collector.common.CollectorConfig;
+import com.netcracker.common.Time;
 import com.netcracker.common.models.pod.PodStatus;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -11,15 +12,22 @@
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
-import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.*;
-import java.util.concurrent.locks.LockSupport;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.netcracker.cdt.collector.common.MetricsConst.CONNECTED_AGENTS;
 import static com.netcracker.cdt.collector.common.MetricsConst.CONNECTED_AGENT_NAMESPACE;
 
+/**
+ * Keeps track of agent connections and kills the ones which stay idle for too long.
+ * <p>
+ * Connections are indexed by pod id, so a reconnected pod replaces its previous connection in O(1).
+ * Instead of polling every connection, the thread sleeps until the nearest kill deadline.
+ * When a deadline comes, the connection is killed or, if the agent was active meanwhile,
+ * scheduled again for its new deadline. So an idle orchestrator wakes up once per connection
+ * per {@code 2 * MAX_IDLE_BEFORE_DEATH} at most.
+ */
 @LookupIfProperty(name = "service.type", stringValue = "collector")
 @ApplicationScoped
 public class CollectorOrchestratorThread extends Thread {
@@ -29,92 +37,159 @@ public class CollectorOrchestratorThread extends Thread {
     @Inject
     CollectorConfig config;
 
-    private BlockingQueue<ProfilerAgentConnection> connections;
+    @Inject
+    Time time;
+
+    // value is the namespace the connection is counted in
+    private final Map<OrchestratedConnection, String> connections = new ConcurrentHashMap<>();
+    private final Map<String, OrchestratedConnection> byPod = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> byNamespace = new ConcurrentHashMap<>();
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
 
     private final Map<String, Gauge> CONNECTED_AGENTS_REPORTER_PER_NS = new ConcurrentHashMap<>();
 
     @PostConstruct
     void init() {
-        connections = new ArrayBlockingQueue<>(config.getMaxConnections());
-
-        Gauge.builder(CONNECTED_AGENTS, () -> connections.size())
+        Gauge.builder(CONNECTED_AGENTS, connections, Map::size)
                 .description("Number of agents connected to the collector")
                 .register(registry);
     }
 
-    void addConnection(PodStatus pod, ProfilerAgentConnection pac) {
+    void addConnection(PodStatus pod, OrchestratedConnection pac) {
         Log.debugf("Trying to adding a connection to the pool for %s", pod.podName());
         if (!this.isAlive()) {
             throw new RuntimeException("Collector orchestrator thread died. Can not accept new connections");
         }
+        String namespace = "";
         if (!pod.isEmpty()) { // has original podName
-            if (alreadyHasPod(pod.podId())) {
-                deleteOldConnection(pod.podId());
+            var old = byPod.put(pod.podId(), pac);
+            if (old != null && old != pac) { // Pod reconnected
+                deleteOldConnection(old);
             }
 
             // register metrics
-            var namespace = pod.namespace();
+            namespace = pod.namespace();
             CONNECTED_AGENTS_REPORTER_PER_NS.computeIfAbsent(namespace, (ns) -> Gauge
-                    .builder(CONNECTED_AGENT_NAMESPACE, getConnectionsByNamespace(namespace))
+                    .builder(CONNECTED_AGENT_NAMESPACE, namespaceCounter(ns), AtomicInteger::get)
                     .description("Number of agents connected to the collector per namespace")
-                    .tag("namespace", namespace)
+                    .tag("namespace", ns)
                     .register(Metrics.globalRegistry)
             );
         }
+        if (connections.size() >= config.getMaxConnections()) {
+            if (!pod.isEmpty()) {
+                byPod.remove(pod.podId(), pac);
+            }
+            throw new IllegalStateException("Too many agent connections: " + connections.size());
+        }
+        connections.put(pac, namespace);
+        namespaceCounter(namespace).incrementAndGet();
+        schedule(pac);
         Log.debugf("Added a connection to the pool for %s", pod.podName());
-        this.connections.add(pac);
     }
 
-    private boolean alreadyHasPod(String podId) {
-        for (var pod: connections) {
-            if (podId.equals(pod.getPod().podId())) { // Pod reconnected
-                return true;
-            }
-        }
-        return false;
+    private void deleteOldConnection(OrchestratedConnection oldPac) {
+        unregister(oldPac);
+        // Need to close the previous handle ASAP and free up resources for the new connection
+        // Old pod is guaranteed to have finished writing at this point, delete everything in the cache
+        oldPac.close("New pod connected: " + oldPac.getPod().restartId().oldPodName() + " | restart " + oldPac.getPod().restartTime());
     }
 
-    private void deleteOldConnection(String podId) {
-        for (Iterator<ProfilerAgentConnection> it = connections.iterator(); it.hasNext(); ) {
-            ProfilerAgentConnection oldPac = it.next();
-            if (podId.equals(oldPac.getPod().podId())) {
-                // Need to close the previous handle ASAP and free up resources for the new connection
-                // Old pod is guaranteed to have finished writing at this point, delete everything in the cache
-                oldPac.close("New pod connected: " + oldPac.getPod().restartId().oldPodName() + " | restart "+oldPac.getPod().restartTime());
-                it.remove();
-            }
+    /**
+     * @return false if the connection has been removed already
+     */
+    private boolean unregister(OrchestratedConnection pac) {
+        var namespace = connections.remove(pac);
+        if (namespace == null) {
+            return false;
         }
+        namespaceCounter(namespace).decrementAndGet();
+        var pod = pac.getPod();
+        if (!pod.isEmpty()) {
+            byPod.remove(pod.podId(), pac);
+        }
+        return true;
+    }
+
+    private AtomicInteger namespaceCounter(String namespace) {
+        return byNamespace.computeIfAbsent(namespace, ns -> new AtomicInteger());
+    }
+
+    int getConnections() {
+        return connections.size();
+    }
+
+    public int getConnectionsByNamespace(String namespace) {
+        var counter = byNamespace.get(namespace);
+        return counter == null ? 0 : counter.get();
+    }
+
+    private void schedule(OrchestratedConnection pac) {
+        // timeToKill() requires strictly more idle time than the deadline gives
+        long delay = Math.max(pac.millisToKill(), 0) + 1;
+        deadlines.add(new Deadline(pac, time.currentTimeMillis() + delay));
     }
 
-    public Supplier<Number> getConnectionsByNamespace(String namespace) {
-        return () -> connections.stream().filter(e -> e.getPod().namespace().equals(namespace)).count();
+    /**
+     * Kills the connection if it has been idle for too long, otherwise waits for its next deadline
+     */
+    void check(OrchestratedConnection pac) {
+        if (!connections.containsKey(pac)) {
+            return;
+        }
+        // TODO Even in case beingProcessed = true, kill it after 11 seconds of inactivity
+        if (!pac.timeToKill()) {
+            schedule(pac);
+            return;
+        }
+        Log.debugf("Time to remove a pod connection '%s' from the pool", pac.getPod().podName());
+        try {
+            // Try to kill only once
+            if (unregister(pac) && !pac.shutdownComplete()) {
+                pac.kill();
+            }
+        } catch (Exception e) {
+            Log.error("failed to kill ProfilerAgentConfiguration: ", e);
+        }
     }
 
     @Override
     public void run() {
         Log.infof("Started the orchestrator thread");
         while (isAlive()) {
-            for (Iterator<ProfilerAgentConnection> it = connections.iterator(); it.hasNext(); ) {
-                ProfilerAgentConnection pac = it.next();
-                // TODO Even in case beingProcessed = true, kill it after 11 seconds of inactivity
-                if (pac.timeToKill()) {
-                    Log.debugf("Time to remove a pod connection '%s' from the pool", pac.getPod().podName());
-                    try {
-                        // Try to kill only once
-                        it.remove();
-                        if (!pac.shutdownComplete()) {
-                            pac.kill();
-                        }
-                    } catch (Exception e) {
-                        Log.error("failed to kill ProfilerAgentConfiguration: ", e);
-                    }
-                }
+            Deadline next;
+            try {
+                next = deadlines.take();
+            } catch (InterruptedException e) {
+                break;
             }
-
-            // wait 10 ms for the next packet of data
-            LockSupport.parkNanos(10_000_000L);
+            check(next.connection());
         }
         Log.infof("Stopped the orchestrator thread");
     }
 
+    private final class Deadline implements Delayed {
+        private final OrchestratedConnection connection;
+        private final long at;
+
+        Deadline(OrchestratedConnection connection, long at) {
+            this.connection = connection;
+            this.at = at;
+        }
+
+        OrchestratedConnection connection() {
+            return connection;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(at - time.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(at, ((Deadline) o).at);
+        }
+    }
+
 }
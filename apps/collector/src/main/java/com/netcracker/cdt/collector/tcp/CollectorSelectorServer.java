@@ -0,0 +1,205 @@
+package com.netcracker.cdt.collector.tcp;
+
+import com.netcracker.cdt.collector.common.CollectorConfig;
+import com.netcracker.cdt.collector.common.Metrics;
+import com.netcracker.cdt.collector.services.PodDumper;
+import com.netcracker.cdt.collector.services.StreamDumper;
+import com.netcracker.common.Time;
+import com.netcracker.common.models.pod.PodStatus;
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.*;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.netcracker.common.ProtocolConst.*;
+
+/**
+ * Non-blocking alternative to {@link CollectorConnectionAcceptor}.
+ * <p>
+ * A single selector thread accepts agents and reads their bytes. Commands are decoded by the usual
+ * {@link ProfilerAgentReader} on a virtual thread only when a complete command has arrived,
+ * so idle agents cost nothing but a periodic flush check.
+ */
+@ApplicationScoped
+@LookupIfProperty(name = "service.type", stringValue = "collector")
+public class CollectorSelectorServer {
+    @Inject
+    Time time;
+
+    @Inject
+    StreamDumper streamDumper;
+    @Inject
+    PodDumper podDumper;
+    @Inject
+    Metrics metrics;
+    @Inject
+    CollectorConfig config;
+    @Inject
+    CollectorOrchestratorThread collectorOrchestratorThread;
+
+    private final Set<NioAgentConnection> connections = ConcurrentHashMap.newKeySet();
+    private ExecutorService workers;
+    private volatile Selector selector;
+    private volatile int port;
+    private Thread thread;
+
+    public void start() {
+        start(PLAIN_SOCKET_PORT, config.getMaxConnections());
+    }
+
+    void start(int listenPort, int backlog) {
+        Log.infof("Preparing the collector selector thread");
+        workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("agent-", 0).factory());
+        thread = new Thread(() -> serve(listenPort, backlog));
+        thread.setName("ConnectionSelector");
+        thread.start();
+    }
+
+    /**
+     * Stops accepting and serving agents, the open connections are not closed
+     */
+    void stop() {
+        if (thread != null) {
+            thread.interrupt();
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * @return local port of the server, 0 until it is listening
+     */
+    int port() {
+        return port;
+    }
+
+    private void serve(int listenPort, int backlog) {
+        Log.infof("Started the collector selector thread. Listening to %d port", listenPort);
+        try (var sel = Selector.open(); var server = ServerSocketChannel.open()) {
+            selector = sel;
+            server.bind(new InetSocketAddress(listenPort), backlog);
+            server.configureBlocking(false);
+            server.register(sel, SelectionKey.OP_ACCEPT);
+            port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+            Log.infof("Started listening on socket %d", port);
+
+            long nextFlushCheck = time.currentTimeMillis() + FLUSH_CHECK_INTERVAL_MILLIS;
+            while (!Thread.currentThread().isInterrupted()) {
+                sel.select(FLUSH_CHECK_INTERVAL_MILLIS);
+                var selected = sel.selectedKeys();
+                for (var key : selected) {
+                    if (key.isValid() && key.isAcceptable()) {
+                        acceptSocketConnect(server, sel);
+                    } else if (key.isValid() && key.isWritable()) {
+                        ((NioAgentConnection) key.attachment()).writable();
+                    } else if (key.isValid() && key.isReadable()) {
+                        readSocket((NioAgentConnection) key.attachment());
+                    }
+                }
+                selected.clear();
+
+                long now = time.currentTimeMillis();
+                if (now >= nextFlushCheck) {
+                    checkConnections();
+                    nextFlushCheck = now + FLUSH_CHECK_INTERVAL_MILLIS;
+                }
+            }
+        } catch (Exception e) {
+            Log.errorf(e, "Failed to listen on port %d", listenPort);
+        }
+        Log.infof("Stopped the collector selector thread");
+    }
+
+    private void acceptSocketConnect(ServerSocketChannel server, Selector sel) throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        try {
+            Log.infof("Received connection from %s", channel.getRemoteAddress());
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, PLAIN_SOCKET_RCV_BUFFER_SIZE);
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, PLAIN_SOCKET_SND_BUFFER_SIZE);
+
+            var conn = new NioAgentConnection(time, streamDumper, podDumper, metrics, this, channel);
+            conn.setKey(channel.register(sel, SelectionKey.OP_READ, conn));
+            connections.add(conn);
+            Log.debugf("Waiting for first action from %s", conn.getConnectionName());
+        } catch (Exception e) {
+            Log.error("Exception when picking up new connection ", e);
+            channel.close();
+        }
+    }
+
+    private void readSocket(NioAgentConnection conn) {
+        try {
+            if (conn.readAvailable() && conn.startProcessing()) {
+                workers.execute(conn::process);
+            }
+        } catch (Exception e) {
+            Log.infof("[%s] Connection is dropped: %s", conn.getConnectionName(), e.getMessage());
+            if (conn.startProcessing()) {
+                workers.execute(() -> conn.finish("end of input"));
+            }
+        }
+    }
+
+    /**
+     * Replaces per-connection polling: releases dead connections and lets live ones flush their streams
+     */
+    private void checkConnections() {
+        for (var conn : connections) {
+            if (conn.isDead()) {
+                if (conn.startProcessing()) {
+                    workers.execute(() -> conn.finish("idle"));
+                }
+            } else if (conn.needsFlushCheck() && conn.startProcessing()) {
+                workers.execute(conn::process);
+            }
+        }
+    }
+
+    void register(PodStatus pod, NioAgentConnection conn) {
+        collectorOrchestratorThread.addConnection(pod, conn);
+    }
+
+    /**
+     * @return false if the connection has been closed
+     */
+    boolean watchWritable(SelectionKey key) {
+        try {
+            key.interestOps(SelectionKey.OP_WRITE);
+            selector.wakeup();
+            return true;
+        } catch (CancelledKeyException e) {
+            return false;
+        }
+    }
+
+    void resumeReading(SelectionKey key) {
+        try {
+            key.interestOps(SelectionKey.OP_READ);
+            selector.wakeup();
+        } catch (CancelledKeyException e) {
+            // the connection has been closed in the meantime
+        }
+    }
+
+    void forget(NioAgentConnection conn) {
+        connections.remove(conn);
+    }
+
+    Set<NioAgentConnection> connections() {
+        return connections;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.netcracker.cdt.collector.tcp;
+
+import com.netcracker.cdt.collector.common.transport.ProfilerProtocolException;
+
+import java.nio.ByteBuffer;
+
+import static com.netcracker.common.ProtocolConst.*;
+
+/**
+ * Checks whether the buffered bytes hold a complete agent command, without consuming them.
+ * <p>
+ * Mirrors the field layout read by {@link ProfilerAgentReader#processCommand()}, so the reader can be fed
+ * from a non-blocking channel and never waits for the rest of a command in the middle of it.
+ */
+final class CommandFrameDecoder {
+    static final int INCOMPLETE = -1;
+
+    private static final int BYTE = 1;
+    private static final int INT = 4;
+    private static final int LONG = 8;
+    private static final int UUID = 2 * LONG;
+
+    private CommandFrameDecoder() {
+    }
+
+    /**
+     * @param buf buffer in read mode, it is not modified
+     * @return length of the first command in the buffer or {@link #INCOMPLETE} if more bytes are required
+     */
+    static int frameLength(ByteBuffer buf) {
+        var f = new Frame(buf);
+        if (!f.skip(BYTE)) {
+            return INCOMPLETE;
+        }
+        byte commandId = buf.get(buf.position());
+        boolean complete = switch (commandId) {
+            // namespace, microservice and pod name, then the same fields as INIT_STREAM_V2
+            case COMMAND_INIT_STREAM -> f.skipString() && f.skipString() && f.skipString()
+                    && f.skipString() && f.skip(INT + INT);
+            case COMMAND_INIT_STREAM_V2 -> f.skipString() && f.skip(INT + INT);
+            case COMMAND_RCV_DATA -> f.skip(UUID) && f.skipString();
+            case COMMAND_GET_PROTOCOL_VERSION_V2 -> f.skip(LONG) && f.skipString() && f.skipString() && f.skipString();
+            case COMMAND_REPORT_COMMAND_RESULT -> f.skip(UUID + BYTE);
+            // commands without payload; unknown ones are reported by the reader itself
+            default -> true;
+        };
+        return complete ? f.length : INCOMPLETE;
+    }
+
+    private static final class Frame {
+        private final ByteBuffer buf;
+        private int length;
+
+        Frame(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        boolean skip(int bytes) {
+            if (buf.remaining() < length + bytes) {
+                return false;
+            }
+            length += bytes;
+            return true;
+        }
+
+        boolean skipString() {
+            if (buf.remaining() < length + INT) {
+                return false;
+            }
+            int fieldLength = buf.getInt(buf.position() + length);
+            if (fieldLength < 0 || fieldLength > DATA_BUFFER_SIZE) {
+                throw new ProfilerProtocolException("requested length of field " + fieldLength + " exceeds max length of " + DATA_BUFFER_SIZE);
+            }
+            return skip(INT + fieldLength);
+        }
+    }
+}
@@ -119,5 +119,12 @@ public boolean timeToKill() {
         return idleMs() > 2 * MAX_IDLE_BEFORE_DEATH;
     }
 
+    /**
+     * @return how long the connection may stay idle before {@link #timeToKill()}, if nothing arrives meanwhile
+     */
+    public long millisToKill() {
+        return 2L * MAX_IDLE_BEFORE_DEATH - idleMs();
+    }
+
 
 }
@@ -0,0 +1,281 @@
+package com.netcracker.cdt.collector.tcp;
+
+import com.netcracker.cdt.collector.common.Metrics;
+import com.netcracker.cdt.collector.common.transport.ByteBufferInputStream;
+import com.netcracker.cdt.collector.common.transport.ChannelOutputStream;
+import com.netcracker.cdt.collector.common.transport.ProfilerProtocolException;
+import com.netcracker.cdt.collector.common.transport.ProfilerProtocolTimeoutException;
+import com.netcracker.cdt.collector.services.PodDumper;
+import com.netcracker.cdt.collector.services.StreamDumper;
+import com.netcracker.common.Time;
+import com.netcracker.common.models.pod.PodStatus;
+import io.quarkus.logging.Log;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.netcracker.common.ProtocolConst.*;
+
+/**
+ * Agent connection served by {@link CollectorSelectorServer}.
+ * <p>
+ * The selector thread reads available bytes into {@link #inbound}. Once a complete command is buffered,
+ * the connection stops reading and the commands are processed by {@link ProfilerAgentReader} on a worker thread.
+ * At any moment the buffer is owned either by the selector thread or by a single worker, see {@link #processing}.
+ * <p>
+ * Responses are written by the worker. When the agent does not read them and the socket send buffer is full,
+ * the worker asks the selector to watch the channel for {@link SelectionKey#OP_WRITE} and waits for it.
+ */
+public class NioAgentConnection implements OrchestratedConnection {
+    // an older client sends GET_PROTOCOL_VERSION before the init stream that gives the name of the pod
+    private static final int MAX_INIT_COMMANDS = 2;
+
+    private final CollectorSelectorServer server;
+    private final SocketChannel channel;
+    private final String name;
+
+    // always kept in read mode
+    private final ByteBuffer inbound = ByteBuffer.allocate(PLAIN_SOCKET_RCV_BUFFER_SIZE).flip();
+    final ChannelOutputStream outbound;
+    private final ProfilerAgentReader reader;
+    // released by the selector thread when the channel is writable again, or on close
+    private final Semaphore writable = new Semaphore(0);
+
+    private final AtomicBoolean processing = new AtomicBoolean(false);
+    private final AtomicBoolean forcedClose = new AtomicBoolean(false);
+    private SelectionKey key;
+    private int initCommands = 0;
+    private volatile boolean registered = false;
+    private volatile boolean closed = false;
+
+    NioAgentConnection(Time time, StreamDumper streamDumper, PodDumper podDumper, Metrics metrics,
+                       CollectorSelectorServer server, SocketChannel channel) throws IOException {
+        this.server = server;
+        this.channel = channel;
+        this.name = channel.getRemoteAddress().toString();
+        this.outbound = new ChannelOutputStream(channel, DATA_BUFFER_SIZE, PLAIN_SOCKET_READ_TIMEOUT, this::awaitWritable);
+        this.reader = new ProfilerAgentReader(time, streamDumper, podDumper, metrics, name, this,
+                new ByteBufferInputStream(inbound), outbound);
+        reader.flushCompressor(true);
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    int port() {
+        return channel.socket().getPort();
+    }
+
+    /**
+     * Called by the selector thread when the channel is readable
+     *
+     * @return true if there is a command to process
+     */
+    boolean readAvailable() throws IOException {
+        if (processing.get()) {
+            return false;
+        }
+        inbound.compact();
+        int n;
+        try {
+            n = channel.read(inbound);
+        } finally {
+            inbound.flip();
+        }
+        if (n < 0) {
+            throw new ProfilerProtocolException("End of input!");
+        }
+        if (commandAvailable()) {
+            return true;
+        }
+        if (inbound.remaining() == inbound.capacity()) {
+            throw new ProfilerProtocolException("Command exceeds buffer size of " + inbound.capacity());
+        }
+        return false;
+    }
+
+    /**
+     * Called by the selector thread. Stops reading from the channel until the worker finishes.
+     */
+    boolean startProcessing() {
+        if (!processing.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            key.interestOps(0);
+        } catch (CancelledKeyException e) {
+            // the channel is already closed, the worker is going to release the connection
+        }
+        return true;
+    }
+
+    /**
+     * Called by the worker when the channel does not accept more bytes
+     */
+    private void awaitWritable(long timeoutMillis) throws IOException {
+        writable.drainPermits();
+        if (closed || !server.watchWritable(key)) {
+            throw new ClosedChannelException();
+        }
+        try {
+            writable.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS); // the caller checks the timeout
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the agent to read a response");
+        }
+    }
+
+    /**
+     * Called by the selector thread when the channel the worker waits for is writable
+     */
+    void writable() {
+        try {
+            key.interestOps(0);
+        } catch (CancelledKeyException e) {
+            // the channel is already closed, the worker finds it out on the next write
+        }
+        writable.release();
+    }
+
+    boolean needsFlushCheck() {
+        return registered && !processing.get() && reader.state.needsFlushCheck();
+    }
+
+    /**
+     * Processes all buffered commands, runs on a worker thread after {@link #startProcessing()}
+     */
+    void process() {
+        Thread.currentThread().setName(registered ? "agent-" + port() + "-" + reader.podId() : "agent-" + port());
+        boolean finished = true;
+        try {
+            if (!registered) {
+                initialize();
+            }
+            if (registered) {
+                do {
+                    reader.nextAction();
+                } while (!closed && commandAvailable());
+            }
+            finished = closed;
+        } catch (ProfilerProtocolTimeoutException e) {
+            Log.errorf("[%s] Client dropped by timeout", getConnectionName());
+        } catch (SocketException e) {
+            Log.errorf("[%s] Socket error: %s", getConnectionName(), e.getMessage());
+        } catch (Exception e) {
+            if (!forcedClose.get()) {
+                Log.errorf(e, "[%s] Exception when receiving data. Will close the socket", getConnectionName());
+            } else {
+                Log.infof("[%s] Forced connection closing (may be got new one from pod)", getConnectionName());
+            }
+        } finally {
+            if (finished) {
+                finish("finish loop");
+            } else {
+                processing.set(false);
+                server.resumeReading(key);
+            }
+        }
+    }
+
+    private void initialize() throws IOException {
+        while (!registered && commandAvailable()) {
+            if (initCommands == 0) {
+                Log.debugf("[%s] Processing first command", getConnectionName());
+            }
+            reader.processCommand();
+            initCommands++;
+            // The first command is always init stream, and it gives the name of the pod
+            if (reader.pod().isEmpty() && initCommands < MAX_INIT_COMMANDS) {
+                Log.warnf("[%s] Older client? Have to process second command for initialization", getConnectionName());
+                continue;
+            }
+            reader.state.processed(true);
+            Log.infof("Register connection for %s as %s", name, reader.podId());
+            server.register(reader.pod(), this);
+            registered = true;
+        }
+    }
+
+    /**
+     * Releases the connection after the agent has gone, the same way the blocking reader loop ends
+     */
+    void finish(String reason) {
+        reader.shutdownIfOpen();
+        reader.done();
+        reader.closeStreams();
+        close(reason);
+        server.forget(this);
+    }
+
+    @Override
+    public boolean commandAvailable() {
+        return !isSocketDead() && CommandFrameDecoder.frameLength(inbound) != CommandFrameDecoder.INCOMPLETE;
+    }
+
+    @Override
+    public boolean isSocketDead() {
+        return closed || !channel.isOpen() || !channel.isConnected();
+    }
+
+    @Override
+    public String getConnectionName() {
+        return reader.state.toString();
+    }
+
+    @Override
+    public PodStatus getPod() {
+        return reader.state.pod;
+    }
+
+    boolean isDead() {
+        return reader.state.isDead() || isSocketDead();
+    }
+
+    @Override
+    public boolean timeToKill() {
+        return reader.state.timeToKill();
+    }
+
+    @Override
+    public long millisToKill() {
+        return reader.state.millisToKill();
+    }
+
+    @Override
+    public boolean shutdownComplete() {
+        return reader.state.shutdownComplete();
+    }
+
+    @Override
+    public void kill() {
+        close("kill from orchestrator");
+    }
+
+    @Override
+    public void close(String reason) {
+        if (closed) {
+            return;
+        }
+        Log.infof("[%s] Closing connection. Reason: %s. Idle for %d ms", getConnectionName(), reason, reader.state.idleMs());
+        closed = true;
+        try {
+            forcedClose.set(true);
+            channel.close();
+        } catch (IOException e) {
+            Log.errorf(e, "[%s] Can't close the socket", getConnectionName());
+        }
+        writable.release(); // a worker waiting to write fails at once
+        reader.closeStreams();
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.netcracker.cdt.collector.tcp;
+
+import com.netcracker.common.models.pod.PodStatus;
+
+/**
+ * Agent connection which lifecycle is watched by {@link CollectorOrchestratorThread}
+ */
+public interface OrchestratedConnection extends AgentConnection {
+
+    PodStatus getPod();
+
+    boolean timeToKill();
+
+    /**
+     * @return time left until {@link #timeToKill()} unless the agent sends something
+     */
+    long millisToKill();
+
+    boolean shutdownComplete();
+
+    void kill();
+}
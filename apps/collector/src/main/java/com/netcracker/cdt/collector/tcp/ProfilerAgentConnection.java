@@ -17,7 +17,7 @@
 
 import static com.netcracker.common.ProtocolConst.*;
 
-public class ProfilerAgentConnection implements AgentConnection {
+public class ProfilerAgentConnection implements OrchestratedConnection {
     private final Time time;
     private final StreamDumper streamDumper;
     private final PodDumper podDumper;
@@ -128,10 +128,16 @@ public boolean isSocketDead() {
         return socket == null || socket.isClosed() || !socket.isConnected() || socket.isInputShutdown() || !socket.isBound();
     }
 
-    boolean timeToKill() {
+    @Override
+    public boolean timeToKill() {
         return reader.state.timeToKill();
     }
 
+    @Override
+    public long millisToKill() {
+        return reader.state.millisToKill();
+    }
+
     public String getConnectionName() {
         if (reader != null) {
             return reader.state.toString();
@@ -142,14 +148,17 @@ public String getConnectionName() {
         return "unknown";
     }
 
-    PodStatus getPod() {
+    @Override
+    public PodStatus getPod() {
         return reader.state.pod;
     }
 
+    @Override
     public boolean shutdownComplete() {
         return reader.state.shutdownComplete();
     }
 
+    @Override
     public void kill() {
         close("kill from orchestrator");
 //        return reader.kill();
@@ -3,6 +3,7 @@
 import com.netcracker.common.models.meta.dict.Parameter;
 import com.netcracker.common.models.meta.DictionaryModel;
 import com.netcracker.common.models.meta.ParamsModel;
+import com.netcracker.common.models.meta.PodDictionary;
 import com.netcracker.common.models.pod.PodIdRestart;
 import com.netcracker.common.models.pod.PodInfo;
 import io.quarkus.logging.Log;
@@ -79,6 +80,20 @@ public void enrichDb(List<ParamsModel> parameters, List<DictionaryModel> diction
         });
     }
 
+    public void enrich(PodDictionary dict) {
+        if (!registeredParams.isEmpty()) {
+            Log.warnf("[%s] already have meta data (got %s, already have %d params and %d tags)",
+                    pod.podName(), dict, registeredParams.size(), registeredLiterals.size());
+        }
+        dict.forEachTag(this::putLiteral);
+
+        dict.getParams().values().forEach(sp -> {
+            if (!putParameter(sp.paramName(), sp.paramIndex(), sp.paramList(), sp.paramOrder(), sp.signature())) {
+                Log.debugf("[%s] invalid tag name '%s'", pod.podName(), sp.paramName());
+            }
+        });
+    }
+
     public void putLiteral(int idx, String s) {
         registeredLiterals.put(s, idx);
         idLiterals.put(idx, s);
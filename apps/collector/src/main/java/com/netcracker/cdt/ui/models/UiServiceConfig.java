@@ -20,12 +20,21 @@ public class UiServiceConfig {
     @ConfigProperty(name = "ui.max.request.time", defaultValue="5000") // UI_MAX_REQUEST_TIME
     int maxRequestTime;
 
+    @ConfigProperty(name = "ui.window.idle.time", defaultValue="1800000") // UI_WINDOW_IDLE_TIME
+    int windowIdleTime;
+
     @ConfigProperty(name = "ui.max.export.rows", defaultValue="1000000") // UI_MAX_EXPORT_ROWS
     int maxExportRows;
 
     @ConfigProperty(name = "ui.max.export.time", defaultValue="25000") // UI_MAX_EXPORT_TIME
     int maxExportTime;
 
+    @ConfigProperty(name = "ui.tree.read.concurrency", defaultValue="8") // UI_TREE_READ_CONCURRENCY
+    int treeReadConcurrency;
+
+    @ConfigProperty(name = "ui.dictionary.cache.tags", defaultValue="2000000") // UI_DICTIONARY_CACHE_TAGS
+    long dictionaryCacheTags;
+
     public int getUiConcurrentPods() {
         return uiConcurrentPods;
     }
@@ -42,6 +51,10 @@ public int getMaxRequestTime() {
         return maxRequestTime;
     }
 
+    public int getWindowIdleTime() {
+        return windowIdleTime;
+    }
+
     public int getMaxExportTime() {
         return maxExportTime;
     }
@@ -49,4 +62,12 @@ public int getMaxExportTime() {
     public int getMaxExportRows() {
         return maxExportRows;
     }
+
+    public int getTreeReadConcurrency() {
+        return treeReadConcurrency;
+    }
+
+    public long getDictionaryCacheTags() {
+        return dictionaryCacheTags;
+    }
 }
@@ -19,6 +19,8 @@
 import io.quarkiverse.bucket4j.runtime.RateLimited;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.logging.Log;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.mutiny.Uni;
 import io.vertx.core.http.HttpServerRequest;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -59,41 +61,36 @@ public class CdtCallController {
      */
     @POST
     @Path("/load")
-    public Responses.CallsList callsList(Requests.CallsList req) {
+    @RunOnVirtualThread
+    public Uni<Responses.CallsList> callsList(Requests.CallsList req) {
         // validation
         if (!req.validate()) {
             throw new ExceptionMappers.InvalidRequest("invalid request, error during validation");
         }
         var search = req.prepareSearchRequest();
 
-        var list = callService.getCallList(search);
-        var status = Responses.CallsList.of(list.status());
-        var calls = Responses.CallsList.convert(list);
-        return new Responses.CallsList(status, calls);
-
+        return callService.getCallList(search).map(list -> {
+            var status = Responses.CallsList.of(list.status());
+            var calls = Responses.CallsList.convert(list);
+            return new Responses.CallsList(status, calls);
+        });
     }
 
     @POST
     @Path("/stat")
-    public Responses.CallsStatistic callsStat(Requests.CallsList req) {
+    @RunOnVirtualThread
+    public Uni<Responses.CallsStatistic> callsStat(Requests.CallsList req) {
         // validation
         if (!req.validate()) {
             throw new ExceptionMappers.InvalidRequest("invalid request, error during validation");
         }
         var search = req.prepareSearchRequest();
-        search = search.overrideLimit(0, 1000);
-
-        try {
-            Thread.sleep(300);
-        } catch (InterruptedException e) {
-            Log.errorf("error during thread sleep: %s", e.getMessage());
-        }
-
-        var list = callService.getCallList(search);
-        var status = Responses.CallsStatistic.of(list.status());
-        var calls = Responses.CallsStatistic.convert(list);
-        return new Responses.CallsStatistic(status, calls);
 
+        return callService.getCallStatistics(search).map(list -> {
+            var status = Responses.CallsStatistic.of(list.status());
+            var calls = Responses.CallsStatistic.convert(list);
+            return new Responses.CallsStatistic(status, calls);
+        });
     }
 
     /**
@@ -220,8 +217,9 @@ public String getTagsList(@RestPath String podName) {
     @GET
     @Path("/{namespace}/{serviceName}")
     @RateLimited(bucket = "call")
-    public Responses.CallsList getCallList(@RestPath String namespace, @RestPath String serviceName,
-                                           @RestQuery Instant from, @RestQuery Instant to) {
+    @RunOnVirtualThread
+    public Uni<Responses.CallsList> getCallList(@RestPath String namespace, @RestPath String serviceName,
+                                                @RestQuery Instant from, @RestQuery Instant to) {
 
         int offset = 0;
         int limit = 300;
@@ -235,11 +233,11 @@ public Responses.CallsList getCallList(@RestPath String namespace, @RestPath Str
                 offset, limit,
                 0, true); // timestamp
 
-        var list = callService.getCallList(search);
-
-        var status = Responses.CallsList.of(list.status());
-        var calls = Responses.CallsList.convert(list);
-        return new Responses.CallsList(status, calls);
+        return callService.getCallList(search).map(list -> {
+            var status = Responses.CallsList.of(list.status());
+            var calls = Responses.CallsList.convert(list);
+            return new Responses.CallsList(status, calls);
+        });
     }
 
 }
@@ -17,6 +17,7 @@
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 @LookupIfProperty(name = "service.type", stringValue = "ui")
 @ApplicationScoped
@@ -48,7 +49,8 @@ public Response callTree(HttpServerRequest req) {
             var tree = reader.read();
 
             var mediator = new CallTreeMediator(context);
-            var js = mediator.render(tree);
+            // written in chunks straight to the response, compressed by the http layer (`quarkus.http.enable-compression`)
+            StreamingOutput js = out -> mediator.render(tree, out);
 
             return Response.
                     ok(js).
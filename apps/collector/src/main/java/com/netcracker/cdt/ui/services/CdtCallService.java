@@ -2,6 +2,7 @@
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.netcracker.cdt.ui.models.UiServiceConfig;
 import com.netcracker.cdt.ui.services.calls.export.ExporterTask;
 import com.netcracker.cdt.ui.services.calls.view.ClientWindowInfo;
@@ -11,11 +12,16 @@
 import com.netcracker.common.Time;
 import io.quarkiverse.bucket4j.runtime.RateLimited;
 import io.quarkus.arc.lookup.LookupIfProperty;
+import io.smallrye.mutiny.Uni;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.StreamingOutput;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -25,7 +31,9 @@
 @ApplicationScoped
 public class CdtCallService {
 
-    Cache<String, ClientWindowInfo> cache = Caffeine.newBuilder().softValues().build();
+    static final int STAT_CALLS = 1000;
+
+    Cache<String, ClientWindowInfo> cache;
 
     @Inject
     Time time;
@@ -34,19 +42,53 @@ public class CdtCallService {
     @Inject
     UiServiceConfig config;
 
+    private ExecutorService reloads;
+
     @PostConstruct
     public void init() {
+        reloads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ui-reload-", 0).factory());
+        // windows collected by GC can't be cancelled, their searches stop at `ui.max.calls`
+        cache = Caffeine.newBuilder()
+                .softValues()
+                .expireAfterAccess(Duration.ofMillis(config.getWindowIdleTime()))
+                .removalListener((String windowId, ClientWindowInfo window, RemovalCause cause) -> {
+                    if (window != null) {
+                        window.cancel();
+                    }
+                })
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cache.invalidateAll();
+        reloads.shutdownNow();
     }
 
+    /**
+     * Requests of a window with the same search parameters share one search and get the calls found so far,
+     * see {@link ClientWindowInfo}
+     */
     @RateLimited(bucket = "call")
-    public CallsListResult getCallList(CallsListRequest request) {
+    public Uni<CallsListResult> getCallList(CallsListRequest request) {
         var window = cache.get(request.windowId(), this::createNewWindow);
+        var fixed = request.fixUTCRange();
+        return window.reloadData(metaLoader, fixed, config.getUiConcurrentPods(), reloads)
+                .emitOn(reloads) // the response is built off the reload worker or the timer thread which completed the state
+                .map(state -> window.asResponse(fixed, state));
+    }
 
-        if (!request.searchHash().equals(window.searchHash())) { // should run different search
-            window.reloadData(metaLoader, request.fixUTCRange(), config.getUiConcurrentPods());
-        }
-
-        return window.asResponse(request);
+    /**
+     * Calls for the chart of a window: served from the search of the window, which is usually started
+     * by the {@link #getCallList} request sent with it, and shared with it
+     */
+    @RateLimited(bucket = "call")
+    public Uni<CallsListResult> getCallStatistics(CallsListRequest request) {
+        var window = cache.get(request.windowId(), this::createNewWindow);
+        var fixed = request.fixUTCRange();
+        return window.reloadData(metaLoader, fixed, config.getUiConcurrentPods(), reloads)
+                .emitOn(reloads)
+                .map(state -> window.asResponse(fixed.overrideLimit(0, STAT_CALLS), state));
     }
 
     @RateLimited(bucket = "export")
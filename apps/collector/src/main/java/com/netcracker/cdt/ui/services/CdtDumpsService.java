@@ -78,7 +78,7 @@ OutStream getOutput(String fileName, String fileExt, List<StreamRegistry> regist
             ZipOutputStream zout = new ZipOutputStream(outputStream);
             for (StreamRegistry sr : registries) {
                 String entryName = sr.podRestart().podName() + "/" + FILE_NAME_FORMATTER.format(sr.modifiedWhen()) + "." + fileExt + ".zip";
-                try (InputStream is = persistence.streams.getStream(sr)) {
+                try (InputStream is = persistence.streams.getDecodedStream(sr)) {
                     ZipEntry ze = new ZipEntry(entryName);
                     zout.putNextEntry(ze);
                     IOUtils.copy(is, zout);
@@ -100,7 +100,7 @@ public StreamingOutput prepareStream(List<PodIdRestart> pods, StreamType streamT
                         registries.size(), pod.toString(), streamType.toString(), from, to);
                 for (StreamRegistry sr : registries) {
                     String entryName = sr.getZipEntryName(streamType);
-                    try (InputStream is = persistence.streams.getStream(sr)) {
+                    try (InputStream is = persistence.streams.getDecodedStream(sr)) {
                         ZipEntry ze = new ZipEntry(entryName);
                         zout.putNextEntry(ze);
                         IOUtils.copy(is, zout);
@@ -136,7 +136,7 @@ public StreamingOutput prepareStream(PodIdRestart pod, StreamType streamType, in
 
     StreamingOutput prepareStream(StreamRegistry sr) {
         return outputStream -> {
-            try (InputStream is = persistence.streams.getStream(sr)) {
+            try (InputStream is = persistence.streams.getDecodedStream(sr)) {
                 IOUtils.copy(is, outputStream);
             }
         };
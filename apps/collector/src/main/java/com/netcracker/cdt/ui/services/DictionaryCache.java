@@ -0,0 +1,105 @@
+package com.netcracker.cdt.ui.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netcracker.cdt.ui.models.UiServiceConfig;
+import com.netcracker.common.models.meta.DictionaryModel;
+import com.netcracker.common.models.meta.ParamsModel;
+import com.netcracker.common.models.meta.PodDictionary;
+import com.netcracker.common.models.pod.PodIdRestart;
+import com.netcracker.persistence.PersistenceService;
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static com.netcracker.persistence.PodsMetaPersistence.DICTIONARY_BATCH_LIMIT;
+
+/**
+ * Dictionaries of pod restarts shared by all UI requests (call trees and calls lists).
+ * <p>
+ * Tags of a pod restart never change, so only the tags which are not cached yet are loaded from the DB.
+ * The cache is limited by the total amount of tags (`ui.dictionary.cache.tags`).
+ */
+@LookupIfProperty(name = "service.type", stringValue = "ui")
+@ApplicationScoped
+public class DictionaryCache {
+
+    @Inject
+    PersistenceService persistence;
+
+    @Inject
+    UiServiceConfig config;
+
+    Cache<PodIdRestart, PodDictionary> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(config.getDictionaryCacheTags())
+                .weigher((PodIdRestart pod, PodDictionary dict) -> dict.weight())
+                .build();
+    }
+
+    public PodDictionary get(PodIdRestart pod) {
+        var dict = cache.getIfPresent(pod);
+        return dict == null ? PodDictionary.EMPTY : dict;
+    }
+
+    /**
+     * @return dictionary with the parameters and the required tags of the pod (unless the DB doesn't have them)
+     */
+    public PodDictionary get(PodIdRestart pod, BitSet required) {
+        var dict = get(pod);
+        var missing = dict.missing(required);
+        if (missing.isEmpty() && dict.isParamsLoaded()) {
+            return dict;
+        }
+        // new tags of a live pod may come with new parameters
+        var params = persistence.meta.getParams(pod);
+        var tags = new ArrayList<DictionaryModel>();
+        var ids = new ArrayList<Integer>(Math.min(missing.cardinality(), DICTIONARY_BATCH_LIMIT));
+        for (int i = missing.nextSetBit(0); i >= 0; i = missing.nextSetBit(i + 1)) {
+            ids.add(i);
+            if (ids.size() == DICTIONARY_BATCH_LIMIT) {
+                tags.addAll(persistence.meta.getDictionary(pod, ids));
+                ids.clear();
+            }
+        }
+        if (!ids.isEmpty()) {
+            tags.addAll(persistence.meta.getDictionary(pod, ids));
+        }
+        Log.debugf("[%s] Loaded %d of %d missing tags, %d params", pod, tags.size(), missing.cardinality(), params.size());
+        return update(pod, tags, params, 0);
+    }
+
+    /**
+     * @param lastActive last time the pod has written data, the whole dictionary is reloaded if it could be changed since
+     *                   the previous load
+     * @return the whole dictionary of the pod
+     */
+    public PodDictionary getAll(PodIdRestart pod, Instant lastActive) {
+        var dict = get(pod);
+        if (lastActive != null && dict.isCompleteSince(lastActive.toEpochMilli())) {
+            return dict;
+        }
+        long startedAt = System.currentTimeMillis();
+        var params = persistence.meta.getParams(pod);
+        var tags = persistence.meta.getDictionary(pod);
+        Log.debugf("[%s] Loaded %d tags, %d params", pod, tags.size(), params.size());
+        // failed reads return nothing, so the empty dictionary is loaded again next time
+        return update(pod, tags, params, tags.isEmpty() ? 0 : startedAt);
+    }
+
+    private PodDictionary update(PodIdRestart pod, List<DictionaryModel> tags, List<ParamsModel> params, long completeAt) {
+        // concurrent loads of the same pod add up
+        return cache.asMap().compute(pod, (k, dict) ->
+                (dict == null ? PodDictionary.EMPTY : dict).with(tags, params, completeAt));
+    }
+}
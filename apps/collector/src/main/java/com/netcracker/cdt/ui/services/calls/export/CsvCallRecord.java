@@ -2,60 +2,60 @@
 
 import com.netcracker.cdt.ui.services.calls.models.CallRecord;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
+/**
+ * Encodes rows straight into a buffered UTF-8 writer over the output stream.
+ * Numbers are printed into a reusable char buffer, so a row doesn't allocate strings or byte arrays.
+ */
 public class CsvCallRecord implements ExportRecord {
-    private static DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.of("UTC"));
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.of("UTC"));
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String SEPARATOR = " ; ";
 
-    private final StringBuilder builder;
+    private final Writer writer;
+    private final char[] digits = new char[20];
 
-    public CsvCallRecord() {
-        this.builder = new StringBuilder(); // TODO use pool of StringBuilder and sb.setLength(0);
-    }
-
-    public CsvCallRecord(StringBuilder b) {
-        this.builder = b;
-    }
+    // calls are sorted, so neighbours usually start in the same second
+    private long lastSecond = Long.MIN_VALUE;
+    private String lastTimestamp;
 
-    public void print(OutputStream out) throws IOException { // after each row/header
-        var s = builder.toString();
-        out.write(s.getBytes(StandardCharsets.UTF_8));
-        builder.setLength(0);
+    public CsvCallRecord(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
     }
 
-    public void flush(OutputStream out) throws IOException { // before closing
+    public void flush() throws IOException { // before closing
+        writer.flush();
     }
 
-    public void appendHeader() {
-        builder.append("Start timestamp ; ");
-        builder.append("Duration ; ");
-        builder.append("CPU Time(ms) ; ");
-        builder.append("Suspended(ms) ; ");
-        builder.append("Queue(ms) ; ");
-        builder.append("Calls ; ");
-        builder.append("Transactions ; ");
-        builder.append("Disk Read (B) ; ");
-        builder.append("Disk Written (B) ; ");
-        builder.append("RAM (B) ; ");
-        builder.append("Logs generated ; ");
-        builder.append("Logs written (B) ; ");
-        builder.append("Net read (B) ; ");
-        builder.append("Net written (B) ; ");
-        builder.append("Namespace ; ");
-        builder.append("Service Name ; ");
-        builder.append("POD ; ");
-        builder.append("method");
-        builder.append("\n");
+    public void appendHeader() throws IOException {
+        writer.write("Start timestamp ; ");
+        writer.write("Duration ; ");
+        writer.write("CPU Time(ms) ; ");
+        writer.write("Suspended(ms) ; ");
+        writer.write("Queue(ms) ; ");
+        writer.write("Calls ; ");
+        writer.write("Transactions ; ");
+        writer.write("Disk Read (B) ; ");
+        writer.write("Disk Written (B) ; ");
+        writer.write("RAM (B) ; ");
+        writer.write("Logs generated ; ");
+        writer.write("Logs written (B) ; ");
+        writer.write("Net read (B) ; ");
+        writer.write("Net written (B) ; ");
+        writer.write("Namespace ; ");
+        writer.write("Service Name ; ");
+        writer.write("POD ; ");
+        writer.write("method");
+        writer.write('\n');
     }
 
-    public void appendRow(CallRecord call) {
-        append(formatter.format(Instant.ofEpochMilli(call.actualTimestamp())));
+    public void appendRow(CallRecord call) throws IOException {
+        append(timestamp(call.actualTimestamp()));
         append(call.actualDuration());
         append(call.cpuTime());
         append(call.suspendDuration());
@@ -73,16 +73,38 @@ public void appendRow(CallRecord call) {
         append(call.pod().service());
         append(call.pod().podName());
         append(call.method());
-        builder.append("\n");
+        writer.write('\n');
+    }
+
+    private String timestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        if (second != lastSecond) {
+            lastSecond = second;
+            lastTimestamp = formatter.format(Instant.ofEpochSecond(second));
+        }
+        return lastTimestamp;
     }
 
-    private void append(long v) {
-        builder.append(v);
-        builder.append(" ; ");
+    private void append(long v) throws IOException {
+        if (v == Long.MIN_VALUE) {
+            writer.write(Long.toString(v));
+        } else {
+            int pos = digits.length;
+            long abs = Math.abs(v);
+            do {
+                digits[--pos] = (char) ('0' + abs % 10);
+                abs /= 10;
+            } while (abs != 0);
+            if (v < 0) {
+                digits[--pos] = '-';
+            }
+            writer.write(digits, pos, digits.length - pos);
+        }
+        writer.write(SEPARATOR);
     }
 
-    private void append(String v) {
-        builder.append(v);
-        builder.append(" ; ");
+    private void append(String v) throws IOException {
+        writer.write(String.valueOf(v));
+        writer.write(SEPARATOR);
     }
 }
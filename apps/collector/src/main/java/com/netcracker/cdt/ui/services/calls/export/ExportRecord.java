@@ -3,16 +3,23 @@
 import com.netcracker.cdt.ui.services.calls.models.CallRecord;
 
 import java.io.IOException;
-import java.io.OutputStream;
 
-public interface ExportRecord {
+/**
+ * Writes exported calls to the output stream given to the exporter, row by row.
+ */
+public interface ExportRecord extends AutoCloseable {
 
-    void flush(OutputStream out) throws IOException;
+    void appendHeader() throws IOException;
 
-    void print(OutputStream out) throws IOException;
+    void appendRow(CallRecord call) throws IOException;
 
-    void appendHeader();
+    /**
+     * Writes the rest of the document, the stream is left open
+     */
+    void flush() throws IOException;
 
-    void appendRow(CallRecord call);
+    @Override
+    default void close() throws IOException {
+    }
 
 }
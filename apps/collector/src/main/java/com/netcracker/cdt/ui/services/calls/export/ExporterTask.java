@@ -1,17 +1,24 @@
 package com.netcracker.cdt.ui.services.calls.export;
 
 import com.netcracker.cdt.ui.services.calls.CallsListRequest;
-import com.netcracker.cdt.ui.services.calls.models.CallSeqResult;
 import com.netcracker.cdt.ui.services.calls.tasks.CallsMetaLoader;
-import com.netcracker.cdt.ui.services.calls.tasks.LocalReloadTask;
 import com.netcracker.cdt.ui.services.calls.tasks.ReloadTaskState;
+import com.netcracker.cdt.ui.services.calls.view.UiCallRecordFilter;
 import com.netcracker.common.utils.DB;
 import io.quarkus.logging.Log;
 
 import java.io.IOException;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.zip.ZipOutputStream;
 
+/**
+ * Exports calls found by the same search as the UI uses (see {@link com.netcracker.cdt.ui.services.calls.tasks.CloudReloadTask}).
+ * <p>
+ * Waits for the search to finish, but not longer than {@code maxExportTime}, then writes the calls
+ * matching the query in the requested order, at most {@code pageSize} of them, straight to the stream.
+ */
 public class ExporterTask {
 
     private final String serverAddress;
@@ -35,48 +42,60 @@ public void stream(ZipOutputStream zout) {
 
     @DB("reloadData")
     public void export(CallsMetaLoader metaLoader, CallsListRequest req) throws IOException {
+        try (var recorder = recorder()) {
+            var task = metaLoader.createTask(metaLoader, req, concurrent);
+            this.state = task.prepare()
+                    .uiLimits(req.pageSize(), req.pageSize())
+                    .timeout(maxExportTime);
+            try {
+                task.run();
+                awaitSearch();
+            } catch (RuntimeException e) {
+                Log.errorf(e, "Export search failed");
+                state.cancel();
+            }
 
-        var recorder = switch (exportType.toLowerCase()) {
-            case "csv" -> new CsvCallRecord();
-            case "excel" -> new XlsCallRecord(serverAddress);
-//            case "excel" -> new XlsExporter();
-            default -> throw new IllegalStateException("Invalid export type: " + exportType);
-        };
-
-        recorder.appendHeader();
-        recorder.print(stream);
-
-        var failed = new AtomicInteger(0);
-
-        var task = new LocalReloadTask(metaLoader, concurrent, req, true) {
-            @Override
-            protected void proceedSeqResult(CallSeqResult podSeqResult) {
-                var task = podSeqResult.subTask();
-                if (task == null) return;
-
-                Log.debugf("[%s] Exporting %s with %d calls", task.podId(), task, podSeqResult.parsedCalls());
+            recorder.appendHeader();
+            var calls = state.getCallsList();
+            if (calls == null) {
+                recorder.flush();
+                return;
+            }
+            var found = calls.sortCalls(req.sortColumn(), req.sortOrder())
+                    .filter(UiCallRecordFilter.create(req.query())::filter);
+            int rows = Math.min(found.size(), req.pageSize());
+            Log.infof("Exporting %d calls of %d found", rows, found.size());
 
-                podSeqResult.calls().forEach(call -> {
-                    recorder.appendRow(call);
-                    try {
-                        recorder.print(stream);
-                    } catch (IOException e) {
-                        if (failed.getAndIncrement() == 0) {
-                            Log.errorf("[%s#%d] Error during export: %s",
-                                    task.podId(), task.sequenceId(), e.getMessage());
-                        }
-                    }
-                });
+            for (int i = 0; i < rows; i++) {
+                recorder.appendRow(found.get(i));
             }
+            recorder.flush();
+        }
+    }
+
+    private ExportRecord recorder() {
+        return switch (exportType.toLowerCase()) {
+            case "csv" -> new CsvCallRecord(stream);
+            case "excel" -> new XlsCallRecord(serverAddress, stream);
+            default -> throw new IllegalStateException("Invalid export type: " + exportType);
         };
-        this.state = task.prepare()
-                .uiLimits(req.pageSize(), req.pageSize())
-                .timeout(maxExportTime);
-        task.run();
+    }
 
-        recorder.flush(stream);
-        if (failed.get() > 0) {
-            Log.errorf("Got %d errors during export", failed.get());
+    private void awaitSearch() {
+        try {
+            if (maxExportTime == 0) {
+                state.done().toCompletableFuture().get();
+            } else {
+                state.done().toCompletableFuture().get(maxExportTime, TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException e) {
+            Log.warnf("Export search is not finished in %d ms, exporting calls found so far", maxExportTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Log.errorf(e, "Export search failed");
+        } finally {
+            state.cancel(); // files not started yet are skipped
         }
     }
 
@@ -1,7 +1,6 @@
 package com.netcracker.cdt.ui.services.calls.export;
 
 import com.netcracker.cdt.ui.services.calls.models.CallRecord;
-import org.apache.poi.common.usermodel.HyperlinkType;
 import org.apache.poi.hssf.util.HSSFColor;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
@@ -12,19 +11,29 @@
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
-public class XlsCallRecord implements AutoCloseable, ExportRecord {
-    private static int MEMORY_ROWS = 100; // keep 100 rows in memory, exceeding rows will be flushed to disk
-    private static DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.of("UTC"));
+/**
+ * Rows are written by {@link SXSSFWorkbook}: only the last {@code MEMORY_ROWS} rows are kept in memory,
+ * the rest go to a compressed temporary file, which is copied to the output stream by {@link #flush()}.
+ * <p>
+ * Links are {@code HYPERLINK} formulas and not hyperlink objects: the latter are kept in memory for the whole sheet.
+ */
+public class XlsCallRecord implements ExportRecord {
+    private static final int MEMORY_ROWS = 100; // keep 100 rows in memory, exceeding rows will be flushed to disk
+    private static final int MAX_FORMULA_LITERAL = 255;
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.of("UTC"));
 
     private final String serverAddress;
+    private final OutputStream out;
     private final SXSSFWorkbook workbook;
     private final Sheet sheet;
     private final CellStyle linkStyle, headerStyle;
     private int rownum;
 
-    public XlsCallRecord(String serverAddress) {
+    public XlsCallRecord(String serverAddress, OutputStream out) {
         this.serverAddress = serverAddress;
+        this.out = out;
         this.workbook = new SXSSFWorkbook(MEMORY_ROWS);
+        workbook.setCompressTempFiles(true);
         this.sheet = workbook.createSheet();
 
         linkStyle = workbook.createCellStyle();
@@ -39,10 +48,7 @@ public XlsCallRecord(String serverAddress) {
         headerStyle.setFont(headerFont);
     }
 
-    public void print(OutputStream out) throws IOException { // after each row/header
-    }
-
-    public void flush(OutputStream out) throws IOException { // before closing
+    public void flush() throws IOException { // before closing
         workbook.write(out);
     }
 
@@ -69,12 +75,9 @@ public void appendRow(CallRecord call) {
 
         var linkHref = "%s/esc/tree.html#params-trim-size=15000&f[_0]=%s&i=0_%s".
                 formatted(serverAddress, call.pod().oldPodName(), call.traceRecordId());
-        var linkToCall = sheet.getWorkbook().getCreationHelper().createHyperlink(HyperlinkType.URL);
-        linkToCall.setAddress(linkHref);
 
         var detailsCell = row.createCell(cellIndex++);
-        detailsCell.setHyperlink(linkToCall);
-        detailsCell.setCellValue("details");
+        detailsCell.setCellFormula("HYPERLINK(%s,\"details\")".formatted(formulaString(linkHref)));
         detailsCell.setCellStyle(linkStyle);
 
         var timestamp = formatter.format(Instant.ofEpochMilli(call.actualTimestamp()));
@@ -100,8 +103,29 @@ public void appendRow(CallRecord call) {
 
     }
 
+    /**
+     * @return string expression for a formula, string literals in formulas are limited to 255 chars
+     */
+    static String formulaString(String s) {
+        var escaped = s.replace("\"", "\"\"");
+        var sb = new StringBuilder(escaped.length() + 8);
+        int start = 0;
+        while (start < escaped.length()) {
+            int end = Math.min(escaped.length(), start + MAX_FORMULA_LITERAL);
+            if (end < escaped.length() && escaped.charAt(end - 1) == '"' && escaped.charAt(end) == '"') {
+                end--; // don't split an escaped quote
+            }
+            if (start > 0) {
+                sb.append('&');
+            }
+            sb.append('"').append(escaped, start, end).append('"');
+            start = end;
+        }
+        return sb.isEmpty() ? "\"\"" : sb.toString();
+    }
+
     @Override
-    public void close() throws Exception {
+    public void close() throws IOException {
         try {
             workbook.dispose(); // dispose of temporary files backing this workbook on disk
         } finally {
@@ -54,6 +54,30 @@ public Object getAtIndex(int index) {
         };
     }
 
+    /**
+     * Value of a numeric column as {@link #getAtIndex(int)}, without boxing
+     */
+    public long longAtIndex(int index) {
+        return switch (index) {
+            case C_TIME -> actualTimestamp();
+            case C_NON_BLOCKING -> nonBlocking;
+            case C_DURATION -> actualDuration();
+            case C_CPU_TIME -> cpuTime;
+            case C_QUEUE_WAIT_TIME -> queueWaitDuration;
+            case C_SUSPENSION -> suspendDuration;
+            case C_CALLS -> calls;
+            case C_TRANSACTIONS -> transactions;
+            case C_MEMORY_ALLOCATED -> memoryUsed;
+            case C_LOG_GENERATED -> logsGenerated;
+            case C_LOG_WRITTEN -> logsWritten;
+            case C_FILE_TOTAL -> diskBytes();
+            case C_FILE_WRITTEN -> fileWritten;
+            case C_NET_TOTAL -> netBytes();
+            case C_NET_WRITTEN -> netWritten;
+            default -> throw new IllegalArgumentException("Column " + index + " is not numeric");
+        };
+    }
+
     public long actualTimestamp() {
         return time - queueWaitDuration;
     }
@@ -96,16 +120,14 @@ public static boolean isComparable(int sortIndex) {
 
     public static Comparator<CallRecord> comparator(int sortIndex, boolean asc) {
         final int k = coeff(asc);
-        if (isInt(sortIndex)) {
-            return Comparator.
-                    <CallRecord>comparingInt(cr -> k * (Integer) cr.getAtIndex(sortIndex)).
+        if (isString(sortIndex)) { // the folder is listed among int columns too
+            Comparator<CallRecord> byString = Comparator.comparing(cr -> cr.getAtIndex(sortIndex).toString());
+            return (asc ? byString : byString.reversed()).
                     thenComparing(cr -> cr);
-        } else if (isLong(sortIndex)) {
+        } else if (isInt(sortIndex) || isLong(sortIndex)) {
             return Comparator.
-                    <CallRecord>comparingLong(cr -> k * (Long) cr.getAtIndex(sortIndex)).
+                    <CallRecord>comparingLong(cr -> k * cr.longAtIndex(sortIndex)).
                     thenComparing(cr -> cr);
-        } else if (isString(sortIndex)) {
-            return Comparator.comparing(cr -> cr.getAtIndex(sortIndex).toString());
         } else {
             return null;
         }
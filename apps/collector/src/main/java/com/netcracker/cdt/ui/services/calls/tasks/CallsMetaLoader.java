@@ -2,6 +2,7 @@
 
 import com.netcracker.cdt.ui.models.PodMetaData;
 import com.netcracker.cdt.ui.models.PodsIndex;
+import com.netcracker.cdt.ui.services.DictionaryCache;
 import com.netcracker.cdt.ui.services.calls.CallsListRequest;
 import com.netcracker.common.PersistenceType;
 import com.netcracker.common.models.TimeRange;
@@ -33,6 +34,9 @@ public class CallsMetaLoader {
     @Inject
     PersistenceService persistence;
 
+    @Inject
+    DictionaryCache dictionaries;
+
     @DB
     public ReloadTask createTask(CallsMetaLoader metaLoader, CallsListRequest newRequest, int concurrent) {
         return new CloudReloadTask(newRequest, persistence.cloud);
@@ -57,12 +61,10 @@ public List<PodMetaData> findPods(PodsIndex pods, CallsListRequest r) {
         return podList;
     }
 
-    // Load all parameters and dictionary for pod (see also `DICTIONARY_BATCH_LIMIT` hard limit)
+    // Load all parameters and dictionary for pod (see also `DICTIONARY_BATCH_LIMIT` hard limit), shared with other requests
     @DB
     PodMetaData findPodMetaData(PodMetaData pod) {
-        var params = persistence.meta.getParams(pod.podId());
-        var tags = persistence.meta.getDictionary(pod.podId());
-        pod.enrichDb(params, tags);
+        pod.enrich(dictionaries.getAll(pod.podId(), pod.lastActive()));
         return pod;
     }
 
@@ -50,11 +50,12 @@ public void run() {
 
             var start = System.currentTimeMillis();
 
+            // the state is finished by the loader when all files are parsed
             this.taskState = cloud.getCallSequence(services, queryFilter, period, durationRange, taskState);
-            taskState.finish();
             var ms = System.currentTimeMillis() - start;
-            Log.infof("Returns %d results in %d ms, got all info from %d pods",
-                    taskState.fetchedCalls(), ms, taskState.totalPods());
+            Log.infof("[%s] Scheduled loading of calls in %d ms", windowId, ms);
+            taskState.firstPage().thenRun(() -> Log.infof("[%s] Got first %d results in %d ms, finished? %b",
+                    windowId, taskState.fetchedCalls(), System.currentTimeMillis() - start, taskState.isFinished()));
         } catch (Exception e) {
             Log.errorf(e, "problem?");
             throw new RuntimeException(e);
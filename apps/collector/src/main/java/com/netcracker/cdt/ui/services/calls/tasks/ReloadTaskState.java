@@ -10,8 +10,8 @@
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static com.netcracker.cdt.ui.services.calls.models.CallSeqResult.Type.SUCCESS;
@@ -27,9 +27,11 @@ public class ReloadTaskState {
     private int uiMaxLimit;
 
     // task state
-    private final CountDownLatch done;
-    private final CountDownLatch readyToSend;
-    private boolean finished = false;
+    private final AtomicInteger remaining; // pods
+    private final CompletableFuture<Void> readyToSend = new CompletableFuture<>();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private volatile boolean finished = false;
+    private volatile boolean cancelled = false;
 
     // statistics
     private final Set<PodIdRestart> pods;
@@ -47,8 +49,7 @@ public ReloadTaskState(String windowId, int podsSize) {
         this.windowId = windowId;
         this.totalPods = podsSize;
 
-        this.done = new CountDownLatch(podsSize);
-        this.readyToSend = new CountDownLatch(1);
+        this.remaining = new AtomicInteger(podsSize);
         this.pods = new TreeSet<>();
     }
 
@@ -71,36 +72,60 @@ public CallsList getCallsList() {
         return calls;
     }
 
-    public void recordFailure(Throwable exception){
+    public synchronized void recordFailure(Throwable exception){
         this.failedSeq++;
         this.exceptions.add(exception);
     }
 
-    public void recordSuccess(long parsedCalls, long fetchedCalls, Set<PodIdRestart> pods){
+    public synchronized void recordSuccess(long parsedCalls, long fetchedCalls, Set<PodIdRestart> pods){
         this.successfulSeq++;
         this.parsedCalls += parsedCalls;
         this.fetchedCalls += fetchedCalls;
         this.pods.addAll(pods);
         this.totalPods = podsCount();
+        if (this.fetchedCalls > uiFirstPageLimit) {
+            readyToSend.complete(null);
+        }
     }
 
     public String windowId() {
         return this.windowId;
     }
 
+    public int timeoutMs() {
+        return timeoutMs;
+    }
+
     public void waitForResults() {
         if (timeoutMs == 0) {
             return;
         }
         try {
-            readyToSend.await(timeoutMs, TimeUnit.MILLISECONDS);
+            readyToSend.get(timeoutMs, TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
             Log.errorf("error during wait", e);
+        } catch (ExecutionException | TimeoutException e) {
+            // send what is found so far
         }
     }
 
+    /**
+     * Completes when there are enough calls for the first page or the search is finished.
+     * Cancelling the returned stage doesn't affect the search.
+     */
+    public CompletionStage<Void> firstPage() {
+        return readyToSend.minimalCompletionStage();
+    }
+
+    /**
+     * Completes when the search is finished, see {@link #firstPage()}
+     */
+    public CompletionStage<Void> done() {
+        return done.minimalCompletionStage();
+    }
+
     public void markPodAsDone() {
-        done.countDown();
+        remaining.decrementAndGet();
     }
 
     public boolean appendResult(CallSeqResult rs) {
@@ -110,7 +135,7 @@ public boolean appendResult(CallSeqResult rs) {
         return this.shouldStop();
     }
 
-    public boolean append(CallSeqResult res, int filteredSize) { // only successful results
+    public synchronized boolean append(CallSeqResult res, int filteredSize) { // only successful results
         parsedCalls += res.parsedCalls(); // original calls retrieved and parsed from binary
         fetchedCalls += filteredSize; // filtered after first un-enriched data (InternalCallFilter)
         if (res.subTask() != null) {
@@ -126,9 +151,7 @@ public boolean append(CallSeqResult res, int filteredSize) { // only successful
             case TIMEOUT -> timedOutSeq++;
         }
         if (fetchedCalls > uiFirstPageLimit) {
-            if (readyToSend.getCount() > 0) {
-                readyToSend.countDown();
-            }
+            readyToSend.complete(null);
         }
 
         return shouldStop();
@@ -136,21 +159,32 @@ public boolean append(CallSeqResult res, int filteredSize) { // only successful
 
     public synchronized void finish() {
         finished = true;
-        if (readyToSend.getCount() > 0) {
-            readyToSend.countDown();
-        }
+        readyToSend.complete(null);
+        done.complete(null);
+    }
+
+    /**
+     * Stops the search: files and pods not loaded yet are skipped
+     */
+    public void cancel() {
+        cancelled = true;
+        finish();
     }
 
     public boolean isFinished() {
         return finished;
     }
 
-    public boolean shouldStop() {
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public synchronized boolean shouldStop() {
         return finished || fetchedCalls > uiMaxLimit;
     }
 
     public boolean nothingLeft() {
-        return done.getCount() == 0;
+        return remaining.get() <= 0;
     }
 
     public int percent() {
@@ -167,7 +201,7 @@ public int servicesCount() {
     }
 
     public long remainingPods() {
-        return done.getCount();
+        return Math.max(remaining.get(), 0);
     }
 
     public int totalPods() {
@@ -178,7 +212,7 @@ public int podsCount() {
         return pods.size();
     }
 
-    public List<String> getExceptions() {
+    public synchronized List<String> getExceptions() {
         return exceptions.stream().map(Throwable::getMessage).toList();
     }
 
@@ -0,0 +1,243 @@
+package com.netcracker.cdt.ui.services.calls.view;
+
+import com.netcracker.cdt.ui.services.calls.models.CallRecord;
+
+import java.util.*;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Predicate;
+
+/**
+ * Column store for the calls of a window.
+ * <p>
+ * Calls are kept in the order they are appended, numeric columns are copied into primitive arrays
+ * on the first sort by them, pod names are dictionary-coded. Sorting builds a permutation of rows
+ * which is cached per column and order; calls appended later are sorted on their own and merged into it.
+ * Filtering evaluates the predicate once per row and yields a selection vector: the matching rows
+ * in the sort order, which is cached until the next append, so paging and counting don't copy the calls.
+ * <p>
+ * Not thread-safe, see {@link CloudCallsList}.
+ */
+final class CallsTable {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private CallRecord[] records = new CallRecord[INITIAL_CAPACITY];
+    private int size;
+
+    // calls with the same natural key (see CallRecord#compareTo) come from overlapping files
+    private final Set<Key> keys = new HashSet<>();
+    private final Dictionary pods = new Dictionary();
+    private int[] podCodes = new int[INITIAL_CAPACITY];
+    private final Map<Integer, long[]> numeric = new HashMap<>();
+    private final Map<Integer, Integer> numericRows = new HashMap<>();
+    private final Map<Integer, Permutation> permutations = new HashMap<>();
+
+    private Predicate<CallRecord> lastMatcher;
+    private BitSet matched;
+    private int evaluatedRows;
+    private Selection selection;
+
+    private record Key(long time, int duration, String method, String traceRecordId) {
+    }
+
+    private static final class Permutation {
+        int[] order = new int[0];
+        int rows;
+    }
+
+    /**
+     * Matching rows in the sort order, valid until the next append
+     */
+    record Selection(int sortIndex, boolean asc, int size, int[] rows, int count) {
+    }
+
+    /**
+     * @return false if the call is already in the table
+     */
+    boolean add(CallRecord call) {
+        if (!keys.add(new Key(call.time(), call.duration(), call.method(), call.traceRecordId()))) {
+            return false;
+        }
+        if (size == records.length) {
+            records = Arrays.copyOf(records, size * 2);
+            podCodes = Arrays.copyOf(podCodes, size * 2);
+        }
+        records[size] = call;
+        podCodes[size] = pods.code(call.pod() == null ? "" : call.pod().oldPodName());
+        size++;
+        selection = null;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    CallRecord get(int row) {
+        return records[row];
+    }
+
+    /**
+     * @return rows in the sort order, the first {@link #size()} elements are valid
+     */
+    int[] order(int sortIndex, boolean asc) {
+        var p = permutations.computeIfAbsent(sortIndex * 2 + (asc ? 1 : 0), k -> new Permutation());
+        if (p.rows == size) {
+            return p.order;
+        }
+        var cmp = comparator(sortIndex, asc);
+        int[] order = Arrays.copyOf(p.order, size);
+        for (int row = p.rows; row < size; row++) {
+            order[row] = row;
+        }
+        sort(order, p.rows, size, cmp, new int[size - p.rows]);
+        if (p.rows > 0) {
+            merge(order, p.rows, cmp);
+        }
+        p.order = order;
+        p.rows = size;
+        return order;
+    }
+
+    Selection select(int sortIndex, boolean asc, Predicate<CallRecord> matcher) {
+        var s = selection;
+        if (s != null && lastMatcher == matcher && s.sortIndex() == sortIndex && s.asc() == asc && s.size() == size) {
+            return s;
+        }
+        if (lastMatcher != matcher) {
+            lastMatcher = matcher;
+            matched = new BitSet(size);
+            evaluatedRows = 0;
+        }
+        for (int row = evaluatedRows; row < size; row++) {
+            if (matcher.test(records[row])) {
+                matched.set(row);
+            }
+        }
+        evaluatedRows = size;
+
+        var order = order(sortIndex, asc);
+        int[] rows = new int[matched.cardinality()];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (matched.get(order[i])) {
+                rows[count++] = order[i];
+            }
+        }
+        selection = new Selection(sortIndex, asc, size, rows, count);
+        return selection;
+    }
+
+    private IntBinaryOperator comparator(int sortIndex, boolean asc) {
+        final int k = asc ? 1 : -1;
+        if (CallRecord.isString(sortIndex)) {
+            var rank = pods.ranks();
+            var codes = podCodes;
+            return (a, b) -> {
+                int r = k * Integer.compare(rank[codes[a]], rank[codes[b]]);
+                return r != 0 ? r : records[a].compareTo(records[b]);
+            };
+        }
+        var column = column(sortIndex);
+        return (a, b) -> {
+            int r = k * Long.compare(column[a], column[b]);
+            return r != 0 ? r : records[a].compareTo(records[b]);
+        };
+    }
+
+    private long[] column(int sortIndex) {
+        var values = numeric.get(sortIndex);
+        int filled = numericRows.getOrDefault(sortIndex, 0);
+        if (values == null || values.length < size) {
+            values = values == null ? new long[records.length] : Arrays.copyOf(values, records.length);
+            numeric.put(sortIndex, values);
+        }
+        for (int row = filled; row < size; row++) {
+            values[row] = records[row].longAtIndex(sortIndex);
+        }
+        numericRows.put(sortIndex, size);
+        return values;
+    }
+
+    /**
+     * Merges the sorted runs {@code [0, mid)} and {@code [mid, a.length)}
+     */
+    private static void merge(int[] a, int mid, IntBinaryOperator cmp) {
+        int[] left = Arrays.copyOf(a, mid);
+        int i = 0, j = mid, k = 0;
+        while (i < left.length && j < a.length) {
+            a[k++] = cmp.applyAsInt(a[j], left[i]) < 0 ? a[j++] : left[i++];
+        }
+        while (i < left.length) {
+            a[k++] = left[i++];
+        }
+    }
+
+    /**
+     * Stable merge sort of {@code a[from, to)}
+     */
+    static void sort(int[] a, int from, int to, IntBinaryOperator cmp, int[] tmp) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int v = a[i];
+                int j = i - 1;
+                while (j >= from && cmp.applyAsInt(a[j], v) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(a, from, mid, cmp, tmp);
+        sort(a, mid, to, cmp, tmp);
+        if (cmp.applyAsInt(a[mid - 1], a[mid]) <= 0) {
+            return;
+        }
+        int len = mid - from;
+        System.arraycopy(a, from, tmp, 0, len);
+        int i = 0, j = mid, k = from;
+        while (i < len && j < to) {
+            a[k++] = cmp.applyAsInt(a[j], tmp[i]) < 0 ? a[j++] : tmp[i++];
+        }
+        while (i < len) {
+            a[k++] = tmp[i++];
+        }
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private int[] ranks;
+
+        int code(String value) {
+            var code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                ranks = null;
+            }
+            return code;
+        }
+
+        /**
+         * @return position of every code among the sorted values
+         */
+        int[] ranks() {
+            if (ranks == null) {
+                var sorted = new Integer[values.size()];
+                for (int i = 0; i < sorted.length; i++) {
+                    sorted[i] = i;
+                }
+                Arrays.sort(sorted, Comparator.comparing(values::get));
+                ranks = new int[sorted.length];
+                for (int i = 0; i < sorted.length; i++) {
+                    ranks[sorted[i]] = i;
+                }
+            }
+            return ranks;
+        }
+    }
+}
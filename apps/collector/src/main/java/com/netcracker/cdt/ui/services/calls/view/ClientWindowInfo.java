@@ -9,52 +9,104 @@
 import com.netcracker.cdt.ui.services.calls.tasks.ReloadTaskState;
 import com.netcracker.common.utils.DB;
 import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 
+/**
+ * Search results of a UI window.
+ * <p>
+ * The search runs in the background and is shared by all requests of the window with the same search parameters:
+ * a request waits (without blocking a thread) until the first page is found or {@code ui.max.request.time} passes,
+ * and gets the calls found so far. A request with different parameters cancels the previous search.
+ */
 public class ClientWindowInfo {
     private final UiServiceConfig config;
     private final String windowId;
 
-    private String searchParamsHash;
-    private CallsListRequest lastRequest;
-    private ReloadTaskState lastSearch;
-    private CallsList calls; // list of (enriched) calls from last request
+    private volatile Search search; // the last search of the window
+
+    private record Search(CallsListRequest request, ReloadTaskState state) {
+    }
 
     public ClientWindowInfo(UiServiceConfig config, String windowId) {
         this.config = config;
         this.windowId = windowId;
-        this.calls = LocalCallsList.create();
     }
 
+    /**
+     * Starts a new search unless the last one has the same parameters
+     *
+     * @return state of the search, when the first page is ready or the request timeout passes
+     */
     @DB("reloadData")
-    public synchronized void reloadData(CallsMetaLoader metaLoader, CallsListRequest newRequest, int concurrent) {
-        lastRequest = newRequest;
-        searchParamsHash = lastRequest.searchHash();
-        calls.clear();
+    public Uni<ReloadTaskState> reloadData(CallsMetaLoader metaLoader, CallsListRequest newRequest, int concurrent,
+                                           Executor executor) {
+        var current = start(metaLoader, newRequest, concurrent, executor);
+        var firstPage = Uni.createFrom().completionStage(current.firstPage()).replaceWith(current);
+        int timeoutMs = current.timeoutMs();
+        if (timeoutMs == 0) {
+            return firstPage;
+        }
+        return firstPage.ifNoItem().after(Duration.ofMillis(timeoutMs)).recoverWithItem(current);
+    }
 
-        Log.infof("[%s] Reloading data for window: %s", windowId, this.toString());
+    private synchronized ReloadTaskState start(CallsMetaLoader metaLoader, CallsListRequest newRequest, int concurrent,
+                                               Executor executor) {
+        var last = search;
+        if (last != null && last.request().searchHash().equals(newRequest.searchHash())) {
+            return last.state();
+        }
+        if (last != null) {
+            last.state().cancel();
+        }
 
         ReloadTask task = metaLoader.createTask(metaLoader, newRequest, concurrent); // create new Object by comparing Persistence
-        lastSearch = task.prepare()
+        var state = task.prepare()
                 .uiLimits(config.getUiMaxLimit(), config.getUiFirstPage())
                 .timeout(config.getMaxRequestTime());
-        calls.setState(lastSearch);
-        task.run();
+        LocalCallsList.create().setState(state); // nothing found yet, replaced by the task
+        search = new Search(newRequest, state);
+        Log.infof("[%s] Reloading data for window: %s", windowId, this.toString());
+
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                Log.errorf(e, "[%s] Failed to reload data", windowId);
+                state.recordFailure(e);
+                state.finish();
+            }
+        });
+        return state;
+    }
+
+    /**
+     * Cancels the search, when the window is not used anymore
+     */
+    public void cancel() {
+        var last = search;
+        if (last != null && !last.state().isFinished()) {
+            Log.infof("[%s] Cancelling search for window: %s", windowId, this.toString());
+            last.state().cancel();
+        }
     }
 
     public String searchHash() { // to differentiate search results
-        return searchParamsHash;
+        var last = search;
+        return last == null ? null : last.request().searchHash();
     }
 
-    public String displayHash() { // to differentiate response (sort order, etc.) of already found data
-        return String.format("%s_%s_%d_%b", searchParamsHash,
-                lastRequest.query(), lastRequest.sortColumn(), lastRequest.sortOrder());
+    private String displayHash(CallsListRequest request) { // to differentiate response (sort order, etc.) of already found data
+        return String.format("%s_%s_%d_%b", request.searchHash(),
+                request.query(), request.sortColumn(), request.sortOrder());
     }
 
-    public CallsListResult asResponse(CallsListRequest request) {
-        calls = lastSearch.getCallsList();
+    public CallsListResult asResponse(CallsListRequest request, ReloadTaskState state) {
+        var calls = state.getCallsList();
         var startTime = System.currentTimeMillis();
         calls.sortCalls(request.sortColumn(), request.sortOrder());
         Log.infof("[%s] Sorted %d calls in %d ms. Sort index: %d, asc? %b",
@@ -67,13 +119,17 @@ public CallsListResult asResponse(CallsListRequest request) {
         long total = calls.count(filter);
         List<CallRecord> res = calls.filter(filter, request.beginIndex(), request.pageSize());
 
-        var status = lastSearch != null ? lastSearch.getStatus(total) : CallsListResult.emptyStatus();
-
-        return new CallsListResult(displayHash(), status, res);
+        var status = state.getStatus(total);
+        return new CallsListResult(displayHash(request), status, res);
     }
 
     @Override
     public String toString() {
+        var last = search;
+        if (last == null) {
+            return String.format("Window '%s'", windowId);
+        }
+        var lastRequest = last.request();
         return String.format("Window '%s'. Dates: [%s], durations: [%s] . Pod filter: %s, query: %s",
                 windowId,
                 lastRequest.timeRange(), lastRequest.durationRange(),
@@ -1,28 +1,29 @@
 package com.netcracker.cdt.ui.services.calls.view;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.function.Predicate;
 
 import com.netcracker.cdt.ui.services.calls.models.CallRecord;
 import com.netcracker.cdt.ui.services.calls.models.CallSeqResult;
+import com.netcracker.cdt.ui.services.calls.models.CloudCallsResult;
 import com.netcracker.cdt.ui.services.calls.tasks.ReloadTaskState;
 
 import io.quarkus.logging.Log;
 
+/**
+ * Calls of a UI window, see {@link CallsTable} for the storage.
+ */
 public class CloudCallsList implements CallsList {
     private int sortedIndex;
     private boolean sortAsc;
-    private ConcurrentSkipListSet<CallRecord> calls;
-    // TODO check if ArrayList is suitable for this according to
-    // performance and all aspects.
+    private CallsTable calls = new CallsTable();
     private ReloadTaskState state;
 
     private CloudCallsList(int lastSortedIndex, boolean asc) {
         this.sortedIndex = lastSortedIndex;
         this.sortAsc = asc;
-        this.calls = new ConcurrentSkipListSet<>(CallRecord.comparator(sortedIndex, sortAsc));
     }
 
     public static CloudCallsList create() { // with default sorting
@@ -35,32 +36,36 @@ public void setState(ReloadTaskState state) { // should use latest search state
         state.setCallsList(this);
     }
 
+    public ReloadTaskState getState() {
+        return state;
+    }
+
     @Override
-    public void clear() {
-        calls.clear();
+    public synchronized void clear() {
+        calls = new CallsTable();
     }
 
     @Override
-    public boolean isEmpty() {
-        return calls.isEmpty();
+    public synchronized boolean isEmpty() {
+        return calls.size() == 0;
     }
 
     @Override
-    public boolean isAlreadySorted(int sortIndex, boolean asc) {
-        if (calls.isEmpty()) {
+    public synchronized boolean isAlreadySorted(int sortIndex, boolean asc) {
+        if (calls.size() == 0) {
             return true;
         }
         return this.sortedIndex == sortIndex && this.sortAsc == asc;
     }
 
     @Override
-    public long count() {
+    public synchronized long count() {
         return calls.size();
     }
 
     @Override
     public synchronized long count(Predicate<CallRecord> matcher) {
-        return count();
+        return calls.select(sortedIndex, sortAsc, matcher).count();
     }
 
     @Override
@@ -68,30 +73,26 @@ public synchronized boolean append(CallSeqResult res) {
         // only successful results
         var filtered = res.calls().toList();
         Log.debugf("[%s] got filtered %d calls from %d parsed", res.subTask(), filtered.size(), res.parsedCalls());
-        calls.addAll(filtered);
+        addAll(filtered);
 
         return state.append(res, filtered.size());
     }
 
     @Override
     public synchronized CloudCallsList sortCalls(int indexToSort, boolean asc) {
-        if (isAlreadySorted(indexToSort, asc)
-                || !CallRecord.isComparable(indexToSort)) {
+        if (!CallRecord.isComparable(indexToSort)) {
             return this;
         }
-
+        // the permutation is built lazily by the next page request and cached
         sortedIndex = indexToSort;
         sortAsc = asc;
-        var reSorted = new ConcurrentSkipListSet<>(CallRecord.comparator(sortedIndex, sortAsc));
-        reSorted.addAll(this.calls);
-
-        calls = reSorted;
         return this;
     }
 
     @Override
     public synchronized List<CallRecord> filter(Predicate<CallRecord> matcher) {
-        return new ArrayList<>(calls);
+        var selection = calls.select(sortedIndex, sortAsc, matcher);
+        return rows(selection.rows(), 0, selection.count());
     }
 
     @Override
@@ -99,8 +100,8 @@ public synchronized List<CallRecord> filter(Predicate<CallRecord> matcher, int f
         if (firstIndex < 0) {
             return List.of();
         }
-        List<CallRecord> list = filter(matcher);
-        return list.subList(firstIndex, Math.min(limit, list.size()));
+        var selection = calls.select(sortedIndex, sortAsc, matcher);
+        return rows(selection.rows(), firstIndex, Math.min(selection.count(), firstIndex + limit));
     }
 
     @Override
@@ -109,17 +110,41 @@ public synchronized List<CallRecord> page(int page, int limit) {
         if (start < 0) {
             return List.of();
         }
-        ArrayList<CallRecord> list = new ArrayList<>(calls);
-        return list.subList(start, Math.min(limit, list.size()));
+        return rows(calls.order(sortedIndex, sortAsc), start, Math.min(calls.size(), start + limit));
     }
 
     @Override
     public synchronized List<CallRecord> all() {
-        return new ArrayList<>(calls);
+        return rows(calls.order(sortedIndex, sortAsc), 0, calls.size());
     }
 
     public synchronized void setCalls(List<CallRecord> callRecords) {
-        calls.addAll(callRecords);
+        addAll(callRecords);
+    }
+
+    /**
+     * Appends calls of a parsed file, they are visible to the next page request at once
+     */
+    public synchronized void append(CloudCallsResult res) {
+        addAll(res.calls());
+        state.recordSuccess(res.parsedCalls(), res.fetchedCalls(), res.pods());
+    }
+
+    private void addAll(Collection<CallRecord> records) {
+        for (var call : records) {
+            calls.add(call);
+        }
+    }
+
+    private List<CallRecord> rows(int[] rows, int from, int to) {
+        if (from >= to) {
+            return List.of();
+        }
+        var list = new ArrayList<CallRecord>(to - from);
+        for (int i = from; i < to; i++) {
+            list.add(calls.get(rows[i]));
+        }
+        return list;
     }
 
 }
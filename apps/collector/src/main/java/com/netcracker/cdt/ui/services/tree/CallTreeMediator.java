@@ -1,8 +1,8 @@
 package com.netcracker.cdt.ui.services.tree;
 
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.netcracker.cdt.ui.services.tree.data.ProfiledTree;
 import com.netcracker.cdt.ui.services.tree.json.TreeToJson;
 import com.netcracker.common.models.meta.ClobIndex;
@@ -10,11 +10,17 @@
 import com.netcracker.cdt.ui.services.tree.data.Hotspot;
 import io.quarkus.logging.Log;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
 public class CallTreeMediator {
+    private static final JsonFactory JSON = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     public enum DurationFormat {
         TIME,
         BYTES,
@@ -31,15 +37,26 @@ public CallTreeMediator(CallTreeRequest request) {
     }
 
     public String render(ProfiledTree tree) {
+        var out = new ByteArrayOutputStream();
+        try {
+            render(tree, out);
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Log.errorf(e, "");
+        }
+        return "";
+    }
+
+    /**
+     * Writes the script straight to the stream: the generator keeps only its own small buffer,
+     * so memory doesn't grow with the size of the tree. The stream is left open.
+     */
+    public void render(ProfiledTree tree, OutputStream out) throws IOException {
         if (tree == null) {
             Log.error("Should be at least one tree to render");
-            return "";
+            return;
         }
-        try {
-            ByteArrayBuilder arrayBuilder = new ByteArrayBuilder();
-            JsonFactory factory = new JsonFactory();
-            JsonGenerator jgen = factory.createGenerator(arrayBuilder);
-
+        try (JsonGenerator jgen = JSON.createGenerator(out, JsonEncoding.UTF8)) {
             String treeVarName = "t";
             TreeToJson converter = new TreeToJson(treeVarName, request.paramTrimSizeForUI());
             jgen.writeRaw(request.callback());
@@ -92,20 +109,7 @@ public String render(ProfiledTree tree) {
             jgen.writeRaw(treeVarName);
             jgen.writeRaw(';');
             jgen.writeRaw("})");
-            jgen.close();
-
-//            if (tree != null) {
-//                renderClobs(tree.getClobValues());
-//            }
-
-//            layout.putNextEntry(SinglePageLayout.JAVASCRIPT, mainFileName, "text/javascript");
-            return new String(arrayBuilder.toByteArray());
-//            layout.getOutputStream().write(result);
-//            layout.close();
-        } catch (IOException e) {
-            Log.errorf(e, "");
         }
-        return "";
     }
 
     private void renderArgs(JsonGenerator jgen) throws IOException {
@@ -15,6 +15,7 @@
 
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Supplier;
 
 public class TracePodReader {
     protected final TreeDataLoader treeDataLoader;
@@ -43,58 +44,66 @@ private TracePodReader(TreeDataLoader storage, String rootReference, int trimSiz
 
     public ProfiledTree readTraces(List<TreeRowId> treeRowIds, long begin, long end) {
         if (treeRowIds.isEmpty()) return null;
-        // sorted by [file, bufferOffset, recordIndex]
+        // sorted by [file, bufferOffset, recordIndex], so rows of a file are read in one forward pass
         Collections.sort(treeRowIds);
 
-        var idx = new TreeSet<Integer>();
-        for (var tid : treeRowIds) {
-            idx.add(tid.traceFileIndex);
-        }
-        if (idx.isEmpty()) return null;
-
         treeDataLoader.loadSuspendLog(sRange, podReference, begin, end);
 
-        ProfiledTree tree = null;
-        for (var tid : idx) {
-            try (var traceStream = treeDataLoader.openTraceStream(podReference, tid)) {
-                var filtered = treeRowIds.stream().filter(t -> (t.traceFileIndex == tid)).toList();
-                var t = readTrace(traceStream, tid, filtered);
-                if (tree == null) {
-                    tree = t;
-                } else {
-                    tree.merge(t);
-                }
-            } catch (IOException e) {
-                Log.errorf(e, "could not open trace stream %d for %s", tid, podReference);
+        var files = new ArrayList<Supplier<FileTraces>>();
+        for (int from = 0, to; from < treeRowIds.size(); from = to) {
+            int fileIdx = treeRowIds.get(from).traceFileIndex;
+            to = from + 1;
+            while (to < treeRowIds.size() && treeRowIds.get(to).traceFileIndex == fileIdx) {
+                to++;
             }
+            var rows = treeRowIds.subList(from, to);
+            files.add(() -> readFile(fileIdx, rows));
         }
-        return tree;
-    }
+        var traces = treeDataLoader.readAll(files);
 
-    public ProfiledTree readTrace(DataInputStreamEx traceStream, int fileIdx, List<TreeRowId> treeRowIds) {
+        // all files of the pod restart share the dictionary and clobs, so they are loaded once
+        var ids = new BitSet();
+        for (var t : traces) {
+            if (t != null) {
+                ids.or(t.tagIds());
+            }
+        }
         try {
-            var res = parseTraces(traceStream, treeRowIds);
-            var ids = res.key();
-            var threads = res.value();
-
             treeDataLoader.loadMeta(dictIdx, podReference, ids);
             treeDataLoader.loadClobs(clobIdx);
+        } catch (Exception t) {
+            Log.errorf(t, "[%s] Error while loading dictionary for %d rows", podReference, treeRowIds.size());
+            return null;
+        }
 
-            ProfiledTree tree = null;
-            for (var tb : threads.values()) {
-                var t = tb.getTree();
+        ProfiledTree tree = null;
+        for (var t : traces) {
+            if (t == null) continue;
+            for (var tb : t.threads().values()) {
                 if (tree == null) {
-                    tree = t;
+                    tree = tb.getTree();
                 } else {
-                    t.merge(tree);
+                    tree.merge(tb.getTree());
                 }
             }
+        }
+        return tree;
+    }
+
+    record FileTraces(BitSet tagIds, Map<Long, TreeTraceBuilder> threads) {
+    }
+
+    FileTraces readFile(int fileIdx, List<TreeRowId> treeRowIds) {
+        try (var traceStream = treeDataLoader.openTraceStream(podReference, fileIdx)) {
+            var res = parseTraces(traceStream, treeRowIds);
             Log.tracef("[%s:%d] Load %d rows from", podReference, fileIdx, treeRowIds.size());
-            return tree;
+            return new FileTraces(res.key(), res.value());
+        } catch (IOException e) {
+            Log.errorf(e, "could not open trace stream %d for %s", fileIdx, podReference);
         } catch (Exception t) {
             Log.errorf(t, "[%s:%d] Error while reading profiling tree for %d rows", podReference, fileIdx, treeRowIds.size());
-            return null;
         }
+        return null;
     }
 
     Pair<BitSet, HashMap<Long, TreeTraceBuilder>> parseTraces(DataInputStreamEx traceStream, List<TreeRowId> treeRowIds) throws IOException {
@@ -215,7 +224,9 @@ private Value readParameterValue(DataInputStreamEx traceStream, boolean doClob)
                 if (doClob) {
                     var clobType = paramType == ParamTypes.PARAM_BIG_DEDUP ? StreamType.SQL : StreamType.XML;
                     var newClob = Value.clob(podReference, clobType, traceIndex, offs);
-                    value = clobIdx.getOrDefault(newClob.id(), newClob);
+                    synchronized (clobIdx) { // files are parsed in parallel
+                        value = clobIdx.getOrDefault(newClob.id(), newClob);
+                    }
                 } else {
                     Log.warnf("!!!");
                 }
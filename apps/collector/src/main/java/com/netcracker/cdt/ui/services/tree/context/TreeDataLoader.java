@@ -1,5 +1,7 @@
 package com.netcracker.cdt.ui.services.tree.context;
 
+import com.netcracker.cdt.ui.models.UiServiceConfig;
+import com.netcracker.cdt.ui.services.DictionaryCache;
 import com.netcracker.common.models.meta.ClobIndex;
 import com.netcracker.common.models.meta.Value;
 import com.netcracker.common.models.StreamType;
@@ -11,11 +13,19 @@
 import com.netcracker.profiler.sax.io.DataInputStreamEx;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
 @LookupIfProperty(name = "service.type", stringValue = "ui")
 @Singleton
@@ -24,13 +34,68 @@ public class TreeDataLoader {
     @Inject
     PersistenceService dbPersistence;
 
+    @Inject
+    UiServiceConfig config;
+
+    @Inject
+    DictionaryCache dictionaries;
+
+    private final ExecutorService reads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ui-tree-read-", 0).factory());
+    // shared by all tree requests, so a large request doesn't open all streams of a pod at once
+    private volatile Semaphore readBudget = new Semaphore(1);
+
+    @PostConstruct
+    public void init() {
+        readBudget = new Semaphore(Math.max(1, config.getTreeReadConcurrency()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reads.shutdownNow();
+    }
+
+    /**
+     * Runs the reads of different files in parallel, at most `ui.tree.read.concurrency` of them at once.
+     * Results are returned in the order of the given reads.
+     */
+    public <T> List<T> readAll(List<Supplier<T>> files) {
+        var res = new ArrayList<T>(files.size());
+        if (files.size() == 1) {
+            res.add(files.get(0).get());
+            return res;
+        }
+        var budget = readBudget;
+        var futures = new ArrayList<CompletableFuture<T>>(files.size());
+        for (var file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                budget.acquireUninterruptibly();
+                try {
+                    return file.get();
+                } finally {
+                    budget.release();
+                }
+            }, reads));
+        }
+        try {
+            for (var future : futures) {
+                res.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+        return res;
+    }
+
     public DataInputStreamEx openDataInputStream(String podReference, StreamType streamType, int rollingSequenceId) throws IOException {
         var podId = PodIdRestart.of(podReference);
         var registry = dbPersistence.streams.getStreamRegistryById(podId, streamType, rollingSequenceId); // TODO not use
         if (registry.isEmpty()) {
             throw new IOException("Unknown stream " + streamType + ":" + rollingSequenceId + " for " + podReference);
         }
-        var stream = dbPersistence.streams.getStream(registry.get()); // TODO use helper
+        var stream = dbPersistence.streams.getDecodedStream(registry.get()); // TODO use helper
         if (stream == null) {
             throw new IOException("Could not load stream " + streamType + ":" + rollingSequenceId + " for " + podReference);
         }
@@ -55,45 +120,50 @@ public void loadSuspendLog(SuspendRange range, String podReference, long start,
     }
 
     public void loadClobs(ClobIndex idx) {
-        var arr = idx.uniqToLoad();
-        try {
-            for (var clob : arr) {
-                var is = openClobStream(clob.id());
-                idx.load(clob, is);
+        var arr = idx.uniqToLoad(); // sorted by [type, file, offset]
+        var files = new ArrayList<Supplier<List<Value.Clob>>>();
+        for (int from = 0, to; from < arr.size(); from = to) {
+            var first = arr.get(from).id();
+            to = from + 1;
+            while (to < arr.size() && sameFile(first, arr.get(to).id())) {
+                to++;
             }
-        } catch (Exception t) {
-            Log.errorf(t, "Unable to read %d clobs", arr.size());
+            var clobs = arr.subList(from, to);
+            files.add(() -> readClobs(idx, clobs));
         }
-    }
-
-    public void loadMeta(DictionaryIndex idx, String podReference, BitSet tagIds) {
-        var podId = PodIdRestart.of(podReference);
-
-        var params = dbPersistence.meta.getParams(podId);
-        for (var param : params) {
-            idx.putParameter(param);
+        // the values are read in parallel, but recorded as loaded in the same order as before
+        for (var clobs : readAll(files)) {
+            idx.loaded(clobs);
         }
+    }
 
-        var reqIds = dictIds(tagIds);
-        var dictionary = dbPersistence.meta.getDictionary(podId, reqIds);
-//        if (requiredIds.cardinality() != dictionary.size()) {
-//            Log.warnf("Incorrect amount of tags loaded from DB. POD %s, tags required: %s", podReference, request);
-//            Log.debugf("Tags loaded: %s", dict.stream().map(DictionaryTag::getPosition).toList());
-//        }
-        for (var tag : dictionary) {
-            idx.putDictionary(tag.position(), tag.tag());
+    /**
+     * Reads the clobs of one file in a single forward pass through the stream
+     *
+     * @return clobs read successfully
+     */
+    List<Value.Clob> readClobs(ClobIndex idx, List<Value.Clob> clobs) {
+        var first = clobs.get(0).id();
+        int read = 0;
+        try (var is = openClobStream(first)) {
+            for (var clob : clobs) {
+                idx.read(clob, is);
+                read++;
+            }
+        } catch (Exception t) {
+            Log.errorf(t, "Unable to read %d clobs from %s:%d for %s", clobs.size() - read, first.clobType(), first.fileIndex(), first.podReference());
         }
+        return clobs.subList(0, read);
     }
 
-    List<Integer> dictIds(BitSet requiredIds) {
-        if (requiredIds == null) return null;
-
-        List<Integer> request = new ArrayList<>();
-        for (int i = requiredIds.nextSetBit(0); i >= 0; i = requiredIds.nextSetBit(i + 1)) {
-            request.add(i);
-        }
-        return request;
+    static boolean sameFile(Value.ClobId a, Value.ClobId b) {
+        return a.clobType() == b.clobType() && a.fileIndex() == b.fileIndex() && a.podReference().equals(b.podReference());
     }
 
+    public void loadMeta(DictionaryIndex idx, String podReference, BitSet tagIds) {
+        var podId = PodIdRestart.of(podReference);
+        // the tags are shared by all trees of the pod, only the tags not seen before are loaded from DB
+        dictionaries.get(podId, tagIds).copyTo(idx, tagIds);
+    }
 
 }
@@ -28,8 +28,9 @@ public static TreeTraceBuilder create(DictionaryIndex dict, SuspendRange suspend
         return new TreeTraceBuilder(suspendLog, tree, root);
     }
 
-    protected Hotspot[] callTree = new Hotspot[1000];
-    protected Hotspot[] stack = new Hotspot[1000];
+    // grow on demand, most calls are much shallower
+    protected Hotspot[] callTree = new Hotspot[64];
+    protected Hotspot[] stack = new Hotspot[64];
     public boolean started;
     private long time;
     private int sp;
@@ -82,7 +83,13 @@ public void visitEnter(int methodId) {
         Hotspot orCreateChild = callTreeParent.getOrCreateChild(methodId);
 
         callTree[sp] = orCreateChild;
-        Hotspot hs = stack[sp] = new Hotspot(methodId);
+        // a finished call is merged into the call tree, so its hotspot is reused at the same depth
+        Hotspot hs = stack[sp];
+        if (hs == null) {
+            hs = stack[sp] = new Hotspot(methodId);
+        } else {
+            hs.reset(methodId);
+        }
         hs.startTime = time;
         hs.endTime = time;
         hs.totalTime = (int) -time;
@@ -1,16 +1,22 @@
 package com.netcracker.cdt.ui.services.tree.data;
 
+import gnu.trove.THashMap;
+import gnu.trove.TIntObjectHashMap;
+import gnu.trove.TLongHashSet;
+
 import java.util.*;
 
 public class Hotspot {
     private final static int MAX_PARAMS = 256;
+    // below it a linear scan of children is faster than hashing
+    private final static int INDEXED_CHILDREN = 8;
 
     public int id;
     public ArrayList<Hotspot> children;
     public Map<HotspotTag, HotspotTag> tags;
     public PriorityQueue<HotspotTag> mostImportantTags;
     public int reactorCallId;
-    public Set<Long> lastAssemblyId;
+    public TLongHashSet lastAssemblyId;
     public long lastParentAssemblyId;
     public byte isReactorEndPoint;
     public byte isReactorFrame;
@@ -33,31 +39,87 @@ public class Hotspot {
     public int childSuspensionTime;
     public long startTime = Long.MAX_VALUE, endTime = Long.MIN_VALUE;
 
+    // method id -> first child with it (open addressing). `children` is public and changed by json renderers,
+    // so the index is trusted only while its list has no changes since it was built
+    private TIntObjectHashMap<Hotspot> childIndex;
+    private Children indexedChildren;
+    private int indexedModCount;
+
     public Hotspot(int id) {
         this.id = id;
     }
 
     public void tag(long time, int tagId, int valueId, Object value, long assemblyId) {
         if (tags == null)
-            tags = new HashMap<HotspotTag, HotspotTag>();
+            tags = new THashMap<>();
         final HotspotTag hs = new HotspotTag(tagId, value, assemblyId);
         tags.put(hs, hs);
     }
 
+    /**
+     * Prepares the hotspot of a finished call for the next call at the same stack depth,
+     * the tag map is kept (it is never shared by {@link #merge(Hotspot)})
+     */
+    public void reset(int id) {
+        this.id = id;
+        childTime = 0;
+        totalTime = 0;
+        count = 0;
+        suspensionTime = 0;
+        reactorDuration = 0;
+        startTime = Long.MAX_VALUE;
+        endTime = Long.MIN_VALUE;
+        if (tags != null)
+            tags.clear();
+    }
+
     public Hotspot getOrCreateChild(int tagId) {
         ArrayList<Hotspot> children = this.children;
         if (children == null) {
-            children = this.children = new ArrayList<>();
-        } else {
-            for (final Hotspot child : children) {
-                if (child.id == tagId)
+            children = this.children = new Children();
+        }
+        Hotspot hs = findChild(tagId);
+        if (hs != null)
+            return hs;
+
+        hs = new Hotspot(tagId);
+        addChild(hs);
+        return hs;
+    }
+
+    private Hotspot findChild(int childId) {
+        final ArrayList<Hotspot> children = this.children;
+        final int size = children.size();
+        if (size <= INDEXED_CHILDREN || !(children instanceof Children list)) { // lists of renderers are not tracked
+            for (int i = 0; i < size; i++) {
+                final Hotspot child = children.get(i);
+                if (child.id == childId)
                     return child;
             }
+            return null;
+        }
+        if (childIndex == null || indexedChildren != list || indexedModCount != list.modCount()) {
+            childIndex = new TIntObjectHashMap<>(size * 2);
+            for (int i = size - 1; i >= 0; i--) { // the first child wins
+                final Hotspot child = list.get(i);
+                childIndex.put(child.id, child);
+            }
+            indexedChildren = list;
+            indexedModCount = list.modCount();
         }
+        return childIndex.get(childId);
+    }
 
-        Hotspot hs = new Hotspot(tagId);
-        children.add(hs);
-        return hs;
+    private void addChild(Hotspot child) {
+        final ArrayList<Hotspot> children = this.children;
+        final boolean indexed = childIndex != null && indexedChildren == children
+                && indexedModCount == indexedChildren.modCount();
+        children.add(child);
+        if (indexed) {
+            if (!childIndex.containsKey(child.id))
+                childIndex.put(child.id, child);
+            indexedModCount = indexedChildren.modCount();
+        }
     }
 
     public void merge(Hotspot hs) {
@@ -75,7 +137,7 @@ public void merge(Hotspot hs) {
 
         Map<HotspotTag, HotspotTag> tags = this.tags;
         if (tags == null) {
-            tags = this.tags = new HashMap<>();
+            tags = this.tags = new THashMap<>();
         }
 
         for (HotspotTag hsTag : hsTags.values()) {
@@ -128,7 +190,21 @@ public void addTag(Map<HotspotTag, HotspotTag> tags, HotspotTag newTag) {
         }
     }
 
+    /**
+     * Merges the subtree of `hs` into this one. The subtrees are walked with an explicit stack,
+     * so deep trees don't overflow the thread stack.
+     * Gantt infos are collected for direct children of `hs` only.
+     */
     public void mergeWithChildren(Hotspot hs, List<GanttInfo> infos) {
+        final ArrayDeque<Hotspot> pending = new ArrayDeque<>();
+        mergeNode(hs, infos, pending);
+        while (!pending.isEmpty()) {
+            final Hotspot dst = pending.pop();
+            dst.mergeNode(pending.pop(), null, pending);
+        }
+    }
+
+    private void mergeNode(Hotspot hs, List<GanttInfo> infos, ArrayDeque<Hotspot> pending) {
         childTime += hs.childTime;
         totalTime += hs.totalTime;
         childCount += hs.childCount;
@@ -138,19 +214,24 @@ public void mergeWithChildren(Hotspot hs, List<GanttInfo> infos) {
 
         if (hs.lastAssemblyId != null) {
             if (lastAssemblyId == null) {
-                lastAssemblyId = new HashSet<>();
+                lastAssemblyId = new TLongHashSet();
             }
-            lastAssemblyId.addAll(hs.lastAssemblyId);
+            lastAssemblyId.addAll(hs.lastAssemblyId.toArray());
         }
 
         if (startTime > hs.startTime) startTime = hs.startTime;
         if (endTime < hs.endTime) endTime = hs.endTime;
 
         if (hs.children != null) {
-            if (children == null)
-                children = hs.children.isEmpty() ? null : hs.children;
-            else {
-                final int childrenSize = children.size();
+            if (children == null) {
+                if (!hs.children.isEmpty()) {
+                    children = hs.children;
+                    childIndex = hs.childIndex;
+                    indexedChildren = hs.indexedChildren;
+                    indexedModCount = hs.indexedModCount;
+                }
+            } else {
+                ArrayList<Hotspot> added = null;
                 for (Hotspot srcChild : hs.children) {
                     if (hs.fullRowId != null && infos != null) {
                         infos.add(
@@ -158,16 +239,27 @@ public void mergeWithChildren(Hotspot hs, List<GanttInfo> infos) {
                                         srcChild.startTime, srcChild.totalTime, hs.fullRowId, hs.folderId)
                         );
                     }
-                    for (int i = 0; i < childrenSize; i++) {
-                        Hotspot child = children.get(i);
-                        if (child.id == srcChild.id && child.isReactorFrame == 0) {
-                            child.mergeWithChildren(srcChild);
-                            srcChild = null;
-                            break;
+                    Hotspot child = findChild(srcChild.id);
+                    if (child != null && child.isReactorFrame == 0) {
+                        pending.push(srcChild);
+                        pending.push(child);
+                        continue;
+                    }
+                    if (child != null) {
+                        child = findMergeableChild(srcChild.id);
+                        if (child != null) {
+                            pending.push(srcChild);
+                            pending.push(child);
+                            continue;
                         }
                     }
-                    if (srcChild == null) continue;
-                    children.add(srcChild);
+                    if (added == null) added = new ArrayList<>();
+                    added.add(srcChild);
+                }
+                if (added != null) { // only children of this hotspot existing before the merge are matched
+                    for (Hotspot child : added) {
+                        addChild(child);
+                    }
                 }
             }
         }
@@ -195,6 +287,14 @@ public void mergeWithChildren(Hotspot hs, List<GanttInfo> infos) {
         }
     }
 
+    private Hotspot findMergeableChild(int childId) {
+        for (final Hotspot child : children) {
+            if (child.id == childId && child.isReactorFrame == 0)
+                return child;
+        }
+        return null;
+    }
+
     public void mergeWithChildren(Hotspot hs) {
         mergeWithChildren(hs, null);
     }
@@ -204,10 +304,26 @@ public void calculateTotalExecutions() {
     }
 
     protected void calculateTotalExecutions(Hotspot prev) {
-        if (children != null)
-            for (Hotspot child : children)
-                child.calculateTotalExecutions(this);
+        // parents precede their children, so the reverse order visits children first
+        final ArrayList<Hotspot> nodes = new ArrayList<>();
+        final ArrayList<Hotspot> parents = new ArrayList<>();
+        nodes.add(this);
+        parents.add(prev);
+        for (int i = 0; i < nodes.size(); i++) {
+            final Hotspot node = nodes.get(i);
+            if (node.children != null) {
+                for (Hotspot child : node.children) {
+                    nodes.add(child);
+                    parents.add(node);
+                }
+            }
+        }
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            nodes.get(i).addTotalsTo(parents.get(i));
+        }
+    }
 
+    private void addTotalsTo(Hotspot prev) {
         prev.childTime += totalTime;
         prev.childCount += count + childCount;
         prev.childSuspensionTime += suspensionTime + childSuspensionTime;
@@ -224,29 +340,56 @@ public Map<Integer, Hotspot> flatProfile() {
         return Collections.emptyMap();
     }
 
-    public void remap(Map<Integer, Integer> id2id) {
-        if (id2id.isEmpty()) return;
-        Integer newId = id2id.get(id);
-        if (newId != null)
-            id = newId;
+    /**
+     * @param id2id new ids by the current ones, ids out of the table stay the same
+     */
+    public void remap(int[] id2id) {
+        if (id2id == null) return;
+        final ArrayDeque<Hotspot> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            final Hotspot node = stack.pop();
+            node.remapNode(id2id);
+            if (node.children != null)
+                for (Hotspot child : node.children)
+                    stack.push(child);
+        }
+    }
+
+    private static int remapId(int[] id2id, int id) {
+        return id >= 0 && id < id2id.length ? id2id[id] : id;
+    }
 
-        if (children != null)
-            for (Hotspot child : children)
-                child.remap(id2id);
+    private void remapNode(int[] id2id) {
+        id = remapId(id2id, id);
+        childIndex = null; // ids of children change
 
         final Map<HotspotTag, HotspotTag> tags = this.tags;
         if (tags == null || tags.isEmpty()) return;
 
-        Map<HotspotTag, HotspotTag> newTags = new HashMap<HotspotTag, HotspotTag>((int) (tags.size() / 0.75f), 0.75f);
+        Map<HotspotTag, HotspotTag> newTags = new THashMap<>(tags.size());
 
         for (HotspotTag tag : tags.values()) {
-            newId = id2id.get(tag.id);
-            if (newId != null)
-                tag.id = newId;
+            tag.id = remapId(id2id, tag.id);
             addTag(newTags, tag);
         }
 
         this.tags = newTags;
     }
 
+    /**
+     * Children list which counts all of its changes, {@link ArrayList#set} included
+     */
+    private static final class Children extends ArrayList<Hotspot> {
+        @Override
+        public Hotspot set(int index, Hotspot element) {
+            modCount++;
+            return super.set(index, element);
+        }
+
+        int modCount() {
+            return modCount;
+        }
+    }
+
 }
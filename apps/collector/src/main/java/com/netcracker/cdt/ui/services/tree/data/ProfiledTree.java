@@ -6,7 +6,6 @@
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 public class ProfiledTree {
     private Hotspot root = new Hotspot(-1);
@@ -50,7 +49,7 @@ public void merge(ProfiledTree that) {
         if (!that.clobValues.getClobs().isEmpty()) {
             clobValues.merge(that.clobValues);
         }
-        Map<Integer, Integer> remapIds = dict.mergeForRemap(that.dict);
+        int[] remapIds = dict.mergeForRemap(that.dict);
         that.root.remap(remapIds);
 
         if (root.id != that.root.id)
@@ -1,6 +1,5 @@
 package com.netcracker.cdt.ui.services.tree.json;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.netcracker.cdt.ui.services.tree.data.TotalSelfCount;
 import com.netcracker.common.models.meta.Value;
@@ -9,20 +8,22 @@
 import com.netcracker.common.models.Pair;
 
 import java.io.IOException;
-import java.io.StringWriter;
-import java.io.Writer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class HotspotToJson implements JsonSerializer<Hotspot> {
     private final Map<String, Integer> folder2id;
     private final int maxNestLevel;
     Hotspot rootNode;
     int level;
-    int deepIdx;
-    ArrayList<StringWriter> deep = new ArrayList<StringWriter>();
-    JsonFactory jsonFactory;
+    // hotspots whose children are rendered later as `function dN(){return [...]}`, N = index + 1
+    ArrayList<Hotspot> deep = new ArrayList<>();
+    // collapse flags of subtrees computed ahead of their rendering
+    Map<Hotspot, Integer> collapsed = new IdentityHashMap<>();
 
     public HotspotToJson(Map<String, Integer> folder2id) {
         this(folder2id, 100); // FF and IE cannot parse highly nested arrays
@@ -33,23 +34,29 @@ public HotspotToJson(Map<String, Integer> folder2id, int maxNestLevel) {
         this.maxNestLevel = maxNestLevel;
     }
 
+    /**
+     * Writes the tree straight to the generator. Subtrees nested deeper than `maxNestLevel` are moved
+     * to functions declared after the tree, they are rendered once the tree is written, so nothing is buffered.
+     */
     public void serialize(Hotspot value, JsonGenerator gen) throws IOException {
         rootNode = value;
         walk(value, gen);
-        rootNode = null;
-        if (deep.isEmpty()) return;
-        gen.writeRaw(';');
-        for (int i = 0, deepSize = deep.size(); i < deepSize; i++) {
-            StringWriter stringWriter = deep.get(i);
-            deep.set(i, null);
-            gen.writeRaw(stringWriter.toString());
+        if (!deep.isEmpty()) {
+            gen.writeRaw(';');
+            for (int i = 0; i < deep.size(); i++) { // grows while deeper subtrees are cut
+                final Hotspot out = deep.get(i);
+                deep.set(i, null);
+                gen.writeRaw("\nfunction d");
+                gen.writeRaw(Integer.toString(i + 1));
+                gen.writeRaw("(){return");
+                level = 1;
+                walkChildren(out, gen);
+                gen.writeRaw('}');
+            }
         }
-    }
-
-    protected JsonGenerator createSubSerializer(Writer out) throws IOException {
-        if (jsonFactory == null)
-            jsonFactory = new JsonFactory();
-        return jsonFactory.createJsonGenerator(out);
+        rootNode = null;
+        deep.clear();
+        collapsed.clear();
     }
 
     private int walk(Hotspot out, JsonGenerator gen) throws IOException {
@@ -80,48 +87,14 @@ private int walk(Hotspot out, JsonGenerator gen) throws IOException {
         final ArrayList<Hotspot> child = out.children;
         if (child != null) {
             level++;
-            JsonGenerator oldOut = gen;
-            boolean cut = level > maxNestLevel;
-            if (cut) {
-                level -= maxNestLevel;
-                deepIdx++;
+            if (level > maxNestLevel) {
+                deep.add(out);
                 gen.writeRaw(",d");
-                gen.writeRaw(Integer.toString(deepIdx));
+                gen.writeRaw(Integer.toString(deep.size()));
                 gen.writeRaw("()");
-                StringWriter sw = new StringWriter();
-                deep.add(sw);
-                gen = createSubSerializer(sw);
-                gen.writeRaw("\nfunction d");
-                gen.writeRaw(Integer.toString(deepIdx));
-                gen.writeRaw("(){return");
-            }
-            gen.writeStartArray();
-            if (out.children.size()>1)
-                Collections.sort(out.children, TotalSelfCount.INSTANCE);
-            final Hotspot firstChild = child.get(0);
-            canCollapse = walk(firstChild, gen);
-            if (out.tags != null) canCollapse = -2;
-            else if ((out.childTime - firstChild.childTime) * 10 <= out.totalTime
-                    && (out.totalTime != 0 || (out.childCount - firstChild.childCount) * 10 <= out.childCount)
-                    && (out.count == 0 || out.count * 5 > firstChild.count)
-                    ){
-                    if (canCollapse >= 0) canCollapse++;
-                    else canCollapse--;
-            } else if (!(out.count == 0 || out.count * 5 > firstChild.count)) canCollapse = -1;
-            else canCollapse = canCollapse < 0 ? -3 : 0;
-
-            for (int i = 1; i < child.size(); i++) {
-                Hotspot hotspot = child.get(i);
-//                    if (hotspot.totalTime<2) continue;
-                int canCollapseChild = walk(hotspot, gen);
-                if (canCollapseChild < 0 && canCollapse > 0) canCollapse = -3;
-            }
-            gen.writeEndArray();
-            if (cut) {
-                gen.writeRaw('}');
-                gen.close();
-                gen = oldOut;
-                level += maxNestLevel;
+                canCollapse = collapse(out);
+            } else {
+                canCollapse = walkChildren(out, gen);
             }
             gen.writeNumber(canCollapse < -2 ? -3 - canCollapse : (canCollapse > 0 ? canCollapse : 0));
             level--;
@@ -175,4 +148,76 @@ else if ((out.childTime - firstChild.childTime) * 10 <= out.totalTime
             gen.writeRaw('\n');
         return canCollapse;
     }
+
+    private int walkChildren(Hotspot out, JsonGenerator gen) throws IOException {
+        final ArrayList<Hotspot> child = out.children;
+        gen.writeStartArray();
+        if (child.size() > 1)
+            Collections.sort(child, TotalSelfCount.INSTANCE);
+        final Hotspot firstChild = child.get(0);
+        int canCollapse = collapseWithFirst(out, firstChild, walk(firstChild, gen));
+        for (int i = 1; i < child.size(); i++) {
+            Hotspot hotspot = child.get(i);
+//                    if (hotspot.totalTime<2) continue;
+            int canCollapseChild = walk(hotspot, gen);
+            if (canCollapseChild < 0 && canCollapse > 0) canCollapse = -3;
+        }
+        gen.writeEndArray();
+        return canCollapse;
+    }
+
+    /**
+     * Same value as {@link #walkChildren} returns, without rendering. Memoized, so a subtree cut at several levels
+     * is evaluated once. Children are evaluated first, without recursion, as the chain under a cut can be long.
+     */
+    private int collapse(Hotspot out) {
+        if (out.children == null) return 0;
+        Integer known = collapsed.get(out);
+        if (known != null) return known;
+
+        ArrayDeque<Hotspot> stack = new ArrayDeque<>();
+        Set<Hotspot> expanded = Collections.newSetFromMap(new IdentityHashMap<>());
+        stack.push(out);
+        while (!stack.isEmpty()) {
+            Hotspot hs = stack.peek();
+            final ArrayList<Hotspot> child = hs.children;
+            if (collapsed.containsKey(hs)) {
+                stack.pop();
+            } else if (expanded.add(hs)) {
+                if (child.size() > 1)
+                    Collections.sort(child, TotalSelfCount.INSTANCE);
+                for (int i = child.size() - 1; i >= 0; i--) {
+                    Hotspot c = child.get(i);
+                    if (c.children != null && !collapsed.containsKey(c)) stack.push(c);
+                }
+            } else {
+                stack.pop();
+                final Hotspot firstChild = child.get(0);
+                int canCollapse = collapseWithFirst(hs, firstChild, collapsed(firstChild));
+                for (int i = 1; i < child.size(); i++) {
+                    int canCollapseChild = collapsed(child.get(i));
+                    if (canCollapseChild < 0 && canCollapse > 0) canCollapse = -3;
+                }
+                collapsed.put(hs, canCollapse);
+            }
+        }
+        return collapsed.get(out);
+    }
+
+    private int collapsed(Hotspot hs) {
+        return hs.children == null ? 0 : collapsed.get(hs);
+    }
+
+    private static int collapseWithFirst(Hotspot out, Hotspot firstChild, int canCollapse) {
+        if (out.tags != null) canCollapse = -2;
+        else if ((out.childTime - firstChild.childTime) * 10 <= out.totalTime
+                && (out.totalTime != 0 || (out.childCount - firstChild.childCount) * 10 <= out.childCount)
+                && (out.count == 0 || out.count * 5 > firstChild.count)
+                ){
+                if (canCollapse >= 0) canCollapse++;
+                else canCollapse--;
+        } else if (!(out.count == 0 || out.count * 5 > firstChild.count)) canCollapse = -1;
+        else canCollapse = canCollapse < 0 ? -3 : 0;
+        return canCollapse;
+    }
 }
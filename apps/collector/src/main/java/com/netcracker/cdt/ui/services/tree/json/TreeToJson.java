@@ -8,6 +8,7 @@
 import com.netcracker.cdt.ui.services.tree.data.Hotspot;
 import com.netcracker.cdt.ui.services.tree.data.HotspotTag;
 import com.netcracker.common.models.Pair;
+import gnu.trove.THashMap;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,63 +69,47 @@ private void renderCallTree(ProfiledTree agg, JsonGenerator gen, Map<String, Int
         JsonSerializer<Hotspot> hs2js = new HotspotToJson(folder2id);
         Hotspot root = agg.getRoot();
         final ArrayList<Hotspot> children = root.children;
-        Map<Hotspot, List<Hotspot>> calculateList = new HashMap<>();
+        Map<Hotspot, List<Hotspot>> calculateList = new LinkedHashMap<>(); // stable order of moves
         if (children == null) {
             hs2js.serialize(new Hotspot(0), gen);
-        } else if (children.size() == 1) {
-            transformTree(root, root, getAllParents(root), calculateList, new AtomicInteger());
-            remap(calculateList);
         } else {
-            Map<Long, Hotspot> allParents = getAllParents(root);
-            transformTree(root, root, allParents, calculateList, new AtomicInteger());
-            remap(calculateList);
-
-            List<Hotspot> collect = collectSorted(calculateList.values());
-
-            for (Hotspot hotspot : collect) {
-                long reactorStartTime = hotspot.reactorStartTime;
-                long reactorLeastTime = reactorStartTime + hotspot.reactorDuration;
-                if (hotspot.isReactorFrame != 0) {
-                    for (Hotspot hp : collect) {
-                        if (hp.isReactorFrame != 0) {
-                            long hpReactorStartTime = hp.reactorStartTime + 100;
-                            long hpReactorLeastTime = hp.reactorStartTime + hp.reactorDuration - 100;
-
-                            boolean start = hpReactorStartTime >= reactorStartTime
-                                    && hpReactorStartTime <= reactorLeastTime;
-
-                            boolean end = hpReactorLeastTime >= reactorStartTime
-                                    && hpReactorLeastTime <= reactorLeastTime;
-
-                            boolean between = hpReactorStartTime <= reactorStartTime
-                                    && hpReactorLeastTime >= reactorLeastTime;
+            boolean single = children.size() == 1;
+            Map<Hotspot, Hotspot> parents = new IdentityHashMap<>();
+            Map<Long, Hotspot> allParents = getAllParents(root, parents);
+            transformTree(root, allParents, parents, calculateList, new AtomicInteger());
+            remap(calculateList, parents);
+
+            if (!single) {
+                List<Hotspot> collect = collectSorted(calculateList.values());
+                List<Hotspot> frames = new ArrayList<>();
+                for (Hotspot hotspot : collect) {
+                    if (hotspot.isReactorFrame != 0) frames.add(hotspot);
+                }
 
-                            for (HotspotTag ht : hotspot.tags.values()) {
-                                if (ht.value instanceof Value.Str && StringUtils.isNumeric(ht.value.toString())) {
-                                    if ((start || end || between) && hp.reactorCallId != hotspot.reactorCallId) {
-                                        ht.parallels.add(Pair.of(hp.id, hp.reactorDuration));
-                                        ht.isParallel = 1;
-                                    }
-                                    ht.reactorStartDate = hotspot.reactorStartTime;
-                                }
-                            }
+                for (Hotspot hotspot : collect) {
+                    if (hotspot.isReactorFrame != 0) {
+                        markParallels(hotspot, frames);
+                    }
+                    Hotspot parent = parents.get(hotspot);
+                    if (parent != null) {
+                        for (Hotspot p : path(root, parent, parents)) {
+                            merge(p, hotspot);
                         }
                     }
                 }
-                calculate(root, hotspot.reactorCallId, hotspot, hotspot.id, false);
-            }
 
-            for (Hotspot hotspot : calculateList.keySet()) {
-                Map<Integer, Hotspot> reactorIds = new HashMap<>();
-                Iterator<Hotspot> iterator = hotspot.children.iterator();
-                while (iterator.hasNext()) {
-                    Hotspot child = iterator.next();
-                    if (reactorIds.containsKey(child.id)) {
-                        Hotspot hp = reactorIds.get(child.id);
-                        hp.mergeWithChildren(child);
-                        iterator.remove();
-                    } else {
-                        reactorIds.put(child.id, child);
+                for (Hotspot hotspot : calculateList.keySet()) {
+                    Map<Integer, Hotspot> reactorIds = new HashMap<>();
+                    Iterator<Hotspot> iterator = hotspot.children.iterator();
+                    while (iterator.hasNext()) {
+                        Hotspot child = iterator.next();
+                        if (reactorIds.containsKey(child.id)) {
+                            Hotspot hp = reactorIds.get(child.id);
+                            hp.mergeWithChildren(child);
+                            iterator.remove();
+                        } else {
+                            reactorIds.put(child.id, child);
+                        }
                     }
                 }
             }
@@ -143,7 +128,36 @@ private void renderCallTree(ProfiledTree agg, JsonGenerator gen, Map<String, Int
         hs2js.serialize(root, gen);
     }
 
-    private void remap(Map<Hotspot, List<Hotspot>> calculateList) {
+    private void markParallels(Hotspot hotspot, List<Hotspot> frames) {
+        if (hotspot.tags == null) return;
+        long reactorStartTime = hotspot.reactorStartTime;
+        long reactorLeastTime = reactorStartTime + hotspot.reactorDuration;
+        for (Hotspot hp : frames) {
+            long hpReactorStartTime = hp.reactorStartTime + 100;
+            long hpReactorLeastTime = hp.reactorStartTime + hp.reactorDuration - 100;
+
+            boolean start = hpReactorStartTime >= reactorStartTime
+                    && hpReactorStartTime <= reactorLeastTime;
+
+            boolean end = hpReactorLeastTime >= reactorStartTime
+                    && hpReactorLeastTime <= reactorLeastTime;
+
+            boolean between = hpReactorStartTime <= reactorStartTime
+                    && hpReactorLeastTime >= reactorLeastTime;
+
+            for (HotspotTag ht : hotspot.tags.values()) {
+                if (ht.value instanceof Value.Str && StringUtils.isNumeric(ht.value.toString())) {
+                    if ((start || end || between) && hp.reactorCallId != hotspot.reactorCallId) {
+                        ht.parallels.add(Pair.of(hp.id, hp.reactorDuration));
+                        ht.isParallel = 1;
+                    }
+                    ht.reactorStartDate = hotspot.reactorStartTime;
+                }
+            }
+        }
+    }
+
+    private void remap(Map<Hotspot, List<Hotspot>> calculateList, Map<Hotspot, Hotspot> parents) {
         for (Map.Entry<Hotspot, List<Hotspot>> hotspotListEntry : calculateList.entrySet()) {
             Hotspot parent = hotspotListEntry.getKey();
             List<Hotspot> child = hotspotListEntry.getValue();
@@ -151,79 +165,96 @@ private void remap(Map<Hotspot, List<Hotspot>> calculateList) {
                 parent.children = new ArrayList<>();
             }
             parent.children.addAll(child);
+            for (Hotspot c : child) {
+                parents.put(c, parent);
+            }
         }
     }
 
+    /**
+     * Ancestors from `parent` up to `top` (inclusive), or nothing when `top` can't be reached
+     */
+    private List<Hotspot> path(Hotspot top, Hotspot parent, Map<Hotspot, Hotspot> parents) {
+        List<Hotspot> path = new ArrayList<>();
+        for (Hotspot p = parent; p != null && path.size() <= parents.size(); p = parents.get(p)) {
+            path.add(p);
+            if (p == top) {
+                return path;
+            }
+        }
+        return Collections.emptyList();
+    }
 
-    private void transformTree(Hotspot root,
-                               Hotspot mainRoot,
+    /**
+     * Moves calls to the hotspots of their parent assemblies. Post-order walk with an explicit stack,
+     * ancestors are found by the parent index instead of searching the tree from the top.
+     */
+    private void transformTree(Hotspot mainRoot,
                                Map<Long, Hotspot> transform,
+                               Map<Hotspot, Hotspot> parents,
                                Map<Hotspot, List<Hotspot>> calculateMap,
                                AtomicInteger counter) {
-        ArrayList<Hotspot> children = root.children;
-        Iterator<Hotspot> iterator = children.iterator();
-        while (iterator.hasNext()) {
-            try {
-                Hotspot child = iterator.next();
+        ArrayDeque<Hotspot> nodes = new ArrayDeque<>();
+        ArrayDeque<Iterator<Hotspot>> iterators = new ArrayDeque<>();
+        ArrayDeque<Hotspot> pendingChild = new ArrayDeque<>(); // visited child whose subtree is being transformed
+        nodes.push(mainRoot);
+        iterators.push(mainRoot.children.iterator());
+        Hotspot visited = null;
+        while (!nodes.isEmpty()) {
+            Hotspot root = nodes.peek();
+            Iterator<Hotspot> iterator = iterators.peek();
+            Hotspot child = visited;
+            visited = null;
+            if (child == null) {
+                if (!iterator.hasNext()) {
+                    if (root.children.isEmpty()) {
+                        root.children = null;
+                    }
+                    nodes.pop();
+                    iterators.pop();
+                    if (!nodes.isEmpty()) {
+                        visited = pendingChild.pop();
+                    }
+                    continue;
+                }
+                child = iterator.next();
                 if (child.children != null) {
-                    transformTree(child, mainRoot, transform, calculateMap, counter);
+                    pendingChild.push(child);
+                    nodes.push(child);
+                    iterators.push(child.children.iterator());
+                    continue;
                 }
+            }
+            try {
                 if (child.lastParentAssemblyId != 0 && calculateMap != Collections.EMPTY_MAP) {
                     Hotspot hotspotLast = transform.get(child.lastParentAssemblyId);
                     if (hotspotLast != null
-                            && (hotspotLast.children == null || !hotspotLast.children.containsAll(root.children))
+                            && (hotspotLast.children == null || !containsAll(hotspotLast.children, root.children))
                             && !hotspotLast.lastAssemblyId.contains(root.lastParentAssemblyId)) {
                         child.reactorCallId = counter.incrementAndGet();
                         if (root != mainRoot) {
-                            calculate(mainRoot, child.reactorCallId, child, child.id, true);
+                            for (Hotspot p : path(mainRoot, root, parents)) {
+                                clean(p, child);
+                            }
                         }
                         iterator.remove();
-                        if (!calculateMap.containsKey(hotspotLast)) {
-                            ArrayList<Hotspot> value = new ArrayList<>();
-                            calculateMap.put(hotspotLast, value);
-                            value.add(child);
-                        } else {
-                            calculateMap.get(hotspotLast).add(child);
-                        }
+                        parents.remove(child);
+                        calculateMap.computeIfAbsent(hotspotLast, k -> new ArrayList<>()).add(child);
                     }
                 }
             } catch (Exception e) {
                 log.error("Can't transform current child");
             }
         }
-        if (root.children.isEmpty()) {
-            root.children = null;
-        }
     }
 
-    private Hotspot calculate(Hotspot hotspot, int id, Hotspot child, int methodId, boolean isClean) {
-        if (hotspot.children == null) {
-            return null;
-        }
-
-        for (Hotspot c : hotspot.children) {
-            if (id == c.reactorCallId && methodId == c.id) {
-                if (isClean) {
-                    clean(hotspot, child);
-                } else {
-                    merge(hotspot, child);
-                }
-                return child;
-            }
-
-            Hotspot h = calculate(c, id, child, methodId, isClean);
-
-            if (h != null) {
-                if (isClean) {
-                    clean(hotspot, h);
-                } else {
-                    merge(hotspot, h);
-                }
-                return h;
-            }
+    private static boolean containsAll(List<Hotspot> list, List<Hotspot> items) {
+        if (items.size() < 8) {
+            return list.containsAll(items);
         }
-
-        return null;
+        Set<Hotspot> set = Collections.newSetFromMap(new IdentityHashMap<>(list.size()));
+        set.addAll(list);
+        return set.containsAll(items);
     }
 
     private void clean(Hotspot hotspot, Hotspot h) {
@@ -271,7 +302,7 @@ private void merge(Hotspot hotspot, Hotspot h) {
                     iterator.remove();
                     value.totalTime = h.totalTime + h.reactorDuration;
                     if (h.tags == null) {
-                        h.tags = new HashMap<>();
+                        h.tags = new THashMap<>();
                     }
                     h.tags.put(value, value);
                 }
@@ -281,22 +312,28 @@ private void merge(Hotspot hotspot, Hotspot h) {
 
     /**
      * collect an index of lastAssemblyId -> hotspot
-     * for all hotspots with lastAssemblyId != lastParentAssemblyId
+     * for all hotspots with lastAssemblyId != lastParentAssemblyId,
+     * and the parent of every hotspot below the root.
+     * Pre-order walk, a later hotspot overrides an earlier one with the same assembly id
      * @param root
      * @return
      */
-    private Map<Long, Hotspot> getAllParents(Hotspot root) {
+    private Map<Long, Hotspot> getAllParents(Hotspot root, Map<Hotspot, Hotspot> parents) {
         Map<Long, Hotspot> stringListHashMap = new HashMap<>();
-        if (root.children != null) {
-            for (Hotspot child : root.children) {
-                if (child.lastAssemblyId != null) {
-                    for (Long aLong : child.lastAssemblyId) {
-                        if(aLong != child.lastParentAssemblyId) stringListHashMap.put(aLong, child);
-                    }
+        ArrayDeque<Hotspot> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Hotspot node = stack.pop();
+            if (node != root && node.lastAssemblyId != null) {
+                for (long aLong : node.lastAssemblyId.toArray()) {
+                    if(aLong != node.lastParentAssemblyId) stringListHashMap.put(aLong, node);
                 }
-                Map<Long, Hotspot> allParents = getAllParents(child);
-                if (!allParents.isEmpty()) {
-                    stringListHashMap.putAll(allParents);
+            }
+            if (node.children != null) {
+                for (int i = node.children.size() - 1; i >= 0; i--) {
+                    Hotspot child = node.children.get(i);
+                    parents.put(child, node);
+                    stack.push(child);
                 }
             }
         }
@@ -44,10 +44,18 @@ public CharSequence text(Value.ClobId id) {
     }
 
     public void load(Value.Clob clob, DataInputStreamEx is) throws IOException {
-        clob.readFrom(is, maxLength); // override value (atomic)
+        read(clob, is);
         loaded.add(clob);
     }
 
+    public void read(Value.Clob clob, DataInputStreamEx is) throws IOException { // safe to call concurrently
+        clob.readFrom(is, maxLength); // override value (atomic)
+    }
+
+    public void loaded(Collection<Value.Clob> clobs) {
+        loaded.addAll(clobs);
+    }
+
     public void merge(ClobIndex clobValues) {
         Collection<Value.Clob> other = clobValues.getClobs();
         if (observedClobs == null) {
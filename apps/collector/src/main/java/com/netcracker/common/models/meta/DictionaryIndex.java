@@ -68,15 +68,19 @@ private int resolve(String methodName) {
         return id;
     }
 
-    // should remap if merge calls tree from other pod (with different tagIds)
-    public Map<Integer, Integer> mergeForRemap(DictionaryIndex that) {
-        if (that == this) return Collections.emptyMap();
+    /**
+     * Should remap if merge calls tree from other pod (with different tagIds)
+     *
+     * @return new ids by ids of that index, `null` if ids don't change
+     */
+    public int[] mergeForRemap(DictionaryIndex that) {
+        if (that == this) return null;
 
         for (var info : that.getParamInfo().values()) {
             putParameter(info);
         }
 
-        Map<Integer, Integer> remapIds = new HashMap<Integer, Integer>();
+        int[] remapIds = null;
         ArrayList<String> tags = that.tags;
         int ourTags = this.tags.size();
         for (int i = 0; i < tags.size(); i++) {
@@ -85,8 +89,14 @@ public Map<Integer, Integer> mergeForRemap(DictionaryIndex that) {
                 continue;
             if (i >= ourTags || !s.equals(this.tags.get(i))) {
                 int newId = resolve(s);
-                remapIds.put(i, newId);
-                ids.set(newId);
+                if (newId == i)
+                    continue;
+                if (remapIds == null) {
+                    remapIds = new int[tags.size()];
+                    for (int j = 0; j < remapIds.length; j++)
+                        remapIds[j] = j;
+                }
+                remapIds[i] = newId;
             }
         }
         return remapIds;
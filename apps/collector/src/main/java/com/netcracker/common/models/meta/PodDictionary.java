@@ -0,0 +1,152 @@
+package com.netcracker.common.models.meta;
+
+import java.util.*;
+
+/**
+ * Dictionary and parameters of one pod restart, as far as they are loaded from the DB.
+ * <p>
+ * Immutable, so it is shared by all requests to the pod. Tags are kept in an array by their position;
+ * tags loaded later (a live pod keeps adding them) produce a new instance with a grown copy of the array.
+ */
+public final class PodDictionary {
+    public static final PodDictionary EMPTY = new PodDictionary(new String[0], 0, Map.of(), false, 0);
+
+    private final String[] tags; // by position, null if the tag isn't loaded
+    private final int size;
+    private final Map<String, ParamsModel> params;
+    private final boolean paramsLoaded;
+    private final long completeAt; // time of the last load of the whole dictionary, 0 if never
+
+    private PodDictionary(String[] tags, int size, Map<String, ParamsModel> params, boolean paramsLoaded, long completeAt) {
+        this.tags = tags;
+        this.size = size;
+        this.params = params;
+        this.paramsLoaded = paramsLoaded;
+        this.completeAt = completeAt;
+    }
+
+    public String getTag(int position) {
+        return position >= 0 && position < tags.length ? tags[position] : null;
+    }
+
+    public boolean contains(int position) {
+        return getTag(position) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Map<String, ParamsModel> getParams() {
+        return params;
+    }
+
+    public boolean isParamsLoaded() {
+        return paramsLoaded;
+    }
+
+    /**
+     * @return true if the whole dictionary has been loaded at or after the given time
+     */
+    public boolean isCompleteSince(long millis) {
+        return completeAt != 0 && completeAt >= millis;
+    }
+
+    /**
+     * @param required positions to look up, `null` if none are required
+     * @return required positions which are not loaded yet, empty for `null`
+     */
+    public BitSet missing(BitSet required) {
+        var res = new BitSet();
+        if (required == null) return res;
+        for (int i = required.nextSetBit(0); i >= 0; i = required.nextSetBit(i + 1)) {
+            if (!contains(i)) {
+                res.set(i);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @param params     all parameters of the pod, or `null` to keep the known ones
+     * @param completeAt time when loading of the whole dictionary started, 0 if only some tags are loaded
+     * @return dictionary with the loaded tags added, this one if nothing is new
+     */
+    public PodDictionary with(List<DictionaryModel> loaded, List<ParamsModel> params, long completeAt) {
+        String[] grown = null;
+        int newSize = size;
+        for (var tag : loaded) {
+            int pos = tag.position();
+            if (pos < 0 || tag.tag() == null || getTag(pos) != null) continue;
+            if (grown == null) {
+                grown = Arrays.copyOf(tags, Math.max(tags.length, maxPosition(loaded) + 1));
+            }
+            if (grown[pos] == null) newSize++;
+            grown[pos] = tag.tag();
+        }
+        Map<String, ParamsModel> newParams = this.params;
+        if (params != null) {
+            var m = new HashMap<>(this.params);
+            for (var param : params) {
+                m.put(param.paramName(), param);
+            }
+            newParams = Collections.unmodifiableMap(m);
+        }
+        if (grown == null && params == null && completeAt <= this.completeAt) {
+            return this;
+        }
+        return new PodDictionary(grown == null ? tags : grown, newSize, newParams,
+                paramsLoaded || params != null, Math.max(completeAt, this.completeAt));
+    }
+
+    private static int maxPosition(List<DictionaryModel> loaded) {
+        int max = -1;
+        for (var tag : loaded) {
+            max = Math.max(max, tag.position());
+        }
+        return max;
+    }
+
+    /**
+     * Copies the parameters and the required tags (all tags for `null`) to the index of a request
+     */
+    public void copyTo(DictionaryIndex idx, BitSet required) {
+        for (var param : params.values()) {
+            idx.putParameter(param);
+        }
+        if (required == null) {
+            for (int i = 0; i < tags.length; i++) {
+                if (tags[i] != null) idx.putDictionary(i, tags[i]);
+            }
+        } else {
+            for (int i = required.nextSetBit(0); i >= 0 && i < tags.length; i = required.nextSetBit(i + 1)) {
+                if (tags[i] != null) idx.putDictionary(i, tags[i]);
+            }
+        }
+    }
+
+    /**
+     * Visits loaded tags in the order of positions
+     */
+    public void forEachTag(TagConsumer consumer) {
+        for (int i = 0; i < tags.length; i++) {
+            if (tags[i] != null) consumer.accept(i, tags[i]);
+        }
+    }
+
+    public interface TagConsumer {
+        void accept(int position, String tag);
+    }
+
+    /**
+     * Approximate size for the cache: amount of tags and parameters
+     */
+    public int weight() {
+        return 1 + size + params.size();
+    }
+
+    @Override
+    public String toString() {
+        return "PodDictionary{tags=" + size + ", params=" + params.size() + ", complete=" + (completeAt != 0) + '}';
+    }
+}
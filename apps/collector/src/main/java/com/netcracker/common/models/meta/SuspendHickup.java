@@ -4,7 +4,6 @@
 import com.netcracker.common.models.pod.PodIdRestart;
 
 import java.time.Instant;
-import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 
 public record SuspendHickup(
@@ -28,8 +27,8 @@ public Instant truncatedToMinutes() {
         return time.truncatedTo(ChronoUnit.MINUTES);
     }
 
-    // TODO: rename it
+    // ms of the minute (second + ms)
     public int getSecMs() {
-        return time.get(ChronoField.MILLI_OF_SECOND) % 60000;
+        return (int) Math.floorMod(time.toEpochMilli(), 60_000L);
     }
 }
@@ -3,6 +3,7 @@
 import com.netcracker.cdt.collector.common.models.StreamInfoRequest;
 import com.netcracker.common.models.StreamType;
 import com.netcracker.common.models.pod.stat.PodDataAccumulated;
+import com.netcracker.common.models.pod.stat.PodDataCounters;
 import com.netcracker.common.models.pod.streams.StreamRegistry;
 import io.quarkus.logging.Log;
 import org.apache.commons.lang.StringUtils;
@@ -31,7 +32,8 @@ public class PodStatus {
 
     private Instant activeSince;
     private Instant lastActive;
-    private PodDataAccumulated accumulated;
+    private volatile PodDataAccumulated accumulated; // loaded from DB on reconnect
+    private final PodDataCounters counters = new PodDataCounters(); // received since connected
 
     PodStatus(PodIdRestart id, Instant activeSince, Instant lastActive) {
         this.id = id;
@@ -116,7 +118,7 @@ public void touch(Instant t) {
 
     public void received(StreamRegistry registry, int contentLength) {
         registry.received(contentLength);
-        this.accumulated.append(registry.stream(), true, contentLength);
+        this.counters.append(registry.stream(), true, contentLength);
         if (registry.isMetaStream()) {
             this.persisted(registry, contentLength); // data from special meta table will not be compressed
         }
@@ -124,7 +126,7 @@ public void received(StreamRegistry registry, int contentLength) {
 
     public void persisted(StreamRegistry registry, int contentLength) {
         registry.persisted(contentLength);
-        this.accumulated.append(registry.stream(), false, contentLength);
+        this.counters.append(registry.stream(), false, contentLength);
     }
 
     // getters
@@ -204,8 +206,11 @@ public Instant lastActive() {
         return lastActive;
     }
 
+    /**
+     * @return snapshot of the pod statistics, including data received before the reconnect
+     */
     public PodDataAccumulated dataAccumulated() {
-        return accumulated;
+        return counters.addTo(accumulated);
     }
 
     @Override
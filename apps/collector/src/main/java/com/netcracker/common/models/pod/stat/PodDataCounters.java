@@ -0,0 +1,45 @@
+package com.netcracker.common.models.pod.stat;
+
+import com.netcracker.common.models.IStreamType;
+import com.netcracker.common.models.StreamType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bytes received from a pod since it connected, by stream type.
+ * <p>
+ * Updated by every data packet, so the counters are {@link LongAdder}s: threads don't contend on them,
+ * and the totals are only summed up when statistics are persisted.
+ */
+public class PodDataCounters {
+    private final Map<StreamType, Cell> cells = new ConcurrentHashMap<>();
+
+    private static final class Cell {
+        final LongAdder original = new LongAdder();
+        final LongAdder compressed = new LongAdder();
+    }
+
+    public void append(StreamType stream, boolean original, long bytes) {
+        var cell = cells.get(stream);
+        if (cell == null) {
+            cell = cells.computeIfAbsent(stream, s -> new Cell());
+        }
+        (original ? cell.original : cell.compressed).add(bytes);
+    }
+
+    /**
+     * @return copy of {@code base} with the counted bytes added
+     */
+    public PodDataAccumulated addTo(PodDataAccumulated base) {
+        var map = new HashMap<IStreamType, BlobSize>();
+        base.map().forEach((stream, size) ->
+                map.put(stream, size == null ? BlobSize.empty() : BlobSize.of(size.original, size.compressed)));
+        cells.forEach((stream, cell) -> map.computeIfAbsent(stream, s -> BlobSize.empty())
+                .append(true, cell.original.sum())
+                .append(false, cell.compressed.sum()));
+        return new PodDataAccumulated(map);
+    }
+}
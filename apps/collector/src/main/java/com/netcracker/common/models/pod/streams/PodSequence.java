@@ -24,7 +24,7 @@ public PodSequence expandCreatedModified(PodSequence other) {
 
     public StreamRegistry asStreamRegistry() {
         var st = StreamRegistry.Status.FINISHED;
-        return new StreamRegistry(pod, StreamType.CALLS, sequenceId, createdWhen(), modifiedWhen(), BlobSize.empty(), st);
+        return new StreamRegistry(pod, StreamType.CALLS, sequenceId, createdWhen(), modifiedWhen(), BlobSize.empty(), st, StreamCodec.NONE);
     }
 
     public Instant day() {
@@ -12,6 +12,7 @@ public record StreamChunk(
 //        int rollingSequenceID,
         long startPos,
         long length,
+        StreamCodec codec, // chunks are parts of the stream compressed as a whole, see StreamRegistry#codec
         ByteBuffer chunk) implements Comparable<StreamChunk> {
 
     public String getPk() {
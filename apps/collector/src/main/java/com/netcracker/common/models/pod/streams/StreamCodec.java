@@ -0,0 +1,129 @@
+package com.netcracker.common.models.pod.streams;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compression of stream data between the collector and the storage.
+ * <p>
+ * A stream is compressed as a whole, so its chunks have to be concatenated before decoding.
+ * The id is stored along with the stream and its chunks, it must not change for existing codecs.
+ */
+public enum StreamCodec {
+    NONE(0, "none", 0) {
+        @Override
+        public OutputStream compress(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) {
+            return in;
+        }
+    },
+    // fast enough to keep up with the agents, the default one
+    LZ4(1, "lz4", 2 * 64 * 1024) {
+        @Override
+        public OutputStream compress(OutputStream out) throws IOException {
+            return new LZ4FrameOutputStream(out, LZ4FrameOutputStream.BLOCKSIZE.SIZE_64KB);
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new LZ4FrameInputStream(in);
+        }
+    },
+    // better ratio for streams which are kept for long
+    ZSTD(2, "zstd", 128 * 1024) {
+        @Override
+        public OutputStream compress(OutputStream out) throws IOException {
+            return new ZstdOutputStream(out, 3);
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new ZstdInputStream(in);
+        }
+    },
+    BROTLI(3, "brotli", 16 * 1024) {
+        @Override
+        public OutputStream compress(OutputStream out) throws IOException {
+            Brotli4jLoader.ensureAvailability();
+            return new BrotliOutputStream(out, new Encoder.Parameters().setQuality(5));
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            Brotli4jLoader.ensureAvailability();
+            return new BrotliInputStream(in);
+        }
+    };
+
+    private final int id;
+    private final String name;
+    private final int encoderHeapBytes;
+
+    StreamCodec(int id, String name, int encoderHeapBytes) {
+        this.id = id;
+        this.name = name;
+        this.encoderHeapBytes = encoderHeapBytes;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return heap retained by a stream returned from {@link #compress(OutputStream)}, the native state is not counted
+     */
+    public int encoderHeapBytes() {
+        return encoderHeapBytes;
+    }
+
+    /**
+     * @return stream which compresses the data and writes it to {@code out}
+     */
+    public abstract OutputStream compress(OutputStream out) throws IOException;
+
+    /**
+     * @return stream which reads the data compressed by {@link #compress(OutputStream)} from {@code in}
+     */
+    public abstract InputStream decompress(InputStream in) throws IOException;
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    public static StreamCodec byId(int id) {
+        for (var codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown stream codec id " + id);
+    }
+
+    public static StreamCodec byName(String name) {
+        for (var codec : values()) {
+            if (codec.name.equalsIgnoreCase(name)) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown stream codec '" + name + "'");
+    }
+}
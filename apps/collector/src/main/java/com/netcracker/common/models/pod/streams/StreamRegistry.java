@@ -19,7 +19,8 @@ public record StreamRegistry(
         Instant modifiedWhen,
         BlobSize dataSize,    // when collector close stream in normal mode (by rolling period), it updates total bytes counter
                               // (createdWhen < rollingPeriod and total=0) is indication that connection was aborted
-        Status status
+        Status status,
+        StreamCodec codec     // compression of the stream data, the same for all chunks
 ) {
 
     public PodSequence asPodSequence() {
@@ -55,11 +56,11 @@ public String getZipEntryName(StreamType streamType) {
     }
 
     public StreamRegistry close(Instant time) {
-        return new StreamRegistry(podRestart, stream, rollingSequenceId, createdWhen, time, dataSize, Status.FINISHED);
+        return new StreamRegistry(podRestart, stream, rollingSequenceId, createdWhen, time, dataSize, Status.FINISHED, codec);
     }
 
-    public static StreamRegistry create(StreamInfoRequest req, int seqId) {
-        return new StreamRegistry(req.id(), req.stream(), seqId, req.createdWhen(), req.modifiedWhen(), new BlobSize(0, 0), Status.CREATED);
+    public static StreamRegistry create(StreamInfoRequest req, int seqId, StreamCodec codec) {
+        return new StreamRegistry(req.id(), req.stream(), seqId, req.createdWhen(), req.modifiedWhen(), new BlobSize(0, 0), Status.CREATED, codec);
     }
 
     public static final DateTimeFormatter FILE_NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'hhmmssVV").withZone(ZoneId.of("UTC"));
@@ -0,0 +1,327 @@
+package com.netcracker.common.search.filter;
+
+import java.util.*;
+
+/**
+ * {@link FilterCondition} compiled once per query to match many calls.
+ * <p>
+ * Every keyword gets a bit in a {@code long} mask. All keywords are put into one case-insensitive
+ * Aho-Corasick automaton, so a string is scanned once for all of them, whatever the number of keywords is,
+ * and without lowercasing it. Then the found keywords are masked by the ones applicable to the string:
+ * general keywords for method names, general keywords and the keywords of the parameter for its values.
+ * <p>
+ * Checks go from the cheap to the expensive ones and stop as soon as the result is known:
+ * a found excluded keyword rejects the call at once, and parameter values are not scanned
+ * when nothing is left to find in them.
+ * <p>
+ * Matches exactly like {@link FilterCondition.Matcher}, which is still used for the queries with more than 64 keywords.
+ */
+public final class CompiledFilter {
+    private static final int ASCII = 128;
+    private static final int ROOT = 0;
+
+    private final FilterCondition condition;
+    private final boolean strictMode;
+    private final boolean interpreted;
+
+    private final long excluded;
+    private final long mandatory;
+    private final long included;
+    private final long general; // keywords without a parameter
+    private final long anyParameter; // keywords with a parameter name not resolved to id, match any id
+    private final Map<String, Long> byName = new HashMap<>();
+    private final Map<Integer, Long> byId = new HashMap<>();
+
+    // automaton
+    private int[] ascii; // transitions by ASCII chars, state * ASCII + char
+    private final List<Map<Character, Integer>> edges = new ArrayList<>(); // trie edges by other chars
+    private int[] fail;
+    private long[] output; // keywords found when the state is reached
+
+    private CompiledFilter(FilterCondition condition, boolean strictMode) {
+        this.condition = condition;
+        this.strictMode = strictMode;
+
+        var terms = new ArrayList<FilterValue>();
+        var kinds = new ArrayList<Integer>();
+        addTerms(condition.excluded(), 0, terms, kinds);
+        addTerms(condition.mandatory(), 1, terms, kinds);
+        addTerms(condition.included(), 2, terms, kinds);
+        this.interpreted = terms.size() > Long.SIZE;
+
+        long ex = 0, man = 0, inc = 0, gen = 0, any = 0;
+        edges.add(new HashMap<>());
+        var trieOutput = new ArrayList<Long>();
+        trieOutput.add(0L);
+        for (int i = 0; i < terms.size() && !interpreted; i++) {
+            var term = terms.get(i);
+            long bit = 1L << i;
+            switch (kinds.get(i)) {
+                case 0 -> ex |= bit;
+                case 1 -> man |= bit;
+                default -> inc |= bit;
+            }
+            if (!term.hasParameter()) {
+                gen |= bit;
+            } else {
+                if (!term.paramName().isEmpty()) {
+                    byName.merge(term.paramName(), bit, (a, b) -> a | b);
+                }
+                if (term.paramId() != null) {
+                    byId.merge(term.paramId(), bit, (a, b) -> a | b);
+                } else {
+                    any |= bit;
+                }
+            }
+            int state = ROOT;
+            for (char c : term.value().toCharArray()) {
+                state = edges.get(state).computeIfAbsent(c, k -> {
+                    edges.add(new HashMap<>());
+                    trieOutput.add(0L);
+                    return edges.size() - 1;
+                });
+            }
+            trieOutput.set(state, trieOutput.get(state) | bit);
+        }
+        this.excluded = ex;
+        this.mandatory = man;
+        this.included = inc;
+        this.general = gen;
+        this.anyParameter = any;
+        build(trieOutput);
+    }
+
+    /**
+     * @param strictMode see {@link FilterCondition#start(boolean)}
+     */
+    public static CompiledFilter compile(FilterCondition condition, boolean strictMode) {
+        return new CompiledFilter(condition, strictMode);
+    }
+
+    private void addTerms(List<FilterValue> values, int kind, List<FilterValue> terms, List<Integer> kinds) {
+        for (var v : values) {
+            // non-strict mode: general keywords are checked later, when method and parameter names are known
+            if (strictMode || v.hasParameter()) {
+                terms.add(v);
+                kinds.add(kind);
+            }
+        }
+    }
+
+    private void build(List<Long> trieOutput) {
+        int states = edges.size();
+        ascii = new int[states * ASCII];
+        fail = new int[states];
+        output = new long[states];
+        for (int s = 0; s < states; s++) {
+            output[s] = trieOutput.get(s);
+        }
+        // BFS, so the failure state is complete when a state is visited
+        var queue = new ArrayDeque<Integer>();
+        for (int c = 0; c < ASCII; c++) {
+            var next = edges.get(ROOT).get((char) c);
+            if (next != null) {
+                ascii[c] = next;
+                queue.add(next);
+            }
+        }
+        for (var e : edges.get(ROOT).entrySet()) {
+            if (e.getKey() >= ASCII) {
+                queue.add(e.getValue());
+            }
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            output[s] |= output[fail[s]];
+            for (int c = 0; c < ASCII; c++) {
+                var next = edges.get(s).get((char) c);
+                if (next != null) {
+                    fail[next] = ascii[fail[s] * ASCII + c];
+                    ascii[s * ASCII + c] = next;
+                    queue.add(next);
+                } else {
+                    ascii[s * ASCII + c] = ascii[fail[s] * ASCII + c];
+                }
+            }
+            for (var e : edges.get(s).entrySet()) {
+                if (e.getKey() >= ASCII) {
+                    fail[e.getValue()] = step(fail[s], e.getKey());
+                    queue.add(e.getValue());
+                }
+            }
+        }
+    }
+
+    private int step(int state, char c) {
+        if (c < ASCII) {
+            return ascii[state * ASCII + c];
+        }
+        while (true) {
+            var next = edges.get(state).get(c);
+            if (next != null) {
+                return next;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = fail[state];
+        }
+    }
+
+    /**
+     * @return keywords from {@code applicable} found in the string
+     */
+    private long scan(String s, long applicable) {
+        long found = output[ROOT];
+        int state = ROOT;
+        for (int i = 0; i < s.length(); i++) {
+            state = step(state, Character.toLowerCase(s.charAt(i)));
+            found |= output[state];
+            if ((found & applicable & excluded) != 0) {
+                break;
+            }
+        }
+        return found & applicable;
+    }
+
+    private long scan(List<?> values, long applicable) {
+        long found = 0;
+        for (var v : values) {
+            if (v != null) {
+                found |= scan(v.toString(), applicable & ~found);
+                if ((found & excluded) != 0) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    public boolean isEmpty() {
+        return !interpreted && excluded == 0 && mandatory == 0 && included == 0;
+    }
+
+    private boolean rejected(long found) {
+        return (found & excluded) != 0;
+    }
+
+    private boolean matches(long found) {
+        return (found & excluded) == 0
+                && (found & mandatory) == mandatory
+                && (included == 0 || (found & included) != 0);
+    }
+
+    /**
+     * @return true if nothing can change the result anymore
+     */
+    private boolean decided(long found) {
+        return rejected(found) || (excluded == 0 && matches(found));
+    }
+
+    /**
+     * Strict mode: general keywords are checked against the method name, parameter names and values,
+     * keywords with a parameter against the values of the parameter
+     *
+     * @param params parameter values by name, null to check the method only
+     */
+    public boolean matches(String method, Map<String, List<String>> params) {
+        if (interpreted) {
+            return interpret(method, params);
+        }
+        long found = 0;
+        if (general != 0 && method != null) {
+            found = scan(method, general);
+        }
+        if (params == null || decided(found)) {
+            return matches(found);
+        }
+        if (general == 0) { // look up only the parameters in the query
+            for (var e : byName.entrySet()) {
+                var values = params.get(e.getKey());
+                if (values != null) {
+                    found |= scan(values, e.getValue() & ~found);
+                    if (decided(found)) {
+                        break;
+                    }
+                }
+            }
+            return matches(found);
+        }
+        for (var e : params.entrySet()) {
+            var name = e.getKey();
+            var values = e.getValue();
+            if (name == null || name.isEmpty() || values == null) {
+                continue;
+            }
+            long applicable = (general | byName.getOrDefault(name, 0L)) & ~found;
+            if (applicable == 0) {
+                continue;
+            }
+            found |= scan(values, applicable);
+            found |= scan(name, general & ~found);
+            if (decided(found)) {
+                break;
+            }
+        }
+        return matches(found);
+    }
+
+    /**
+     * Non-strict mode: only keywords with a parameter are checked, parameters are identified by tag ids
+     */
+    public boolean matchesById(Map<Integer, List<String>> params) {
+        if (interpreted) {
+            return interpretById(params);
+        }
+        if (params == null) {
+            return !condition.hasMandatoryParams() && matches(0);
+        }
+        long found = 0;
+        for (var e : params.entrySet()) {
+            var values = e.getValue();
+            if (values == null) {
+                continue;
+            }
+            long applicable = (anyParameter | byId.getOrDefault(e.getKey(), 0L)) & ~found;
+            if (applicable == 0) {
+                continue;
+            }
+            found |= scan(values, applicable);
+            if (decided(found)) {
+                break;
+            }
+        }
+        return matches(found);
+    }
+
+    private boolean interpret(String method, Map<String, List<String>> params) {
+        var res = condition.start(strictMode);
+        if (res.addGeneralString(method)) {
+            return false;
+        }
+        if (params != null) {
+            for (var e : params.entrySet()) {
+                if (e.getKey() == null || e.getKey().isEmpty()) {
+                    continue;
+                }
+                if (res.addParameterValuesByName(e.getKey(), e.getValue())) {
+                    return false;
+                }
+            }
+        }
+        return res.matches();
+    }
+
+    private boolean interpretById(Map<Integer, List<String>> params) {
+        if (params == null) {
+            return !condition.hasMandatoryParams() && condition.start(strictMode).matches();
+        }
+        var res = condition.start(strictMode);
+        for (var e : params.entrySet()) {
+            if (res.addParameterValuesById(e.getKey(), e.getValue())) {
+                return false;
+            }
+        }
+        return res.matches();
+    }
+}
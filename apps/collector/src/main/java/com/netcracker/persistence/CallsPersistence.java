@@ -2,8 +2,14 @@
 
 import com.netcracker.common.models.CallsModel;
 
+import java.util.List;
+
 public interface CallsPersistence {
 
     void insert(CallsModel toSave);
 
+    default void insert(List<CallsModel> toSave) {
+        toSave.forEach(this::insert);
+    }
+
 }
@@ -32,4 +32,16 @@ public interface PodsMetaPersistence {
 
     Operation save(SuspendHickup toSave);
 
+    default void saveParams(List<ParamsModel> toSave) {
+        toSave.forEach(this::save);
+    }
+
+    default void saveDictionary(List<DictionaryModel> toSave) {
+        toSave.forEach(this::save);
+    }
+
+    default void saveSuspends(List<SuspendHickup> toSave) {
+        toSave.forEach(this::save);
+    }
+
 }
@@ -116,6 +116,8 @@ default List<PodInfo> findPod(TimeRange range, String namespace, String service,
 
     Operation insertPodStatistics(PodIdRestart pod, PodDataAccumulated accumulated);
 
+    Operation insertPodStatistics(Map<PodIdRestart, PodDataAccumulated> stats);
+
     List<PodRestartStat> getLatestPodsStatistics(Collection<PodIdRestart> pods, Instant to);
 
     List<PodRestartStat> getLatestPodStatistics(PodIdRestart pod, Instant to);
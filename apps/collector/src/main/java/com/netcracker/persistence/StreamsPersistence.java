@@ -7,6 +7,7 @@
 import com.netcracker.common.models.pod.streams.StreamRegistry;
 import com.netcracker.persistence.op.Operation;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.time.Instant;
 import java.util.List;
@@ -20,6 +21,10 @@ public interface StreamsPersistence {
 
     Operation upsertStreamRegistry(StreamRegistry sr);
 
+    /**
+     * The buffer of the chunk belongs to a pool of the collector and is reused once the call returns,
+     * the data has to be written or copied before that
+     */
     Operation insertStreamChunk(StreamChunk chunk);
 
     // search
@@ -31,6 +36,14 @@ public interface StreamsPersistence {
 
     InputStream getStream(StreamRegistry sr);
 
+    /**
+     * @return data of the stream as it was received from the agent, or {@code null} if the stream is not found
+     */
+    default InputStream getDecodedStream(StreamRegistry sr) throws IOException {
+        var stream = getStream(sr);
+        return stream == null ? null : sr.codec().decompress(stream);
+    }
+
     // cleanup
     List<StreamRegistry> getStreamRegistries(PodIdRestart pod, StreamType streamType, TimeRange range, int limit);
 
@@ -3,22 +3,22 @@
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
-import java.security.InvalidKeyException;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
 import java.sql.*;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import com.netcracker.cdt.ui.rest.v2.dto.Requests;
-import com.netcracker.cdt.ui.services.calls.models.CallRecord;
-import com.netcracker.cdt.ui.services.calls.models.CloudCallsResult;
 import com.netcracker.cdt.ui.services.calls.tasks.ReloadTaskState;
 import com.netcracker.cdt.ui.services.calls.view.CloudCallsList;
 import com.netcracker.common.models.DurationRange;
@@ -34,14 +34,12 @@
 import static com.netcracker.persistence.utils.Constants.INVERTED_INDEX_LIFETIME_UNITS;
 import static com.netcracker.persistence.utils.Constants.DEFAULT_INVERTED_INDEX_LIFETIME;
 
-import io.minio.errors.ErrorResponseException;
-import io.minio.errors.InsufficientDataException;
-import io.minio.errors.InternalException;
-import io.minio.errors.InvalidResponseException;
-import io.minio.errors.ServerException;
-import io.minio.errors.XmlParserException;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.logging.Log;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -56,12 +54,54 @@ public class CloudCallSequenceService implements CallSequenceLoader {
     @Inject
     CloudInvertedIndexDao invertedIndexDao;
 
+    @Inject
+    MeterRegistry registry;
+
     @ConfigProperty(name = "s3.download.cache.dir")
     String s3CacheDir;
 
+    @ConfigProperty(name = "s3.download.cache.max-size", defaultValue = "10G")
+    MemorySize cacheMaxSize;
+
+    @ConfigProperty(name = "s3.download.cache.validate", defaultValue = "true")
+    boolean cacheValidate;
+
+    @ConfigProperty(name = "s3.download.cache.validation-interval", defaultValue = "1m")
+    Duration cacheValidationInterval;
+
+    @ConfigProperty(name = "s3.download.parallelism", defaultValue = "4")
+    int parallelism;
+
+    private ExecutorService workers;
+    private Semaphore permits;
+    private CloudFilesCache cache;
+
+    @PostConstruct
+    void init() {
+        cache = new CloudFilesCache(s3CacheDir().toPath(), cacheMaxSize.asLongValue(), cacheValidate,
+                cacheValidationInterval, cloudFilesDao, registry);
+        cache.init();
+        workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("s3-calls-", 0).factory());
+        permits = new Semaphore(Math.max(1, parallelism));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Finds parquet files for the request and loads them in parallel, at most {@code s3.download.parallelism}
+     * files at once for all requests.
+     * <p>
+     * Calls of each file are appended to the calls list of the state as soon as the file is parsed.
+     * Returns once the files are scheduled, callers wait for {@link ReloadTaskState#firstPage()};
+     * the state is finished after the last file.
+     */
     public ReloadTaskState getCallSequence(List<Requests.Service> services, String queryFilter, TimeRange range,
             DurationRange durationRange, ReloadTaskState reloadTaskState) {
         CloudCallsList callsList = CloudCallsList.create();
+        callsList.setState(reloadTaskState);
         List<CloudStorageFilesModel> cloudFiles = List.of();
         try {
             Set<UUID> s3FileIdList = null;
@@ -73,9 +113,13 @@ public ReloadTaskState getCallSequence(List<Requests.Service> services, String q
                 s3FileIdList = invertedIndexDao.getS3FileIds(queryFilter, range);
                 ttl = DurationUnit.parseDurationUnit(INVERTED_INDEX_LIFETIME, INVERTED_INDEX_LIFETIME_UNITS,
                         DEFAULT_INVERTED_INDEX_LIFETIME);
-                // If the list of S3 file IDs is non-null and not empty, use it to fetch
-                // only the relevant cloud files that match the filtered S3 file IDs.
-                if (s3FileIdList != null && !s3FileIdList.isEmpty()) {
+                if (s3FileIdList == null) {
+                    // The index can not narrow the search (e.g. the filter has no conditions on indexed
+                    // parameters), calls are filtered file by file.
+                    cloudFiles = cloudFilesDao.getCloudFiles(services, range, durationRange);
+                } else if (!s3FileIdList.isEmpty()) {
+                    // If the list of S3 file IDs is not empty, use it to fetch
+                    // only the relevant cloud files that match the filtered S3 file IDs.
                     cloudFiles = cloudFilesDao.getCloudFiles(new ArrayList<>(s3FileIdList), services, range,
                             durationRange);
                 } else if (TimeRange.delta(range.from(), Instant.now(), ChronoUnit.DAYS) > ttl.amount) {
@@ -90,39 +134,52 @@ public ReloadTaskState getCallSequence(List<Requests.Service> services, String q
         } catch (SQLException | JsonProcessingException e) {
             Log.error("Encountered error while getting cloud files: %s".formatted(e.getMessage()));
             reloadTaskState.recordFailure(e);
+            reloadTaskState.finish();
             return reloadTaskState;
         }
-        var calls = new ArrayList<CallRecord>();
-        CloudCallsResult cloudCallsResult;
-        for (CloudStorageFilesModel cloudFile : cloudFiles) {
-            var localFileName = cloudFile.fileName();
-            var file = new File(s3CacheDir(), localFileName);
-            final String localFilePath = file.getPath();
-            if (!file.exists()) {
-                try {
-                    cloudFilesDao.downloadCloudFile(cloudFile.linkToFile(), localFilePath);
-                } catch (InvalidKeyException | ErrorResponseException | InsufficientDataException | InternalException
-                        | InvalidResponseException | NoSuchAlgorithmException | KeyManagementException | ServerException
-                        | XmlParserException
-                        | IllegalArgumentException | IOException e) {
-                    Log.error("Encountered error while downloading cloud file(%s): %s".formatted(cloudFile.linkToFile(),
-                            e.getMessage()));
-                    reloadTaskState.recordFailure(e);
-                }
+
+        var files = new CompletableFuture<?>[cloudFiles.size()];
+        for (int i = 0; i < files.length; i++) {
+            var cloudFile = cloudFiles.get(i);
+            files[i] = CompletableFuture.runAsync(() -> loadFile(cloudFile,
+                    services, queryFilter, range, durationRange, callsList), workers);
+        }
+        CompletableFuture.allOf(files).whenComplete((ignored, e) -> reloadTaskState.finish());
+        return reloadTaskState;
+    }
+
+    private void loadFile(CloudStorageFilesModel cloudFile, List<Requests.Service> services,
+            String queryFilter, TimeRange range, DurationRange durationRange, CloudCallsList callsList) {
+        var reloadTaskState = callsList.getState();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            if (reloadTaskState.shouldStop()) {
+                return; // enough calls for UI or the search is over
             }
+            final CloudFilesCache.CachedFile localFile;
             try {
-                cloudCallsResult = cloudFilesDao.getCalls(services, queryFilter, range, durationRange, localFilePath);
-                calls.addAll(cloudCallsResult.calls());
-                reloadTaskState.recordSuccess(cloudCallsResult.parsedCalls(),
-                        cloudCallsResult.fetchedCalls(), cloudCallsResult.pods());
+                localFile = cache.get(cloudFile.linkToFile());
+            } catch (IllegalArgumentException | IOException e) {
+                Log.error("Encountered error while downloading cloud file(%s): %s".formatted(cloudFile.linkToFile(),
+                        e.getMessage()));
+                reloadTaskState.recordFailure(e);
+                return;
+            }
+            try (localFile) { // the file is not evicted while it's read
+                callsList.append(cloudFilesDao.getCalls(services, queryFilter, range, durationRange,
+                        localFile.path().toString()));
             } catch (IOException e) {
                 Log.error("Encountered error while getting call sequennces: %s".formatted(e.getMessage()));
                 reloadTaskState.recordFailure(e);
             }
+        } finally {
+            permits.release();
         }
-        callsList.setCalls(calls);
-        reloadTaskState.setCallsList(callsList);
-        return reloadTaskState;
     }
 
     /**
@@ -8,6 +8,8 @@
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import java.util.List;
+
 @LookupIfProperty(name = "service.persistence", stringValue = PersistenceType.CLOUD)
 @ApplicationScoped
 public class CloudCallsService implements CallsPersistence {
@@ -18,6 +20,10 @@ public class CloudCallsService implements CallsPersistence {
     @Override
     public void insert(CallsModel toSave) {
         cloudCallsDao.insert(CloudCallsEntity.prepare(toSave));
-        cloudCallsDao.commit();
+    }
+
+    @Override
+    public void insert(List<CallsModel> toSave) {
+        cloudCallsDao.insert(toSave.stream().map(CloudCallsEntity::prepare).toList());
     }
 }
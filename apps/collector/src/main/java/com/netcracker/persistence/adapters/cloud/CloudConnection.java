@@ -0,0 +1,47 @@
+package com.netcracker.persistence.adapters.cloud;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Connection borrowed from {@link CloudConnectionPool}. Closing it returns the connection to the pool.
+ * <p>
+ * Work that is not committed before close is rolled back.
+ */
+public final class CloudConnection implements AutoCloseable {
+    private final CloudConnectionPool pool;
+    private final Connection connection;
+    private boolean released = false;
+
+    CloudConnection(CloudConnectionPool pool, Connection connection) {
+        this.pool = pool;
+        this.connection = connection;
+    }
+
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return connection.prepareStatement(sql);
+    }
+
+    public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+        return connection.createArrayOf(typeName, elements);
+    }
+
+    public void commit() throws SQLException {
+        connection.commit();
+    }
+
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return connection.unwrap(iface);
+    }
+
+    @Override
+    public void close() {
+        if (released) {
+            return;
+        }
+        released = true;
+        pool.release(connection);
+    }
+}
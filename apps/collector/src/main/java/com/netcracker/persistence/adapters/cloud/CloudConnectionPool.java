@@ -0,0 +1,210 @@
+package com.netcracker.persistence.adapters.cloud;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of postgres connections.
+ * <p>
+ * At most {@code maxSize} connections are borrowed at the same time, other callers wait up to {@code acquireTimeout}.
+ * Idle connections are validated before reuse, broken ones are dropped and replaced by new connections,
+ * so a restart of postgres does not require a restart of the service.
+ */
+public class CloudConnectionPool {
+    public static final String PREFIX = "cdt.persistence.pool.";
+    public static final String POOL_ACTIVE = PREFIX + "connections.active";
+    public static final String POOL_IDLE = PREFIX + "connections.idle";
+    public static final String POOL_PENDING = PREFIX + "connections.pending";
+    public static final String POOL_MAX = PREFIX + "connections.max";
+    public static final String POOL_ACQUIRE = PREFIX + "acquire";
+    public static final String POOL_TIMEOUTS = PREFIX + "acquire.timeouts";
+    public static final String POOL_BROKEN = PREFIX + "connections.broken";
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final String name;
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long acquireTimeoutNanos;
+    private final long validationIntervalMillis;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<IdleConnection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    private final Timer acquireTimer;
+    private final Counter timeouts;
+    private final Counter broken;
+
+    private record IdleConnection(Connection connection, long releasedAt) {
+    }
+
+    public CloudConnectionPool(String name, ConnectionFactory factory, int maxSize,
+                               Duration acquireTimeout, Duration validationInterval, MeterRegistry registry) {
+        this.name = name;
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.validationIntervalMillis = validationInterval.toMillis();
+        this.permits = new Semaphore(maxSize, true);
+
+        Gauge.builder(POOL_ACTIVE, active, AtomicInteger::get)
+                .description("Number of connections borrowed from the pool")
+                .tag("pool", name)
+                .register(registry);
+        Gauge.builder(POOL_IDLE, idle, ConcurrentLinkedDeque::size)
+                .description("Number of open connections waiting in the pool")
+                .tag("pool", name)
+                .register(registry);
+        Gauge.builder(POOL_PENDING, pending, AtomicInteger::get)
+                .description("Number of threads waiting for a connection")
+                .tag("pool", name)
+                .register(registry);
+        Gauge.builder(POOL_MAX, () -> maxSize)
+                .description("Maximum number of connections in the pool")
+                .tag("pool", name)
+                .register(registry);
+        this.acquireTimer = Timer.builder(POOL_ACQUIRE)
+                .description("Time spent waiting for a connection")
+                .tag("pool", name)
+                .register(registry);
+        this.timeouts = Counter.builder(POOL_TIMEOUTS)
+                .description("Number of requests failed to get a connection in time")
+                .tag("pool", name)
+                .register(registry);
+        this.broken = Counter.builder(POOL_BROKEN)
+                .description("Number of connections dropped as broken")
+                .tag("pool", name)
+                .register(registry);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public CloudConnection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool " + name + " is closed");
+        }
+        long started = System.nanoTime();
+        pending.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException("Connection pool " + name + " is exhausted: all " + maxSize +
+                        " connections are in use for " + Duration.ofNanos(acquireTimeoutNanos).toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection from pool " + name, e);
+        } finally {
+            pending.decrementAndGet();
+        }
+        try {
+            var connection = borrow();
+            active.incrementAndGet();
+            acquireTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return new CloudConnection(this, connection);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection borrow() throws SQLException {
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            if (isUsable(candidate)) {
+                return candidate.connection();
+            }
+            discard(candidate.connection(), true);
+        }
+        Log.debugf("Opening a new connection for pool %s", name);
+        var connection = factory.open();
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private boolean isUsable(IdleConnection candidate) {
+        try {
+            if (candidate.connection().isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - candidate.releasedAt() < validationIntervalMillis) {
+                return true;
+            }
+            return candidate.connection().isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void release(Connection connection) {
+        try {
+            if (closed) {
+                discard(connection, false); // shutdown
+                return;
+            }
+            if (connection.isClosed()) {
+                discard(connection, true); // closed by the driver after a connection error
+                return;
+            }
+            connection.rollback(); // ends a read-only transaction, no-op after commit
+            idle.addFirst(new IdleConnection(connection, System.currentTimeMillis()));
+        } catch (SQLException e) {
+            Log.warnf("Dropping broken connection of pool %s: %s", name, e.getMessage());
+            discard(connection, true);
+        } finally {
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * @param isBroken the connection failed validation or had an error, it is counted in {@link #POOL_BROKEN}
+     */
+    private void discard(Connection connection, boolean isBroken) {
+        if (isBroken) {
+            broken.increment();
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // nothing to do, connection is already unusable
+        }
+    }
+
+    public void close() {
+        closed = true;
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            try {
+                candidate.connection().close();
+            } catch (SQLException e) {
+                Log.warnf("Failed to close connection of pool %s: %s", name, e.getMessage());
+            }
+        }
+    }
+}
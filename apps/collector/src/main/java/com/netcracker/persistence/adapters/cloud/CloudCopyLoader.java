@@ -0,0 +1,176 @@
+package com.netcracker.persistence.adapters.cloud;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Bulk insert through the COPY protocol: the whole batch is streamed to postgres in a single round-trip.
+ * <p>
+ * COPY can't skip conflicting rows, so rows are copied into a session-local staging table
+ * and moved to the target table with {@code INSERT ... SELECT ... ON CONFLICT DO NOTHING},
+ * which keeps the semantic of the row-by-row inserts.
+ * <p>
+ * Suspends don't go through it: their rows are merged with the stored minutes, which DO NOTHING would drop,
+ * see {@link com.netcracker.persistence.adapters.cloud.dao.CloudSuspendDao#insert(List)}.
+ */
+public final class CloudCopyLoader {
+    /**
+     * Smaller batches are cheaper to send as plain inserts
+     */
+    public static final int MIN_ROWS = 16;
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE IF NOT EXISTS %s (LIKE %s INCLUDING DEFAULTS) ON COMMIT DELETE ROWS
+            """;
+    private static final String COPY = "COPY %s (%s) FROM STDIN";
+    private static final String MOVE = """
+            INSERT INTO %s (%s)
+            SELECT %s FROM %s
+            ON CONFLICT DO NOTHING
+            """;
+
+    public interface RowWriter<T> {
+        void write(CopyRow row, T entity) throws Exception;
+    }
+
+    private CloudCopyLoader() {
+    }
+
+    /**
+     * Copies rows into {@code table} and commits the transaction
+     *
+     * @param staging name of the staging table, partitions of the same table may share it
+     * @param columns comma-separated list of columns in the order they are written by {@code writer}
+     * @return number of rows inserted into {@code table}
+     */
+    public static <T> int load(CloudConnection connection, String table, String staging, String columns,
+                               List<T> entities, RowWriter<T> writer) throws SQLException {
+        try (var ps = connection.prepareStatement(CREATE_STAGING.formatted(staging, table))) {
+            ps.executeUpdate();
+        }
+
+        var copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY.formatted(staging, columns));
+        try {
+            var row = new CopyRow();
+            for (var entity : entities) {
+                try {
+                    writer.write(row, entity);
+                    row.end();
+                } catch (SQLException e) {
+                    throw e;
+                } catch (Exception e) {
+                    row.discard();
+                    continue; // skip the row which can't be serialized, the same way as the row-by-row inserts do
+                }
+                if (row.length() >= CHUNK_SIZE) {
+                    row.flushTo(copy);
+                }
+            }
+            row.flushTo(copy);
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+
+        int inserted;
+        try (var ps = connection.prepareStatement(MOVE.formatted(table, columns, columns, staging))) {
+            inserted = ps.executeUpdate();
+        }
+        connection.commit();
+        return inserted;
+    }
+
+    /**
+     * Buffer of rows in the text format of COPY
+     */
+    public static final class CopyRow {
+        private final StringBuilder buf = new StringBuilder(CHUNK_SIZE + 1024);
+        private int rowStart = 0;
+        private boolean first = true;
+
+        CopyRow() {
+        }
+
+        public CopyRow add(String value) {
+            separate();
+            if (value == null) {
+                buf.append("\\N");
+                return this;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> buf.append("\\\\");
+                    case '\n' -> buf.append("\\n");
+                    case '\r' -> buf.append("\\r");
+                    case '\t' -> buf.append("\\t");
+                    default -> buf.append(c);
+                }
+            }
+            return this;
+        }
+
+        public CopyRow add(Number value) {
+            separate();
+            buf.append(value == null ? "\\N" : value.toString());
+            return this;
+        }
+
+        public CopyRow add(Boolean value) {
+            separate();
+            buf.append(value == null ? "\\N" : value ? "t" : "f");
+            return this;
+        }
+
+        public CopyRow add(Instant value) {
+            separate();
+            buf.append(value == null ? "\\N" : value.toString()); // ISO-8601 in UTC is accepted by timestamptz
+            return this;
+        }
+
+        private void separate() {
+            if (!first) {
+                buf.append('\t');
+            }
+            first = false;
+        }
+
+        void end() {
+            buf.append('\n');
+            rowStart = buf.length();
+            first = true;
+        }
+
+        void discard() {
+            buf.setLength(rowStart);
+            first = true;
+        }
+
+        int length() {
+            return buf.length();
+        }
+
+        String text() {
+            return buf.toString();
+        }
+
+        void flushTo(CopyIn copy) throws SQLException {
+            if (buf.isEmpty()) {
+                return;
+            }
+            var bytes = buf.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            buf.setLength(0);
+            rowStart = 0;
+        }
+    }
+}
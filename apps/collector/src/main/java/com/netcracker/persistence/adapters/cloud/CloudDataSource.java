@@ -0,0 +1,81 @@
+package com.netcracker.persistence.adapters.cloud;
+
+import com.netcracker.common.PersistenceType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Pooled postgres connections for the cloud DAOs.
+ * <p>
+ * Writes from collector and reads from UI use separate pools, so a burst of heavy UI queries
+ * can not starve ingestion (and vice versa).
+ */
+@LookupIfProperty(name = "service.persistence", stringValue = PersistenceType.CLOUD)
+@ApplicationScoped
+public class CloudDataSource {
+
+    @Inject
+    CloudPostgresConfiguration configuration;
+
+    @Inject
+    MeterRegistry registry;
+
+    // 0 - twice the number of available processors
+    @ConfigProperty(name = "cloud.datasource.ingest.max-size", defaultValue = "0")
+    int ingestMaxSize;
+
+    @ConfigProperty(name = "cloud.datasource.query.max-size", defaultValue = "0")
+    int queryMaxSize;
+
+    @ConfigProperty(name = "cloud.datasource.acquire-timeout", defaultValue = "10s")
+    Duration acquireTimeout;
+
+    @ConfigProperty(name = "cloud.datasource.validation-interval", defaultValue = "30s")
+    Duration validationInterval;
+
+    private CloudConnectionPool ingest;
+    private CloudConnectionPool query;
+
+    @PostConstruct
+    void init() {
+        ingest = createPool("ingest", ingestMaxSize);
+        query = createPool("query", queryMaxSize);
+        Log.infof("Initialized postgres connection pools: ingest=%d, query=%d connections",
+                ingest.maxSize(), query.maxSize());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ingest.close();
+        query.close();
+    }
+
+    /**
+     * @return connection for inserts and updates, the caller has to commit its work
+     */
+    public CloudConnection ingest() throws SQLException {
+        return ingest.acquire();
+    }
+
+    /**
+     * @return connection for reads
+     */
+    public CloudConnection query() throws SQLException {
+        return query.acquire();
+    }
+
+    private CloudConnectionPool createPool(String name, int maxSize) {
+        int size = maxSize > 0 ? maxSize : 2 * Runtime.getRuntime().availableProcessors();
+        return new CloudConnectionPool(name, configuration::openConnection, size,
+                acquireTimeout, validationInterval, registry);
+    }
+}
@@ -0,0 +1,450 @@
+package com.netcracker.persistence.adapters.cloud;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Local copies of S3 objects with a limited size on disk.
+ * <p>
+ * The least recently used files are deleted when the total size exceeds {@code maxBytes}.
+ * A cached file is checked against the ETag of the object before reuse (if {@code validate} is set),
+ * at most once per {@code validationInterval}, and a downloaded file is checked against the MD5 checksum
+ * from the ETag, when the object has one.
+ * Concurrent requests of the same object share a single download.
+ * <p>
+ * {@link #init()} has to be called once the cache is created, it registers the size gauge and
+ * picks up the files left in {@code dir} by the previous run.
+ * <p>
+ * A file is pinned while it is read (see {@link CachedFile}), pinned files are never deleted:
+ * the cache may exceed its size until they are released.
+ * Files are deleted outside the lock of the cache.
+ */
+public class CloudFilesCache {
+    public static final String PREFIX = "cdt.s3.cache.";
+    public static final String CACHE_HITS = PREFIX + "hits";
+    public static final String CACHE_MISSES = PREFIX + "misses";
+    public static final String CACHE_JOINED = PREFIX + "joined";
+    public static final String CACHE_EVICTIONS = PREFIX + "evictions";
+    public static final String CACHE_SIZE = PREFIX + "size";
+    public static final String CACHE_DOWNLOAD = PREFIX + "download";
+
+    // only parquet files are recovered from the cache directory, it might be shared with other files
+    static final String FILE_SUFFIX = ".parquet";
+    static final String PART_SUFFIX = ".part";
+    // ETag of an object uploaded in a single part is MD5 of its content, multipart ones have "-N" suffix
+    private static final Pattern MD5_ETAG = Pattern.compile("[0-9a-fA-F]{32}");
+
+    public interface ObjectStorage {
+        String etag(String link) throws IOException;
+
+        void download(String link, String localFilePath) throws IOException;
+    }
+
+    private static final class Entry {
+        final Path path;
+        final long size;
+        String etag;
+        boolean recovered; // left from the previous run, ETag is unknown until the content is checked
+        long validatedAt; // System#nanoTime of the last match with the ETag of the object
+        int pins; // readers of the file
+        boolean removed; // no longer in the cache, the file is deleted when the last reader releases it
+
+        Entry(Path path, long size, String etag, boolean recovered) {
+            this.path = path;
+            this.size = size;
+            this.etag = etag;
+            this.recovered = recovered;
+        }
+    }
+
+    private final Path dir;
+    private final long maxBytes;
+    private final boolean validate;
+    private final long validationIntervalNanos;
+    private final ObjectStorage storage;
+    private final MeterRegistry registry;
+
+    // in access order, the eldest entry is the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes = 0;
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter joined;
+    private final Counter evictions;
+    private final Timer downloads;
+
+    public CloudFilesCache(Path dir, long maxBytes, boolean validate, Duration validationInterval,
+                           ObjectStorage storage, MeterRegistry registry) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.validate = validate;
+        this.validationIntervalNanos = validationInterval.toNanos();
+        this.storage = storage;
+        this.registry = registry;
+
+        this.hits = Counter.builder(CACHE_HITS)
+                .description("Number of S3 files served from the local disk")
+                .register(registry);
+        this.misses = Counter.builder(CACHE_MISSES)
+                .description("Number of S3 files downloaded to the local disk")
+                .register(registry);
+        this.joined = Counter.builder(CACHE_JOINED)
+                .description("Number of S3 file requests which waited for a download started by another request")
+                .register(registry);
+        this.evictions = Counter.builder(CACHE_EVICTIONS)
+                .description("Number of S3 files deleted from the local disk to free space")
+                .register(registry);
+        this.downloads = Timer.builder(CACHE_DOWNLOAD)
+                .description("Time spent downloading S3 files")
+                .register(registry);
+    }
+
+    public void init() {
+        Gauge.builder(CACHE_SIZE, this, CloudFilesCache::size)
+                .description("Total size of S3 files on the local disk, bytes")
+                .baseUnit("bytes")
+                .register(registry);
+        loadExisting();
+    }
+
+    /**
+     * Local copy of an object, it is not deleted until closed
+     */
+    public final class CachedFile implements AutoCloseable {
+        private final Entry entry;
+        private boolean closed;
+
+        private CachedFile(Entry entry) {
+            this.entry = entry;
+        }
+
+        public Path path() {
+            return entry.path;
+        }
+
+        @Override
+        public void close() {
+            synchronized (CloudFilesCache.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            release(entry);
+        }
+    }
+
+    /**
+     * @param link path of the object in the bucket
+     * @return local copy of the object, must be closed after reading
+     */
+    public CachedFile get(String link) throws IOException {
+        while (true) {
+            var own = new CompletableFuture<Path>();
+            var running = inFlight.putIfAbsent(link, own);
+            if (running != null) {
+                var file = pin(link, await(running));
+                if (file != null) {
+                    joined.increment();
+                    return file;
+                }
+                continue; // evicted or replaced meanwhile
+            }
+            try {
+                var file = fetch(link);
+                own.complete(file.path());
+                return file;
+            } catch (IOException | RuntimeException e) {
+                own.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(link, own);
+            }
+        }
+    }
+
+    private synchronized CachedFile pin(String link, Path path) {
+        var entry = entries.get(link);
+        if (entry == null || !entry.path.equals(path)) {
+            return null;
+        }
+        entry.pins++;
+        return new CachedFile(entry);
+    }
+
+    private void release(Entry entry) {
+        List<Path> victims;
+        synchronized (this) {
+            if (--entry.pins > 0) {
+                return;
+            }
+            victims = evict();
+            if (entry.removed && !isInUse(entry.path)) {
+                victims.add(entry.path);
+            }
+        }
+        deleteAll(victims);
+    }
+
+    private static Path await(CompletableFuture<Path> download) throws IOException {
+        try {
+            return download.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+    }
+
+    public synchronized long size() {
+        return bytes;
+    }
+
+    public synchronized int count() {
+        return entries.size();
+    }
+
+    private CachedFile fetch(String link) throws IOException {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(link);
+            if (entry != null) {
+                entry.pins++; // not evicted while it's checked
+            }
+        }
+        if (entry != null) {
+            var file = new CachedFile(entry);
+            boolean valid;
+            try {
+                valid = Files.exists(entry.path) && (!validate || isValidated(entry) || isValid(link, entry));
+            } catch (IOException | RuntimeException e) {
+                file.close();
+                throw e;
+            }
+            if (valid) {
+                hits.increment();
+                return file;
+            }
+            Log.infof("Cached copy of %s is outdated, downloading it again", link);
+            remove(link, entry);
+            file.close();
+        }
+        misses.increment();
+        return download(link);
+    }
+
+    private synchronized boolean isValidated(Entry entry) {
+        return !entry.recovered && System.nanoTime() - entry.validatedAt < validationIntervalNanos;
+    }
+
+    private boolean isValid(String link, Entry entry) throws IOException {
+        var etag = storage.etag(link);
+        synchronized (this) {
+            if (!entry.recovered) {
+                if (!Objects.equals(entry.etag, etag)) {
+                    return false;
+                }
+                entry.validatedAt = System.nanoTime();
+                return true;
+            }
+        }
+        if (!isChecksum(etag) || !etag.equalsIgnoreCase(md5(entry.path))) {
+            return false;
+        }
+        synchronized (this) {
+            entry.etag = etag;
+            entry.recovered = false;
+            entry.validatedAt = System.nanoTime();
+        }
+        return true;
+    }
+
+    private CachedFile download(String link) throws IOException {
+        var name = localName(link);
+        var target = dir.resolve(name);
+        var part = dir.resolve(name + PART_SUFFIX);
+        var etag = storage.etag(link);
+
+        Files.deleteIfExists(part);
+        long started = System.nanoTime();
+        try {
+            storage.download(link, part.toString());
+            if (isChecksum(etag)) {
+                var md5 = md5(part);
+                if (!etag.equalsIgnoreCase(md5)) {
+                    throw new IOException("Checksum mismatch for %s: expected %s, got %s".formatted(link, etag, md5));
+                }
+            }
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(part);
+            downloads.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        var entry = new Entry(target, Files.size(target), etag, false);
+        entry.validatedAt = System.nanoTime();
+        entry.pins = 1;
+        List<Path> victims;
+        synchronized (this) {
+            var old = entries.put(link, entry);
+            if (old != null) {
+                bytes -= old.size;
+                old.removed = true; // the same path, the file is already replaced
+            }
+            bytes += entry.size;
+            victims = evict();
+        }
+        deleteAll(victims);
+        return new CachedFile(entry);
+    }
+
+    private void remove(String link, Entry entry) {
+        synchronized (this) {
+            if (!entries.remove(link, entry)) {
+                return;
+            }
+            bytes -= entry.size;
+            entry.removed = true;
+            if (entry.pins > 0) {
+                return; // deleted by the last reader
+            }
+        }
+        delete(entry.path);
+    }
+
+    /**
+     * Removes the least recently used files, except the ones being read and the most recently used one.
+     * Called under the lock.
+     *
+     * @return files to delete, outside the lock
+     */
+    private List<Path> evict() {
+        var victims = new ArrayList<Path>();
+        var it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            var e = it.next();
+            if (e.getValue().pins > 0 || !it.hasNext()) {
+                continue;
+            }
+            it.remove();
+            bytes -= e.getValue().size;
+            e.getValue().removed = true;
+            victims.add(e.getValue().path);
+            evictions.increment();
+            Log.debugf("Evicted %s from the local cache of S3 files", e.getKey());
+        }
+        return victims;
+    }
+
+    private boolean isInUse(Path path) {
+        for (var entry : entries.values()) {
+            if (entry.path.equals(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Files left from the previous run are reused, the oldest ones are the first to be evicted
+     */
+    private void loadExisting() {
+        List<Path> files;
+        try (var list = Files.list(dir)) {
+            files = list.filter(Files::isRegularFile).toList();
+        } catch (IOException e) {
+            Log.warnf("Could not list cached S3 files in '%s': %s", dir, e.getMessage());
+            return;
+        }
+        record Existing(Path path, long size, long modified) {
+        }
+        var existing = files.stream()
+                .filter(path -> {
+                    var name = path.getFileName().toString();
+                    if (name.contains(FILE_SUFFIX + PART_SUFFIX)) {
+                        delete(path); // interrupted download
+                        return false;
+                    }
+                    return name.endsWith(FILE_SUFFIX);
+                })
+                .map(path -> {
+                    try {
+                        return new Existing(path, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .sorted(Comparator.comparingLong(Existing::modified))
+                .toList();
+        List<Path> victims;
+        synchronized (this) {
+            for (var file : existing) {
+                var link = URLDecoder.decode(file.path().getFileName().toString(), StandardCharsets.UTF_8);
+                entries.put(link, new Entry(file.path(), file.size(), null, true));
+                bytes += file.size();
+            }
+            victims = evict();
+        }
+        deleteAll(victims);
+        Log.infof("Found %d cached S3 files (%d bytes) in '%s'", count(), size(), dir);
+    }
+
+    static String localName(String link) {
+        return URLEncoder.encode(link, StandardCharsets.UTF_8);
+    }
+
+    static boolean isChecksum(String etag) {
+        return etag != null && MD5_ETAG.matcher(etag).matches();
+    }
+
+    static String md5(Path file) throws IOException {
+        try (var in = new DigestInputStream(Files.newInputStream(file), MessageDigest.getInstance("MD5"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteAll(List<Path> paths) {
+        paths.forEach(CloudFilesCache::delete);
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            Log.warnf("Could not delete cached S3 file '%s': %s", path, e.getMessage());
+        }
+    }
+}
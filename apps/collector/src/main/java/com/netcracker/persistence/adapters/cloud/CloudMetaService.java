@@ -79,34 +79,39 @@ public List<DictionaryModel> getDictionary(PodIdRestart pod, List<Integer> ids)
 
     @Override
     public SuspendRange getSuspends(PodIdRestart pod, TimeRange time) {
-        var arr = cloudSuspendDao.find(time.days(), pod.podId(), pod.restartTime(), time.from(), time.to());
-        var range = new SuspendRange();
-        for (var item : arr) {
-            for (var e : item.suspendTime().entrySet()) {
-                range.add(item.curTime().toEpochMilli() + e.getKey(), e.getValue());
-            }
-        }
-        return range;
+        return cloudSuspendDao.find(pod, time.from(), time.to());
     }
 
     @Override
     public Operation save(ParamsModel toSave) {
         cloudParamsDao.insert(CloudParamsEntity.prepare(toSave));
-        cloudParamsDao.commit();
         return null;
     }
 
     @Override
     public Operation save(DictionaryModel toSave) {
         cloudDictionaryDao.insert(CloudDictionaryEntity.prepare(toSave));
-        cloudDictionaryDao.commit();
         return null;
     }
 
     @Override
     public Operation save(SuspendHickup toSave) {
         cloudSuspendDao.insert(CloudSuspendEntity.prepare(toSave));
-        cloudSuspendDao.commit();
         return null;
     }
+
+    @Override
+    public void saveParams(List<ParamsModel> toSave) {
+        cloudParamsDao.insert(toSave.stream().map(CloudParamsEntity::prepare).toList());
+    }
+
+    @Override
+    public void saveDictionary(List<DictionaryModel> toSave) {
+        cloudDictionaryDao.insert(toSave.stream().map(CloudDictionaryEntity::prepare).toList());
+    }
+
+    @Override
+    public void saveSuspends(List<SuspendHickup> toSave) {
+        cloudSuspendDao.insert(CloudSuspendEntity.prepare(toSave));
+    }
 }
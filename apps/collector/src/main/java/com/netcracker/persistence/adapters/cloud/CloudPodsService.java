@@ -28,7 +28,9 @@
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 @LookupIfProperty(name = "service.persistence", stringValue = PersistenceType.CLOUD)
@@ -77,12 +79,10 @@ public PodStatus initializePod(PodStatus pod) {
         } else {
             var cloudPods = new CloudPodsEntity(pod.restartId().oldPodName(), pod.namespace(), pod.service(), pod.podName(), pod.activeSince(), pod.restartTime(), pod.lastActive(), pod.tags());
             cloudPodsDao.insert(cloudPods);
-            cloudPodsDao.commit();
         }
 
         var podRestart = new CloudPodRestartsEntity(pod.restartId().oldPodName(), pod.namespace(), pod.service(), pod.podName(), pod.restartTime(), pod.activeSince(), pod.lastActive());
         cloudPodRestartsDao.insert(podRestart);
-        cloudPodRestartsDao.commit();
 
         return pod;
     }
@@ -196,7 +196,20 @@ public Operation insertPodStatistics(PodIdRestart pod, PodDataAccumulated accumu
         var date = time.today();
         var curMinute = time.curMinute();
         cloudPodStatisticsDao.insert(CloudPodStatisticsEntity.prepare(date, curMinute, pod, accumulated));
-        cloudPodStatisticsDao.commit();
+        return Operation.empty();
+    }
+
+    @Override
+    public Operation insertPodStatistics(Map<PodIdRestart, PodDataAccumulated> stats) {
+        var date = time.today();
+        var curMinute = time.curMinute();
+        // one statement can't upsert the same row twice
+        var entities = new LinkedHashMap<String, CloudPodStatisticsEntity>();
+        stats.forEach((pod, accumulated) -> {
+            var entity = CloudPodStatisticsEntity.prepare(date, curMinute, pod, accumulated);
+            entities.put(entity.podName() + "_" + entity.restartTime().toEpochMilli(), entity);
+        });
+        cloudPodStatisticsDao.insert(new ArrayList<>(entities.values()));
         return Operation.empty();
     }
 
@@ -2,8 +2,6 @@
 
 import com.netcracker.common.PersistenceType;
 import io.quarkus.arc.lookup.LookupIfProperty;
-import io.quarkus.logging.Log;
-import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Singleton;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
@@ -25,25 +23,18 @@ public class CloudPostgresConfiguration {
     @ConfigProperty(name = "quarkus.datasource.password")
     String password;
 
-    @ApplicationScoped
-    public Connection createConnection() {
-
+    /**
+     * Opens a new physical connection, see {@link CloudDataSource} for pooled ones
+     */
+    public Connection openConnection() throws SQLException {
         Properties props = new Properties();
         props.setProperty("user", username);
         props.setProperty("password", password);
+        props.setProperty("reWriteBatchedInserts", "true"); // JDBC batches are sent as multi-row inserts
 
-        // TODO: think about reconnection
-        try {
-            Connection connection = DriverManager.getConnection(url, props);
-            // TODO: use it only for calls and traces
-            connection.setAutoCommit(false); // All LargeObject API calls must be within a transaction block
-            return connection;
-        } catch (SQLException e) {
-            Log.errorf("error during postgres connection creating: %s", e.getMessage());
-            System.exit(-1);
-            return null;
-        }
-
+        Connection connection = DriverManager.getConnection(url, props);
+        connection.setAutoCommit(false); // All LargeObject API calls must be within a transaction block
+        return connection;
     }
 
 }
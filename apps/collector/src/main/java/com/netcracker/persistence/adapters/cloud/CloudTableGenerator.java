@@ -7,7 +7,6 @@
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.time.Duration;
@@ -20,10 +19,10 @@
 @ApplicationScoped
 public class CloudTableGenerator {
 
-    private static final int FIVE_MINUTES_IN_SECONDS = 300; // 5 * 60
+    public static final int FIVE_MINUTES_IN_SECONDS = 300; // 5 * 60
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     @PostConstruct
     void init() {
@@ -35,15 +34,11 @@ void init() {
 
 
     private void createTable(String sql) {
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (var connection = dataSource.ingest(); PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.executeUpdate();
-        } catch (SQLException e) {
-            Log.errorf("error during create table: %s", e.getMessage());
-        }
-        try {
             connection.commit();
         } catch (SQLException e) {
-            Log.errorf("error during commit transaction for dump: %s", e.getMessage());
+            Log.errorf("error during create table: %s", e.getMessage());
         }
     }
 
@@ -1,9 +1,15 @@
 package com.netcracker.persistence.adapters.cloud.cdt;
 
 import com.netcracker.common.models.meta.SuspendHickup;
+import com.netcracker.common.models.pod.PodIdRestart;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 // PostgreSQL Table: suspend
 public record CloudSuspendEntity(
@@ -16,12 +22,29 @@ public record CloudSuspendEntity(
 ) {
 
     public static CloudSuspendEntity prepare(SuspendHickup model) {
-        var date = model.truncatedToDays();
-        var podId = model.pod().oldPodName();
-        var podName = model.pod().podName();
-        var restartTime = model.pod().restartTime();
-        var curTime = model.truncatedToMinutes();
-        Map<Integer, Integer> map = Map.of(model.getSecMs(), model.suspendTime());
-        return new CloudSuspendEntity(date, podId, podName, restartTime, curTime, map);
+        return prepare(List.of(model)).get(0);
+    }
+
+    /**
+     * Hiccups of a pod restart within the same minute share a row: ms of the minute -> delay
+     */
+    public static List<CloudSuspendEntity> prepare(List<SuspendHickup> models) {
+        var minutes = new LinkedHashMap<Minute, Map<Integer, Integer>>();
+        for (var model : models) {
+            var hiccups = minutes.computeIfAbsent(new Minute(model.pod(), model.truncatedToMinutes()), k -> new TreeMap<>());
+            hiccups.merge(model.getSecMs(), model.suspendTime(), Math::max);
+        }
+        var res = new ArrayList<CloudSuspendEntity>(minutes.size());
+        minutes.forEach((minute, hiccups) -> res.add(new CloudSuspendEntity(
+                minute.time().truncatedTo(ChronoUnit.DAYS),
+                minute.pod().oldPodName(),
+                minute.pod().podName(),
+                minute.pod().restartTime(),
+                minute.time(),
+                hiccups)));
+        return res;
+    }
+
+    private record Minute(PodIdRestart pod, Instant time) {
     }
 }
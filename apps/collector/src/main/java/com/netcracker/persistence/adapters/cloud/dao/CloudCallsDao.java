@@ -3,6 +3,8 @@
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netcracker.common.PersistenceType;
+import com.netcracker.persistence.adapters.cloud.CloudCopyLoader;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.persistence.adapters.cloud.CloudTableGenerator;
 import com.netcracker.persistence.adapters.cloud.cdt.CloudCallsEntity;
 import io.quarkus.arc.lookup.LookupIfProperty;
@@ -10,10 +12,10 @@
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.List;
 
 @LookupIfProperty(name = "service.persistence", stringValue = PersistenceType.CLOUD)
 @ApplicationScoped
@@ -28,53 +30,112 @@ public class CloudCallsDao {
             ON CONFLICT DO NOTHING
             """;
 
+    private static final String TABLE = "calls_%d";
+    private static final String COLUMNS = """
+            time, cpu_time, wait_time, memory_used, duration, non_blocking, queue_wait_duration, \
+            suspend_duration, calls, transactions, logs_generated, logs_written, file_read, file_written, net_read, \
+            net_written, namespace, service_name, pod_name, restart_time, method, params, trace_file_index, \
+            buffer_offset, record_index""";
+
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     public void insert(CloudCallsEntity entity) {
+        insert(List.of(entity));
+    }
 
-        String sql = INSERT.formatted(CloudTableGenerator.getTimestampTruncatedToFiveMinutes());
+    /**
+     * Saves calls into the current partition with a single round-trip and a single commit
+     */
+    public void insert(List<CloudCallsEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
 
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setTimestamp(1, Timestamp.from(entity.time()));
-            ps.setLong(2, entity.cpuTime());
-            ps.setLong(3, entity.waitTime());
-            ps.setLong(4, entity.memoryUsed());
-            ps.setLong(5, entity.duration());
-            ps.setLong(6, entity.nonBlocking());
-            ps.setInt(7, entity.queueWaitDuration());
-            ps.setInt(8, entity.suspendDuration());
-            ps.setInt(9, entity.calls());
-            ps.setLong(10, entity.transactions());
-            ps.setInt(11, entity.logsGenerated());
-            ps.setInt(12, entity.logsWritten());
-            ps.setLong(13, entity.fileRead());
-            ps.setLong(14, entity.fileWritten());
-            ps.setLong(15, entity.netRead());
-            ps.setLong(16, entity.netWritten());
-            ps.setString(17, entity.namespace());
-            ps.setString(18, entity.serviceName());
-            ps.setString(19, entity.podName());
-            ps.setTimestamp(20, Timestamp.from(entity.restartTime()));
-            ps.setInt(21, entity.method());
-            ps.setObject(22, MAPPER.writeValueAsString(entity.params())); // TODO: check it with setString
-            ps.setInt(23, entity.traceFileIndex());
-            ps.setInt(24, entity.bufferOffset());
-            ps.setInt(25, entity.recordIndex());
-            ps.executeUpdate();
-        } catch (SQLException | JsonProcessingException e) {
-            Log.errorf("error during prepare statement to save calls: %s", e.getMessage());
+        long partition = CloudTableGenerator.getTimestampTruncatedToFiveMinutes();
+        if (entities.size() >= CloudCopyLoader.MIN_ROWS) {
+            copy(partition, entities);
+            return;
         }
-    }
 
-    public void commit() {
-        try {
+        String sql = INSERT.formatted(partition);
+
+        try (var connection = dataSource.ingest(); PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (var entity : entities) {
+                try {
+                    bind(ps, entity);
+                    ps.addBatch();
+                } catch (JsonProcessingException e) {
+                    Log.errorf("error during serialization of call params: %s", e.getMessage());
+                }
+            }
+            ps.executeBatch();
             connection.commit();
         } catch (SQLException e) {
-            Log.errorf("error during commit transaction for calls: %s", e.getMessage());
+            Log.errorf("error during prepare statement to save %d calls: %s", entities.size(), e.getMessage());
         }
     }
 
+    private void copy(long partition, List<CloudCallsEntity> entities) {
+        try (var connection = dataSource.ingest()) {
+            CloudCopyLoader.load(connection, TABLE.formatted(partition), "calls_staging", COLUMNS, entities, (row, entity) -> row
+                    .add(entity.time())
+                    .add(entity.cpuTime())
+                    .add(entity.waitTime())
+                    .add(entity.memoryUsed())
+                    .add(entity.duration())
+                    .add(entity.nonBlocking())
+                    .add(entity.queueWaitDuration())
+                    .add(entity.suspendDuration())
+                    .add(entity.calls())
+                    .add(entity.transactions())
+                    .add(entity.logsGenerated())
+                    .add(entity.logsWritten())
+                    .add(entity.fileRead())
+                    .add(entity.fileWritten())
+                    .add(entity.netRead())
+                    .add(entity.netWritten())
+                    .add(entity.namespace())
+                    .add(entity.serviceName())
+                    .add(entity.podName())
+                    .add(entity.restartTime())
+                    .add(entity.method())
+                    .add(MAPPER.writeValueAsString(entity.params()))
+                    .add(entity.traceFileIndex())
+                    .add(entity.bufferOffset())
+                    .add(entity.recordIndex()));
+        } catch (SQLException e) {
+            Log.errorf("error during copy of %d calls: %s", entities.size(), e.getMessage());
+        }
+    }
+
+    private void bind(PreparedStatement ps, CloudCallsEntity entity) throws SQLException, JsonProcessingException {
+        ps.setTimestamp(1, Timestamp.from(entity.time()));
+        ps.setLong(2, entity.cpuTime());
+        ps.setLong(3, entity.waitTime());
+        ps.setLong(4, entity.memoryUsed());
+        ps.setLong(5, entity.duration());
+        ps.setLong(6, entity.nonBlocking());
+        ps.setInt(7, entity.queueWaitDuration());
+        ps.setInt(8, entity.suspendDuration());
+        ps.setInt(9, entity.calls());
+        ps.setLong(10, entity.transactions());
+        ps.setInt(11, entity.logsGenerated());
+        ps.setInt(12, entity.logsWritten());
+        ps.setLong(13, entity.fileRead());
+        ps.setLong(14, entity.fileWritten());
+        ps.setLong(15, entity.netRead());
+        ps.setLong(16, entity.netWritten());
+        ps.setString(17, entity.namespace());
+        ps.setString(18, entity.serviceName());
+        ps.setString(19, entity.podName());
+        ps.setTimestamp(20, Timestamp.from(entity.restartTime()));
+        ps.setInt(21, entity.method());
+        ps.setObject(22, MAPPER.writeValueAsString(entity.params())); // TODO: check it with setString
+        ps.setInt(23, entity.traceFileIndex());
+        ps.setInt(24, entity.bufferOffset());
+        ps.setInt(25, entity.recordIndex());
+    }
 }
@@ -1,6 +1,8 @@
 package com.netcracker.persistence.adapters.cloud.dao;
 
 import com.netcracker.common.PersistenceType;
+import com.netcracker.persistence.adapters.cloud.CloudCopyLoader;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.persistence.adapters.cloud.cdt.CloudDictionaryEntity;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.logging.Log;
@@ -22,6 +24,7 @@ INSERT INTO dictionary(pod_id, pod_name, restart_time, position, tag)
             VALUES (?, ?, ?, ?, ?)
             ON CONFLICT DO NOTHING
             """;
+    private static final String COLUMNS = "pod_id, pod_name, restart_time, position, tag";
     public static final String GET_DICTIONARY = """
             SELECT position, tag
             FROM dictionary
@@ -37,26 +40,45 @@ INSERT INTO dictionary(pod_id, pod_name, restart_time, position, tag)
             """;
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     public void insert(CloudDictionaryEntity entity) {
 
-        try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+        try (var connection = dataSource.ingest(); PreparedStatement ps = connection.prepareStatement(INSERT)) {
             ps.setString(1, entity.podId());                            // pod_id [text]
             ps.setString(2, entity.podName());                          // pod_name [text]
             ps.setTimestamp(3, Timestamp.from(entity.restartTime()));   // restart_time [timestamptz]
             ps.setInt(4, entity.position());                            // position [integer]
             ps.setString(5, entity.tag());                              // tag [text]
             ps.executeUpdate();
+            connection.commit();
         } catch (SQLException e) {
             Log.errorf("error during dictionary saving: %s", e.getMessage());
         }
     }
 
+    public void insert(List<CloudDictionaryEntity> entities) {
+        if (entities.size() < CloudCopyLoader.MIN_ROWS) {
+            entities.forEach(this::insert);
+            return;
+        }
+
+        try (var connection = dataSource.ingest()) {
+            CloudCopyLoader.load(connection, "dictionary", "dictionary_staging", COLUMNS, entities, (row, entity) -> row
+                    .add(entity.podId())
+                    .add(entity.podName())
+                    .add(entity.restartTime())
+                    .add(entity.position())
+                    .add(entity.tag()));
+        } catch (SQLException e) {
+            Log.errorf("error during copy of %d dictionary words: %s", entities.size(), e.getMessage());
+        }
+    }
+
     public List<CloudDictionaryEntity> find(String podId, Instant restartTime) {
 
         List<CloudDictionaryEntity> list = new ArrayList<>();
-        try (var statement = connection.prepareStatement(GET_DICTIONARY)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(GET_DICTIONARY)) {
             statement.setString(1, podId);
             statement.setTimestamp(2, Timestamp.from(restartTime));
             try (ResultSet rs = statement.executeQuery()) {
@@ -79,7 +101,7 @@ public List<CloudDictionaryEntity> find(String podId, Instant restartTime, List<
                 .collect(Collectors.joining(", ", "{", "}"));
 
         List<CloudDictionaryEntity> list = new ArrayList<>();
-        try (var statement = connection.prepareStatement(GET_DICTIONARY_2)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(GET_DICTIONARY_2)) {
             statement.setString(1, podId);
             statement.setTimestamp(2, Timestamp.from(restartTime));
             statement.setString(3, positionsString);
@@ -94,14 +116,6 @@ public List<CloudDictionaryEntity> find(String podId, Instant restartTime, List<
         return list;
     }
 
-    public void commit() {
-        try {
-            connection.commit();
-        } catch (SQLException e) {
-            Log.errorf("error during commit transaction for dictionary: %s", e.getMessage());
-        }
-    }
-
     private CloudDictionaryEntity toEntity(String podId, Instant restartTime, ResultSet resultSet) throws SQLException {
         return new CloudDictionaryEntity(
                 podId,
@@ -4,6 +4,7 @@
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.netcracker.common.PersistenceType;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.persistence.adapters.cloud.cdt.CloudDumpEntity;
 
 import io.quarkus.arc.lookup.LookupIfProperty;
@@ -20,17 +21,16 @@
 @Deprecated
 public class CloudDumpDao {
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     public List<CloudDumpEntity> find(List<String> podIds, Instant from, Instant to, String dumpType) {
-        try {
-            var TABLE_NAME = "heap_dumps";
-            if (dumpType != "heap") {
-                TABLE_NAME = "dump_objects";
-            }
+        var TABLE_NAME = "heap_dumps";
+        if (dumpType != "heap") {
+            TABLE_NAME = "dump_objects";
+        }
+        try (var connection = dataSource.query(); PreparedStatement statement = connection
+                .prepareStatement(String.format("SELECT * FROM %s WHERE pod_id = ANY(?) AND creation_time BETWEEN ? AND ?", TABLE_NAME))) {
             Array podIdArray = connection.createArrayOf("uuid", podIds.toArray());
-            PreparedStatement statement = connection
-                    .prepareStatement(String.format("SELECT * FROM %s WHERE pod_id = ANY(?) AND creation_time BETWEEN ? AND ?", TABLE_NAME));
             statement.setArray(1, podIdArray);
             statement.setTimestamp(2, Timestamp.from(from));
             statement.setTimestamp(3, Timestamp.from(to));
@@ -42,14 +42,13 @@ public List<CloudDumpEntity> find(List<String> podIds, Instant from, Instant to,
     }
 
     public int count(String dumpType) {
-        try {
-            var TABLE_NAME = "heap_dumps";
-            if (dumpType != "heap") {
-                TABLE_NAME = "dump_objects_";
-            }
-            PreparedStatement statement = connection
-                    .prepareStatement(String.format("SELECT COUNT(*) AS total_rows FROM %s", TABLE_NAME));
-            ResultSet rs = statement.executeQuery();
+        var TABLE_NAME = "heap_dumps";
+        if (dumpType != "heap") {
+            TABLE_NAME = "dump_objects_";
+        }
+        try (var connection = dataSource.query(); PreparedStatement statement = connection
+                .prepareStatement(String.format("SELECT COUNT(*) AS total_rows FROM %s", TABLE_NAME));
+             ResultSet rs = statement.executeQuery()) {
             return rs.getInt("total_rows");
         } catch (SQLException e) {
             Log.error("Failed to find dumps", e);
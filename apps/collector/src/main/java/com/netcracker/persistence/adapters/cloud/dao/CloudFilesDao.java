@@ -4,7 +4,6 @@
 import java.security.InvalidKeyException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
-import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -21,8 +20,16 @@
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.example.data.Group;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.netcracker.cdt.ui.rest.v2.dto.Requests;
@@ -34,14 +41,18 @@
 import com.netcracker.common.models.cloud.CloudStorageFilesModel;
 import com.netcracker.common.models.meta.dict.CallParameters;
 import com.netcracker.common.models.pod.PodIdRestart;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
+import com.netcracker.persistence.adapters.cloud.CloudFilesCache;
 import com.netcracker.profiler.model.QueryFilter;
 
 import io.minio.DownloadObjectArgs;
 import io.minio.MinioClient;
+import io.minio.StatObjectArgs;
 import io.minio.errors.ErrorResponseException;
 import io.minio.errors.InsufficientDataException;
 import io.minio.errors.InternalException;
 import io.minio.errors.InvalidResponseException;
+import io.minio.errors.MinioException;
 import io.minio.errors.ServerException;
 import io.minio.errors.XmlParserException;
 import io.quarkus.arc.lookup.LookupIfProperty;
@@ -53,10 +64,10 @@
 
 @LookupIfProperty(name = "service.persistence", stringValue = PersistenceType.CLOUD)
 @ApplicationScoped
-public class CloudFilesDao {
+public class CloudFilesDao implements CloudFilesCache.ObjectStorage {
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     @Inject
     MinioClient minioClient;
@@ -67,6 +78,12 @@ public class CloudFilesDao {
     @ConfigProperty(name = "s3.ignore-cert-check")
     boolean ignoreCertCheck;
 
+    // columns of the calls parquet file used to build CallRecord
+    static final Set<String> CALL_COLUMNS = Set.of("time", "duration", "nonBlocking", "cpuTime",
+            "queueWaitDuration", "suspendDuration", "calls", "namespace", "serviceName", "podName", "restartTime",
+            "method", "transactions", "memoryUsed", "logsGenerated", "logsWritten", "fileRead", "fileWritten",
+            "netRead", "netWritten", "params");
+
     public static final String GET_S3_FILES = """
                 SELECT * FROM s3_files
                 WHERE duration_range >= ? AND duration_range <= ?
@@ -113,77 +130,171 @@ public void downloadCloudFile(String cloudLinkToFile, String localFilePath) thro
                 .bucket(bucketName)
                 .object(cloudLinkToFile)
                 .filename(localFilePath)
+                .overwrite(true)
                 .build());
 
     }
 
+    @Override
+    public String etag(String cloudLinkToFile) throws IOException {
+        try {
+            if (ignoreCertCheck) {
+                minioClient.ignoreCertCheck();
+            }
+            return minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(cloudLinkToFile)
+                    .build()).etag();
+        } catch (MinioException | InvalidKeyException | NoSuchAlgorithmException | KeyManagementException e) {
+            throw new IOException("Could not get metadata of cloud file %s".formatted(cloudLinkToFile), e);
+        }
+    }
+
+    @Override
+    public void download(String cloudLinkToFile, String localFilePath) throws IOException {
+        try {
+            downloadCloudFile(cloudLinkToFile, localFilePath);
+        } catch (MinioException | InvalidKeyException | NoSuchAlgorithmException | KeyManagementException e) {
+            throw new IOException("Could not download cloud file %s".formatted(cloudLinkToFile), e);
+        }
+    }
+
+    /**
+     * Reads calls of the parquet file which match the time and duration ranges.
+     * <p>
+     * The ranges are pushed down to the reader: row groups are skipped by their min/max statistics
+     * and the remaining rows are filtered before they are assembled. Only columns of {@link CallRecord} are read.
+     */
     public CloudCallsResult getCalls(List<Requests.Service> services, String queryFilter, TimeRange range,
             DurationRange durationRange, String cloudFile) throws IOException {
         Configuration conf = new Configuration();
-        int totalRecords = 0;
         CallRecord callRecord;
         QueryFilter condition = QueryFilter.parseQueryFilter(queryFilter);
+        List<List<QueryFilter.Term>> groups = condition.get_groups();
+        boolean hasParamsFilter = !groups.isEmpty();
         List<CallRecord> records = new ArrayList<>();
         Set<PodIdRestart> pods = new HashSet<>();
-        GroupReadSupport readSupport = new GroupReadSupport();
-        ParquetReader<Group> reader;
-        Group record;
-        reader = ParquetReader.builder(readSupport, new Path(cloudFile))
+        Path path = new Path(cloudFile);
+
+        long totalRecords;
+        try (var footer = ParquetFileReader.open(HadoopInputFile.fromPath(path, conf))) {
+            totalRecords = footer.getRecordCount();
+        }
+
+        try (ParquetReader<Group> reader = ParquetReader.builder(new ProjectionReadSupport(CALL_COLUMNS), path)
                 .withConf(conf)
-                .build();
+                .withFilter(FilterCompat.get(callsPredicate(range, durationRange)))
+                .useStatsFilter()
+                .useColumnIndexFilter()
+                .useRecordFilter()
+                .build()) {
+            Group record;
+            while ((record = reader.read()) != null) {
+                Map<String, List<String>> paramsMap = record.getFieldRepetitionCount("params") > 0
+                        ? readGroupToHashMap(record.getGroup("params", 0))
+                        : new HashMap<>();
 
-        while ((record = reader.read()) != null) {
-            totalRecords++;
-            long time = record.getLong("time", 0);
-            int duration = record.getInteger("duration", 0);
+                if (hasParamsFilter && !matches(groups, paramsMap))
+                    continue;
 
-            if (!((range.from().toEpochMilli() <= time && time <= range.to().toEpochMilli())
-                    && (durationRange.from().toMillis() <= duration
-                            && duration <= durationRange.to().toMillis()))) {
-                continue;
+                String namespace = record.getString("namespace", 0);
+                String service = record.getString("serviceName", 0);
+                String podName = record.getString("podName", 0);
+                long podRestartTime = record.getLong("restartTime", 0);
+                PodIdRestart currentPod = PodIdRestart.getPodInfo(namespace, service, podName, podRestartTime);
+                callRecord = new CallRecord(
+                        record.getLong("time", 0),
+                        record.getInteger("duration", 0),
+                        record.getLong("nonBlocking", 0),
+                        record.getLong("cpuTime", 0),
+                        record.getInteger("queueWaitDuration", 0),
+                        record.getInteger("suspendDuration", 0),
+                        record.getInteger("calls", 0),
+                        currentPod,
+                        null,
+                        record.getString("method", 0),
+                        record.getInteger("transactions", 0),
+                        record.getLong("memoryUsed", 0),
+                        (int) record.getLong("logsGenerated", 0),
+                        (int) record.getLong("logsWritten", 0),
+                        record.getLong("fileRead", 0),
+                        record.getLong("fileWritten", 0),
+                        record.getLong("netRead", 0),
+                        record.getLong("netWritten", 0),
+                        new CallParameters(paramsMap));
+                pods.add(currentPod);
+                records.add(callRecord);
             }
+        }
+        return new CloudCallsResult(records, (int) totalRecords, records.size(), pods);
+    }
+
+    /**
+     * Checks parameters of a call against the filter: any group of the filter must match,
+     * and every term of the group must match.
+     * An included term matches if the parameter has one of its values, an excluded one if it has none of them.
+     */
+    static boolean matches(List<List<QueryFilter.Term>> groups, Map<String, List<String>> params) {
+        for (List<QueryFilter.Term> group : groups) {
+            boolean all = true;
+            for (QueryFilter.Term term : group) {
+                if (hasAnyValue(params.get(term.key()), term.values()) != term.include()) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all)
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean hasAnyValue(List<String> actual, List<String> values) {
+        if (actual == null)
+            return false;
+        for (String value : values) {
+            if (actual.contains(value))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Time and duration ranges of calls, bounds are inclusive
+     */
+    static FilterPredicate callsPredicate(TimeRange range, DurationRange durationRange) {
+        var time = FilterApi.longColumn("time");
+        var duration = FilterApi.intColumn("duration");
+        int durationFrom = (int) Math.min(durationRange.from().toMillis(), Integer.MAX_VALUE);
+        int durationTo = (int) Math.min(durationRange.to().toMillis(), Integer.MAX_VALUE);
+        return FilterApi.and(
+                FilterApi.and(
+                        FilterApi.gtEq(time, range.from().toEpochMilli()),
+                        FilterApi.ltEq(time, range.to().toEpochMilli())),
+                FilterApi.and(
+                        FilterApi.gtEq(duration, durationFrom),
+                        FilterApi.ltEq(duration, durationTo)));
+    }
+
+    /**
+     * Requests only the given top-level columns, so other columns (trace bytes, for example) are never decoded.
+     * The projection is taken from the file schema, so the column types always match the writer.
+     */
+    static class ProjectionReadSupport extends GroupReadSupport {
+        private final Set<String> columns;
+
+        ProjectionReadSupport(Set<String> columns) {
+            this.columns = columns;
+        }
 
-            Map<String, List<String>> paramsMap = readGroupToHashMap(record.getGroup("params", 0));
-
-            // if condition.included params are not present in current call record params,
-            // skip current call record
-            if (!condition.get_included().isEmpty() && !containsValuesInMap(paramsMap, condition.get_included()))
-                continue;
-            // if condition.excluded params are present in current call record params, skip
-            // current call record
-            if (!condition.get_excluded().isEmpty() && containsValuesInMap(paramsMap, condition.get_excluded()))
-                continue;
-
-            String namespace = record.getString("namespace", 0);
-            String service = record.getString("serviceName", 0);
-            String podName = record.getString("podName", 0);
-            long podRestartTime = record.getLong("restartTime", 0);
-            PodIdRestart currentPod = PodIdRestart.getPodInfo(namespace, service, podName, podRestartTime);
-            callRecord = new CallRecord(
-                    time,
-                    duration,
-                    record.getLong("nonBlocking", 0),
-                    record.getLong("cpuTime", 0),
-                    record.getInteger("queueWaitDuration", 0),
-                    record.getInteger("suspendDuration", 0),
-                    record.getInteger("calls", 0),
-                    currentPod,
-                    null,
-                    record.getString("method", 0),
-                    record.getInteger("transactions", 0),
-                    record.getLong("memoryUsed", 0),
-                    (int) record.getLong("logsGenerated", 0),
-                    (int) record.getLong("logsWritten", 0),
-                    record.getLong("fileRead", 0),
-                    record.getLong("fileWritten", 0),
-                    record.getLong("netRead", 0),
-                    record.getLong("netWritten", 0),
-                    new CallParameters(paramsMap));
-            pods.add(currentPod);
-            records.add(callRecord);
+        @Override
+        public ReadContext init(InitContext context) {
+            MessageType fileSchema = context.getFileSchema();
+            List<Type> fields = fileSchema.getFields().stream()
+                    .filter(field -> columns.contains(field.getName()))
+                    .toList();
+            return new ReadContext(new MessageType(fileSchema.getName(), fields));
         }
-        reader.close();
-        return new CloudCallsResult(records, totalRecords, records.size(), pods);
     }
 
     public List<CloudStorageFilesModel> getCloudFiles(List<Requests.Service> serviceQuery, TimeRange range,
@@ -224,7 +335,7 @@ public List<CloudStorageFilesModel> getCloudFiles(List<Requests.Service> service
          * end_time'
          */
         String query = GET_S3_FILES.formatted(getQuotedStringOfList(namespaces), DEFAULT_S3_FILES_LIMIT);
-        try (var statement = connection.prepareStatement(query)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(query)) {
             statement.setLong(1, durationRange.from().toMillis());
             statement.setLong(2, durationRange.to().toMillis());
             Timestamp from = Timestamp.from((range.from()));
@@ -292,7 +403,7 @@ public List<CloudStorageFilesModel> getCloudFiles(List<UUID> s3FileIdList,
         String placeholders = String.join(", ", Collections.nCopies(s3FileIdList.size(), "?"));
         String query = GET_S3_FILES_BY_IDS.formatted(placeholders, getQuotedStringOfList(namespaces), DEFAULT_S3_FILES_LIMIT);
 
-        try (var statement = connection.prepareStatement(query)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(query)) {
             // Set each UUID as a parameter
             int i = 0;
             for (i = 0; i < s3FileIdList.size(); i++) {
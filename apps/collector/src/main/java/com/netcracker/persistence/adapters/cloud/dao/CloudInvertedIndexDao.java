@@ -1,20 +1,33 @@
 package com.netcracker.persistence.adapters.cloud.dao;
 
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.ResultSet;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.netcracker.common.PersistenceType;
 import com.netcracker.common.models.TimeRange;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.profiler.model.QueryFilter;
 import com.netcracker.profiler.model.DurationUnit;
 
@@ -28,7 +41,16 @@
 public class CloudInvertedIndexDao {
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
+
+    @ConfigProperty(name = "inverted-index.lookup.parallelism", defaultValue = "4")
+    int parallelism;
+
+    @ConfigProperty(name = "inverted-index.lookup.tables-per-query", defaultValue = "24")
+    int tablesPerQuery;
+
+    private ExecutorService workers;
+    private Semaphore permits;
 
     public static final String GET_INVERTED_INDEX_TABLES_BY_TIMERANGE = """
                 SELECT table_name
@@ -39,7 +61,7 @@ public class CloudInvertedIndexDao {
                 ORDER BY start_time DESC
             """;
 
-    public static final String GET_S3_FILE_IDS = "SELECT file_id FROM %s WHERE value IN (%s)";
+    public static final String GET_S3_FILE_IDS = "SELECT file_id FROM %s WHERE value = ANY(?)";
 
     String normalizedInvertedIndexes = normalizeParamList(INVERTED_INDEX_PARAMS);
     DurationUnit ttl = DurationUnit.parseDurationUnit(INVERTED_INDEX_LIFETIME, INVERTED_INDEX_LIFETIME_UNITS,
@@ -47,6 +69,17 @@ public class CloudInvertedIndexDao {
     DurationUnit granularity = DurationUnit.parseDurationUnit(INVERTED_INDEX_GRANULARITY,
             INVERTED_INDEX_GRANULARITY_UNITS, DEFAULT_INVERTED_INDEX_GRANULARITY);
 
+    @PostConstruct
+    void init() {
+        workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("inverted-index-", 0).factory());
+        permits = new Semaphore(Math.max(1, parallelism));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
     /**
      * Retrieves a list of inverted index table names from the `temp_table_inventory` table that match
      * the provided inverted index prefix and fall within the specified time range.
@@ -70,7 +103,7 @@ public List<String> getInvertedIndexTables(String invertedIndex, TimeRange range
         if (!normalizedInvertedIndexes.contains(invertedIndex))
             return tableNames;
 
-        try (var stmt = connection.prepareStatement(GET_INVERTED_INDEX_TABLES_BY_TIMERANGE)) {
+        try (var connection = dataSource.query(); var stmt = connection.prepareStatement(GET_INVERTED_INDEX_TABLES_BY_TIMERANGE)) {
             stmt.setString(1, "i_" + invertedIndex + "%");
             stmt.setTimestamp(2, Timestamp.from(range.to())); // table ends after range.to
             stmt.setTimestamp(3, Timestamp.from(range.from())); // table starts before range.from
@@ -90,58 +123,125 @@ public List<String> getInvertedIndexTables(String invertedIndex, TimeRange range
     * Retrieves a set of S3 file UUIDs by querying inverted index tables based on a query filter and time range.
     *
     * This method performs the following:
-    *   - Parses the logical filter expression (e.g., "+request.id val1 AND -trace.id val2") into included keys.
-    *   - Normalizes the keys and fetches matching inverted index tables within the specified {@link TimeRange}.
-    *   - For each matching table, performs a value-based query and collects matching S3 file UUIDs.
-    *   - Stops execution early if a pre-configured timeout threshold is reached.
+    *   - Parses the logical filter expression (e.g., "+request.id val1 AND -trace.id val2 OR +span.id val3")
+    *     into groups of conditions joined by OR, each group being conditions joined by AND.
+    *   - Looks up the files of every included condition over the inverted index tables within the
+    *     specified {@link TimeRange}. The tables are probed concurrently, several tables per UNION ALL query.
+    *   - Intersects the files of the conditions of a group and unites the groups.
+    *   - Stops waiting for the probes once a pre-configured timeout threshold is reached.
+    *
+    * Excluded conditions (-key or NOT +key) do not narrow the files: a file with the value may still contain
+    * other calls, they are filtered out call by call.
     *
     * @param queryFilter A string query filter using logical syntax (e.g., "+param val AND -param2 val2").
     * @param range       The {@link TimeRange} to select relevant inverted index tables by timestamp.
-    * @return A {@link Set} of matching S3 file {@link UUID}s.
+    * @return A {@link Set} of matching S3 file {@link UUID}s, or {@code null} if the index can not narrow
+    *         the search (a group has no included condition on an indexed parameter).
     * @throws SQLException If any SQL errors occur during query execution.
     * @throws JsonProcessingException If there are issues in parsing the filter (in case it was JSON-based).
     */
     public Set<UUID> getS3FileIds(String queryFilter, TimeRange range) throws SQLException, JsonProcessingException {
-        Set<UUID> s3FileIds = new HashSet<>();
-
         QueryFilter filterCondition = QueryFilter.parseQueryFilter(queryFilter);
+        Instant deadline = Instant.now().plusSeconds(REQUEST_TIMEOUT - 1);
+
+        // tables are looked up once per parameter, files once per distinct condition
+        Map<String, List<String>> tables = new HashMap<>();
+        Map<QueryFilter.Term, Set<UUID>> found = new HashMap<>();
+        List<CompletableFuture<?>> probes = new ArrayList<>();
+        for (List<QueryFilter.Term> group : filterCondition.get_groups()) {
+            for (QueryFilter.Term term : group) {
+                if (!term.include() || term.values().isEmpty() || found.containsKey(term))
+                    continue;
+
+                List<String> tableNames = tables.computeIfAbsent(normalizeParam(term.key()),
+                        invertedIndex -> getInvertedIndexTables(invertedIndex, range));
+                if (tableNames.isEmpty())
+                    continue;
+
+                Set<UUID> files = ConcurrentHashMap.newKeySet();
+                found.put(term, files);
+                for (int i = 0; i < tableNames.size(); i += tablesPerQuery) {
+                    var batch = tableNames.subList(i, Math.min(i + tablesPerQuery, tableNames.size()));
+                    probes.add(CompletableFuture.runAsync(() -> probe(batch, term.values(), files, deadline), workers));
+                }
+            }
+        }
 
-        Instant startTime = Instant.now();
-
-        for (Map.Entry<String, List<String>> entry : filterCondition.get_included().entrySet()) {
-            String invertedIndex = normalizeParam(entry.getKey());
-            List<String> values = entry.getValue();
-            if (values == null || values.isEmpty())
-                continue;
+        try {
+            CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, Duration.between(Instant.now(), deadline).toMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Log.warnf("Timeout reached, %d of %d inverted index queries are not finished. Files might be missing",
+                    probes.stream().filter(p -> !p.isDone()).count(), probes.size());
+            probes.forEach(p -> p.cancel(true));
+        } catch (ExecutionException e) {
+            Log.errorf(e.getCause(), "Failed querying inverted index");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
 
-            List<String> tableNames = getInvertedIndexTables(invertedIndex, range);
-            if (tableNames.isEmpty())
-                continue;
+        return combine(filterCondition.get_groups(), found);
+    }
 
-            for (String tableName : tableNames) {
-                if (timeOutReached(startTime, REQUEST_TIMEOUT - 1)) {
-                    Log.debug("Timeout reached. Stopping further query execution.");
-                    return s3FileIds;
+    /**
+     * Collects files with any of the values from the given tables
+     */
+    private void probe(List<String> tableNames, List<String> values, Set<UUID> files, Instant deadline) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        String query = tableNames.stream()
+                .map(GET_S3_FILE_IDS::formatted)
+                .collect(Collectors.joining(" UNION ALL "));
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(query)) {
+            long timeout = Duration.between(Instant.now(), deadline).toSeconds();
+            if (timeout <= 0) {
+                return;
+            }
+            statement.setQueryTimeout((int) timeout);
+            var array = connection.createArrayOf("text", values.toArray());
+            for (int i = 0; i < tableNames.size(); i++) {
+                statement.setArray(i + 1, array);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    files.add(UUID.fromString(rs.getString("file_id")));
                 }
+            }
+        } catch (SQLException e) {
+            Log.errorf(e, "Failed querying tables %s", tableNames);
+        } finally {
+            permits.release();
+        }
+    }
 
-                String placeholders = String.join(",", Collections.nCopies(values.size(), "?"));
-                String query = String.format(GET_S3_FILE_IDS, tableName, placeholders);
-
-                try (var statement = connection.prepareStatement(query)) {
-                    for (int i = 0; i < values.size(); i++) {
-                        statement.setString(i + 1, values.get(i));
-                    }
-                    try (ResultSet rs = statement.executeQuery()) {
-                        while (rs.next()) {
-                            s3FileIds.add(UUID.fromString(rs.getString("file_id")));
-                        }
-                    }
-                } catch (SQLException e) {
-                    Log.errorf(e, "Failed querying table %s", tableName);
+    /**
+     * Applies AND/OR structure of the filter to the files found for each included condition.
+     * Conditions missing in {@code found} are not indexed and match any file.
+     *
+     * @return files matching the filter, or {@code null} if any file could match
+     */
+    static Set<UUID> combine(List<List<QueryFilter.Term>> groups, Map<QueryFilter.Term, Set<UUID>> found) {
+        Set<UUID> result = new HashSet<>();
+        for (List<QueryFilter.Term> group : groups) {
+            Set<UUID> groupFiles = null;
+            for (QueryFilter.Term term : group) {
+                Set<UUID> files = term.include() ? found.get(term) : null;
+                if (files == null)
+                    continue;
+                if (groupFiles == null) {
+                    groupFiles = new HashSet<>(files);
+                } else {
+                    groupFiles.retainAll(files);
                 }
             }
+            if (groupFiles == null)
+                return null;
+            result.addAll(groupFiles);
         }
-
-        return s3FileIds;
+        return groups.isEmpty() ? null : result;
     }
 }
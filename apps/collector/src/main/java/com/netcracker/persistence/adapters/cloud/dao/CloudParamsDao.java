@@ -1,6 +1,8 @@
 package com.netcracker.persistence.adapters.cloud.dao;
 
 import com.netcracker.common.PersistenceType;
+import com.netcracker.persistence.adapters.cloud.CloudCopyLoader;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.persistence.adapters.cloud.cdt.CloudParamsEntity;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.logging.Log;
@@ -20,17 +22,18 @@ INSERT INTO params(pod_id, pod_name, restart_time, param_name, param_index, para
             VALUES (?, ?, ?, ?, ?, ?, ?, ?)
             ON CONFLICT DO NOTHING
             """;
+    private static final String COLUMNS = "pod_id, pod_name, restart_time, param_name, param_index, param_list, param_order, signature";
     private static final String GET = """
             SELECT * FROM params
             WHERE pod_id = ?
             """;
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     public void insert(CloudParamsEntity entity) {
 
-        try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+        try (var connection = dataSource.ingest(); PreparedStatement ps = connection.prepareStatement(INSERT)) {
             ps.setString(1, entity.podId());                            // pod_id [text]
             ps.setString(2, entity.podName());                          // pod_name [text]
             ps.setTimestamp(3, Timestamp.from(entity.restartTime()));   // restart_time [timestamptz]
@@ -40,15 +43,37 @@ public void insert(CloudParamsEntity entity) {
             ps.setInt(7, entity.paramOrder());                          // param_order [integer]
             ps.setString(8, entity.signature());                        // signature [text]
             ps.executeUpdate();
+            connection.commit();
         } catch (SQLException e) {
             Log.errorf("error during params saving: %s", e.getMessage());
         }
     }
 
+    public void insert(List<CloudParamsEntity> entities) {
+        if (entities.size() < CloudCopyLoader.MIN_ROWS) {
+            entities.forEach(this::insert);
+            return;
+        }
+
+        try (var connection = dataSource.ingest()) {
+            CloudCopyLoader.load(connection, "params", "params_staging", COLUMNS, entities, (row, entity) -> row
+                    .add(entity.podId())
+                    .add(entity.podName())
+                    .add(entity.restartTime())
+                    .add(entity.paramName())
+                    .add(entity.paramIndex())
+                    .add(entity.paramList())
+                    .add(entity.paramOrder())
+                    .add(entity.signature()));
+        } catch (SQLException e) {
+            Log.errorf("error during copy of %d params: %s", entities.size(), e.getMessage());
+        }
+    }
+
     public List<CloudParamsEntity> find(String podId) {
 
         List<CloudParamsEntity> list = new ArrayList<>();
-        try (var statement = connection.prepareStatement(GET)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(GET)) {
             statement.setString(1, podId);
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
@@ -70,12 +95,4 @@ public List<CloudParamsEntity> find(String podId) {
 
         return list;
     }
-
-    public void commit() {
-        try {
-            connection.commit();
-        } catch (SQLException e) {
-            Log.errorf("error during commit transaction for params: %s", e.getMessage());
-        }
-    }
 }
@@ -1,6 +1,7 @@
 package com.netcracker.persistence.adapters.cloud.dao;
 
 import com.netcracker.common.PersistenceType;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.persistence.adapters.cloud.cdt.CloudPodRestartsEntity;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.logging.Log;
@@ -37,13 +38,13 @@ ON CONFLICT (namespace, service_name, pod_name, restart_time)
             """;
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     public void insert(CloudPodRestartsEntity entity) {
 
         Log.infof("insert %s", entity.toString());
 
-        try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+        try (var connection = dataSource.ingest(); PreparedStatement ps = connection.prepareStatement(INSERT)) {
             ps.setString(1, entity.podId());                           // pod_id [text]
             ps.setString(2, entity.namespace());                       // namespace [text]
             ps.setString(3, entity.serviceName());                     // service_name [text]
@@ -52,6 +53,7 @@ public void insert(CloudPodRestartsEntity entity) {
             ps.setTimestamp(6, Timestamp.from(entity.activeSince()));  // active_since [timestamptz]
             ps.setTimestamp(7, Timestamp.from(entity.lastActive()));   // last_active [timestamptz] DO UPDATE
             ps.executeUpdate();
+            connection.commit();
         } catch (SQLException e) {
             Log.errorf("error during pod restart saving: %s", e.getMessage());
         }
@@ -59,10 +61,11 @@ public void insert(CloudPodRestartsEntity entity) {
 
     public void update(String podId, Instant lastActive) {
 
-        try (PreparedStatement ps = connection.prepareStatement(UPDATE_LAST_ACTIVE)) {
+        try (var connection = dataSource.ingest(); PreparedStatement ps = connection.prepareStatement(UPDATE_LAST_ACTIVE)) {
             ps.setTimestamp(1, Timestamp.from(lastActive));   // last_active [timestamp]
             ps.setString(2, podId);                           // pod_id [text]
             ps.executeUpdate();
+            connection.commit();
         } catch (SQLException e) {
             Log.errorf("error during prepare statement to update last active pod restart: %s", e.getMessage());
         }
@@ -71,7 +74,7 @@ public void update(String podId, Instant lastActive) {
     public List<CloudPodRestartsEntity> find(String podId, Instant lastActive, Instant activeSince, int limit) {
 
         List<CloudPodRestartsEntity> list = new ArrayList<>();
-        try (var statement = connection.prepareStatement(FIND)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(FIND)) {
             statement.setString(1, podId);
             statement.setTimestamp(2, Timestamp.from(lastActive));
             statement.setTimestamp(3, Timestamp.from(activeSince));
@@ -95,12 +98,4 @@ public List<CloudPodRestartsEntity> find(String podId, Instant lastActive, Insta
 
         return list;
     }
-
-    public void commit() {
-        try {
-            connection.commit();
-        } catch (SQLException e) {
-            Log.errorf("error during commit transaction for pod restart: %s", e.getMessage());
-        }
-    }
 }
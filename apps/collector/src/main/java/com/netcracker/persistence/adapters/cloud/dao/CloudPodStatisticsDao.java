@@ -4,6 +4,7 @@
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netcracker.common.PersistenceType;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.persistence.adapters.cloud.cdt.CloudPodStatisticsEntity;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.logging.Log;
@@ -13,6 +14,7 @@
 import java.sql.*;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -23,11 +25,14 @@ public class CloudPodStatisticsDao {
 
     private static final String INSERT = """
             INSERT INTO pod_statistics(date, pod_id, pod_name, restart_time, cur_time, data_accumulated, original_accumulated)
-            VALUES (?, ?, ?, ?, ?, ?::JSONB, ?::JSONB)
+            VALUES %s
             ON CONFLICT (date, pod_name, restart_time, cur_time)
             DO UPDATE
             SET data_accumulated = EXCLUDED.data_accumulated, original_accumulated = EXCLUDED.original_accumulated
             """;
+    private static final String INSERT_VALUES = "(?, ?, ?, ?, ?, ?::JSONB, ?::JSONB)";
+    // 7 parameters per row, keeps statements well below the limit of bind parameters
+    static final int INSERT_BATCH_SIZE = 1000;
     private static final String GET_LATEST_POD_STATISTICS_1 = """
             SELECT * FROM pod_statistics
             WHERE pod_id = ANY(?::TEXT[])
@@ -53,30 +58,53 @@ ON CONFLICT (date, pod_name, restart_time, cur_time)
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     public void insert(CloudPodStatisticsEntity entity) {
+        insert(List.of(entity));
+    }
 
-        try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
-            ps.setTimestamp(1, Timestamp.from(entity.date()));                          // date [timestamptz]
-            ps.setString(2, entity.podId());                                            // pod_id [text]
-            ps.setString(3, entity.podName());                                          // pod_name [text]
-            ps.setTimestamp(4, Timestamp.from(entity.restartTime()));                   // restart_time [timestamptz]
-            ps.setTimestamp(5, Timestamp.from(entity.curTime()));                       // cur_time [timestamptz]
-            ps.setObject(6, MAPPER.writeValueAsString(entity.dataAccumulated()));       // data_accumulated [jsonb] DO UPDATE
-            ps.setObject(7, MAPPER.writeValueAsString(entity.originalAccumulated()));   // original_accumulated [jsonb] DO UPDATE
-            ps.executeUpdate();
+    /**
+     * Upserts statistics of many pods with one statement per {@link #INSERT_BATCH_SIZE} rows.
+     * The entities must have distinct keys, a statement can't update the same row twice.
+     */
+    public void insert(List<CloudPodStatisticsEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        try (var connection = dataSource.ingest()) {
+            for (int from = 0; from < entities.size(); from += INSERT_BATCH_SIZE) {
+                var batch = entities.subList(from, Math.min(from + INSERT_BATCH_SIZE, entities.size()));
+                try (PreparedStatement ps = connection.prepareStatement(insertStatement(batch.size()))) {
+                    int i = 0;
+                    for (var entity : batch) {
+                        ps.setTimestamp(++i, Timestamp.from(entity.date()));                          // date [timestamptz]
+                        ps.setString(++i, entity.podId());                                            // pod_id [text]
+                        ps.setString(++i, entity.podName());                                          // pod_name [text]
+                        ps.setTimestamp(++i, Timestamp.from(entity.restartTime()));                   // restart_time [timestamptz]
+                        ps.setTimestamp(++i, Timestamp.from(entity.curTime()));                       // cur_time [timestamptz]
+                        ps.setObject(++i, MAPPER.writeValueAsString(entity.dataAccumulated()));       // data_accumulated [jsonb] DO UPDATE
+                        ps.setObject(++i, MAPPER.writeValueAsString(entity.originalAccumulated()));   // original_accumulated [jsonb] DO UPDATE
+                    }
+                    ps.executeUpdate();
+                }
+            }
+            connection.commit();
         } catch (SQLException | JsonProcessingException e) {
-            Log.errorf("error during pod statistics saving: %s", e.getMessage());
+            Log.errorf("error during saving statistics of %d pods: %s", entities.size(), e.getMessage());
         }
     }
 
+    static String insertStatement(int rows) {
+        return INSERT.formatted(String.join(", ", Collections.nCopies(rows, INSERT_VALUES)));
+    }
+
     public List<CloudPodStatisticsEntity> find(List<String> podIds, Instant to) {
 
         // FIXME: Replace with postgres procedure (array of string as parameter) (future)
         String podIdsString = podIds.stream().collect(Collectors.joining(", ", "{", "}"));
 
-        try (var statement = connection.prepareStatement(GET_LATEST_POD_STATISTICS_1)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(GET_LATEST_POD_STATISTICS_1)) {
             statement.setString(1, podIdsString);
             statement.setTimestamp(2, Timestamp.from(to));
             return toList(statement);
@@ -89,7 +117,7 @@ public List<CloudPodStatisticsEntity> find(List<String> podIds, Instant to) {
 
     public List<CloudPodStatisticsEntity> find(String podId, Instant to) {
 
-        try (var statement = connection.prepareStatement(GET_LATEST_POD_STATISTICS_2)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(GET_LATEST_POD_STATISTICS_2)) {
             statement.setString(1, podId);
             statement.setTimestamp(2, Timestamp.from(to));
             return toList(statement);
@@ -107,7 +135,7 @@ public Optional<CloudPodStatisticsEntity> findLatestStat(String podId, Instant r
                 .map(d -> Timestamp.from(d).toString())
                 .collect(Collectors.joining(", ", "{", "}"));
 
-        try (var statement = connection.prepareStatement(FIND_LATEST_STAT)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(FIND_LATEST_STAT)) {
             statement.setString(1, podId);
             statement.setTimestamp(2, Timestamp.from(restartTime));
             statement.setString(3, dateList);
@@ -123,14 +151,6 @@ public Optional<CloudPodStatisticsEntity> findLatestStat(String podId, Instant r
         return Optional.empty();
     }
 
-    public void commit() {
-        try {
-            connection.commit();
-        } catch (SQLException e) {
-            Log.errorf("error during commit transaction for pod statistics: %s", e.getMessage());
-        }
-    }
-
     private List<CloudPodStatisticsEntity> toList(PreparedStatement statement) {
         List<CloudPodStatisticsEntity> list = new ArrayList<>();
         // There should be a catch here so that a non-empty list is returned in case of an error
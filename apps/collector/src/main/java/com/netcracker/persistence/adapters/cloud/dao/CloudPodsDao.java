@@ -4,6 +4,7 @@
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netcracker.common.PersistenceType;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.persistence.adapters.cloud.cdt.CloudPodsEntity;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.logging.Log;
@@ -70,13 +71,13 @@ ON CONFLICT (namespace, service_name, pod_name)
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     public void insert(CloudPodsEntity entity) {
 
         Log.infof("insert %s", entity.toString());
 
-        try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+        try (var connection = dataSource.ingest(); PreparedStatement ps = connection.prepareStatement(INSERT)) {
             ps.setString(1, entity.podId());                           // pod_id [text]
             ps.setString(2, entity.namespace());                       // namespace [text]
             ps.setString(3, entity.serviceName());                     // service_name [text]
@@ -86,6 +87,7 @@ public void insert(CloudPodsEntity entity) {
             ps.setTimestamp(7, Timestamp.from(entity.lastActive()));   // last_active [timestamp] DO UPDATE
             ps.setObject(8, MAPPER.writeValueAsString(entity.tags())); // tags [jsonb]
             ps.executeUpdate();
+            connection.commit();
         } catch (SQLException | JsonProcessingException e) {
             Log.errorf("error during pod saving: %s", e.getMessage());
         }
@@ -93,12 +95,13 @@ public void insert(CloudPodsEntity entity) {
 
     public void update(String podId, Instant lastActive, Instant lastRestart) {
 
-        try (PreparedStatement ps = connection.prepareStatement(UPDATE_LAST_ACTIVE_POD)) {
+        try (var connection = dataSource.ingest(); PreparedStatement ps = connection.prepareStatement(UPDATE_LAST_ACTIVE_POD)) {
             // TODO: lastActive and restartTime equals probably
             ps.setTimestamp(1, Timestamp.from(lastActive));   // last_active [timestamp]
             ps.setTimestamp(2, Timestamp.from(lastRestart));  // last_restart [timestamp]
             ps.setString(3, podId);                           // pod_id [text]
             ps.executeUpdate();
+            connection.commit();
         } catch (SQLException e) {
             Log.errorf("error during prepare statement to update last active of pod: %s", e.getMessage());
         }
@@ -106,7 +109,7 @@ public void update(String podId, Instant lastActive, Instant lastRestart) {
 
     public Optional<CloudPodsEntity> find(String namespace, String serviceName, String podName) {
 
-        try (var statement = connection.prepareStatement(FIND_POD)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(FIND_POD)) {
             statement.setString(1, namespace);
             statement.setString(2, serviceName);
             statement.setString(3, podName);
@@ -124,7 +127,7 @@ public Optional<CloudPodsEntity> find(String namespace, String serviceName, Stri
 
     public Optional<CloudPodsEntity> findDumpPod(String namespace, String serviceName, String podName) {
 
-        try (var statement = connection.prepareStatement(FIND_DUMP_PODS)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(FIND_DUMP_PODS)) {
             statement.setString(1, namespace);
             statement.setString(2, serviceName);
             statement.setString(3, podName);
@@ -142,7 +145,7 @@ public Optional<CloudPodsEntity> findDumpPod(String namespace, String serviceNam
 
     public List<CloudPodsEntity> find() {
 
-        try (var statement = connection.prepareStatement(SELECT_ALL)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(SELECT_ALL)) {
             return toList(statement);
         } catch (SQLException e) {
             Log.errorf("error during getting pods: %s", e.getMessage());
@@ -153,7 +156,7 @@ public List<CloudPodsEntity> find() {
 
     public List<CloudPodsEntity> find(Instant from, Instant to) {
 
-        try (var statement = connection.prepareStatement(PODS_WHERE_LAST_ACTIVE_AND_ACTIVE_SINCE)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(PODS_WHERE_LAST_ACTIVE_AND_ACTIVE_SINCE)) {
             statement.setTimestamp(1, Timestamp.from(from));
             statement.setTimestamp(2, Timestamp.from(to));
             return toList(statement);
@@ -166,7 +169,7 @@ public List<CloudPodsEntity> find(Instant from, Instant to) {
 
     public List<CloudPodsEntity> findDumpPods(Instant from, Instant to) {
 
-        try (var statement = connection.prepareStatement(DUMP_PODS_WHERE_LAST_ACTIVE)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(DUMP_PODS_WHERE_LAST_ACTIVE)) {
             statement.setTimestamp(1, Timestamp.from(from));
             statement.setTimestamp(2, Timestamp.from(to));
             return toDumpPodsList(statement);
@@ -183,7 +186,7 @@ public List<CloudPodsEntity> find(List<String> namespaces, List<String> services
         String namespacesParam = namespaces.stream().collect(Collectors.joining(", ", "{", "}"));
         String servicesParam = services.stream().collect(Collectors.joining(", ", "{", "}"));
 
-        try (var statement = connection.prepareStatement(PODS_WHERE_LAST_ACTIVE_AND_ACTIVE_SINCE_AND_NAMESPACE_ANY_AND_SERVICE_NAME_ANY)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(PODS_WHERE_LAST_ACTIVE_AND_ACTIVE_SINCE_AND_NAMESPACE_ANY_AND_SERVICE_NAME_ANY)) {
             statement.setTimestamp(1, Timestamp.from(from));
             statement.setTimestamp(2, Timestamp.from(to));
             statement.setString(3, namespacesParam);
@@ -199,7 +202,7 @@ public List<CloudPodsEntity> find(List<String> namespaces, List<String> services
     public List<CloudPodsEntity> findAllServices() {
 
         // TODO: change to postgres function
-        try (var statement = connection.prepareStatement(FIND_ALL_SERVICES)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(FIND_ALL_SERVICES)) {
             return toList(statement);
         } catch (SQLException e) {
             Log.errorf("error during getting all services: %s", e.getMessage());
@@ -208,14 +211,6 @@ public List<CloudPodsEntity> findAllServices() {
         return List.of();
     }
 
-    public void commit() {
-        try {
-            connection.commit();
-        } catch (SQLException e) {
-            Log.errorf("error during commit transaction for pods: %s", e.getMessage());
-        }
-    }
-
     private List<CloudPodsEntity> toList(PreparedStatement statement) {
         List<CloudPodsEntity> list = new ArrayList<>();
         // There should be a catch here so that a non-empty list is returned in case of an error
@@ -4,6 +4,10 @@
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netcracker.common.PersistenceType;
+import com.netcracker.common.models.SuspendRange;
+import com.netcracker.common.models.TimeRange;
+import com.netcracker.common.models.pod.PodIdRestart;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.persistence.adapters.cloud.CloudTableGenerator;
 import com.netcracker.persistence.adapters.cloud.cdt.CloudSuspendEntity;
 import io.quarkus.arc.lookup.LookupIfProperty;
@@ -12,74 +16,190 @@
 import jakarta.inject.Inject;
 
 import java.sql.*;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+/**
+ * Hiccups are stored by minutes: a row per pod restart and minute, see {@link CloudSuspendEntity#prepare(List)}
+ */
 @LookupIfProperty(name = "service.persistence", stringValue = PersistenceType.CLOUD)
 @ApplicationScoped
 public class CloudSuspendDao {
 
+    // hiccups of the same minute may come in different batches
     private static final String INSERT = """
-            INSERT INTO suspend_%d(date, pod_id, pod_name, restart_time, cur_time, suspend_time)
-            VALUES (?, ?, ?, ?, ?, ?::JSONB)
-            ON CONFLICT DO NOTHING
+            INSERT INTO suspend_%d AS s(date, pod_id, pod_name, restart_time, cur_time, suspend_time)
+            VALUES %s
+            ON CONFLICT (date, pod_name, restart_time, cur_time)
+            DO UPDATE
+            SET suspend_time = s.suspend_time || EXCLUDED.suspend_time
             """;
+    private static final String INSERT_VALUES = "(?, ?, ?, ?, ?, ?::JSONB)";
+    // 6 parameters per row, keeps statements well below the limit of bind parameters
+    static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final String GET_SUSPEND_TABLES_BY_TIMERANGE = """
+                SELECT table_name
+                FROM temp_table_inventory
+                WHERE table_type = 'suspend'
+                  AND status <> 'to_delete'
+                  AND start_time <= ? AND start_time >= ?
+                ORDER BY start_time
+            """;
+    private static final Pattern SUSPEND_TABLE = Pattern.compile("suspend_\\d+");
 
     private static final String FIND = """
-            SELECT * FROM suspend
-            WHERE date = ANY(?::TIMESTAMP[])
-            AND pod_id = ?
+            SELECT cur_time, suspend_time FROM %s
+            WHERE date = ANY(?)
+            AND pod_name = ?
             AND restart_time = ?
             AND cur_time >= ?
             AND cur_time <= ?
             """;
+    private static final int FIND_PARAMETERS = 5;
+    static final int TABLES_PER_QUERY = 24;
+
+    // a hiccup ending after the range still counts for its beginning
+    static final Duration MAX_DELAY = Duration.ofMinutes(1);
+    // hiccups get to the table of the 5-minute slot when they are saved, which is after the agent has sent them
+    static final Duration INSERT_LAG = Duration.ofMinutes(10);
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     public void insert(CloudSuspendEntity entity) {
+        insert(List.of(entity));
+    }
 
-        String sql = INSERT.formatted(CloudTableGenerator.getTimestampTruncatedToFiveMinutes());
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setTimestamp(1, Timestamp.from(entity.date()));                  // date [timestamptz]
-            ps.setString(2, entity.podId());                                    // pod_id [text]
-            ps.setString(3, entity.podName());                                  // pod_name [text]
-            ps.setTimestamp(4, Timestamp.from(entity.restartTime()));           // restart_time [timestamptz]
-            ps.setTimestamp(5, Timestamp.from(entity.curTime()));               // cur_time [timestamptz]
-            ps.setObject(6, MAPPER.writeValueAsString(entity.suspendTime()));   // suspend_time [jsonb]
-            ps.executeUpdate();
+    /**
+     * Upserts minutes of hiccups with one statement per {@link #INSERT_BATCH_SIZE} rows, hiccups of existing minutes
+     * are added to them. The entities must have distinct keys, a statement can't update the same row twice.
+     * <p>
+     * Not loaded with {@link com.netcracker.persistence.adapters.cloud.CloudCopyLoader}: its staging table is moved
+     * with ON CONFLICT DO NOTHING, which would lose hiccups of the minutes already stored.
+     */
+    public void insert(List<CloudSuspendEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        long table = CloudTableGenerator.getTimestampTruncatedToFiveMinutes();
+        try (var connection = dataSource.ingest()) {
+            for (int from = 0; from < entities.size(); from += INSERT_BATCH_SIZE) {
+                var batch = entities.subList(from, Math.min(from + INSERT_BATCH_SIZE, entities.size()));
+                try (PreparedStatement ps = connection.prepareStatement(insertStatement(table, batch.size()))) {
+                    int i = 0;
+                    for (var entity : batch) {
+                        ps.setTimestamp(++i, Timestamp.from(entity.date()));                  // date [timestamptz]
+                        ps.setString(++i, entity.podId());                                    // pod_id [text]
+                        ps.setString(++i, entity.podName());                                  // pod_name [text]
+                        ps.setTimestamp(++i, Timestamp.from(entity.restartTime()));           // restart_time [timestamptz]
+                        ps.setTimestamp(++i, Timestamp.from(entity.curTime()));               // cur_time [timestamptz]
+                        ps.setObject(++i, MAPPER.writeValueAsString(entity.suspendTime()));   // suspend_time [jsonb] DO UPDATE
+                    }
+                    ps.executeUpdate();
+                }
+            }
+            connection.commit();
         } catch (SQLException | JsonProcessingException e) {
-            Log.errorf("error during suspend saving: %s", e.getMessage());
+            Log.errorf("error during saving %d minutes of suspends: %s", entities.size(), e.getMessage());
         }
     }
 
-    @Deprecated(forRemoval = true)
-    public List<CloudSuspendEntity> find(List<Instant> dates, String podId, Instant restartTime, Instant from, Instant to) {
-        return Collections.emptyList();
+    static String insertStatement(long table, int rows) {
+        return INSERT.formatted(table, String.join(", ", Collections.nCopies(rows, INSERT_VALUES)));
     }
 
-    public void commit() {
-        try {
-            connection.commit();
+    /**
+     * @return hiccups of the pod restart which end after `from` and begin before `to`, in the order of time
+     */
+    public SuspendRange find(PodIdRestart pod, Instant from, Instant to) {
+        var firstMinute = from.truncatedTo(ChronoUnit.MINUTES);
+        var lastMinute = to.plus(MAX_DELAY);
+        var hiccups = new TreeMap<Long, Integer>();
+        var tables = getSuspendTables(firstMinute, lastMinute);
+        if (tables.isEmpty()) {
+            return new SuspendRange();
+        }
+        var dates = TimeRange.days(firstMinute, lastMinute).stream().map(Timestamp::from).toArray(Timestamp[]::new);
+
+        try (var connection = dataSource.query()) {
+            var dateArray = connection.createArrayOf("timestamptz", dates);
+            for (int t = 0; t < tables.size(); t += TABLES_PER_QUERY) {
+                var batch = tables.subList(t, Math.min(t + TABLES_PER_QUERY, tables.size()));
+                try (var statement = connection.prepareStatement(findStatement(batch))) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        int p = i * FIND_PARAMETERS;
+                        statement.setArray(p + 1, dateArray);
+                        statement.setString(p + 2, pod.podName());
+                        statement.setTimestamp(p + 3, Timestamp.from(pod.restartTime()));
+                        statement.setTimestamp(p + 4, Timestamp.from(firstMinute));
+                        statement.setTimestamp(p + 5, Timestamp.from(lastMinute));
+                    }
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            Map<Integer, Integer> minute = MAPPER.readValue(rs.getString("suspend_time"), new TypeReference<>() {
+                            });
+                            addHiccups(rs.getTimestamp("cur_time").toInstant().toEpochMilli(), minute,
+                                    from.toEpochMilli(), to.toEpochMilli(), hiccups);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException | JsonProcessingException e) {
+            Log.errorf(e, "error during suspend getting for pod %s from %d tables", pod, tables.size());
+        }
+
+        var range = new SuspendRange();
+        hiccups.forEach(range::add);
+        return range;
+    }
+
+    /**
+     * A row gets to the table of the 5-minute slot of its insert, so the tables which may keep minutes
+     * [firstMinute, lastMinute] start from the slot of `firstMinute` to {@link #INSERT_LAG} after `lastMinute`
+     */
+    List<String> getSuspendTables(Instant firstMinute, Instant lastMinute) {
+        var tables = new ArrayList<String>();
+        try (var connection = dataSource.query(); var stmt = connection.prepareStatement(GET_SUSPEND_TABLES_BY_TIMERANGE)) {
+            stmt.setTimestamp(1, Timestamp.from(lastMinute.plus(INSERT_LAG)));
+            stmt.setTimestamp(2, Timestamp.from(firstMinute.minusSeconds(CloudTableGenerator.FIVE_MINUTES_IN_SECONDS)));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    var table = rs.getString("table_name");
+                    if (SUSPEND_TABLE.matcher(table).matches()) { // names go to the query text
+                        tables.add(table);
+                    }
+                }
+            }
         } catch (SQLException e) {
-            Log.errorf("error during commit transaction for suspend: %s", e.getMessage());
+            Log.errorf(e, "Failed to query temp_table_inventory for suspend tables from %s to %s", firstMinute, lastMinute);
         }
+        return tables;
+    }
+
+    static String findStatement(List<String> tables) {
+        return tables.stream().map(FIND::formatted).collect(Collectors.joining("UNION ALL\n"));
     }
 
-    private CloudSuspendEntity toEntity(String podId, Instant restartTime, ResultSet resultSet) throws SQLException, JsonProcessingException {
-        return new CloudSuspendEntity(
-                resultSet.getTimestamp("date").toInstant(),
-                podId,
-                resultSet.getString("pod_name"),
-                restartTime,
-                resultSet.getTimestamp("cur_time").toInstant(),
-                MAPPER.readValue(resultSet.getString("suspend_time"), new TypeReference<>() {
-                })
-        );
+    /**
+     * Same bounds as the agent's suspend log has while reading the range
+     */
+    static void addHiccups(long minute, Map<Integer, Integer> hiccups, long from, long to, Map<Long, Integer> found) {
+        for (var e : hiccups.entrySet()) {
+            long t = minute + e.getKey();
+            int delay = e.getValue();
+            if (t < from || t - delay > to) continue;
+            found.merge(t, delay, Math::max); // the same minute may be stored in several tables
+        }
     }
 }
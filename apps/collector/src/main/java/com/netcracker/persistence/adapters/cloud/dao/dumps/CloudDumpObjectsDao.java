@@ -1,6 +1,7 @@
 package com.netcracker.persistence.adapters.cloud.dao.dumps;
 
 import com.netcracker.common.PersistenceType;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.persistence.adapters.cloud.cdt.dumps.CloudDumpsEntity;
 import com.netcracker.persistence.adapters.cloud.cdt.dumps.CloudDumpObjectsEntity;
 import io.quarkus.arc.lookup.LookupIfProperty;
@@ -8,7 +9,6 @@
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
-import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -30,11 +30,11 @@ public class CloudDumpObjectsDao {
     public static final String GET_DUMP_OBJECTS_PODS_2 = "SELECT * FROM get_availability_dump_objects(?, ?, ?, ?)";
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     public List<CloudDumpsEntity> find2(String namespace, String serviceName, Instant from, Instant to) {
         List<CloudDumpsEntity> list = new ArrayList<>();
-        try (var statement = connection.prepareStatement(GET_DUMP_OBJECTS_PODS_2)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(GET_DUMP_OBJECTS_PODS_2)) {
             statement.setString(1, namespace);
             statement.setString(2, serviceName);
             statement.setTimestamp(3, Timestamp.from(from));
@@ -76,7 +76,7 @@ public List<CloudDumpObjectsEntity> find(Instant from, Instant to) {
         Log.info("Executing query: " + query);
 
         List<CloudDumpObjectsEntity> list = new ArrayList<>();
-        try (var statement = connection.prepareStatement(query)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(query)) {
             int paramIndex = 0;
             while (paramIndex < hourlyTimestamps.size() * 2) {
                 statement.setTimestamp(++paramIndex, Timestamp.from(from));
@@ -95,7 +95,7 @@ public List<CloudDumpObjectsEntity> find(Instant from, Instant to) {
         // // Execute queries
         // List<CloudDumpObjectsEntity> list = new ArrayList<>();
         // for (long timestamp : hourlyTimestamps) {
-        //     try (var statement = connection.prepareStatement(String.format(GET_DUMP_OBJECTS_PODS, timestamp))) {
+        //     try (var connection = dataSource.query(); var statement = connection.prepareStatement(String.format(GET_DUMP_OBJECTS_PODS, timestamp))) {
         //     statement.setTimestamp(1, Timestamp.from(from));
         //     statement.setTimestamp(2, Timestamp.from(to));
         //         try (ResultSet rs = statement.executeQuery()) {
@@ -1,13 +1,13 @@
 package com.netcracker.persistence.adapters.cloud.dao.dumps;
 
 import com.netcracker.common.PersistenceType;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.persistence.adapters.cloud.cdt.dumps.CloudDumpPodsEntity;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
-import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -31,12 +31,12 @@ AND NOT (last_active < ? OR restart_time > ?)
             """;
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     public List<CloudDumpPodsEntity> find(String namespace, String service, Instant from, Instant to) {
 
         List<CloudDumpPodsEntity> list = new ArrayList<>();
-        try (var statement = connection.prepareStatement(GET_DUMP_PODS)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(GET_DUMP_PODS)) {
             statement.setString(1, namespace);
             statement.setString(2, service);
             statement.setTimestamp(3, Timestamp.from(from)); // last_active < time_range_from
@@ -1,13 +1,13 @@
 package com.netcracker.persistence.adapters.cloud.dao.dumps;
 
 import com.netcracker.common.PersistenceType;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import com.netcracker.persistence.adapters.cloud.cdt.dumps.CloudHeapDumpsEntity;
 import io.quarkus.arc.lookup.LookupIfProperty;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
-import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -28,12 +28,12 @@ public class CloudHeapDumpsDao {
             """;
 
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     public List<CloudHeapDumpsEntity> find(Instant from, Instant to) {
 
         List<CloudHeapDumpsEntity> list = new ArrayList<>();
-        try (var statement = connection.prepareStatement(GET_HEAP_DUMPS)) {
+        try (var connection = dataSource.query(); var statement = connection.prepareStatement(GET_HEAP_DUMPS)) {
             statement.setTimestamp(1, Timestamp.from(from));
             statement.setTimestamp(2, Timestamp.from(to));
             try (ResultSet rs = statement.executeQuery()) {
@@ -78,42 +78,24 @@ public static String normalizeParamList(String paramList) {
 
     /**
      * Converts a Parquet Group object into a map of key to list of values.
-     * Expects group schema with nested fields "key_value" and "list".
+     * Expects group schema with nested fields "key_value" and "list", all entries and all their values are read.
      *
      * @param input Parquet Group object.
      * @return Map with key to list of values.
      */
     public static Map<String, List<String>> readGroupToHashMap(Group input) {
         Map<String, List<String>> resultMap = new HashMap<>();
-        Group tempGroup = input;
-        String key = null;
-        List<String> values = new ArrayList<>();
-        while (tempGroup != null) {
-            var tempType = tempGroup.getType();
-            for (int i = 0; i < tempType.getFieldCount(); i++) {
-                if (tempType.getFields().get(i).isPrimitive()) {
-                    String type = tempType.getName();
-                    if (type.equals("key_value")) {
-                        if (tempGroup.getFieldRepetitionCount(i) > 0) {
-                            key = tempGroup.getValueToString(i, 0);
-                            values = new ArrayList<>();
-                        }
-                    } else if (type.equals("list")) {
-                        if (tempGroup.getFieldRepetitionCount(i) > 0) {
-                            values.add(tempGroup.getValueToString(i, 0));
-                            if (key != null) {
-                                resultMap.put(key, values);
-                            }
-                        }
-                    }
-                    if (tempType.getFieldCount() == 1) {
-                        tempGroup = null;
-                    }
-                } else {
-                    if (tempGroup.getFieldRepetitionCount(i) > 0) {
-                        tempGroup = tempGroup.getGroup(i, 0);
-                    } else {
-                        tempGroup = null;
+        for (int e = 0; e < input.getFieldRepetitionCount("key_value"); e++) {
+            Group entry = input.getGroup("key_value", e);
+            List<String> values = new ArrayList<>();
+            resultMap.put(entry.getValueToString(entry.getType().getFieldIndex("key"), 0), values);
+            for (int v = 0; v < entry.getFieldRepetitionCount("value"); v++) {
+                Group value = entry.getGroup("value", v);
+                for (int l = 0; l < value.getFieldRepetitionCount("valueList"); l++) {
+                    Group list = value.getGroup("valueList", l);
+                    for (int k = 0; k < list.getFieldRepetitionCount("list"); k++) {
+                        Group element = list.getGroup("list", k);
+                        values.add(element.getValueToString(element.getType().getFieldIndex("element"), 0));
                     }
                 }
             }
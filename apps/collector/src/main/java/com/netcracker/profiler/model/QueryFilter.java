@@ -27,6 +27,16 @@ public class QueryFilter {
     // Excluded filters: e.g., -key value or NOT +key value
     Map<String, List<String>> excluded = new HashMap<>();
 
+    // The same conditions in the order of the query: terms of a group are joined by AND, groups are joined by OR
+    List<List<Term>> groups = new ArrayList<>(List.of(new ArrayList<>()));
+
+    /**
+     * Single condition of the query, e.g. {@code +key value1 value2}: the parameter has one of the values
+     * ({@code include}), or has none of them.
+     */
+    public record Term(String key, List<String> values, boolean include) {
+    }
+
     /**
      * Returns the map of included filters.
      * @return Map of included keys and their values.
@@ -43,6 +53,15 @@ public Map<String, List<String>> get_excluded() {
         return excluded;
     }
 
+    /**
+     * Returns the conditions in disjunctive form, as AND binds tighter than OR.
+     * Example: "+a 1 AND +b 2 OR -c 3" gives [[+a 1, +b 2], [-c 3]].
+     * @return List of groups joined by OR, each group is a list of terms joined by AND.
+     */
+    public List<List<Term>> get_groups() {
+        return groups.stream().filter(g -> !g.isEmpty()).toList();
+    }
+
     /**
      * Flushes the current key and value list into either the included or excluded filter map.
      * Used internally while parsing.
@@ -51,12 +70,23 @@ public Map<String, List<String>> get_excluded() {
      * @param key       The current key being parsed.
      * @param values    List of values to associate with the key.
      * @param include   True if key-values should go into 'included', false for 'excluded'.
+     * @param merge     True if the values may be added to the previous condition on the same key.
      */
-    private static void flushToCondition(QueryFilter condition, String key, List<String> values, boolean include) {
+    private static void flushToCondition(QueryFilter condition, String key, List<String> values, boolean include,
+                                         boolean merge) {
         if (key == null || values.isEmpty())
             return;
         Map<String, List<String>> target = include ? condition.get_included() : condition.get_excluded();
         target.computeIfAbsent(key, k -> new ArrayList<>()).addAll(values);
+        List<Term> group = condition.groups.getLast();
+        Term last = group.isEmpty() ? null : group.getLast();
+        if (merge && last != null && last.key().equals(key) && last.include() == include) {
+            List<String> merged = new ArrayList<>(last.values());
+            merged.addAll(values);
+            group.set(group.size() - 1, new Term(key, List.copyOf(merged), include));
+            return;
+        }
+        group.add(new Term(key, List.copyOf(values), include));
     }
 
     /**
@@ -66,7 +96,9 @@ private static void flushToCondition(QueryFilter condition, String key, List<Str
      * - +key value (included)
      * - -key value (excluded)
      * - NOT +key value (negated, becomes excluded)
-     * - AND, OR are supported as delimiters but not structurally stored
+     * - AND, OR join the conditions, AND binds tighter (see {@link #get_groups()});
+     *   conditions without an operator between them are joined by AND, except repeated conditions
+     *   on the same key: {@code +key v1 +key v2} is the same as {@code +key v1 v2}
      *
      * @param queryFilter Raw query filter string.
      * @return Parsed QueryFilter object.
@@ -86,14 +118,20 @@ public static QueryFilter parseQueryFilter(String queryFilter) {
         String currentKey = null;
         boolean include = true;
         boolean nextIsNegated = false;
+        boolean afterOperator = false;
+        boolean merge = false;
         List<String> values = new ArrayList<>();
 
         while (matcher.find()) {
             String token = matcher.group();
             if (token.equalsIgnoreCase("AND") || token.equalsIgnoreCase("OR")) {
-                flushToCondition(condition, currentKey, values, include);
+                flushToCondition(condition, currentKey, values, include, merge);
+                afterOperator = true;
                 currentKey = null;
                 values.clear();
+                if (token.equalsIgnoreCase("OR")) {
+                    condition.groups.add(new ArrayList<>());
+                }
                 continue;
             } else if (token.equalsIgnoreCase("NOT")) {
                 nextIsNegated = true;
@@ -101,7 +139,9 @@ public static QueryFilter parseQueryFilter(String queryFilter) {
             }
 
             if (token.startsWith("+") || token.startsWith("-")) {
-                flushToCondition(condition, currentKey, values, include);
+                flushToCondition(condition, currentKey, values, include, merge);
+                merge = !afterOperator;
+                afterOperator = false;
                 currentKey = token.substring(1);
                 include = token.startsWith("+");
                 if (nextIsNegated) {
@@ -114,7 +154,7 @@ public static QueryFilter parseQueryFilter(String queryFilter) {
             }
         }
 
-        flushToCondition(condition, currentKey, values, include);
+        flushToCondition(condition, currentKey, values, include, merge);
         return condition;
     }
 
@@ -0,0 +1,238 @@
+package com.netcracker.benchmarks;
+
+import com.netcracker.cdt.collector.parsers.DictionaryStreamParser;
+import com.netcracker.cdt.collector.parsers.ParamsStreamParser;
+import com.netcracker.cdt.collector.parsers.StreamParser;
+import com.netcracker.common.models.meta.DictionaryModel;
+import com.netcracker.common.models.meta.ParamsModel;
+import com.netcracker.common.models.pod.PodIdRestart;
+import com.netcracker.profiler.model.Call;
+import com.netcracker.profiler.model.TreeRowId;
+import com.netcracker.profiler.sax.call.CallDataReaderFactory;
+import com.netcracker.profiler.sax.io.DataInputStreamEx;
+import com.netcracker.utils.Utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.netcracker.common.Consts.CALL_HEADER_MAGIC;
+import static com.netcracker.common.ProtocolConst.DATA_BUFFER_SIZE;
+
+/**
+ * Binary fixtures of {@code src/test/resources/binary} prepared for benchmarks
+ */
+public final class BenchmarkData {
+    public static final String SERVICE = "u5min-service";
+    public static final PodIdRestart POD = PodIdRestart.of(SERVICE + "-pod_1691167326000");
+
+    private BenchmarkData() {
+    }
+
+    public static byte[] fixture(String stream) {
+        try {
+            return Utils.readBytes("binary/" + SERVICE + "." + stream + ".bin");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return calls of the fixture (written by the agent in the latest format), time is relative to the previous call
+     */
+    public static List<Call> calls() {
+        var in = new DataInputStreamEx(new ByteArrayInputStream(fixture("calls.0")));
+        var result = new ArrayList<Call>();
+        try {
+            var reader = CallDataReaderFactory.createReader(readHeader(in));
+            while (true) {
+                var call = new Call();
+                reader.read(call, in);
+                reader.readParams(call, in);
+                result.add(call);
+            }
+        } catch (EOFException e) {
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return calls stream header
+     */
+    public static int readHeader(DataInputStreamEx in) throws IOException {
+        long time = in.readLong();
+        if ((int) (time >>> 32) == CALL_HEADER_MAGIC) {
+            in.readLong(); // start time
+            return (int) (time & 0xffffffffL);
+        }
+        return 0;
+    }
+
+    /**
+     * Writes calls the same way the agent does for the given format of calls stream
+     */
+    public static byte[] encodeCalls(List<Call> calls, int format) {
+        var out = new VarOutput();
+        out.longValue(((long) CALL_HEADER_MAGIC << 32) | format);
+        out.longValue(1691167326000L);
+        Map<String, Integer> threads = new HashMap<>();
+        for (var call : calls) {
+            out.varIntZigZag((int) call.time);
+            out.varInt(call.method);
+            out.varInt(call.duration);
+            out.varInt(call.calls);
+            var threadIdx = threads.get(call.threadName);
+            if (threadIdx == null) {
+                threadIdx = threads.size();
+                threads.put(call.threadName, threadIdx);
+                out.varInt(threadIdx);
+                out.string(call.threadName);
+            } else {
+                out.varInt(threadIdx);
+            }
+            out.varInt(call.logsWritten);
+            out.varInt(call.logsGenerated - call.logsWritten);
+            out.varInt(call.traceFileIndex);
+            out.varInt(call.bufferOffset);
+            out.varInt(call.recordIndex);
+            if (format >= 2) {
+                out.varLong(call.cpuTime);
+                out.varLong(call.waitTime);
+                out.varLong(call.memoryUsed);
+            }
+            if (format >= 3) {
+                out.varLong(call.fileRead);
+                out.varLong(call.fileWritten);
+                out.varLong(call.netRead);
+                out.varLong(call.netWritten);
+            }
+            if (format >= 4) {
+                out.varInt((int) call.transactions);
+                out.varInt(call.queueWaitDuration);
+            }
+            var params = call.params == null ? Map.<Integer, List<String>>of() : call.params;
+            out.varInt(params.size());
+            for (var e : params.entrySet()) {
+                out.varInt(e.getKey());
+                out.varInt(e.getValue().size());
+                for (int i = e.getValue().size() - 1; i >= 0; i--) { // values are read in the reverse order
+                    out.string(e.getValue().get(i));
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return thread names and parameter values of calls, written as strings of calls stream
+     */
+    public static byte[] encodeStrings(List<Call> calls) {
+        var out = new VarOutput();
+        for (var call : calls) {
+            out.string(call.threadName);
+            if (call.params != null) {
+                call.params.values().forEach(values -> values.forEach(out::string));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Row ids of top-level calls only: a nested call shares the buffer of its parent and is read with it
+     */
+    public static List<TreeRowId> treeRowIds(List<Call> calls, int limit) {
+        var result = new ArrayList<TreeRowId>();
+        for (var call : calls) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (call.recordIndex != 0) {
+                continue;
+            }
+            var fullRowId = "0_" + call.traceFileIndex + "_" + call.bufferOffset + "_" + call.recordIndex;
+            result.add(new TreeRowId(0, fullRowId, call.traceFileIndex, call.bufferOffset, call.recordIndex));
+        }
+        return result;
+    }
+
+    public static List<DictionaryModel> dictionary() {
+        return parse(DictionaryStreamParser.create(POD, -1), fixture("dictionary"));
+    }
+
+    public static List<ParamsModel> params() {
+        return parse(ParamsStreamParser.create(POD), fixture("params"));
+    }
+
+    /**
+     * Splits the stream into separate buffers, the way the agent reader hands over received fields
+     */
+    public static List<byte[]> chunks(byte[] data, int chunkSize) {
+        var result = new ArrayList<byte[]>();
+        for (int off = 0; off < data.length; off += chunkSize) {
+            result.add(Arrays.copyOfRange(data, off, Math.min(off + chunkSize, data.length)));
+        }
+        return result;
+    }
+
+    /**
+     * Feeds the stream in chunks of the agent protocol
+     */
+    public static <T> List<T> parse(StreamParser<?> parser, byte[] data) {
+        for (var chunk : chunks(data, DATA_BUFFER_SIZE)) {
+            parser.receiveData(chunk, 0, chunk.length, null);
+        }
+        @SuppressWarnings("unchecked")
+        var result = (List<T>) parser.retrieveData();
+        return result;
+    }
+
+    private static final class VarOutput extends ByteArrayOutputStream {
+        VarOutput() {
+            super(1024 * 1024);
+        }
+
+        void longValue(long v) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (v >>> shift));
+            }
+        }
+
+        void varInt(int v) {
+            while ((v & ~0x7F) != 0) {
+                write((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            write(v);
+        }
+
+        void varIntZigZag(int v) {
+            varInt((v << 1) ^ (v >> 31));
+        }
+
+        void varLong(long v) {
+            while ((v & ~0x7FL) != 0) {
+                write((int) (v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            write((int) v);
+        }
+
+        void string(String s) {
+            varInt(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                write(c >>> 8);
+                write(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.netcracker.benchmarks;
+
+import com.netcracker.profiler.model.Call;
+import com.netcracker.profiler.sax.call.CallDataReaderFactory;
+import com.netcracker.profiler.sax.io.DataInputStreamEx;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of calls stream by {@code CallDataReader_01..04}: the same calls written in every format
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallDataReaderBenchmark {
+
+    @Param({"1", "2", "3", "4"})
+    int format;
+
+    private byte[] stream;
+
+    @Setup
+    public void setup() {
+        stream = BenchmarkData.encodeCalls(BenchmarkData.calls(), format);
+    }
+
+    @Benchmark
+    public int readCalls(Blackhole bh) throws IOException {
+        return read(bh, false);
+    }
+
+    @Benchmark
+    public int skipParams(Blackhole bh) throws IOException {
+        return read(bh, true);
+    }
+
+    private int read(Blackhole bh, boolean skipParams) throws IOException {
+        var in = new DataInputStreamEx(new ByteArrayInputStream(stream));
+        var reader = CallDataReaderFactory.createReader(BenchmarkData.readHeader(in));
+        int count = 0;
+        try {
+            while (true) {
+                var call = new Call();
+                reader.read(call, in);
+                if (skipParams) {
+                    reader.skipParams(call, in);
+                } else {
+                    reader.readParams(call, in);
+                }
+                bh.consume(call);
+                count++;
+            }
+        } catch (EOFException e) {
+            return count;
+        }
+    }
+}
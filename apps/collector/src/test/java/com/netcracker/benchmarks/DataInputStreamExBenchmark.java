@@ -0,0 +1,100 @@
+package com.netcracker.benchmarks;
+
+import com.netcracker.profiler.sax.io.DataInputStreamEx;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primitive reads of {@link DataInputStreamEx} over the real traces and dictionary streams
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataInputStreamExBenchmark {
+
+    private byte[] traces;
+    private byte[] strings;
+
+    @Setup
+    public void setup() {
+        traces = BenchmarkData.fixture("traces.0");
+        strings = BenchmarkData.encodeStrings(BenchmarkData.calls());
+    }
+
+    /**
+     * Trace records are mostly var ints: time deltas, method ids and tags
+     */
+    @Benchmark
+    public long readVarInt() throws IOException {
+        var in = new DataInputStreamEx(new ByteArrayInputStream(traces));
+        long sum = 0;
+        try {
+            while (true) {
+                sum += in.readVarInt();
+            }
+        } catch (EOFException e) {
+            return sum;
+        }
+    }
+
+    @Benchmark
+    public long readVarLong() throws IOException {
+        var in = new DataInputStreamEx(new ByteArrayInputStream(traces));
+        long sum = 0;
+        try {
+            while (true) {
+                sum += in.readVarLong();
+            }
+        } catch (EOFException e) {
+            return sum;
+        }
+    }
+
+    @Benchmark
+    public long readLong() throws IOException {
+        var in = new DataInputStreamEx(new ByteArrayInputStream(traces));
+        long sum = 0;
+        try {
+            while (true) {
+                sum += in.readLong();
+            }
+        } catch (EOFException e) {
+            return sum;
+        }
+    }
+
+    /**
+     * Strings of calls stream: thread names and parameters
+     */
+    @Benchmark
+    public void readString(Blackhole bh) throws IOException {
+        var in = new DataInputStreamEx(new ByteArrayInputStream(strings));
+        try {
+            while (true) {
+                bh.consume(in.readString());
+            }
+        } catch (EOFException e) {
+            // end of stream
+        }
+    }
+
+    @Benchmark
+    public int skipString() throws IOException {
+        var in = new DataInputStreamEx(new ByteArrayInputStream(strings));
+        try {
+            while (true) {
+                in.skipString();
+            }
+        } catch (EOFException e) {
+            return in.position();
+        }
+    }
+}
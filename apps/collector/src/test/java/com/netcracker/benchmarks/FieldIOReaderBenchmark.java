@@ -0,0 +1,56 @@
+package com.netcracker.benchmarks;
+
+import com.netcracker.cdt.collector.common.transport.FieldIOReader;
+import com.netcracker.cdt.collector.common.transport.FieldIOWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.netcracker.common.ProtocolConst.COMMAND_RCV_DATA;
+import static com.netcracker.common.ProtocolConst.DATA_BUFFER_SIZE;
+
+/**
+ * Decoding of {@code RCV_DATA} commands the way the agent sends the traces stream
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldIOReaderBenchmark {
+
+    private byte[] commands;
+    private int count;
+
+    @Setup
+    public void setup() throws IOException {
+        var data = BenchmarkData.fixture("traces.0");
+        var out = new ByteArrayOutputStream(data.length * 2);
+        var writer = new FieldIOWriter(out);
+        var handle = UUID.randomUUID();
+        for (int off = 0; off < data.length; off += DATA_BUFFER_SIZE) {
+            writer.Byte(COMMAND_RCV_DATA);
+            writer.UUID(handle);
+            writer.Field(data, off, Math.min(DATA_BUFFER_SIZE, data.length - off));
+            count++;
+        }
+        commands = out.toByteArray();
+    }
+
+    @Benchmark
+    public long receiveData() throws IOException {
+        var reader = new FieldIOReader(() -> false, new ByteArrayInputStream(commands));
+        long received = 0;
+        for (int i = 0; i < count; i++) {
+            reader.Byte();
+            reader.UUID();
+            received += reader.Field();
+        }
+        return received;
+    }
+}
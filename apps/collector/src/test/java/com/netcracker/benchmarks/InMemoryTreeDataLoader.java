@@ -0,0 +1,59 @@
+package com.netcracker.benchmarks;
+
+import com.netcracker.cdt.ui.services.tree.context.TreeDataLoader;
+import com.netcracker.common.models.StreamType;
+import com.netcracker.common.models.SuspendRange;
+import com.netcracker.common.models.meta.DictionaryIndex;
+import com.netcracker.common.models.meta.DictionaryModel;
+import com.netcracker.common.models.meta.ParamsModel;
+import com.netcracker.profiler.sax.io.DataInputStreamEx;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves streams of the fixture pod from memory, so the benchmarks measure parsing only
+ */
+class InMemoryTreeDataLoader extends TreeDataLoader {
+    private final Map<StreamType, byte[]> streams = new EnumMap<>(StreamType.class);
+    private final List<DictionaryModel> dictionary;
+    private final List<ParamsModel> params;
+
+    InMemoryTreeDataLoader() {
+        streams.put(StreamType.TRACE, BenchmarkData.fixture("traces.0"));
+        streams.put(StreamType.SQL, BenchmarkData.fixture("sql.0"));
+        streams.put(StreamType.XML, BenchmarkData.fixture("xml.0"));
+        dictionary = BenchmarkData.dictionary();
+        params = BenchmarkData.params();
+    }
+
+    @Override
+    public DataInputStreamEx openDataInputStream(String podReference, StreamType streamType, int rollingSequenceId) throws IOException {
+        var data = streams.get(streamType);
+        if (data == null) {
+            throw new IOException("Unknown stream " + streamType + ":" + rollingSequenceId + " for " + podReference);
+        }
+        return new DataInputStreamEx(new ByteArrayInputStream(data));
+    }
+
+    @Override
+    public void loadSuspendLog(SuspendRange range, String podReference, long start, long end) {
+        // no suspends in the fixture
+    }
+
+    @Override
+    public void loadMeta(DictionaryIndex idx, String podReference, BitSet tagIds) {
+        for (var param : params) {
+            idx.putParameter(param);
+        }
+        for (var tag : dictionary) {
+            if (tagIds.get(tag.position())) {
+                idx.putDictionary(tag.position(), tag.tag());
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.netcracker.benchmarks;
+
+import com.netcracker.cdt.collector.parsers.DictionaryStreamParser;
+import com.netcracker.cdt.collector.parsers.ParamsStreamParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phrase framing of the parsed streams: bytes arrive in chunks of the agent protocol and are cut into phrases
+ * by {@code ParsedInputStream}, then decoded by the phrase readers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsedInputStreamBenchmark {
+
+    @Param({"256", "1024"})
+    int chunkSize;
+
+    private List<byte[]> dictionary;
+    private List<byte[]> params;
+
+    @Setup
+    public void setup() {
+        dictionary = BenchmarkData.chunks(BenchmarkData.fixture("dictionary"), chunkSize);
+        params = BenchmarkData.chunks(BenchmarkData.fixture("params"), chunkSize);
+    }
+
+    @Benchmark
+    public int dictionary() {
+        var parser = DictionaryStreamParser.create(BenchmarkData.POD, -1);
+        for (var chunk : dictionary) {
+            parser.receiveData(chunk, 0, chunk.length, null);
+        }
+        return parser.retrieveData().size();
+    }
+
+    @Benchmark
+    public int params() {
+        var parser = ParamsStreamParser.create(BenchmarkData.POD);
+        for (var chunk : params) {
+            parser.receiveData(chunk, 0, chunk.length, null);
+        }
+        return parser.retrieveData().size();
+    }
+}
@@ -0,0 +1,51 @@
+package com.netcracker.benchmarks;
+
+import com.netcracker.cdt.ui.services.tree.CallTreeRequest;
+import com.netcracker.cdt.ui.services.tree.context.TracePodReader;
+import com.netcracker.cdt.ui.services.tree.data.ProfiledTree;
+import com.netcracker.profiler.model.TreeRowId;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building of the call tree from the traces stream for the given number of calls
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracePodReaderBenchmark {
+
+    @Param({"1", "10", "100"})
+    int calls;
+
+    private InMemoryTreeDataLoader loader;
+    private List<TreeRowId> rowIds;
+
+    @Setup
+    public void setup() {
+        loader = new InMemoryTreeDataLoader();
+        rowIds = BenchmarkData.treeRowIds(BenchmarkData.calls(), calls);
+    }
+
+    @Benchmark
+    public ProfiledTree readTraces() {
+        return readTraces(loader, rowIds);
+    }
+
+    static ProfiledTree readTraces(InMemoryTreeDataLoader loader, List<TreeRowId> rowIds) {
+        var reader = new TracePodReader(loader, request(), BenchmarkData.POD.oldPodName());
+        return reader.readTraces(new ArrayList<>(rowIds), 0, Long.MAX_VALUE);
+    }
+
+    static CallTreeRequest request() {
+        return new CallTreeRequest(0, false, 15000, 15000, 0, "treedata", null, null, null,
+                Map.of(), List.of(), 0, Long.MAX_VALUE);
+    }
+}
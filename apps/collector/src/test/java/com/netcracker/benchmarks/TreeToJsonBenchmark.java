@@ -0,0 +1,46 @@
+package com.netcracker.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.netcracker.cdt.ui.services.tree.data.ProfiledTree;
+import com.netcracker.cdt.ui.services.tree.json.TreeToJson;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the call tree for UI, the same way as {@code CallTreeMediator} does
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeToJsonBenchmark {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Param({"10", "100"})
+    int calls;
+
+    private ProfiledTree tree;
+
+    @Setup
+    public void setup() {
+        var loader = new InMemoryTreeDataLoader();
+        tree = TracePodReaderBenchmark.readTraces(loader, BenchmarkData.treeRowIds(BenchmarkData.calls(), calls));
+        if (tree == null) {
+            throw new IllegalStateException("No tree is built for " + calls + " calls");
+        }
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        var out = new ByteArrayBuilder();
+        try (var gen = FACTORY.createGenerator(out)) {
+            new TreeToJson("t", 15000).serialize(tree, gen);
+        }
+        return out.size();
+    }
+}
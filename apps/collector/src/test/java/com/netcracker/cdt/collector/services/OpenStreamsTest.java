@@ -0,0 +1,166 @@
+package com.netcracker.cdt.collector.services;
+
+import com.netcracker.cdt.collector.common.models.StreamInfoRequest;
+import com.netcracker.cdt.collector.parsers.SuspendStreamParser;
+import com.netcracker.cdt.collector.services.handlers.ChunkBufferPool;
+import com.netcracker.cdt.collector.services.handlers.ParsedStreamHandler;
+import com.netcracker.cdt.collector.services.handlers.StreamHandler;
+import com.netcracker.cdt.collector.services.handlers.UncompressedHandler;
+import com.netcracker.common.models.StreamType;
+import com.netcracker.common.models.pod.streams.StreamCodec;
+import com.netcracker.common.models.pod.streams.StreamRegistry;
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.netcracker.common.ProtocolConst.MAX_PHRASE_SIZE;
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class OpenStreamsTest {
+    static final Instant T = Instant.parse("2024-01-01T10:00:00Z");
+
+    final ChunkBufferPool buffers = new ChunkBufferPool(1024, 4);
+
+    StreamHandler handler(String pod, StreamType stream) {
+        var req = StreamInfoRequest.of(pod, stream, 0, false, false, T, T);
+        var sr = StreamRegistry.create(req, 0, StreamCodec.NONE);
+        return new UncompressedHandler<>(null, new StreamDumper(), sr, UUID.randomUUID(), buffers);
+    }
+
+    static String podId(StreamHandler handler) {
+        return handler.registry().podRestart().podId();
+    }
+
+    @Test
+    void removesStreamsOfPodAndType() {
+        var streams = new OpenStreams(100, buffers);
+        var trace1 = handler("service-a-1_1", StreamType.TRACE);
+        var calls1 = handler("service-a-1_1", StreamType.CALLS);
+        var trace2 = handler("service-b-1_1", StreamType.TRACE);
+        var h1 = UUID.randomUUID();
+        var h2 = UUID.randomUUID();
+        var h3 = UUID.randomUUID();
+        streams.put(h1, trace1);
+        streams.put(h2, calls1);
+        streams.put(h3, trace2);
+
+        var removed = streams.removeStreams(podId(trace1), StreamType.TRACE);
+        assertEquals(Set.of(h1), removed.keySet());
+        assertSame(trace1, removed.get(h1));
+        assertNull(streams.get(h1));
+        assertSame(calls1, streams.get(h2));
+        assertSame(trace2, streams.get(h3));
+        assertTrue(streams.removeStreams(podId(trace1), StreamType.TRACE).isEmpty());
+        assertEquals(2, streams.size());
+    }
+
+    @Test
+    void removesAllStreamsOfPod() {
+        var streams = new OpenStreams(100, buffers);
+        var trace1 = handler("service-a-1_1", StreamType.TRACE);
+        var other = handler("service-b-1_1", StreamType.TRACE);
+        var h1 = UUID.randomUUID();
+        var h2 = UUID.randomUUID();
+        var h3 = UUID.randomUUID();
+        streams.put(h1, trace1);
+        streams.put(h2, handler("service-a-1_1", StreamType.CALLS));
+        streams.put(h3, other);
+
+        assertEquals(Set.of(h1, h2), streams.removePod(podId(trace1)).keySet());
+        assertEquals(1, streams.size());
+        assertSame(other, streams.get(h3));
+        assertTrue(streams.removePod(podId(trace1)).isEmpty());
+    }
+
+    @Test
+    void removedHandleIsNotReturnedAgain() {
+        var streams = new OpenStreams(100, buffers);
+        var trace = handler("service-a-1_1", StreamType.TRACE);
+        var h = UUID.randomUUID();
+        streams.put(h, trace);
+
+        assertSame(trace, streams.remove(h));
+        assertNull(streams.remove(h));
+        assertTrue(streams.removePod(podId(trace)).isEmpty());
+    }
+
+    @Test
+    void evictsOldestStreams() {
+        var streams = new OpenStreams(2, buffers);
+        var h1 = UUID.randomUUID();
+        var h2 = UUID.randomUUID();
+        var h3 = UUID.randomUUID();
+        var first = handler("service-a-1_1", StreamType.TRACE);
+        assertTrue(streams.put(h1, first).isEmpty());
+        assertTrue(streams.put(h2, handler("service-a-1_1", StreamType.CALLS)).isEmpty());
+
+        var evicted = streams.put(h3, handler("service-b-1_1", StreamType.TRACE));
+        assertEquals(Set.of(h1), evicted.keySet());
+        assertEquals(2, streams.size());
+        assertNull(streams.get(h1));
+        assertTrue(streams.removeStreams(podId(first), StreamType.TRACE).isEmpty());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedStreams() {
+        var streams = new OpenStreams(2, buffers);
+        var h1 = UUID.randomUUID();
+        var h2 = UUID.randomUUID();
+        var h3 = UUID.randomUUID();
+        var h4 = UUID.randomUUID();
+        streams.put(h1, handler("service-a-1_1", StreamType.TRACE));
+        streams.put(h2, handler("service-a-1_1", StreamType.CALLS));
+        assertNotNull(streams.get(h1)); // data has come to the older stream
+
+        assertEquals(Set.of(h2), streams.put(h3, handler("service-b-1_1", StreamType.TRACE)).keySet());
+        assertNotNull(streams.get(h3));
+        // the second chance is used up
+        assertEquals(Set.of(h1), streams.put(h4, handler("service-c-1_1", StreamType.TRACE)).keySet());
+    }
+
+    @Test
+    void closedHandlerTakesNoData() throws IOException {
+        var streams = new OpenStreams(1, buffers);
+        var evicted = handler("service-a-1_1", StreamType.TRACE);
+        streams.put(UUID.randomUUID(), evicted);
+        var removed = streams.put(UUID.randomUUID(), handler("service-b-1_1", StreamType.TRACE));
+        assertEquals(List.of(evicted), List.copyOf(removed.values()));
+
+        evicted.closeOnce();
+        evicted.closeOnce();
+        // the connection which got the handler before the eviction must rotate the stream
+        assertFalse(evicted.receiveIfOpen(new byte[10], 0, 10));
+        assertFalse(evicted.flushIfNeeded());
+        assertEquals(0, evicted.retainedBytes());
+    }
+
+    @Test
+    void accountsRetainedBytesPerStreamType() {
+        var streams = new OpenStreams(100, buffers);
+        var trace = handler("service-a-1_1", StreamType.TRACE);
+        var suspend = StreamRegistry.create(StreamInfoRequest.of("service-a-1_1", StreamType.SUSPEND, 0, false, false, T, T),
+                0, StreamCodec.NONE);
+        streams.put(UUID.randomUUID(), trace);
+        streams.put(UUID.randomUUID(), new ParsedStreamHandler<>(null, SuspendStreamParser.create(suspend.podRestart()),
+                new StreamDumper(), suspend, false));
+
+        assertEquals(1, streams.size(StreamType.TRACE));
+        assertEquals(0, streams.retainedBytes(StreamType.TRACE)); // no buffer until data arrives
+        assertEquals(MAX_PHRASE_SIZE + 1, streams.retainedBytes(StreamType.SUSPEND));
+        assertEquals(0, streams.retainedBytes(StreamType.CALLS));
+
+        var chunk = buffers.acquire(StreamType.TRACE);
+        assertEquals(1024, streams.retainedBytes(StreamType.TRACE));
+        buffers.release(StreamType.TRACE, chunk);
+
+        streams.removePod(podId(trace));
+        assertEquals(0, streams.size(StreamType.TRACE));
+        assertEquals(0, streams.retainedBytes(StreamType.SUSPEND));
+    }
+}
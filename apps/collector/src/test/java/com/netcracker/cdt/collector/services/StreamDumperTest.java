@@ -0,0 +1,117 @@
+package com.netcracker.cdt.collector.services;
+
+import com.netcracker.cdt.collector.common.models.StreamInfoRequest;
+import com.netcracker.cdt.collector.services.handlers.ChunkBufferPool;
+import com.netcracker.cdt.collector.services.handlers.UncompressedHandler;
+import com.netcracker.common.models.StreamType;
+import com.netcracker.common.models.pod.streams.StreamChunk;
+import com.netcracker.common.models.pod.streams.StreamCodec;
+import com.netcracker.common.models.pod.streams.StreamRegistry;
+import com.netcracker.persistence.BatchPersistence;
+import com.netcracker.persistence.PersistenceService;
+import com.netcracker.persistence.StreamsPersistence;
+import com.netcracker.persistence.op.Operation;
+import com.netcracker.utils.UnitTest;
+import jakarta.enterprise.inject.Instance;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class StreamDumperTest {
+    static final Instant T = Instant.parse("2024-01-01T10:00:00Z");
+
+    // stream -> chunks, copied when the store gets them
+    final Map<StreamRegistry, ByteArrayOutputStream> stored = new HashMap<>();
+    final Map<StreamRegistry, Long> nextPosition = new HashMap<>();
+
+    @Test
+    void streamsSharingBuffersPersistTheirOwnData() throws IOException {
+        var dumper = dumper();
+        var buffers = new ChunkBufferPool(16, 2);
+        var handlers = new ArrayList<UncompressedHandler<?>>();
+        var sent = new ArrayList<ByteArrayOutputStream>();
+        for (var stream : List.of(StreamType.TRACE, StreamType.XML, StreamType.SQL)) {
+            var req = StreamInfoRequest.of("service-a-1_1", stream, 0, false, false, T, T);
+            var sr = StreamRegistry.create(req, 0, StreamCodec.NONE);
+            handlers.add(new UncompressedHandler<>(null, dumper, sr, UUID.randomUUID(), buffers));
+            sent.add(new ByteArrayOutputStream());
+        }
+
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < handlers.size(); i++) {
+                var data = new byte[1 + (round + i) % 7];
+                for (int j = 0; j < data.length; j++) {
+                    data[j] = (byte) (round * 31 + i * 7 + j);
+                }
+                handlers.get(i).receive(data, 0, data.length);
+                sent.get(i).writeBytes(data);
+            }
+        }
+        for (var handler : handlers) {
+            handler.closeOnce();
+        }
+
+        for (int i = 0; i < handlers.size(); i++) {
+            var sr = handlers.get(i).registry();
+            assertArrayEquals(sent.get(i).toByteArray(), stored.get(sr).toByteArray(), sr.screenName());
+        }
+        // a buffer per stream with unflushed data, all of them back in the pool once the streams are closed
+        assertEquals(handlers.size(), buffers.allocated());
+        assertEquals(2, buffers.pooled());
+        handlers.forEach(h -> assertEquals(0, h.retainedBytes()));
+    }
+
+    private StreamDumper dumper() {
+        StreamsPersistence streams = proxy(StreamsPersistence.class, (method, args) -> {
+            if (!method.equals("insertStreamChunk")) {
+                return null;
+            }
+            var chunk = (StreamChunk) args[0];
+            var sr = chunk.registry();
+            assertEquals(nextPosition.getOrDefault(sr, 0L), chunk.startPos());
+            nextPosition.put(sr, chunk.startPos() + chunk.length());
+            var data = chunk.chunk().duplicate();
+            var copy = new byte[data.remaining()];
+            data.get(copy);
+            stored.computeIfAbsent(sr, k -> new ByteArrayOutputStream()).writeBytes(copy);
+            return Operation.empty();
+        });
+        BatchPersistence batch = proxy(BatchPersistence.class, (method, args) -> null);
+
+        var dumper = new StreamDumper();
+        dumper.persistence = new PersistenceService(instance(null), instance(null), instance(streams),
+                instance(null), instance(batch), null, instance(null));
+        dumper.podDumper = new PodDumper() {
+            @Override
+            public void persisted(StreamRegistry registry, int length) {
+            }
+        };
+        return dumper;
+    }
+
+    interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(StreamDumperTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.invoke(method.getName(), args));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Instance<T> instance(T value) {
+        return proxy(Instance.class, (method, args) -> method.equals("get") ? value : null);
+    }
+}
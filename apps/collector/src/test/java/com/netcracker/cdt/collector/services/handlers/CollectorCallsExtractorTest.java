@@ -0,0 +1,174 @@
+package com.netcracker.cdt.collector.services.handlers;
+
+import com.netcracker.benchmarks.BenchmarkData;
+import com.netcracker.cdt.collector.common.models.StreamInfoRequest;
+import com.netcracker.common.models.CallsModel;
+import com.netcracker.common.models.StreamType;
+import com.netcracker.common.models.pod.streams.StreamCodec;
+import com.netcracker.common.models.pod.streams.StreamRegistry;
+import com.netcracker.persistence.CallsPersistence;
+import com.netcracker.profiler.model.Call;
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static com.netcracker.cdt.collector.services.handlers.CollectorCallsExtractor.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CollectorCallsExtractorTest {
+    static final Instant T = Instant.parse("2024-01-01T10:00:00Z");
+    static final StreamRegistry REGISTRY = StreamRegistry.create(
+            StreamInfoRequest.of("service-a-1_1", StreamType.CALLS, 0, false, false, T, T), 0, StreamCodec.NONE);
+
+    /**
+     * Records sizes of the saved batches, optionally waits for a permit before saving
+     */
+    static class Batches implements CallsPersistence {
+        final List<Integer> sizes = new CopyOnWriteArrayList<>();
+        final CountDownLatch permit;
+
+        Batches(CountDownLatch permit) {
+            this.permit = permit;
+        }
+
+        @Override
+        public void insert(CallsModel toSave) {
+            insert(List.of(toSave));
+        }
+
+        @Override
+        public void insert(List<CallsModel> toSave) {
+            try {
+                permit.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sizes.add(toSave.size());
+        }
+
+        int saved() {
+            return sizes.stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    static byte[] calls(int count) {
+        var calls = new ArrayList<Call>(count);
+        for (int i = 0; i < count; i++) {
+            var call = new Call();
+            call.time = 1;
+            call.method = i % 10;
+            call.duration = 5;
+            call.threadName = "main";
+            calls.add(call);
+        }
+        return BenchmarkData.encodeCalls(calls, 4);
+    }
+
+    static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void batchesBySize() throws Exception {
+        var batches = new Batches(new CountDownLatch(0));
+        var extractor = new CollectorCallsExtractor(batches, REGISTRY);
+        extractor.start();
+        var data = calls(2 * BATCH_SIZE + 20);
+        extractor.add(data, 0, data.length);
+
+        await(() -> batches.saved() == 2 * BATCH_SIZE + 20);
+        // the rest is saved after BATCH_MAX_AGE_MILLIS, while the stream is still open
+        assertEquals(List.of(BATCH_SIZE, BATCH_SIZE, 20), batches.sizes);
+        extractor.close();
+        assertTrue(extractor.awaitDrained(10_000));
+    }
+
+    @Test
+    void batchesByTime() throws Exception {
+        var batches = new Batches(new CountDownLatch(0));
+        var extractor = new CollectorCallsExtractor(batches, REGISTRY);
+        extractor.start();
+        var data = calls(10);
+        long start = System.currentTimeMillis();
+        extractor.add(data, 0, data.length);
+
+        await(() -> batches.saved() == 10);
+        assertTrue(System.currentTimeMillis() - start >= BATCH_MAX_AGE_MILLIS - 100);
+        assertEquals(List.of(10), batches.sizes);
+        extractor.close();
+        assertTrue(extractor.awaitDrained(10_000));
+    }
+
+    @Test
+    void fullQueueBlocksTheStream() throws Exception {
+        var permit = new CountDownLatch(1);
+        var batches = new Batches(permit);
+        var extractor = new CollectorCallsExtractor(batches, REGISTRY);
+        extractor.start();
+        int count = 20_000; // more than the pipe, the queue and the batch being saved hold
+        var data = calls(count);
+        var added = new CountDownLatch(1);
+        var sender = Thread.startVirtualThread(() -> {
+            extractor.add(data, 0, data.length);
+            added.countDown();
+        });
+
+        await(() -> extractor.queued() == QUEUE_CAPACITY);
+        assertFalse(added.await(200, TimeUnit.MILLISECONDS), "the agent data is not read while the database is behind");
+
+        permit.countDown();
+        assertTrue(added.await(10, TimeUnit.SECONDS));
+        sender.join();
+        extractor.close();
+        assertTrue(extractor.awaitDrained(10_000));
+        assertEquals(count, batches.saved());
+    }
+
+    @Test
+    void closeDoesNotWaitForDatabase() throws Exception {
+        var permit = new CountDownLatch(1);
+        var batches = new Batches(permit);
+        var extractor = new CollectorCallsExtractor(batches, REGISTRY);
+        extractor.start();
+        var data = calls(BATCH_SIZE + 1);
+        extractor.add(data, 0, data.length);
+
+        long start = System.currentTimeMillis();
+        extractor.close();
+        assertTrue(System.currentTimeMillis() - start < 1000, "close returns at once");
+        assertFalse(extractor.isFinished());
+
+        permit.countDown();
+        CollectorCallsExtractor.awaitAllDrained(); // as on shutdown
+        assertTrue(extractor.isFinished());
+        assertEquals(BATCH_SIZE + 1, batches.saved());
+    }
+
+    @Test
+    void addAfterCloseIsIgnored() throws IOException, InterruptedException {
+        var batches = new Batches(new CountDownLatch(0));
+        var extractor = new CollectorCallsExtractor(batches, REGISTRY);
+        extractor.start();
+        var data = calls(3);
+        extractor.add(data, 0, data.length);
+        extractor.close();
+        extractor.close();
+        extractor.add(data, 0, data.length);
+
+        assertTrue(extractor.awaitDrained(10_000));
+        assertEquals(3, batches.saved());
+    }
+}
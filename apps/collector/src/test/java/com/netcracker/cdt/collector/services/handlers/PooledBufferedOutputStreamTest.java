@@ -0,0 +1,182 @@
+package com.netcracker.cdt.collector.services.handlers;
+
+import com.netcracker.common.models.StreamType;
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class PooledBufferedOutputStreamTest {
+
+    /**
+     * Records chunks as they are saved by stream handlers
+     */
+    static class Chunks extends OutputStream {
+        final List<byte[]> chunks = new ArrayList<>();
+        final List<byte[]> arrays = new ArrayList<>();
+
+        @Override
+        public void write(int b) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            chunks.add(Arrays.copyOfRange(b, off, off + len));
+            arrays.add(b);
+        }
+
+        byte[] all() {
+            var out = new ByteArrayOutputStream();
+            chunks.forEach(out::writeBytes);
+            return out.toByteArray();
+        }
+    }
+
+    static byte[] bytes(int from, int len) {
+        var b = new byte[len];
+        for (int i = 0; i < len; i++) {
+            b[i] = (byte) (from + i);
+        }
+        return b;
+    }
+
+    @Test
+    void buffersSmallWrites() throws IOException {
+        var pool = new ChunkBufferPool(8, 4);
+        var sink = new Chunks();
+        var out = new PooledBufferedOutputStream(sink, pool, StreamType.TRACE);
+
+        out.write(bytes(0, 3), 0, 3);
+        out.write(bytes(3, 3), 0, 3);
+        assertTrue(sink.chunks.isEmpty());
+        out.write(bytes(6, 3), 0, 3); // does not fit
+        assertEquals(1, sink.chunks.size());
+        out.flush();
+
+        assertArrayEquals(bytes(0, 9), sink.all());
+        assertEquals(2, sink.chunks.size());
+    }
+
+    @Test
+    void largeWritesAreNotCopied() throws IOException {
+        var pool = new ChunkBufferPool(8, 4);
+        var sink = new Chunks();
+        var out = new PooledBufferedOutputStream(sink, pool, StreamType.TRACE);
+
+        var data = bytes(0, 20);
+        out.write(data, 2, 10);
+
+        assertSame(data, sink.arrays.getFirst());
+        assertArrayEquals(bytes(2, 10), sink.all());
+        assertFalse(out.holdsBuffer());
+        assertEquals(0, pool.allocated());
+    }
+
+    @Test
+    void buffersAreReleasedAfterFlush() throws IOException {
+        var pool = new ChunkBufferPool(8, 4);
+        var streams = new ArrayList<PooledBufferedOutputStream>();
+        for (int i = 0; i < 3; i++) {
+            streams.add(new PooledBufferedOutputStream(new Chunks(), pool, StreamType.TRACE));
+        }
+        for (int round = 0; round < 10; round++) {
+            for (var out : streams) {
+                out.write(bytes(round, 2), 0, 2);
+                assertTrue(out.holdsBuffer());
+                out.flush();
+                assertFalse(out.holdsBuffer());
+            }
+        }
+        // the streams take turns with the same buffer
+        assertEquals(1, pool.allocated());
+        assertEquals(1, pool.pooled());
+    }
+
+    @Test
+    void poolKeepsLimitedNumberOfBuffers() {
+        var pool = new ChunkBufferPool(8, 2);
+        var taken = List.of(pool.acquire(StreamType.SQL), pool.acquire(StreamType.SQL), pool.acquire(StreamType.SQL));
+        assertEquals(24, pool.takenBytes(StreamType.SQL));
+        taken.forEach(b -> pool.release(StreamType.SQL, b));
+        pool.release(StreamType.SQL, new byte[16]); // not from this pool
+        assertEquals(0, pool.takenBytes(StreamType.SQL));
+
+        assertEquals(3, pool.allocated());
+        assertEquals(2, pool.pooled());
+    }
+
+    @Test
+    void closeFlushesButLeavesHandlerOpen() throws IOException {
+        var pool = new ChunkBufferPool(8, 2);
+        int[] closed = {0};
+        var sink = new Chunks() {
+            @Override
+            public void close() {
+                closed[0]++;
+            }
+        };
+        var out = new PooledBufferedOutputStream(sink, pool, StreamType.TRACE);
+        out.write(bytes(0, 3), 0, 3);
+        out.close();
+
+        assertEquals(0, closed[0]); // the handler is closed by StreamDumper
+        assertArrayEquals(bytes(0, 3), sink.all());
+        assertEquals(1, pool.pooled());
+    }
+
+    @Test
+    void concurrentCloseReleasesBufferOnce() throws Exception {
+        var pool = new ChunkBufferPool(8, 1000);
+        for (int round = 0; round < 200; round++) {
+            var sink = new Chunks() {
+                @Override
+                public synchronized void write(byte[] b, int off, int len) {
+                    Thread.yield(); // widens the window between taking the buffer and releasing it
+                    super.write(b, off, len);
+                }
+            };
+            var out = new PooledBufferedOutputStream(sink, pool, StreamType.TRACE);
+            var start = new CountDownLatch(1);
+            var writer = Executors.newSingleThreadExecutor();
+            try {
+                Future<Integer> written = writer.submit(() -> {
+                    start.await();
+                    int bytes = 0;
+                    try {
+                        for (int i = 0; ; i++) {
+                            out.write(bytes(i, 3), 0, 3);
+                            bytes += 3;
+                        }
+                    } catch (IOException closed) {
+                        return bytes;
+                    }
+                });
+                start.countDown();
+                Thread.sleep(0, 1000 * (round % 10));
+                out.close();
+                out.close();
+
+                assertEquals(written.get(10, TimeUnit.SECONDS), sink.all().length);
+            } finally {
+                writer.shutdownNow();
+            }
+            assertFalse(out.holdsBuffer());
+            assertThrows(IOException.class, () -> out.write(bytes(0, 1), 0, 1));
+        }
+        // every buffer is back in the pool, none of them twice
+        assertEquals(pool.allocated(), pool.pooled());
+    }
+}
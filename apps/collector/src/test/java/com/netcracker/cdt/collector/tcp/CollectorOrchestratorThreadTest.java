@@ -0,0 +1,158 @@
+package com.netcracker.cdt.collector.tcp;
+
+import com.netcracker.cdt.collector.common.CollectorConfig;
+import com.netcracker.common.Time;
+import com.netcracker.common.models.pod.PodStatus;
+import com.netcracker.utils.UnitTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static com.netcracker.common.ProtocolConst.MAX_IDLE_BEFORE_DEATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CollectorOrchestratorThreadTest {
+    static final Instant T = Instant.parse("2024-03-01T10:00:00Z");
+
+    final Time time = new Time();
+    CollectorOrchestratorThread orchestrator;
+
+    class TestConnection implements OrchestratedConnection {
+        final PodStatus pod;
+        long lastAccessed = time.currentTimeMillis();
+        String closed;
+        int killed;
+
+        TestConnection(String namespace, String podName) {
+            pod = PodStatus.empty(T).setNamespace(namespace).setMicroservice("svc").setPodName(podName + "_" + T.toEpochMilli());
+        }
+
+        void touch() {
+            lastAccessed = time.currentTimeMillis();
+        }
+
+        long idle() {
+            return time.currentTimeMillis() - lastAccessed;
+        }
+
+        @Override
+        public PodStatus getPod() {
+            return pod;
+        }
+
+        @Override
+        public boolean timeToKill() {
+            return idle() > 2 * MAX_IDLE_BEFORE_DEATH;
+        }
+
+        @Override
+        public long millisToKill() {
+            return 2L * MAX_IDLE_BEFORE_DEATH - idle();
+        }
+
+        @Override
+        public boolean shutdownComplete() {
+            return closed != null;
+        }
+
+        @Override
+        public void kill() {
+            killed++;
+            close("kill");
+        }
+
+        @Override
+        public boolean commandAvailable() {
+            return false;
+        }
+
+        @Override
+        public boolean isSocketDead() {
+            return closed != null;
+        }
+
+        @Override
+        public String getConnectionName() {
+            return pod.podName();
+        }
+
+        @Override
+        public void close(String reason) {
+            closed = reason;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        time.setTime(T);
+        orchestrator = new CollectorOrchestratorThread();
+        orchestrator.time = time;
+        orchestrator.registry = new SimpleMeterRegistry();
+        orchestrator.config = new CollectorConfig() {
+            @Override
+            public int getMaxConnections() {
+                return 3;
+            }
+        };
+        orchestrator.init();
+        orchestrator.setDaemon(true);
+        orchestrator.start(); // sleeps until the fake time reaches a deadline, i.e. forever
+    }
+
+    @AfterEach
+    void tearDown() {
+        orchestrator.interrupt();
+    }
+
+    TestConnection connect(String namespace, String podName) {
+        var c = new TestConnection(namespace, podName);
+        orchestrator.addConnection(c.getPod(), c);
+        return c;
+    }
+
+    @Test
+    void reconnectedPodReplacesPreviousConnection() {
+        var a1 = connect("ns1", "svc-1");
+        var b = connect("ns1", "svc-2");
+        var a2 = connect("ns1", "svc-1");
+
+        assertNotNull(a1.closed);
+        assertNull(b.closed);
+        assertNull(a2.closed);
+        assertEquals(2, orchestrator.getConnections());
+        assertEquals(2, orchestrator.getConnectionsByNamespace("ns1"));
+    }
+
+    @Test
+    void killsOnlyConnectionsIdleForTooLong() {
+        var idle = connect("ns1", "svc-1");
+        var active = connect("ns2", "svc-2");
+
+        time.setTime(T.plusMillis(2L * MAX_IDLE_BEFORE_DEATH + 1));
+        active.touch();
+        orchestrator.check(idle);
+        orchestrator.check(active);
+        orchestrator.check(idle);
+
+        assertEquals(1, idle.killed);
+        assertEquals(0, active.killed);
+        assertEquals(1, orchestrator.getConnections());
+        assertEquals(0, orchestrator.getConnectionsByNamespace("ns1"));
+        assertEquals(1, orchestrator.getConnectionsByNamespace("ns2"));
+    }
+
+    @Test
+    void limitsNumberOfConnections() {
+        connect("ns1", "svc-1");
+        connect("ns1", "svc-2");
+        connect("ns1", "svc-3");
+        assertThrows(IllegalStateException.class, () -> connect("ns1", "svc-4"));
+
+        connect("ns1", "svc-3"); // replaces the previous connection, not a new one
+        assertEquals(3, orchestrator.getConnections());
+    }
+}
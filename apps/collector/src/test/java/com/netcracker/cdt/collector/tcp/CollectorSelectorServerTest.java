@@ -0,0 +1,143 @@
+package com.netcracker.cdt.collector.tcp;
+
+import com.netcracker.common.Time;
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CollectorSelectorServerTest {
+    // much more than the socket buffers of both sides
+    static final int RESPONSE_SIZE = 16 * 1024 * 1024;
+
+    CollectorSelectorServer server;
+    final List<SocketChannel> agents = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        server = new CollectorSelectorServer();
+        server.time = new Time();
+        server.start(0, 10);
+        await(() -> server.port() != 0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.stop();
+        for (var agent : agents) {
+            agent.close();
+        }
+    }
+
+    @Test
+    void writesResponseWhileAgentReadsIt() throws Exception {
+        var agent = connect();
+        var conn = accepted();
+        var data = new byte[RESPONSE_SIZE];
+        new Random(42).nextBytes(data);
+
+        var writer = write(conn, data);
+        Thread.sleep(200);
+        assertFalse(writer.isDone(), "the agent does not read, so the worker waits for the selector");
+
+        var received = ByteBuffer.allocate(RESPONSE_SIZE);
+        while (received.hasRemaining()) {
+            assertTrue(agent.read(received) >= 0);
+        }
+        writer.get(10, TimeUnit.SECONDS);
+        assertArrayEquals(data, received.array());
+    }
+
+    @Test
+    void blockedWriteFailsWhenAgentDisconnects() throws Exception {
+        var agent = connect();
+        var conn = accepted();
+
+        var writer = write(conn, new byte[RESPONSE_SIZE]);
+        Thread.sleep(200);
+        assertFalse(writer.isDone());
+
+        agent.close(); // with unread data, the peer gets a reset
+        var e = assertThrows(ExecutionException.class, () -> writer.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause().getCause());
+    }
+
+    @Test
+    void blockedWriteFailsWhenConnectionIsClosed() throws Exception {
+        connect();
+        var conn = accepted();
+
+        var writer = write(conn, new byte[RESPONSE_SIZE]);
+        Thread.sleep(200);
+        assertFalse(writer.isDone());
+
+        conn.close("test");
+        var e = assertThrows(ExecutionException.class, () -> writer.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause().getCause());
+    }
+
+    @Test
+    void forgetsAgentWhichDisconnects() throws Exception {
+        var agent = connect();
+        await(() -> server.connections().size() == 1);
+
+        agent.write(ByteBuffer.wrap(new byte[]{1, 2, 3})); // an incomplete command
+        agent.close();
+        await(() -> server.connections().isEmpty());
+    }
+
+    SocketChannel connect() throws IOException {
+        var agent = SocketChannel.open();
+        agents.add(agent);
+        agent.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+        agent.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.port()));
+        return agent;
+    }
+
+    /**
+     * The accepted connection, owned by the test as by a worker
+     */
+    NioAgentConnection accepted() {
+        await(() -> server.connections().size() == 1);
+        var conn = server.connections().iterator().next();
+        assertTrue(conn.startProcessing());
+        return conn;
+    }
+
+    static CompletableFuture<Void> write(NioAgentConnection conn, byte[] data) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                conn.outbound.write(data);
+                conn.outbound.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.netcracker.cdt.collector.tcp;
+
+import com.netcracker.cdt.collector.common.transport.FieldIOWriter;
+import com.netcracker.cdt.collector.common.transport.ProfilerProtocolException;
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static com.netcracker.cdt.collector.tcp.CommandFrameDecoder.INCOMPLETE;
+import static com.netcracker.cdt.collector.tcp.CommandFrameDecoder.frameLength;
+import static com.netcracker.common.ProtocolConst.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CommandFrameDecoderTest {
+
+    @Test
+    void initProtocol() throws IOException {
+        var out = new ByteArrayOutputStream();
+        var w = new FieldIOWriter(out);
+        w.Byte(COMMAND_GET_PROTOCOL_VERSION_V2);
+        w.Long(123432L);
+        w.String("pod-1_12345");
+        w.String("service");
+        w.String("namespace");
+
+        assertCompleteOnlyWhenFullyReceived(out.toByteArray());
+    }
+
+    @Test
+    void initStream() throws IOException {
+        var out = new ByteArrayOutputStream();
+        var w = new FieldIOWriter(out);
+        w.Byte(COMMAND_INIT_STREAM_V2);
+        w.String("trace");
+        w.Int(1);
+        w.Int(0);
+        assertCompleteOnlyWhenFullyReceived(out.toByteArray());
+
+        out.reset();
+        w.Byte(COMMAND_INIT_STREAM);
+        w.String("namespace");
+        w.String("service");
+        w.String("pod-1_12345");
+        w.String("trace");
+        w.Int(1);
+        w.Int(0);
+        assertCompleteOnlyWhenFullyReceived(out.toByteArray());
+    }
+
+    @Test
+    void receiveData() throws IOException {
+        var out = new ByteArrayOutputStream();
+        var w = new FieldIOWriter(out);
+        w.Byte(COMMAND_RCV_DATA);
+        w.UUID(UUID.randomUUID());
+        var data = "ThreadDumpExample".getBytes(StandardCharsets.UTF_8);
+        w.Field(data, 0, data.length);
+        var bytes = out.toByteArray();
+        assertCompleteOnlyWhenFullyReceived(bytes);
+
+        // next command is already buffered
+        var twoCommands = Arrays.copyOf(bytes, bytes.length + 1);
+        twoCommands[bytes.length] = COMMAND_REQUEST_ACK_FLUSH;
+        assertEquals(bytes.length, frameLength(ByteBuffer.wrap(twoCommands)));
+        assertEquals(1, frameLength(ByteBuffer.wrap(twoCommands, bytes.length, 1)));
+    }
+
+    @Test
+    void commandsWithoutPayload() {
+        assertEquals(INCOMPLETE, frameLength(ByteBuffer.allocate(0)));
+        assertEquals(1, frameLength(ByteBuffer.wrap(new byte[]{COMMAND_REQUEST_ACK_FLUSH})));
+        assertEquals(1, frameLength(ByteBuffer.wrap(new byte[]{COMMAND_CLOSE})));
+        assertEquals(1, frameLength(ByteBuffer.wrap(new byte[]{COMMAND_GET_PROTOCOL_VERSION})));
+        assertEquals(1, frameLength(ByteBuffer.wrap(new byte[]{0x7F}))); // unknown command is reported by the reader
+    }
+
+    @Test
+    void tooLongField() {
+        var buf = ByteBuffer.allocate(32);
+        buf.put(COMMAND_RCV_DATA).putLong(1).putLong(2).putInt(DATA_BUFFER_SIZE + 1).flip();
+        assertThrows(ProfilerProtocolException.class, () -> frameLength(buf));
+    }
+
+    private static void assertCompleteOnlyWhenFullyReceived(byte[] command) {
+        for (int i = 0; i < command.length; i++) {
+            assertEquals(INCOMPLETE, frameLength(ByteBuffer.wrap(command, 0, i)), "received " + i + " bytes");
+        }
+        var buf = ByteBuffer.wrap(command);
+        assertEquals(command.length, frameLength(buf));
+        assertEquals(0, buf.position()); // nothing is consumed
+    }
+
+}
@@ -6,7 +6,6 @@
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
-import java.util.Map;
 
 import static com.netcracker.utils.Utils.setOf;
 import static org.junit.jupiter.api.Assertions.*;
@@ -110,7 +109,7 @@ void merge() {
         assertEquals(3, idx2.getTags().size());
         assertEquals(2, idx2.getParamInfo().size());
 
-        assertEquals(Map.of(), idx1.mergeForRemap(idx1));
+        assertNull(idx1.mergeForRemap(idx1));
 
         var remap = idx1.mergeForRemap(idx2);
         assertEquals(5, idx1.getTags().size());
@@ -122,7 +121,7 @@ void merge() {
         assertTrue(idx1.getParamInfo().containsKey("param21"));
         assertTrue(idx1.getParamInfo().containsKey("param21"));
 
-        assertEquals(Map.of(0, 2, 1, 3, 2, 4), remap);
+        assertArrayEquals(new int[]{2, 3, 4}, remap);
         assertEquals(setOf(0, 1, 2, 3, 4), idx1.getIds());
         assertEquals(5, idx1.getTags().size());
         assertEquals(List.of("tag10", "tag11", "tag20", "tag21", "tag22"), idx1.getTags());
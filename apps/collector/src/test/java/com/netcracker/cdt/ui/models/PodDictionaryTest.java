@@ -0,0 +1,74 @@
+package com.netcracker.cdt.ui.models;
+
+import com.netcracker.common.models.meta.DictionaryIndex;
+import com.netcracker.common.models.meta.DictionaryModel;
+import com.netcracker.common.models.meta.ParamsModel;
+import com.netcracker.common.models.meta.PodDictionary;
+import com.netcracker.common.models.pod.PodIdRestart;
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.netcracker.utils.Utils.setOf;
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class PodDictionaryTest {
+    static final PodIdRestart POD = PodIdRestart.of("test_123");
+
+    @Test
+    void growsWithoutChangingPreviousOne() {
+        var first = PodDictionary.EMPTY.with(List.of(tag(0, "tag0"), tag(2, "tag2")), null, 0);
+        assertEquals(2, first.size());
+        assertFalse(first.isParamsLoaded());
+        assertEquals(setOf(1, 3), first.missing(setOf(0, 1, 2, 3)));
+        assertTrue(first.missing(null).isEmpty());
+
+        var second = first.with(List.of(tag(1, "tag1"), tag(2, "other"), tag(5, "tag5")), List.of(param("tag1")), 0);
+        assertEquals(4, second.size());
+        assertTrue(second.isParamsLoaded());
+        assertEquals("tag2", second.getTag(2)); // tags of a pod restart don't change
+        assertEquals("tag5", second.getTag(5));
+        assertEquals(setOf(3), second.missing(setOf(0, 1, 2, 3)));
+
+        assertNull(first.getTag(1));
+        assertNull(first.getTag(5));
+        assertEquals(2, first.size());
+        assertSame(second, second.with(List.of(tag(0, "tag0")), null, 0));
+    }
+
+    @Test
+    void remembersCompleteLoads() {
+        var partial = PodDictionary.EMPTY.with(List.of(tag(0, "tag0")), List.of(), 0);
+        assertFalse(partial.isCompleteSince(0));
+
+        var complete = partial.with(List.of(tag(0, "tag0"), tag(1, "tag1")), List.of(), 1000);
+        assertTrue(complete.isCompleteSince(1000));
+        assertFalse(complete.isCompleteSince(1001));
+        assertTrue(complete.with(List.of(tag(7, "tag7")), null, 0).isCompleteSince(1000));
+    }
+
+    @Test
+    void copiesRequiredTags() {
+        var dict = PodDictionary.EMPTY.with(List.of(tag(0, "tag0"), tag(1, "tag1"), tag(4, "tag4")), List.of(param("tag1")), 0);
+
+        var idx = new DictionaryIndex();
+        dict.copyTo(idx, setOf(1, 4, 9));
+        assertEquals(setOf(1, 4), idx.getIds());
+        assertEquals("tag4", idx.getTags().get(4));
+        assertTrue(idx.getParamInfo().containsKey("tag1"));
+
+        var all = new DictionaryIndex();
+        dict.copyTo(all, null);
+        assertEquals(setOf(0, 1, 4), all.getIds());
+    }
+
+    static DictionaryModel tag(int pos, String tag) {
+        return new DictionaryModel(POD, pos, tag);
+    }
+
+    static ParamsModel param(String name) {
+        return new ParamsModel(POD, name, false, false, 0, "");
+    }
+}
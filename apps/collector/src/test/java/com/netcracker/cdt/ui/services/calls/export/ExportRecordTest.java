@@ -0,0 +1,72 @@
+package com.netcracker.cdt.ui.services.calls.export;
+
+import com.netcracker.utils.UnitTest;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static com.netcracker.cdt.ui.services.calls.models.Utils.callRecord;
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class ExportRecordTest {
+    static final Instant T = Instant.parse("2024-03-01T10:00:00.500Z");
+
+    @Test
+    void writesCsvRows() throws Exception {
+        var out = new ByteArrayOutputStream();
+        try (var csv = new CsvCallRecord(out)) {
+            csv.appendHeader();
+            csv.appendRow(callRecord(T, 3, 1500, 0, "метод"));
+            csv.appendRow(callRecord(T.plusSeconds(1), 1, 20, -7, null));
+            csv.flush();
+        }
+
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("Start timestamp ; Duration ; "));
+        // the queue wait time (1 ms) is a part of the duration
+        assertTrue(lines[1].startsWith("2024-03-01 10:00:00 ; 1501 ; 0 ; 2 ; 1 ; 3 ; 12 ; 10 ; 7 ; 1234000 ; 10000 ; 7000 ; 200000 ; 198000 ; "),
+                lines[1]);
+        assertTrue(lines[1].endsWith(" ; метод ; "));
+        assertTrue(lines[2].startsWith("2024-03-01 10:00:01 ; 21 ; -7 ; "));
+        assertTrue(lines[2].endsWith(" ; null ; "));
+    }
+
+    @Test
+    void writesXlsxRowsWithLinkFormulas() throws Exception {
+        var out = new ByteArrayOutputStream();
+        String pod;
+        try (var xls = new XlsCallRecord("http://host", out)) {
+            xls.appendHeader();
+            for (int i = 0; i < 500; i++) { // more than kept in memory
+                xls.appendRow(callRecord(T.plusSeconds(i), 1, i, 0, "method" + i));
+            }
+            pod = callRecord(T, 1, 1, 0, "").pod().oldPodName();
+            xls.flush();
+        }
+
+        try (var wb = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            var sheet = wb.getSheetAt(0);
+            assertEquals(500, sheet.getLastRowNum());
+            var row = sheet.getRow(500);
+            assertEquals("HYPERLINK(\"http://host/esc/tree.html#params-trim-size=15000&f[_0]=" + pod + "&i=0_traceRecordId\",\"details\")",
+                    row.getCell(0).getCellFormula());
+            assertEquals(500, row.getCell(2).getNumericCellValue()); // 499 + queue wait
+            assertEquals("method499", row.getCell(18).getStringCellValue());
+        }
+    }
+
+    @Test
+    void splitsLongFormulaStrings() {
+        assertEquals("\"a\"\"b\"", XlsCallRecord.formulaString("a\"b"));
+        var parts = XlsCallRecord.formulaString("x".repeat(300)).split("&");
+        assertEquals(2, parts.length);
+        assertEquals(257, parts[0].length());
+        assertEquals(47, parts[1].length());
+    }
+}
@@ -0,0 +1,109 @@
+package com.netcracker.cdt.ui.services.calls.view;
+
+import com.netcracker.cdt.ui.models.UiServiceConfig;
+import com.netcracker.cdt.ui.services.calls.CallsListRequest;
+import com.netcracker.cdt.ui.services.calls.tasks.CallsMetaLoader;
+import com.netcracker.cdt.ui.services.calls.tasks.ReloadTask;
+import com.netcracker.cdt.ui.services.calls.tasks.ReloadTaskState;
+import com.netcracker.common.models.DurationRange;
+import com.netcracker.common.models.TimeRange;
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class ClientWindowInfoTest {
+    static final Instant T = Instant.parse("2024-03-01T10:00:00Z");
+    static final Executor SAME_THREAD = Runnable::run;
+
+    final List<ReloadTaskState> started = new ArrayList<>();
+    int timeoutMs = 0;
+
+    final UiServiceConfig config = new UiServiceConfig() {
+        @Override
+        public int getMaxRequestTime() {
+            return timeoutMs;
+        }
+
+        @Override
+        public int getUiMaxLimit() {
+            return 1000;
+        }
+    };
+
+    final CallsMetaLoader loader = new CallsMetaLoader() {
+        @Override
+        public ReloadTask createTask(CallsMetaLoader metaLoader, CallsListRequest newRequest, int concurrent) {
+            return new ReloadTask() { // finished by the test
+                final ReloadTaskState state = new ReloadTaskState(newRequest.windowId(), 0);
+
+                @Override
+                public void run() {
+                    started.add(state);
+                }
+
+                @Override
+                public ReloadTaskState prepare() {
+                    return state;
+                }
+            };
+        }
+    };
+
+    static CallsListRequest request(int minutes) {
+        return new CallsListRequest("w1", -1, TimeRange.of(T, T.plusSeconds(60L * minutes)),
+                DurationRange.ofSeconds(1, 100), "", "", List.of(), 0, 100, 0, false);
+    }
+
+    @Test
+    void requestsOfSameSearchShareIt() {
+        var window = new ClientWindowInfo(config, "w1");
+        var first = window.reloadData(loader, request(5), 1, SAME_THREAD).subscribeAsCompletionStage();
+        var second = window.reloadData(loader, request(5), 1, SAME_THREAD).subscribeAsCompletionStage();
+
+        assertEquals(1, started.size());
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+
+        started.get(0).finish();
+        assertSame(started.get(0), first.join());
+        assertSame(started.get(0), second.join());
+        assertFalse(started.get(0).isCancelled());
+    }
+
+    @Test
+    void newSearchCancelsPreviousOne() {
+        var window = new ClientWindowInfo(config, "w1");
+        var first = window.reloadData(loader, request(5), 1, SAME_THREAD).subscribeAsCompletionStage();
+        window.reloadData(loader, request(10), 1, SAME_THREAD);
+
+        assertEquals(2, started.size());
+        assertTrue(started.get(0).isCancelled());
+        assertSame(started.get(0), first.join()); // cancelled search is finished with what it has found
+        assertFalse(started.get(1).isFinished());
+
+        window.cancel(); // evicted from the cache
+        assertTrue(started.get(1).isCancelled());
+    }
+
+    @Test
+    void servesPartialResultsAfterTimeout() {
+        timeoutMs = 50;
+        var window = new ClientWindowInfo(config, "w1");
+        var state = window.reloadData(loader, request(5), 1, SAME_THREAD)
+                .await().atMost(Duration.ofSeconds(5));
+
+        assertSame(started.get(0), state);
+        assertFalse(state.isFinished());
+        var response = window.asResponse(request(5), state);
+        assertFalse(response.status().finished());
+        assertTrue(response.calls().isEmpty());
+    }
+}
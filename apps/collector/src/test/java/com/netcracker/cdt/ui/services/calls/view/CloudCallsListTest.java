@@ -0,0 +1,88 @@
+package com.netcracker.cdt.ui.services.calls.view;
+
+import com.netcracker.cdt.ui.services.calls.models.CallRecord;
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static com.netcracker.cdt.ui.services.calls.models.Utils.callRecord;
+import static com.netcracker.common.Consts.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CloudCallsListTest {
+    static final Instant T = Instant.parse("2024-03-01T10:00:00Z");
+
+    static List<CallRecord> calls(int from, int to, Random rnd) {
+        var list = new ArrayList<CallRecord>();
+        for (int i = from; i < to; i++) {
+            list.add(callRecord(T.plusMillis(i), rnd.nextInt(5), rnd.nextInt(1000), rnd.nextInt(100), "method" + i));
+        }
+        return list;
+    }
+
+    @Test
+    void sortsAppendedCalls() {
+        var rnd = new Random(42);
+        var list = CloudCallsList.create();
+        var expected = new ArrayList<CallRecord>();
+        for (int batch = 0; batch < 5; batch++) {
+            var calls = calls(batch * 300, (batch + 1) * 300, rnd);
+            list.setCalls(calls);
+            expected.addAll(calls);
+
+            for (int column : new int[]{C_TIME, C_DURATION, C_CPU_TIME, C_CALLS}) {
+                for (boolean asc : new boolean[]{true, false}) {
+                    list.sortCalls(column, asc);
+                    expected.sort(CallRecord.comparator(column, asc));
+                    assertEquals(expected, list.all(), "column " + column + ", asc " + asc);
+                }
+            }
+        }
+    }
+
+    @Test
+    void countsAndPagesMatchingCalls() {
+        var list = CloudCallsList.create();
+        list.setCalls(calls(0, 1000, new Random(1)));
+        list.sortCalls(C_DURATION, false);
+
+        Predicate<CallRecord> matcher = cr -> cr.cpuTime() < 50;
+        var expected = list.all().stream().filter(matcher).toList();
+        assertTrue(expected.size() > 100);
+        assertEquals(expected.size(), list.count(matcher));
+        assertEquals(expected.subList(0, 100), list.filter(matcher, 0, 100));
+        assertEquals(expected.subList(100, 200), list.filter(matcher, 100, 100));
+        assertEquals(expected.subList(expected.size() - 10, expected.size()), list.filter(matcher, expected.size() - 10, 100));
+        assertEquals(List.of(), list.filter(matcher, expected.size(), 100));
+
+        // the selection of the same predicate is kept up to date
+        var more = calls(1000, 1100, new Random(2));
+        list.setCalls(more);
+        assertEquals(expected.size() + more.stream().filter(matcher).count(), list.count(matcher));
+    }
+
+    @Test
+    void skipsDuplicatesAndSortsByPod() {
+        var list = CloudCallsList.create();
+        var calls = calls(0, 10, new Random(3));
+        list.setCalls(calls);
+        list.setCalls(calls.subList(5, 10));
+        assertEquals(10, list.count());
+
+        list.sortCalls(C_FOLDER_ID, true);
+        var sorted = new ArrayList<>(calls);
+        sorted.sort(Comparator.naturalOrder());
+        assertEquals(sorted, list.all());
+
+        list.sortCalls(C_METHOD, true); // not sortable, keeps the previous order
+        assertEquals(sorted, list.page(1, 100));
+        assertEquals(sorted.subList(2, 4), list.page(2, 2));
+    }
+}
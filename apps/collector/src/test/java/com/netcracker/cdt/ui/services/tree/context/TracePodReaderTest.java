@@ -2,13 +2,20 @@
 
 import com.netcracker.cdt.ui.services.tree.context.TracePodReader;
 import com.netcracker.cdt.ui.services.tree.context.TreeTraceBuilder;
+import com.netcracker.cdt.ui.services.tree.CallTreeRequest;
+import com.netcracker.common.models.StreamType;
+import com.netcracker.common.models.SuspendRange;
+import com.netcracker.common.models.meta.DictionaryIndex;
 import com.netcracker.profiler.model.TreeRowId;
+import com.netcracker.profiler.sax.io.DataInputStreamEx;
 import com.netcracker.utils.UnitTest;
 import com.netcracker.utils.Utils;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
-import java.util.BitSet;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.netcracker.utils.Utils.setOf;
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,4 +43,46 @@ void parseTrace() throws IOException {
         assertEquals(1691167327796L, ttv.getTime());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void readsFilesOfPodRestartWithSharedMeta() {
+        var opened = new ConcurrentHashMap<StreamType, AtomicInteger>();
+        var metaLoads = new AtomicInteger();
+        var loader = new TreeDataLoader() {
+            @Override
+            public DataInputStreamEx openDataInputStream(String podReference, StreamType streamType, int rollingSequenceId) {
+                opened.computeIfAbsent(streamType, k -> new AtomicInteger()).incrementAndGet();
+                var name = streamType == StreamType.TRACE ? "traces" : streamType.name().toLowerCase();
+                return Utils.testRawDataStream("binary/u5min-service." + name + ".0.bin");
+            }
+
+            @Override
+            public void loadSuspendLog(SuspendRange range, String podReference, long start, long end) {
+            }
+
+            @Override
+            public void loadMeta(DictionaryIndex idx, String podReference, BitSet tagIds) {
+                metaLoads.incrementAndGet();
+            }
+        };
+        var request = new CallTreeRequest(0, false, 15000, 15000, 0, "treedata", null, null, null,
+                Map.of(), List.of(), 0, Long.MAX_VALUE);
+        // both files serve the same data, so their calls refer to the same clobs
+        var rows = new ArrayList<>(List.of(
+                new TreeRowId(1, "1_2_8281_0_0_0", 2, 8281, 0),
+                new TreeRowId(1, "1_1_8281_0_0_0", 1, 8281, 0),
+                new TreeRowId(1, "1_1_8_0_0_0", 1, 8, 0)));
+
+        var tree = new TracePodReader(loader, request, "test").readTraces(rows, 0, Long.MAX_VALUE);
+
+        assertNotNull(tree);
+        assertEquals(1, metaLoads.get());
+        assertEquals(2, opened.get(StreamType.TRACE).get());
+        assertEquals(1, opened.get(StreamType.SQL).get());
+        assertEquals(1, opened.get(StreamType.XML).get());
+        var clobs = new ArrayList<>(tree.getClobValues().getClobs());
+        assertEquals(2, clobs.size());
+        assertEquals("select * from active_pods where active_during_hour = ?", clobs.get(0).get());
+        assertEquals("TIMESTAMP: active_during_hour: 2023-08-04T16:00:00Z\n", clobs.get(1).get());
+    }
+}
@@ -0,0 +1,128 @@
+package com.netcracker.cdt.ui.services.tree.data;
+
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class HotspotTest {
+
+    static Hotspot chain(int depth, int count) {
+        var root = new Hotspot(-1);
+        var node = root;
+        for (int i = 0; i < depth; i++) {
+            node = node.getOrCreateChild(i);
+            node.count = count;
+            node.totalTime = count;
+        }
+        return root;
+    }
+
+    @Test
+    void findsChildrenOfWideNode() {
+        var root = new Hotspot(-1);
+        var created = new ArrayList<Hotspot>();
+        for (int i = 0; i < 100; i++) {
+            created.add(root.getOrCreateChild(i * 7));
+        }
+        for (int i = 99; i >= 0; i--) {
+            assertSame(created.get(i), root.getOrCreateChild(i * 7));
+        }
+        assertEquals(created, root.children);
+
+        // renderers change the list directly
+        var removed = root.children.remove(50);
+        var replacement = new Hotspot(1);
+        root.children.add(replacement);
+        assertSame(replacement, root.getOrCreateChild(1));
+        assertNotSame(removed, root.getOrCreateChild(removed.id));
+        assertEquals(101, root.children.size());
+    }
+
+    @Test
+    void findsReplacedMiddleChild() {
+        var root = new Hotspot(-1);
+        for (int i = 0; i < 20; i++) {
+            root.getOrCreateChild(i);
+        }
+        var replacement = new Hotspot(100);
+        var replaced = root.children.set(10, replacement);
+
+        assertSame(replacement, root.getOrCreateChild(100));
+        assertNotSame(replaced, root.getOrCreateChild(replaced.id));
+        assertEquals(21, root.children.size());
+    }
+
+    @Test
+    void findsChildrenOfListSetByRenderer() {
+        var root = new Hotspot(-1);
+        root.children = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            root.children.add(new Hotspot(i));
+        }
+        var child = root.children.get(15);
+
+        assertSame(child, root.getOrCreateChild(15));
+        root.children.set(15, new Hotspot(100));
+        assertSame(root.children.get(15), root.getOrCreateChild(100));
+        assertEquals(20, root.children.size());
+    }
+
+    @Test
+    void mergesWideTrees() {
+        var a = new Hotspot(-1);
+        var b = new Hotspot(-1);
+        for (int i = 0; i < 50; i++) {
+            a.getOrCreateChild(i).count = 1;
+            b.getOrCreateChild(i + 25).count = 2;
+        }
+        b.getOrCreateChild(30).getOrCreateChild(5).count = 3;
+
+        a.mergeWithChildren(b);
+
+        assertEquals(75, a.children.size());
+        for (int i = 0; i < 75; i++) {
+            var child = a.children.get(i);
+            assertEquals(i, child.id);
+            assertEquals(i < 25 ? 1 : i < 50 ? 3 : 2, child.count);
+        }
+        assertEquals(3, a.getOrCreateChild(30).getOrCreateChild(5).count);
+    }
+
+    @Test
+    void mergesTagsOfSameValue() {
+        var a = new Hotspot(1);
+        var b = new Hotspot(1);
+        a.tag(0, 5, 0, "x", 0);
+        b.tag(0, 5, 0, "x", 0);
+        b.tag(0, 6, 0, "y", 0);
+
+        a.mergeWithChildren(b);
+
+        assertEquals(2, a.tags.size());
+        assertEquals(2, a.tags.get(new HotspotTag(5, "x", 0)).count);
+    }
+
+    @Test
+    void handlesDeepTreesWithoutRecursion() {
+        int depth = 200_000;
+        var a = chain(depth, 1);
+        var b = chain(depth, 2);
+
+        b.remap(new int[]{0, 1}); // same ids
+        a.mergeWithChildren(b, List.of());
+        a.calculateTotalExecutions();
+
+        var node = a;
+        for (int i = 0; i < depth; i++) {
+            node = node.children.get(0);
+            assertEquals(3, node.count);
+        }
+        assertNull(node.children);
+        assertEquals(3L * (depth - 1), a.children.get(0).childCount);
+    }
+}
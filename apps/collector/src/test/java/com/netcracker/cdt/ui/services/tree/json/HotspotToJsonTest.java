@@ -0,0 +1,49 @@
+package com.netcracker.cdt.ui.services.tree.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.netcracker.cdt.ui.services.tree.data.Hotspot;
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class HotspotToJsonTest {
+
+    static String render(Hotspot root, int maxNestLevel) throws Exception {
+        var out = new StringWriter();
+        try (var gen = new JsonFactory().createGenerator(out)) {
+            new HotspotToJson(Map.of(), maxNestLevel).serialize(root, gen);
+        }
+        return out.toString();
+    }
+
+    static Hotspot chain(int depth) {
+        var root = new Hotspot(-1);
+        root.startTime = 0;
+        var node = root;
+        for (int i = 1; i <= depth; i++) {
+            node = node.getOrCreateChild(i);
+            node.count = 1;
+            node.totalTime = 10;
+            node.startTime = 0;
+            node.endTime = 10;
+        }
+        root.calculateTotalExecutions();
+        return root;
+    }
+
+    @Test
+    void movesDeepSubtreesToFunctionsAfterTree() throws Exception {
+        var js = render(chain(5), 2);
+        assertEquals("""
+                [-1,0,-10,0,0,0,5,0,-9223372036854775808,0,0,0,0,0,0,0,[[1,10,0,0,0,1,4,0,10,0,0,0,0,0,0,0,\
+                [[2,10,0,0,0,1,3,0,10,0,0,0,0,0,0,0,d1(),2]],3]],0];
+                function d1(){return [[3,10,0,0,0,1,2,0,10,0,0,0,0,0,0,0,[[4,10,0,0,0,1,1,0,10,0,0,0,0,0,0,0,d2(),0]],1]]}
+                function d2(){return [[5,10,10,0,0,1,0,0,10,0,0,0,0,0,0,0]
+                ]}""", js);
+    }
+}
@@ -1,12 +1,78 @@
 package com.netcracker.cdt.ui.services.tree.json;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.netcracker.cdt.ui.services.tree.data.Hotspot;
+import com.netcracker.cdt.ui.services.tree.data.ProfiledTree;
+import com.netcracker.common.models.meta.ClobIndex;
+import com.netcracker.common.models.meta.DictionaryIndex;
+import com.netcracker.utils.UnitTest;
+import gnu.trove.TLongHashSet;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringWriter;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
+@UnitTest
 class TreeToJsonTest {
 
+    static String serialize(ProfiledTree tree) throws Exception {
+        var out = new StringWriter();
+        try (var gen = new JsonFactory().createGenerator(out)) {
+            new TreeToJson("t", 100).serialize(tree, gen);
+        }
+        return out.toString();
+    }
+
+    static Hotspot node(Hotspot parent, int id, long start) {
+        var hs = parent.getOrCreateChild(id);
+        hs.count = 1;
+        hs.totalTime = 10;
+        hs.startTime = start;
+        hs.endTime = start + 10;
+        return hs;
+    }
+
+    @Test
+    void serialize() throws Exception {
+        var tree = new ProfiledTree(new DictionaryIndex(), new ClobIndex(100));
+        var root = tree.getRoot();
+        var a = node(root, 1, 1);
+        var b = node(root, 2, 2);
+        var c = node(a, 3, 3);
+        node(c, 4, 4);
+        // `c` continues the assembly started in `b`
+        c.lastParentAssemblyId = 5;
+        b.lastAssemblyId = new TLongHashSet();
+        b.lastAssemblyId.add(5);
+        b.lastAssemblyId.add(6);
+
+        var js = serialize(tree);
+
+        assertNull(a.children);
+        assertEquals(List.of(c), b.children);
+        assertEquals(1, c.reactorCallId);
+        assertEquals(20, root.totalTime);
+        assertTrue(js.startsWith("var S=CT.sqls, B=CT.xmls;\nvar t;\n"), js);
+        assertTrue(js.contains("t = [-1,20,0,0,0,0,"), js);
+        assertTrue(js.endsWith("t = CT.append(t, []);\n"));
+    }
+
     @Test
-    void serialize() {
+    void keepsTreeWithoutAssemblies() throws Exception {
+        var tree = new ProfiledTree(new DictionaryIndex(), new ClobIndex(100));
+        var root = tree.getRoot();
+        var parent = root;
+        for (int i = 0; i < 10_000; i++) { // transformed without recursion
+            parent = node(parent, i % 7, i);
+        }
+        node(root, 100, 0);
+
+        var js = serialize(tree);
+
+        assertTrue(js.endsWith("t = CT.append(t, []);\n"));
+        assertEquals(2, root.children.size());
+        assertEquals(20, root.totalTime);
     }
-}
\ No newline at end of file
+}
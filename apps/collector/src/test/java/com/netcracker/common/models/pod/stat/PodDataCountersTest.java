@@ -0,0 +1,64 @@
+package com.netcracker.common.models.pod.stat;
+
+import com.netcracker.common.models.StreamType;
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class PodDataCountersTest {
+
+    @Test
+    void addsCountersToLoadedStatistics() {
+        var base = PodDataAccumulated.fromDb(Map.of("trace", 100L, "gc", 5L), Map.of("trace", 10L));
+        var counters = new PodDataCounters();
+        counters.append(StreamType.TRACE, true, 50);
+        counters.append(StreamType.TRACE, false, 7);
+        counters.append(StreamType.CALLS, true, 20);
+
+        var res = counters.addTo(base);
+        assertEquals(BlobSize.of(150, 17), res.map().get(StreamType.TRACE));
+        assertEquals(BlobSize.of(5, 0), res.map().get(StreamType.GC));
+        assertEquals(BlobSize.of(20, 0), res.map().get(StreamType.CALLS));
+        // the base is not changed, so the snapshot can be taken again
+        assertEquals(BlobSize.of(100, 10), base.map().get(StreamType.TRACE));
+        assertEquals(res.map(), counters.addTo(base).map());
+    }
+
+    @Test
+    void doesNotLoseConcurrentUpdates() throws InterruptedException {
+        var counters = new PodDataCounters();
+        int threads = 8;
+        int packets = 10_000;
+        var start = new CountDownLatch(1);
+        var workers = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            var stream = t % 2 == 0 ? StreamType.TRACE : StreamType.CALLS;
+            workers.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < packets; i++) {
+                    counters.append(stream, true, 3);
+                    counters.append(stream, false, 1);
+                }
+            }));
+        }
+        start.countDown();
+        for (var w : workers) {
+            w.join();
+        }
+
+        var res = counters.addTo(PodDataAccumulated.empty());
+        long perStream = (long) threads / 2 * packets;
+        assertEquals(BlobSize.of(3 * perStream, perStream), res.map().get(StreamType.TRACE));
+        assertEquals(BlobSize.of(3 * perStream, perStream), res.map().get(StreamType.CALLS));
+    }
+}
@@ -0,0 +1,82 @@
+package com.netcracker.common.models.pod.streams;
+
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class StreamCodecTest {
+
+    static byte[] traceLikeData() {
+        var sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("com.netcracker.service.Handler.process(Request) line ").append(i % 37)
+                    .append(" duration=").append(i * 7 % 1000).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Chunks as they are passed to the storage: the stream is flushed from time to time
+     */
+    static List<byte[]> compress(StreamCodec codec, byte[] data) throws IOException {
+        var chunks = new ArrayList<byte[]>();
+        var sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                var chunk = new byte[len];
+                System.arraycopy(b, off, chunk, 0, len);
+                chunks.add(chunk);
+            }
+        };
+        try (var out = codec.compress(sink)) {
+            for (int off = 0; off < data.length; off += 1000) {
+                out.write(data, off, Math.min(1000, data.length - off));
+                if (off % 10_000 == 0) {
+                    out.flush();
+                }
+            }
+        }
+        return chunks;
+    }
+
+    @ParameterizedTest
+    @EnumSource(StreamCodec.class)
+    void decodesConcatenatedChunks(StreamCodec codec) throws IOException {
+        var data = traceLikeData();
+        var all = new ByteArrayOutputStream();
+        compress(codec, data).forEach(all::writeBytes);
+
+        try (var in = codec.decompress(new ByteArrayInputStream(all.toByteArray()))) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+        if (codec != StreamCodec.NONE) {
+            assertTrue(all.size() < data.length / 4, codec + " compressed to " + all.size());
+        }
+    }
+
+    @Test
+    void ids() {
+        for (var codec : StreamCodec.values()) {
+            assertSame(codec, StreamCodec.byId(codec.id()));
+            assertSame(codec, StreamCodec.byName(codec.getName().toUpperCase()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> StreamCodec.byName("gzip"));
+    }
+}
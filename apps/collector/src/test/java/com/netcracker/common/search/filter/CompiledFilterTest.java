@@ -0,0 +1,97 @@
+package com.netcracker.common.search.filter;
+
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CompiledFilterTest {
+    static final List<String> WORDS = List.of("he", "she", "hers", "his", "Worker", "ПриВет", "вет", "a.b", "b");
+    static final List<String> PARAMS = List.of("web.url", "node.name", "nc.user");
+
+    static boolean interpret(FilterCondition c, String method, Map<String, List<String>> params) {
+        var res = c.start(true);
+        if (res.addGeneralString(method)) {
+            return false;
+        }
+        for (var e : params.entrySet()) {
+            if (res.addParameterValuesByName(e.getKey(), e.getValue())) {
+                return false;
+            }
+        }
+        return res.matches();
+    }
+
+    static String text(Random rnd) {
+        return IntStream.range(0, rnd.nextInt(4))
+                .mapToObj(i -> WORDS.get(rnd.nextInt(WORDS.size())).toUpperCase())
+                .collect(Collectors.joining("_"));
+    }
+
+    static String query(Random rnd) {
+        var terms = new ArrayList<String>();
+        for (int i = rnd.nextInt(5); i > 0; i--) {
+            var prefix = List.of("", "+", "-").get(rnd.nextInt(3));
+            var word = WORDS.get(rnd.nextInt(WORDS.size()));
+            terms.add(rnd.nextBoolean() ? prefix + word : prefix + "$" + PARAMS.get(rnd.nextInt(PARAMS.size())) + "=" + word);
+        }
+        return String.join(" ", terms);
+    }
+
+    @Test
+    void matchesLikeInterpretedCondition() {
+        var rnd = new Random(7);
+        for (int q = 0; q < 500; q++) {
+            var condition = FilterParser.parse(query(rnd));
+            var compiled = CompiledFilter.compile(condition, true);
+            for (int i = 0; i < 50; i++) {
+                var method = text(rnd);
+                var params = new HashMap<String, List<String>>();
+                for (var p : PARAMS) {
+                    if (rnd.nextBoolean()) {
+                        params.put(p, List.of(text(rnd), text(rnd)));
+                    }
+                }
+                assertEquals(interpret(condition, method, params), compiled.matches(method, params),
+                        () -> condition + " against " + method + " " + params);
+            }
+        }
+    }
+
+    @Test
+    void findsOverlappingKeywords() {
+        var compiled = CompiledFilter.compile(FilterParser.parse("+hers +she +his -this"), true);
+        assertTrue(compiled.matches("uSHErs_his", Map.of()));
+        assertFalse(compiled.matches("ushers_this", Map.of()));
+        assertFalse(compiled.matches("ushers", Map.of("web.url", List.of("tHIS"))));
+        assertTrue(CompiledFilter.compile(FilterParser.parse("привет"), true).matches("Hello.ПРИВЕТ", Map.of()));
+    }
+
+    @Test
+    void matchesParametersById() {
+        var condition = FilterParser.parse("+$param1=complex -$param2=ignored general")
+                .copyWithPopulatedIds(Map.of("param1", 1, "param2", 2));
+        var compiled = CompiledFilter.compile(condition, false);
+
+        assertTrue(compiled.matchesById(Map.of(1, List.of("Complex mandatory"))));
+        assertFalse(compiled.matchesById(Map.of(2, List.of("complex"))));
+        assertFalse(compiled.matchesById(Map.of(1, List.of("complex"), 2, List.of("ignored"))));
+        assertTrue(compiled.matchesById(Map.of(1, List.of("complex"), 3, List.of("ignored"))));
+        assertFalse(compiled.matchesById(null));
+    }
+
+    @Test
+    void interpretsTooManyKeywords() {
+        var query = IntStream.range(0, 70).mapToObj(i -> "+k" + i).collect(Collectors.joining(" "));
+        var compiled = CompiledFilter.compile(FilterParser.parse(query), true);
+        var all = IntStream.range(0, 70).mapToObj(i -> "k" + i).collect(Collectors.joining(" "));
+
+        assertTrue(compiled.matches(all, Map.of()));
+        assertFalse(compiled.matches(all.replace("k42", ""), Map.of()));
+    }
+}
@@ -309,7 +309,7 @@ public StreamRegistry registry(StreamType type, int seqId) {
 
         public ByteBuffer persistedDump(StreamType type, int seqId) throws IOException {
             var sr = registry(type, seqId);
-            var is = persistence.streams.getStream(sr);
+            var is = persistence.streams.getDecodedStream(sr);
             var bytes = IOUtils.toByteArray(is);
             assertNotEquals(0, bytes.length);
             return ByteBuffer.wrap(bytes);
@@ -1,10 +1,10 @@
 package com.netcracker.fixtures.cloud;
 
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 import java.security.SecureRandom;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
@@ -14,7 +14,7 @@
 @ApplicationScoped
 public class S3FilesTable {
     @Inject
-    Connection connection;
+    CloudDataSource dataSource;
 
     final String queryString = "INSERT INTO s3_files (start_time, end_time, file_type, dump_type, namespace, duration_range, " +
             "file_name, status, services, created_time, api_version, rows_count, file_size, " +
@@ -34,7 +34,7 @@ public void insertRecord(Instant start_time, Instant end_time, String file_type,
                              int api_version, int rows_count, long file_size,
                              String remote_storage_path, String local_file_path) throws SQLException {
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(queryString)) {
+        try (var connection = dataSource.ingest(); PreparedStatement preparedStatement = connection.prepareStatement(queryString)) {
             preparedStatement.setTimestamp(1, Timestamp.from(start_time));
             preparedStatement.setTimestamp(2, Timestamp.from(end_time));
             preparedStatement.setString(3, file_type);
@@ -52,7 +52,7 @@ public void insertRecord(Instant start_time, Instant end_time, String file_type,
             preparedStatement.setString(15, local_file_path);
             preparedStatement.setString(16, randomUuid());
             preparedStatement.executeUpdate();
+            connection.commit();
         }
-        connection.commit();
     }
 }
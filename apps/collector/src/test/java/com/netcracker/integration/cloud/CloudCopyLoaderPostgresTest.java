@@ -0,0 +1,131 @@
+package com.netcracker.integration.cloud;
+
+import com.netcracker.common.PersistenceType;
+import com.netcracker.integration.Profiles;
+import com.netcracker.persistence.adapters.cloud.CloudConnection;
+import com.netcracker.persistence.adapters.cloud.CloudCopyLoader;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.parallel.Execution;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
+
+/**
+ * COPY into the staging table and the move into `params` of init_db.sql, as CloudParamsDao does
+ */
+@QuarkusTest
+@TestProfile(Profiles.CloudTest.class)
+@LookupIfProperty(name = "service.persistence", stringValue = PersistenceType.CLOUD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Execution(SAME_THREAD)
+public class CloudCopyLoaderPostgresTest {
+    static final String COLUMNS = "pod_id, pod_name, restart_time, param_name, param_index, param_list, param_order, signature";
+    static final Instant RESTART = Instant.parse("2024-01-01T10:00:00Z");
+
+    record Param(String name, Boolean index, Integer order, String signature) {
+    }
+
+    @Inject
+    CloudDataSource dataSource;
+
+    static int load(CloudConnection connection, String pod, List<Param> params) throws SQLException {
+        return CloudCopyLoader.load(connection, "params", "params_staging", COLUMNS, params, (row, p) -> {
+            if (p.name().startsWith("broken")) {
+                throw new IllegalArgumentException("can't serialize " + p.name());
+            }
+            row.add(pod + "_1704103200000")
+                    .add(pod)
+                    .add(RESTART)
+                    .add(p.name())
+                    .add(p.index())
+                    .add(false)
+                    .add(p.order())
+                    .add(p.signature());
+        });
+    }
+
+    static List<Param> params(String prefix, int count) {
+        var list = new ArrayList<Param>();
+        for (int i = 0; i < count; i++) {
+            list.add(new Param(prefix + i, i % 2 == 0, i, "sig\t" + i));
+        }
+        return list;
+    }
+
+    Map<String, Param> stored(String pod) throws SQLException {
+        var res = new HashMap<String, Param>();
+        try (var connection = dataSource.query(); var ps = connection.prepareStatement(
+                "SELECT param_name, param_index, param_order, signature FROM params WHERE pod_name = ? AND restart_time = ?")) {
+            ps.setString(1, pod);
+            ps.setTimestamp(2, Timestamp.from(RESTART));
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    var name = rs.getString(1);
+                    res.put(name, new Param(name, (Boolean) rs.getObject(2), (Integer) rs.getObject(3), rs.getString(4)));
+                }
+            }
+        }
+        return res;
+    }
+
+    static long stagedRows(CloudConnection connection) throws SQLException {
+        try (var ps = connection.prepareStatement("SELECT count(*) FROM params_staging"); var rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Test
+    void skipsDuplicatesAndKeepsNulls() throws SQLException {
+        var pod = "copy-" + UUID.randomUUID();
+        var batch = params("p", 20);
+        batch.add(new Param("p3", false, 100, "duplicate in the same batch"));
+        batch.add(new Param("nulls", null, null, null));
+        batch.add(new Param("broken", true, 0, ""));
+
+        try (var connection = dataSource.ingest()) {
+            assertEquals(21, load(connection, pod, batch));
+            assertEquals(0, stagedRows(connection), "staging rows are deleted on commit");
+        }
+
+        var stored = stored(pod);
+        assertEquals(21, stored.size());
+        assertTrue(List.of(3, 100).contains(stored.get("p3").order()), "one of the rows with the same key");
+        assertEquals(new Param("p4", true, 4, "sig\t4"), stored.get("p4"));
+        assertEquals(new Param("nulls", null, null, null), stored.get("nulls"));
+        assertFalse(stored.containsKey("broken"));
+    }
+
+    @Test
+    void reusesStagingTableOfConnection() throws SQLException {
+        var pod = "copy-" + UUID.randomUUID();
+        try (var connection = dataSource.ingest()) {
+            assertEquals(10, load(connection, pod, params("a", 10)));
+            // the same session: the temp table exists already and is empty
+            var next = params("a", 10);
+            next.addAll(params("b", 5));
+            assertEquals(5, load(connection, pod, next), "rows stored before are not inserted again");
+            assertEquals(0, stagedRows(connection));
+        }
+        // the connection goes back to the pool with its temp table
+        try (var connection = dataSource.ingest()) {
+            assertEquals(5, load(connection, pod, params("c", 5)));
+        }
+        assertEquals(20, stored(pod).size());
+    }
+}
@@ -0,0 +1,89 @@
+package com.netcracker.integration.cloud;
+
+import com.netcracker.common.PersistenceType;
+import com.netcracker.common.models.meta.SuspendHickup;
+import com.netcracker.common.models.pod.PodIdRestart;
+import com.netcracker.integration.Profiles;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
+import com.netcracker.persistence.adapters.cloud.CloudTableGenerator;
+import com.netcracker.persistence.adapters.cloud.cdt.CloudSuspendEntity;
+import com.netcracker.persistence.adapters.cloud.dao.CloudSuspendDao;
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.parallel.Execution;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
+
+@QuarkusTest
+@TestProfile(Profiles.CloudTest.class)
+@LookupIfProperty(name = "service.persistence", stringValue = PersistenceType.CLOUD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Execution(SAME_THREAD)
+public class CloudSuspendStorageTest {
+    static final PodIdRestart POD = PodIdRestart.of("ns", "service", "pod-1_1700000000000");
+
+    @Inject
+    CloudDataSource dataSource;
+
+    @Inject
+    CloudSuspendDao suspendDao;
+
+    @BeforeAll
+    void createTables() throws SQLException {
+        // the collector saves to the table of the current slot, which the test may cross
+        long slot = CloudTableGenerator.getTimestampTruncatedToFiveMinutes();
+        createSuspendTable(slot);
+        createSuspendTable(slot + CloudTableGenerator.FIVE_MINUTES_IN_SECONDS);
+    }
+
+    void createSuspendTable(long slot) throws SQLException {
+        var name = "suspend_" + slot;
+        try (var connection = dataSource.ingest()) {
+            try (var ps = connection.prepareStatement("CREATE TABLE IF NOT EXISTS " + name + " (LIKE suspend INCLUDING ALL)")) {
+                ps.executeUpdate();
+            }
+            try (var ps = connection.prepareStatement("""
+                    INSERT INTO temp_table_inventory(uuid, start_time, end_time, status, table_type, table_name, created_time)
+                    VALUES (?, ?, ?, 'ready', 'suspend', ?, now())
+                    """)) {
+                var start = Instant.ofEpochSecond(slot);
+                ps.setString(1, UUID.randomUUID().toString());
+                ps.setTimestamp(2, Timestamp.from(start));
+                ps.setTimestamp(3, Timestamp.from(start.plusSeconds(CloudTableGenerator.FIVE_MINUTES_IN_SECONDS)));
+                ps.setString(4, name);
+                ps.executeUpdate();
+            }
+            connection.commit();
+        }
+    }
+
+    @Test
+    void findsInsertedHiccups() {
+        var minute = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(2, ChronoUnit.MINUTES);
+        suspendDao.insert(CloudSuspendEntity.prepare(List.of(
+                new SuspendHickup(POD, minute.plusMillis(1_000), 50),
+                new SuspendHickup(POD, minute.plusMillis(61_000), 20))));
+        // later batch of the same minute is merged into the stored row
+        suspendDao.insert(CloudSuspendEntity.prepare(List.of(
+                new SuspendHickup(POD, minute.plusMillis(30_000), 200))));
+
+        var range = suspendDao.find(POD, minute, minute.plusSeconds(120));
+        assertEquals(50 + 200 + 20, range.getSuspendDuration(minute.toEpochMilli(), minute.plusSeconds(120).toEpochMilli()));
+
+        var other = suspendDao.find(new PodIdRestart(POD.pod(), POD.restartTime().plusSeconds(1)), minute, minute.plusSeconds(120));
+        assertEquals(0, other.getSuspendDuration(minute.toEpochMilli(), minute.plusSeconds(120).toEpochMilli()));
+    }
+}
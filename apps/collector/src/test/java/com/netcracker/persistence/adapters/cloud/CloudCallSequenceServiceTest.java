@@ -0,0 +1,195 @@
+package com.netcracker.persistence.adapters.cloud;
+
+import com.netcracker.cdt.ui.rest.v2.dto.Requests;
+import com.netcracker.cdt.ui.services.calls.models.CallRecord;
+import com.netcracker.cdt.ui.services.calls.models.CloudCallsResult;
+import com.netcracker.cdt.ui.services.calls.tasks.ReloadTaskState;
+import com.netcracker.common.models.DurationRange;
+import com.netcracker.common.models.TimeRange;
+import com.netcracker.common.models.cloud.CloudStorageFilesModel;
+import com.netcracker.persistence.adapters.cloud.dao.CloudFilesDao;
+import com.netcracker.utils.UnitTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.runtime.configuration.MemorySize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.netcracker.cdt.ui.services.calls.models.Utils.callRecord;
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CloudCallSequenceServiceTest {
+    static final TimeRange RANGE = TimeRange.ofEpochMilli(0, Long.MAX_VALUE / 2);
+    static final DurationRange DURATIONS = DurationRange.ofMillis(0, 100_000);
+    static final int FILES = 8;
+    static final int PARALLELISM = 3;
+
+    @TempDir
+    Path cacheDir;
+
+    FakeFilesDao dao;
+    CloudCallSequenceService service;
+
+    @BeforeEach
+    void setUp() {
+        dao = new FakeFilesDao(FILES);
+        service = new CloudCallSequenceService();
+        service.cloudFilesDao = dao;
+        service.registry = new SimpleMeterRegistry();
+        service.s3CacheDir = cacheDir.toString();
+        service.cacheMaxSize = new MemorySize(BigInteger.valueOf(1 << 20));
+        service.cacheValidate = true;
+        service.cacheValidationInterval = Duration.ZERO;
+        service.parallelism = PARALLELISM;
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void loadsFilesInParallel() throws InterruptedException {
+        var state = new ReloadTaskState("w", 0).uiLimits(1000, 1000);
+        service.getCallSequence(List.of(), "", RANGE, DURATIONS, state);
+
+        awaitFinished(state);
+        assertEquals(FILES, state.getCallsList().count());
+        assertEquals(FILES, dao.downloads.get());
+        assertTrue(dao.maxConcurrent.get() > 1, "files should be loaded concurrently");
+        assertTrue(dao.maxConcurrent.get() <= PARALLELISM, "at most " + PARALLELISM + " files at once");
+    }
+
+    @Test
+    void returnsFirstPageBeforeSlowestFile() throws Exception {
+        dao.slow = dao.fileName(0);
+        var state = new ReloadTaskState("w", 0).uiLimits(1000, 2);
+        service.getCallSequence(List.of(), "", RANGE, DURATIONS, state);
+        state.firstPage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        // enough calls for the first page, but the slowest file is still being read
+        assertFalse(state.isFinished());
+        assertTrue(state.getCallsList().count() > 2);
+
+        dao.release.countDown();
+        awaitFinished(state);
+        assertEquals(FILES, state.getCallsList().count());
+    }
+
+    @Test
+    void reusesDownloadedFilesAndRecordsFailures() throws InterruptedException {
+        dao.broken = dao.link(2);
+        var state = new ReloadTaskState("w", 0).uiLimits(1000, 1000);
+        service.getCallSequence(List.of(), "", RANGE, DURATIONS, state);
+        awaitFinished(state);
+        assertEquals(FILES - 1, state.getCallsList().count());
+        assertEquals(1, state.getExceptions().size());
+
+        // the same files in the next search come from the local disk
+        state = new ReloadTaskState("w", 0).uiLimits(1000, 1000);
+        service.getCallSequence(List.of(), "", RANGE, DURATIONS, state);
+        awaitFinished(state);
+        assertEquals(FILES - 1, state.getCallsList().count());
+        assertEquals(FILES - 1, dao.downloads.get());
+    }
+
+    static void awaitFinished(ReloadTaskState state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!state.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(state.isFinished());
+    }
+
+    /**
+     * Files with a single call each, "downloaded" into the local cache directory
+     */
+    static class FakeFilesDao extends CloudFilesDao {
+        final int files;
+        final AtomicInteger downloads = new AtomicInteger();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile String slow;
+        volatile String broken;
+
+        FakeFilesDao(int files) {
+            this.files = files;
+        }
+
+        String fileName(int i) {
+            return "calls-" + i + ".parquet";
+        }
+
+        String link(int i) {
+            return "remote/" + fileName(i);
+        }
+
+        @Override
+        public List<CloudStorageFilesModel> getCloudFiles(List<Requests.Service> serviceQuery, TimeRange range,
+                                                          DurationRange durationRange) {
+            var result = new ArrayList<CloudStorageFilesModel>();
+            for (int i = 0; i < files; i++) {
+                result.add(new CloudStorageFilesModel(fileName(i), "ns", 0, 1, Timestamp.from(Instant.EPOCH),
+                        link(i), null, "completed"));
+            }
+            return result;
+        }
+
+        @Override
+        public String etag(String cloudLinkToFile) {
+            return "v1-1";
+        }
+
+        @Override
+        public void downloadCloudFile(String cloudLinkToFile, String localFilePath) throws IOException {
+            if (cloudLinkToFile.equals(broken)) {
+                throw new IOException("no such object: " + cloudLinkToFile);
+            }
+            downloads.incrementAndGet();
+            Files.writeString(Path.of(localFilePath), cloudLinkToFile);
+        }
+
+        @Override
+        public CloudCallsResult getCalls(List<Requests.Service> services, String queryFilter, TimeRange range,
+                                         DurationRange durationRange, String cloudFile) throws IOException {
+            int now = concurrent.incrementAndGet();
+            maxConcurrent.accumulateAndGet(now, Math::max);
+            try {
+                // the local copy is named after the link
+                var name = URLDecoder.decode(Path.of(cloudFile).getFileName().toString(), StandardCharsets.UTF_8);
+                if (slow != null && name.endsWith(slow)) {
+                    release.await(10, TimeUnit.SECONDS);
+                } else {
+                    Thread.sleep(50);
+                }
+                int i = Integer.parseInt(name.replaceAll("\\D", ""));
+                CallRecord call = callRecord(Instant.ofEpochMilli(1000L * i), 1, 10 + i, 1, "method-" + i);
+                return new CloudCallsResult(List.of(call), 1, 1, Set.of(call.pod()));
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        }
+    }
+}
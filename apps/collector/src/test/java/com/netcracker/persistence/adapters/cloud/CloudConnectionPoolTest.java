@@ -0,0 +1,125 @@
+package com.netcracker.persistence.adapters.cloud;
+
+import com.netcracker.utils.UnitTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CloudConnectionPoolTest {
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void reusesReleasedConnection() throws SQLException {
+        var pool = pool(2, Duration.ofMinutes(1));
+        try (var c = pool.acquire()) {
+            c.commit();
+        }
+        try (var c = pool.acquire()) {
+            c.commit();
+        }
+        assertEquals(1, opened.size());
+        assertEquals(2, opened.get(0).commits);
+        assertEquals(0, registry.get(CloudConnectionPool.POOL_ACTIVE).gauge().value());
+        assertEquals(1, registry.get(CloudConnectionPool.POOL_IDLE).gauge().value());
+    }
+
+    @Test
+    void failsWhenExhausted() throws SQLException {
+        var pool = pool(1, Duration.ofMinutes(1));
+        try (var ignored = pool.acquire()) {
+            assertThrows(SQLTransientConnectionException.class, pool::acquire);
+        }
+        assertEquals(1, registry.get(CloudConnectionPool.POOL_TIMEOUTS).counter().count());
+        try (var c = pool.acquire()) {
+            assertNotNull(c);
+        }
+    }
+
+    @Test
+    void replacesBrokenConnection() throws SQLException {
+        var pool = pool(1, Duration.ZERO);
+        try (var ignored = pool.acquire()) {
+            opened.get(0).valid = false; // e.g. postgres has been restarted
+        }
+        try (var c = pool.acquire()) {
+            c.commit();
+        }
+        assertEquals(2, opened.size());
+        assertTrue(opened.get(0).closed);
+        assertEquals(1, opened.get(1).commits);
+        assertEquals(1, registry.get(CloudConnectionPool.POOL_BROKEN).counter().count());
+    }
+
+    @Test
+    void dropsConnectionFailedOnRelease() throws SQLException {
+        var pool = pool(1, Duration.ofMinutes(1));
+        try (var ignored = pool.acquire()) {
+            opened.get(0).failRollback = true;
+        }
+        try (var ignored = pool.acquire()) {
+            assertEquals(2, opened.size());
+        }
+        assertEquals(1, registry.get(CloudConnectionPool.POOL_BROKEN).counter().count());
+    }
+
+    @Test
+    void shutdownIsNotCountedAsBroken() throws SQLException {
+        var pool = pool(2, Duration.ofMinutes(1));
+        var borrowed = pool.acquire();
+        pool.acquire().close();
+        pool.close();
+        borrowed.close(); // released after the shutdown
+
+        assertTrue(opened.get(0).closed);
+        assertTrue(opened.get(1).closed);
+        assertEquals(0, registry.get(CloudConnectionPool.POOL_BROKEN).counter().count());
+    }
+
+    private CloudConnectionPool pool(int size, Duration validationInterval) {
+        return new CloudConnectionPool("test", this::open, size, Duration.ofMillis(50), validationInterval, registry);
+    }
+
+    private Connection open() {
+        var fake = new FakeConnection();
+        opened.add(fake);
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "isValid" -> fake.valid;
+                    case "isClosed" -> fake.closed;
+                    case "commit" -> {
+                        fake.commits++;
+                        yield null;
+                    }
+                    case "rollback" -> {
+                        if (fake.failRollback) {
+                            throw new SQLException("connection reset");
+                        }
+                        yield null;
+                    }
+                    case "close" -> {
+                        fake.closed = true;
+                        yield null;
+                    }
+                    default -> null;
+                });
+    }
+
+    private static class FakeConnection {
+        boolean valid = true;
+        boolean closed = false;
+        boolean failRollback = false;
+        int commits = 0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.netcracker.persistence.adapters.cloud;
+
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CloudCopyLoaderTest {
+
+    @Test
+    void textFormat() {
+        var row = new CloudCopyLoader.CopyRow();
+        row.add("pod-1").add(42).add(7L).add(true).add(Instant.parse("2024-01-02T03:04:05.678Z")).add((String) null);
+        row.end();
+        assertEquals("pod-1\t42\t7\tt\t2024-01-02T03:04:05.678Z\t\\N\n", row.text());
+    }
+
+    @Test
+    void escapesSpecialCharacters() {
+        var row = new CloudCopyLoader.CopyRow();
+        row.add("a\tb\nc\\d\re").add("{\"1\": [\"x\\\\y\"]}");
+        row.end();
+        assertEquals("a\\tb\\nc\\\\d\\re\t{\"1\": [\"x\\\\\\\\y\"]}\n", row.text());
+    }
+
+    @Test
+    void discardsPartialRow() {
+        var row = new CloudCopyLoader.CopyRow();
+        row.add("first").add(1);
+        row.end();
+        row.add("second");
+        row.discard();
+        row.add("third").add(3);
+        row.end();
+        assertEquals("first\t1\nthird\t3\n", row.text());
+    }
+}
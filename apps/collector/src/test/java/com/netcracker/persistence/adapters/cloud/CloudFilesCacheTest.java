@@ -0,0 +1,268 @@
+package com.netcracker.persistence.adapters.cloud;
+
+import com.netcracker.utils.UnitTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.netcracker.persistence.adapters.cloud.CloudFilesCache.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CloudFilesCacheTest {
+    static final int FILE_SIZE = 100;
+
+    @TempDir
+    Path dir;
+
+    FakeStorage storage;
+    SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        storage = new FakeStorage();
+        registry = new SimpleMeterRegistry();
+    }
+
+    CloudFilesCache cache(long maxBytes) {
+        return cache(maxBytes, Duration.ZERO);
+    }
+
+    CloudFilesCache cache(long maxBytes, Duration validationInterval) {
+        var cache = new CloudFilesCache(dir, maxBytes, true, validationInterval, storage, registry);
+        cache.init();
+        return cache;
+    }
+
+    @Test
+    void reusesDownloadedFile() throws IOException {
+        var cache = cache(10 * FILE_SIZE);
+        var first = get(cache, "ns/2024/10/24/10/calls.parquet");
+        var second = get(cache, "ns/2024/10/24/10/calls.parquet");
+
+        assertEquals(first, second);
+        assertEquals("ns/2024/10/24/10/calls.parquet", Files.readString(first).strip());
+        assertEquals(1, storage.downloads.get());
+        assertEquals(1, count(CACHE_MISSES));
+        assertEquals(1, count(CACHE_HITS));
+    }
+
+    @Test
+    void sameFileNameInDifferentFolders() throws IOException {
+        var cache = cache(10 * FILE_SIZE);
+        var a = get(cache, "ns/2024/10/24/10/calls.parquet");
+        var b = get(cache, "ns/2024/10/24/11/calls.parquet");
+
+        assertNotEquals(a, b);
+        assertEquals("ns/2024/10/24/11/calls.parquet", Files.readString(b).strip());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() throws IOException {
+        var cache = cache(2 * FILE_SIZE);
+        var a = get(cache, "a.parquet");
+        var b = get(cache, "b.parquet");
+        get(cache, "a.parquet");
+        get(cache, "c.parquet");
+
+        assertEquals(2, cache.count());
+        assertEquals(2 * FILE_SIZE, cache.size());
+        assertTrue(Files.exists(a));
+        assertFalse(Files.exists(b));
+        assertEquals(1, count(CACHE_EVICTIONS));
+        assertEquals(2 * FILE_SIZE, registry.get(CACHE_SIZE).gauge().value());
+    }
+
+    @Test
+    void keepsFileLargerThanBudget() throws IOException {
+        var cache = cache(FILE_SIZE / 2);
+        var a = get(cache, "a.parquet");
+
+        assertTrue(Files.exists(a));
+        var b = get(cache, "b.parquet");
+        assertFalse(Files.exists(a));
+        assertTrue(Files.exists(b));
+    }
+
+    @Test
+    void downloadsChangedObjectAgain() throws IOException {
+        var cache = cache(10 * FILE_SIZE);
+        get(cache, "a.parquet");
+        storage.version.incrementAndGet();
+        get(cache, "a.parquet");
+
+        assertEquals(2, storage.downloads.get());
+        assertEquals(2, count(CACHE_MISSES));
+    }
+
+    @Test
+    void validatesOncePerInterval() throws IOException {
+        var cache = cache(10 * FILE_SIZE, Duration.ofHours(1));
+        get(cache, "a.parquet");
+        get(cache, "a.parquet");
+        storage.version.incrementAndGet();
+        get(cache, "a.parquet");
+
+        assertEquals(1, storage.etags.get(), "only the download asks for the ETag");
+        assertEquals(1, storage.downloads.get());
+        assertEquals(2, count(CACHE_HITS));
+    }
+
+    @Test
+    void rejectsCorruptedDownload() throws IOException {
+        var cache = cache(10 * FILE_SIZE);
+        storage.corrupt = true;
+
+        assertThrows(IOException.class, () -> get(cache, "a.parquet"));
+        assertEquals(0, cache.count());
+        try (var files = Files.list(dir)) {
+            assertEquals(0, files.count(), "partial download should be removed");
+        }
+
+        storage.corrupt = false;
+        assertTrue(Files.exists(get(cache, "a.parquet")));
+    }
+
+    @Test
+    void sharesConcurrentDownloads() throws Exception {
+        var cache = cache(10 * FILE_SIZE);
+        storage.gate = new CountDownLatch(1);
+        try (var pool = Executors.newFixedThreadPool(4)) {
+            var futures = new ArrayList<Future<Path>>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(pool.submit(() -> get(cache, "a.parquet")));
+            }
+            Thread.sleep(100);
+            storage.gate.countDown();
+            for (var f : futures) {
+                assertNotNull(f.get(10, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, storage.downloads.get());
+        assertEquals(1, count(CACHE_MISSES));
+        // the ones which came after the download have found the file in the cache
+        assertEquals(3, count(CACHE_JOINED) + count(CACHE_HITS));
+    }
+
+    @Test
+    void recoversFilesFromPreviousRun() throws IOException {
+        var previous = cache(10 * FILE_SIZE);
+        var a = get(previous, "a.parquet");
+        Files.writeString(dir.resolve(localName("b.parquet") + PART_SUFFIX), "interrupted");
+        Files.writeString(dir.resolve("unrelated.txt"), "not a cached file");
+
+        var cache = cache(10 * FILE_SIZE);
+        assertEquals(1, cache.count());
+        assertEquals(a, get(cache, "a.parquet"));
+        assertEquals(1, storage.downloads.get(), "checksum of the recovered file matches the object");
+        assertFalse(Files.exists(dir.resolve(localName("b.parquet") + PART_SUFFIX)));
+        assertTrue(Files.exists(dir.resolve("unrelated.txt")));
+    }
+
+    /**
+     * Path of the object, released at once
+     */
+    static Path get(CloudFilesCache cache, String link) throws IOException {
+        try (var file = cache.get(link)) {
+            return file.path();
+        }
+    }
+
+    @Test
+    void keepsFilesBeingRead() throws IOException {
+        var cache = cache(FILE_SIZE);
+        try (var a = cache.get("a.parquet")) {
+            var b = get(cache, "b.parquet");
+            var c = get(cache, "c.parquet");
+
+            assertTrue(Files.exists(a.path()), "pinned file is not deleted");
+            assertFalse(Files.exists(b));
+            assertTrue(Files.exists(c));
+            assertEquals(2 * FILE_SIZE, cache.size());
+        }
+        // evicted as soon as it's released
+        assertEquals(1, cache.count());
+        assertEquals(FILE_SIZE, cache.size());
+        assertTrue(Files.exists(dir.resolve(localName("c.parquet"))));
+        assertFalse(Files.exists(dir.resolve(localName("a.parquet"))));
+    }
+
+    @Test
+    void outdatedFileBeingReadIsReplaced() throws IOException {
+        var cache = cache(10 * FILE_SIZE);
+        try (var old = cache.get("a.parquet")) {
+            storage.version.incrementAndGet();
+            try (var fresh = cache.get("a.parquet")) {
+                assertEquals(old.path(), fresh.path());
+                assertEquals("a.parquet#1", Files.readString(fresh.path()).strip());
+            }
+        }
+        // releasing the outdated copy doesn't delete the file of the new one
+        assertEquals("a.parquet#1", Files.readString(get(cache, "a.parquet")).strip());
+        assertEquals(2, storage.downloads.get());
+        assertEquals(1, cache.count());
+    }
+
+    double count(String counter) {
+        return registry.get(counter).counter().count();
+    }
+
+    /**
+     * Objects of {@link #FILE_SIZE} bytes with the content derived from the link and the version
+     */
+    static class FakeStorage implements ObjectStorage {
+        final AtomicInteger downloads = new AtomicInteger();
+        final AtomicInteger etags = new AtomicInteger();
+        final AtomicInteger version = new AtomicInteger();
+        volatile boolean corrupt;
+        volatile CountDownLatch gate;
+
+        byte[] content(String link) {
+            var text = version.get() == 0 ? link : link + "#" + version.get();
+            return (text + " ".repeat(FILE_SIZE - text.length())).getBytes(StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public String etag(String link) {
+            etags.incrementAndGet();
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content(link)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void download(String link, String localFilePath) throws IOException {
+            if (gate != null) {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            downloads.incrementAndGet();
+            var bytes = content(link);
+            if (corrupt) {
+                bytes[FILE_SIZE - 1] = 1;
+            }
+            Files.write(Path.of(localFilePath), bytes);
+        }
+    }
+}
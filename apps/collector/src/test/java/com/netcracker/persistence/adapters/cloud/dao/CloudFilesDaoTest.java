@@ -0,0 +1,193 @@
+package com.netcracker.persistence.adapters.cloud.dao;
+
+import com.netcracker.cdt.ui.services.calls.models.CallRecord;
+import com.netcracker.common.models.DurationRange;
+import com.netcracker.common.models.TimeRange;
+import com.netcracker.profiler.model.QueryFilter;
+import com.netcracker.utils.UnitTest;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CloudFilesDaoTest {
+    // the same layout as calls written by the parquet storage library
+    static final MessageType SCHEMA = MessageTypeParser.parseMessageType("""
+            message call {
+              required int64 time;
+              required int64 cpuTime;
+              required int64 waitTime;
+              required int64 memoryUsed;
+              required int32 duration;
+              required int64 nonBlocking;
+              required int32 queueWaitDuration;
+              required int32 suspendDuration;
+              required int32 calls;
+              required int32 transactions (UINT_32);
+              required int64 logsGenerated;
+              required int64 logsWritten;
+              required int64 fileRead (UINT_64);
+              required int64 fileWritten (UINT_64);
+              required int64 netRead (UINT_64);
+              required int64 netWritten (UINT_64);
+              required binary namespace (UTF8);
+              required binary serviceName (UTF8);
+              required binary podName (UTF8);
+              required int64 restartTime;
+              required binary method (UTF8);
+              optional group params (MAP) {
+                repeated group key_value (MAP_KEY_VALUE) {
+                  required binary key (UTF8);
+                  optional group value {
+                    optional group valueList (LIST) {
+                      repeated group list {
+                        required binary element (UTF8);
+                      }
+                    }
+                  }
+                }
+              }
+              required binary index (UTF8);
+              required binary bytearray;
+            }
+            """);
+    static final long T0 = 1729780536000L;
+    static final int ROWS = 1000;
+    static final int ROWS_PER_GROUP = 100;
+
+    @TempDir
+    static java.nio.file.Path dir;
+    static String file;
+
+    @BeforeAll
+    static void writeFile() throws IOException {
+        file = dir.resolve("calls.parquet").toString();
+        var factory = new SimpleGroupFactory(SCHEMA);
+        // time grows with the row number and so do the row groups, as in the files written by the collector
+        try (var writer = ExampleParquetWriter.builder(new Path(file))
+                .withType(SCHEMA)
+                .withRowGroupSize(ROWS_PER_GROUP * 1024L)
+                .build()) {
+            for (int i = 0; i < ROWS; i++) {
+                writer.write(call(factory, i));
+            }
+        }
+    }
+
+    static Group call(SimpleGroupFactory factory, int i) {
+        var g = factory.newGroup()
+                .append("time", T0 + i * 1000L)
+                .append("cpuTime", 10L)
+                .append("waitTime", 0L)
+                .append("memoryUsed", 100L)
+                .append("duration", i % 10 == 0 ? 5000 : 10)
+                .append("nonBlocking", 0L)
+                .append("queueWaitDuration", 0)
+                .append("suspendDuration", 0)
+                .append("calls", 1)
+                .append("transactions", 0)
+                .append("logsGenerated", 0L)
+                .append("logsWritten", 0L)
+                .append("fileRead", 0L)
+                .append("fileWritten", 0L)
+                .append("netRead", 0L)
+                .append("netWritten", 0L)
+                .append("namespace", "ns")
+                .append("serviceName", "service")
+                .append("podName", "service-pod")
+                .append("restartTime", T0)
+                .append("method", "method-" + i)
+                .append("index", "1_" + i + "_0")
+                .append("bytearray", "trace bytes " + "x".repeat(1000));
+        var entry = g.addGroup("params").addGroup("key_value");
+        entry.append("key", "thread");
+        entry.addGroup("value").addGroup("valueList").addGroup("list").append("element", i % 2 == 0 ? "main" : "worker");
+        return g;
+    }
+
+    @Test
+    void fileHasSeveralRowGroups() throws IOException {
+        try (var reader = ParquetFileReader.open(HadoopInputFile.fromPath(new Path(file), new Configuration()))) {
+            assertTrue(reader.getRowGroups().size() > 1);
+        }
+    }
+
+    @Test
+    void filtersByTimeAndDuration() throws IOException {
+        var dao = new CloudFilesDao();
+        var range = TimeRange.ofEpochMilli(T0 + 100_000, T0 + 199_000);
+        var res = dao.getCalls(List.of(), "", range, DurationRange.ofMillis(1000, 10000), file);
+
+        assertEquals(ROWS, res.parsedCalls());
+        assertEquals(10, res.fetchedCalls());
+        for (CallRecord call : res.calls()) {
+            assertTrue(call.time() >= T0 + 100_000 && call.time() <= T0 + 199_000, "time " + call.time());
+            assertEquals(5000, call.duration());
+            assertEquals(Map.of("thread", List.of("main")), call.params().asMap());
+        }
+        assertEquals(1, res.pods().size());
+    }
+
+    @Test
+    void paramsFilterReadsParams() throws IOException {
+        var dao = new CloudFilesDao();
+        var range = TimeRange.ofEpochMilli(T0, T0 + ROWS * 1000L);
+        var res = dao.getCalls(List.of(), "+thread worker", range, DurationRange.ofMillis(0, 10000), file);
+
+        assertEquals(ROWS / 2, res.fetchedCalls());
+        assertTrue(res.calls().stream().allMatch(c -> c.params().asMap().equals(Map.of("thread", List.of("worker")))));
+    }
+
+    @Test
+    void paramsFilterAppliesGroupsToEachCall() throws IOException {
+        var mixed = dir.resolve("mixed.parquet").toString();
+        var factory = new SimpleGroupFactory(SCHEMA);
+        try (var writer = ExampleParquetWriter.builder(new Path(mixed)).withType(SCHEMA).build()) {
+            for (int i = 0; i < 60; i++) {
+                var g = call(factory, i);
+                var entry = g.getGroup("params", 0).addGroup("key_value");
+                entry.append("key", "user");
+                entry.addGroup("value").addGroup("valueList").addGroup("list").append("element", "u" + i % 3);
+                writer.write(g);
+            }
+        }
+        var dao = new CloudFilesDao();
+        var range = TimeRange.ofEpochMilli(T0, T0 + ROWS * 1000L);
+        var res = dao.getCalls(List.of(), "+thread worker AND +user u0 OR +thread main AND -user u1",
+                range, DurationRange.ofMillis(0, 10000), mixed);
+
+        // odd calls of u0 (i % 6 == 3), even calls of u0 and u2 (i % 6 == 0 or 2)
+        assertEquals(30, res.fetchedCalls());
+        for (CallRecord call : res.calls()) {
+            int i = (int) ((call.time() - T0) / 1000);
+            assertTrue(i % 6 == 3 || i % 6 == 0 || i % 6 == 2, "call " + i);
+            assertEquals(List.of("u" + i % 3), call.params().asMap().get("user"));
+        }
+    }
+
+    @Test
+    void callMatchesAnyGroupWithAllItsTerms() {
+        var groups = QueryFilter.parseQueryFilter("+a 1 2 AND -b 3 OR +c 4").get_groups();
+
+        assertTrue(CloudFilesDao.matches(groups, Map.of("a", List.of("2"))));
+        assertTrue(CloudFilesDao.matches(groups, Map.of("a", List.of("1"), "b", List.of("5"))));
+        assertFalse(CloudFilesDao.matches(groups, Map.of("a", List.of("1"), "b", List.of("3"))));
+        assertTrue(CloudFilesDao.matches(groups, Map.of("a", List.of("1"), "b", List.of("3"), "c", List.of("4"))));
+        assertFalse(CloudFilesDao.matches(groups, Map.of("b", List.of("5"))));
+    }
+}
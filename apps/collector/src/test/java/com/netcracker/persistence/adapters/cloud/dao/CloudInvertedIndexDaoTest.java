@@ -0,0 +1,183 @@
+package com.netcracker.persistence.adapters.cloud.dao;
+
+import com.netcracker.common.models.TimeRange;
+import com.netcracker.persistence.adapters.cloud.CloudConnection;
+import com.netcracker.persistence.adapters.cloud.CloudConnectionPool;
+import com.netcracker.persistence.adapters.cloud.CloudDataSource;
+import com.netcracker.profiler.model.QueryFilter;
+import com.netcracker.utils.UnitTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static com.netcracker.persistence.adapters.cloud.dao.CloudInvertedIndexDao.combine;
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CloudInvertedIndexDaoTest {
+    static final UUID F1 = UUID.randomUUID();
+    static final UUID F2 = UUID.randomUUID();
+    static final UUID F3 = UUID.randomUUID();
+    static final Pattern TABLE = Pattern.compile("FROM (\\w+)");
+
+    static Set<UUID> lookup(String filter, Map<String, Set<UUID>> index) {
+        var groups = QueryFilter.parseQueryFilter(filter).get_groups();
+        var found = new HashMap<QueryFilter.Term, Set<UUID>>();
+        groups.stream().flatMap(List::stream)
+                .filter(t -> t.include() && index.containsKey(t.key()))
+                .forEach(t -> found.put(t, index.get(t.key())));
+        return combine(groups, found);
+    }
+
+    @Test
+    void andIntersectsFiles() {
+        var index = Map.of("a", Set.of(F1, F2), "b", Set.of(F2, F3));
+        assertEquals(Set.of(F2), lookup("+a 1 AND +b 2", index));
+        assertEquals(Set.of(F2), lookup("+a 1 +b 2", index));
+    }
+
+    @Test
+    void orUnitesFiles() {
+        var index = Map.of("a", Set.of(F1), "b", Set.of(F3));
+        assertEquals(Set.of(F1, F3), lookup("+a 1 OR +b 2", index));
+        assertEquals(Set.of(), lookup("+a 1 AND +b 2", index));
+    }
+
+    @Test
+    void andBindsTighterThanOr() {
+        var index = Map.of("a", Set.of(F1, F2), "b", Set.of(F2), "c", Set.of(F3));
+        assertEquals(Set.of(F2, F3), lookup("+a 1 AND +b 2 OR +c 3", index));
+    }
+
+    @Test
+    void excludedConditionsDoNotNarrow() {
+        var index = Map.of("a", Set.of(F1, F2), "b", Set.of(F2));
+        assertEquals(Set.of(F1, F2), lookup("+a 1 AND -b 2", index));
+        assertEquals(Set.of(F1, F2), lookup("+a 1 AND NOT +b 2", index));
+    }
+
+    @Test
+    void notIndexedConditionsMatchAnyFile() {
+        var index = Map.of("a", Set.of(F1));
+        assertEquals(Set.of(F1), lookup("+a 1 AND +other 2", index));
+        assertNull(lookup("+a 1 OR +other 2", index));
+        assertNull(lookup("-a 1", index));
+        assertNull(lookup("", index));
+    }
+
+    @Test
+    void probesTablesOfEveryIncludedCondition() throws Exception {
+        // table -> value -> files
+        var tables = Map.of(
+                "i_a_1", Map.of("1", Set.of(F1)),
+                "i_a_2", Map.of("1", Set.of(F2), "2", Set.of(F3)),
+                "i_a_3", Map.of("3", Set.of(F3)),
+                "i_b_1", Map.of("x", Set.of(F2, F3)));
+        var queries = new AtomicInteger();
+        var dao = dao(tables, queries);
+        dao.init();
+        try {
+            var range = TimeRange.ofEpochMilli(0, 1000);
+            assertEquals(Set.of(F1, F2), dao.getS3FileIds("+a 1", range));
+            assertEquals(Set.of(F1, F2, F3), dao.getS3FileIds("+a 1 +a 3", range));
+            assertEquals(Set.of(F2), dao.getS3FileIds("+a 1 AND +b x", range));
+            assertEquals(Set.of(F2, F3), dao.getS3FileIds("+a 3 OR +b x", range));
+            assertNull(dao.getS3FileIds("+a 1 OR +other 2", range));
+        } finally {
+            dao.shutdown();
+        }
+        assertTrue(queries.get() > 0);
+    }
+
+    private static CloudInvertedIndexDao dao(Map<String, Map<String, Set<UUID>>> tables, AtomicInteger queries) {
+        var pool = new CloudConnectionPool("test", () -> connection(tables, queries), 2,
+                Duration.ofSeconds(1), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        var dao = new CloudInvertedIndexDao() {
+            @Override
+            public List<String> getInvertedIndexTables(String invertedIndex, TimeRange range) {
+                return tables.keySet().stream().filter(t -> t.startsWith("i_" + invertedIndex + "_")).sorted().toList();
+            }
+        };
+        dao.dataSource = new CloudDataSource() {
+            @Override
+            public CloudConnection query() throws SQLException {
+                return pool.acquire();
+            }
+        };
+        dao.parallelism = 2;
+        dao.tablesPerQuery = 2;
+        return dao;
+    }
+
+    private static Connection connection(Map<String, Map<String, Set<UUID>>> tables, AtomicInteger queries) {
+        return proxy(Connection.class, (method, args) -> switch (method) {
+            case "isValid" -> true;
+            case "isClosed" -> false;
+            case "createArrayOf" -> proxy(Array.class, (m, a) -> m.equals("getArray") ? args[1] : null);
+            case "prepareStatement" -> statement((String) args[0], tables, queries);
+            default -> null;
+        });
+    }
+
+    private static PreparedStatement statement(String sql, Map<String, Map<String, Set<UUID>>> tables,
+                                               AtomicInteger queries) {
+        var values = new ArrayList<String>();
+        return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+            case "setArray" -> {
+                for (Object v : (Object[]) ((Array) args[1]).getArray()) {
+                    values.add((String) v);
+                }
+                yield null;
+            }
+            case "executeQuery" -> {
+                queries.incrementAndGet();
+                var files = new ArrayList<UUID>();
+                var matcher = TABLE.matcher(sql);
+                while (matcher.find()) {
+                    var index = tables.get(matcher.group(1));
+                    values.forEach(v -> files.addAll(index.getOrDefault(v, Set.of())));
+                }
+                yield resultSet(files.iterator());
+            }
+            default -> null;
+        });
+    }
+
+    private static ResultSet resultSet(Iterator<UUID> files) {
+        var current = new UUID[1];
+        return proxy(ResultSet.class, (method, args) -> switch (method) {
+            case "next" -> {
+                current[0] = files.hasNext() ? files.next() : null;
+                yield current[0] != null;
+            }
+            case "getString" -> current[0].toString();
+            default -> null;
+        });
+    }
+
+    interface Handler {
+        Object invoke(String method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(CloudInvertedIndexDaoTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.invoke(method.getName(), args));
+    }
+}
@@ -0,0 +1,19 @@
+package com.netcracker.persistence.adapters.cloud.dao;
+
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import static com.netcracker.persistence.adapters.cloud.dao.CloudPodStatisticsDao.insertStatement;
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CloudPodStatisticsDaoTest {
+
+    @Test
+    void insertsManyRowsWithOneStatement() {
+        var sql = insertStatement(3);
+        assertEquals(21, sql.chars().filter(c -> c == '?').count());
+        assertTrue(sql.contains("(?, ?, ?, ?, ?, ?::JSONB, ?::JSONB), (?, ?, ?, ?, ?, ?::JSONB, ?::JSONB), ("));
+        assertTrue(sql.contains("ON CONFLICT (date, pod_name, restart_time, cur_time)"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.netcracker.persistence.adapters.cloud.dao;
+
+import com.netcracker.common.models.SuspendRange;
+import com.netcracker.common.models.meta.SuspendHickup;
+import com.netcracker.common.models.pod.PodIdRestart;
+import com.netcracker.persistence.adapters.cloud.cdt.CloudSuspendEntity;
+import com.netcracker.utils.UnitTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@UnitTest
+class CloudSuspendDaoTest {
+    static final PodIdRestart POD = PodIdRestart.of("ns", "service", "pod-1_1700000000000");
+    static final Instant T = Instant.parse("2024-03-01T10:00:00Z");
+
+    static SuspendHickup hiccup(long ms, int delay) {
+        return new SuspendHickup(POD, T.plusMillis(ms), delay);
+    }
+
+    @Test
+    void groupsHiccupsByMinute() {
+        var rows = CloudSuspendEntity.prepare(List.of(
+                hiccup(1_500, 20), hiccup(59_999, 7), hiccup(60_000, 300), hiccup(1_500, 30)));
+
+        assertEquals(2, rows.size());
+        var first = rows.get(0);
+        assertEquals(T, first.curTime());
+        assertEquals(Instant.parse("2024-03-01T00:00:00Z"), first.date());
+        assertEquals(POD.oldPodName(), first.podId());
+        assertEquals(Map.of(1_500, 30, 59_999, 7), first.suspendTime());
+        assertEquals(T.plusSeconds(60), rows.get(1).curTime());
+        assertEquals(Map.of(0, 300), rows.get(1).suspendTime());
+    }
+
+    @Test
+    void findsHiccupsOverlappingRange() {
+        long minute = T.toEpochMilli();
+        long from = minute + 10_000;
+        long to = minute + 20_000;
+        var found = new TreeMap<Long, Integer>();
+        CloudSuspendDao.addHiccups(minute, Map.of(9_000, 100, 10_050, 100, 15_000, 10, 20_500, 600, 21_000, 500), from, to, found);
+        // the same minute stored in another table
+        CloudSuspendDao.addHiccups(minute, Map.of(15_000, 10), from, to, found);
+
+        assertEquals(Map.of(from + 50, 100, from + 5_000, 10, to + 500, 600), found);
+
+        var range = new SuspendRange();
+        found.forEach(range::add);
+        assertEquals(50 + 10 + 100, range.getSuspendDuration(from, to));
+    }
+
+    @Test
+    void upsertsAllRowsOfBatch() {
+        var sql = CloudSuspendDao.insertStatement(1709287200L, 2);
+        assertTrue(sql.startsWith("INSERT INTO suspend_1709287200 AS s("), sql);
+        assertTrue(sql.contains("VALUES (?, ?, ?, ?, ?, ?::JSONB), (?, ?, ?, ?, ?, ?::JSONB)\n"), sql);
+        assertTrue(sql.contains("SET suspend_time = s.suspend_time || EXCLUDED.suspend_time"), sql);
+    }
+
+    @Test
+    void readsAllTablesInOneQuery() {
+        var sql = CloudSuspendDao.findStatement(List.of("suspend_1709287200", "suspend_1709287500"));
+        assertTrue(sql.startsWith("SELECT cur_time, suspend_time FROM suspend_1709287200\n"), sql);
+        assertTrue(sql.contains("UNION ALL\nSELECT cur_time, suspend_time FROM suspend_1709287500\n"), sql);
+        assertEquals(10, sql.chars().filter(c -> c == '?').count());
+    }
+}
@@ -73,6 +73,18 @@ void testMultipleValuesForSameKey() {
 
         assertTrue(included.containsKey("trace.id"));
         assertEquals(List.of("x1", "x2"), included.get("trace.id"));
+        assertEquals(List.of(List.of(new QueryFilter.Term("trace.id", List.of("x1", "x2"), true))),
+                result.get_groups());
+    }
+
+    @Test
+    void testExplicitAndKeepsConditionsOnSameKey() {
+        QueryFilter result = QueryFilter.parseQueryFilter("+trace.id \"x1\" AND +trace.id \"x2\"");
+
+        assertEquals(List.of(List.of(
+                new QueryFilter.Term("trace.id", List.of("x1"), true),
+                new QueryFilter.Term("trace.id", List.of("x2"), true)
+        )), result.get_groups());
     }
 
     @Test
@@ -87,4 +99,24 @@ void testToStringFormat() {
         String expected = "QueryFilter{included={request.id=[abc]}, excluded={jms.replyto=[reply1]}}";
         assertEquals(expected, result.toString());
     }
+
+    @Test
+    void testGroupsSplitByOr() {
+        QueryFilter result = QueryFilter.parseQueryFilter(
+                "+request.id \"a\" AND -trace.id \"b\" OR NOT -span.id \"c\" \"d\"");
+
+        assertEquals(List.of(
+                List.of(new QueryFilter.Term("request.id", List.of("a"), true),
+                        new QueryFilter.Term("trace.id", List.of("b"), false)),
+                List.of(new QueryFilter.Term("span.id", List.of("c", "d"), true))
+        ), result.get_groups());
+    }
+
+    @Test
+    void testTermsWithoutOperatorAreSingleGroup() {
+        QueryFilter result = QueryFilter.parseQueryFilter("+trace.id \"x1\" +span.id \"x2\"");
+        assertEquals(1, result.get_groups().size());
+        assertEquals(2, result.get_groups().getFirst().size());
+        assertTrue(QueryFilter.parseQueryFilter("").get_groups().isEmpty());
+    }
 }
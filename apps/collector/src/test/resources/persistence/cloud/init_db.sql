@@ -3,7 +3,9 @@
 CREATE TYPE table_type AS ENUM (
     'calls',
     'traces',
-    'dumps'
+    'dumps',
+    'suspend',
+    'inverted_index'
 );
 
 CREATE TYPE table_status AS ENUM (